@@ -1,10 +1,21 @@
 package com.dubbi.statetrail.common.storage;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -14,20 +25,47 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class ObjectStorageService {
+    private static final int PRESIGN_EXPIRY_SECONDS = 60 * 60;
+    // 캐시에서 꺼낸 URL도 클라이언트가 쓸 시간이 남도록 만료 직전까지는 캐시하지 않음
+    private static final int MIN_REMAINING_VALIDITY_SECONDS = 5 * 60;
+
     private final MinioClient minioClient;
     private final String bucketName;
+    private final PresignedUrlCache presignedUrlCache;
+    private final Counter presignCacheHits;
+    private final Counter presignCacheMisses;
+    private final Timer presignTimer;
 
     public ObjectStorageService(
             @Value("${storage.minio.endpoint:http://localhost:9000}") String endpoint,
             @Value("${storage.minio.access-key:minioadmin}") String accessKey,
             @Value("${storage.minio.secret-key:minioadmin}") String secretKey,
-            @Value("${storage.minio.bucket:statetrail}") String bucketName
+            @Value("${storage.minio.bucket:statetrail}") String bucketName,
+            @Value("${storage.presign.cache-ttl-seconds:3000}") int cacheTtlSeconds,
+            @Value("${storage.presign.cache-max-entries:200000}") int cacheMaxEntries,
+            MeterRegistry meterRegistry
     ) {
         this.minioClient = MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
                 .build();
         this.bucketName = bucketName;
+        int ttlSeconds = Math.max(0, Math.min(cacheTtlSeconds, PRESIGN_EXPIRY_SECONDS - MIN_REMAINING_VALIDITY_SECONDS));
+        this.presignedUrlCache = new PresignedUrlCache(Duration.ofSeconds(ttlSeconds), cacheMaxEntries);
+        this.presignCacheHits = Counter.builder("storage.presign.cache")
+                .description("Presigned URL cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.presignCacheMisses = Counter.builder("storage.presign.cache")
+                .description("Presigned URL cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.presignTimer = Timer.builder("storage.presign.sign")
+                .description("Time spent signing presigned URLs on cache miss")
+                .register(meterRegistry);
+        Gauge.builder("storage.presign.cache.size", presignedUrlCache, PresignedUrlCache::size)
+                .description("Cached presigned URLs")
+                .register(meterRegistry);
         ensureBucketExists();
     }
 
@@ -116,17 +154,70 @@ public class ObjectStorageService {
 
     /**
      * Presigned URL 생성 (읽기 전용, 1시간 유효)
+     * 같은 objectKey는 storage.presign.cache-ttl-seconds 동안 캐시된 URL을 재사용
      */
     public String getPresignedUrl(String objectKey) {
+        String cached = presignedUrlCache.getIfFresh(objectKey);
+        if (cached != null) {
+            presignCacheHits.increment();
+            return cached;
+        }
+        presignCacheMisses.increment();
+        String url = sign(objectKey);
+        presignedUrlCache.put(objectKey, url);
+        return url;
+    }
+
+    /**
+     * 여러 objectKey의 presigned URL을 한 번에 생성 (그래프 응답용)
+     * 캐시에 없는 키만 병렬로 서명하고, 서명에 실패한 키는 결과에서 빠진다.
+     *
+     * @return objectKey → presigned URL
+     */
+    public Map<String, String> getPresignedUrls(Collection<String> objectKeys) {
+        Map<String, String> result = new HashMap<>();
+        List<String> misses = objectKeys.stream()
+                .filter(key -> key != null)
+                .distinct()
+                .filter(key -> {
+                    String cached = presignedUrlCache.getIfFresh(key);
+                    if (cached == null) return true;
+                    result.put(key, cached);
+                    return false;
+                })
+                .toList();
+        presignCacheHits.increment(result.size());
+        presignCacheMisses.increment(misses.size());
+        if (misses.isEmpty()) return result;
+
+        // 서명은 CPU 작업(HMAC)이므로 common pool에서 병렬 처리
+        Map<String, String> signed = new ConcurrentHashMap<>();
+        misses.parallelStream().forEach(key -> {
+            try {
+                String url = sign(key);
+                presignedUrlCache.put(key, url);
+                signed.put(key, url);
+            } catch (RuntimeException e) {
+                // ignore presigned URL generation errors
+            }
+        });
+        result.putAll(signed);
+        return result;
+    }
+
+    private String sign(String objectKey) {
+        long start = System.nanoTime();
         try {
             return minioClient.getPresignedObjectUrl(io.minio.GetPresignedObjectUrlArgs.builder()
                     .method(io.minio.http.Method.GET)
                     .bucket(bucketName)
                     .object(objectKey)
-                    .expiry(60 * 60) // 1 hour
+                    .expiry(PRESIGN_EXPIRY_SECONDS)
                     .build());
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate presigned URL: " + e.getMessage(), e);
+        } finally {
+            presignTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 }
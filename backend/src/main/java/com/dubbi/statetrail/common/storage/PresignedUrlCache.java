@@ -0,0 +1,52 @@
+package com.dubbi.statetrail.common.storage;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * objectKey → presigned URL TTL 캐시
+ *
+ * TTL은 presign 만료보다 짧게 잡아, 캐시에서 꺼낸 URL도 최소 (만료 - TTL)만큼은 유효하다.
+ * 항목 수가 maxEntries를 넘으면 만료된 항목을 정리하고, 그래도 가득 차 있으면 새 URL은 캐시하지 않는다.
+ */
+final class PresignedUrlCache {
+    private record Entry(String url, long expiresAtNanos) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    PresignedUrlCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * 유효한 캐시 항목이 있으면 반환, 없으면 null
+     */
+    String getIfFresh(String objectKey) {
+        Entry e = entries.get(objectKey);
+        if (e == null) return null;
+        if (e.expiresAtNanos() - System.nanoTime() > 0) return e.url();
+        entries.remove(objectKey, e);
+        return null;
+    }
+
+    void put(String objectKey, String url) {
+        if (ttlNanos <= 0 || maxEntries == 0) return;
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            if (entries.size() >= maxEntries) return;
+        }
+        entries.put(objectKey, new Entry(url, System.nanoTime() + ttlNanos));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+    }
+}
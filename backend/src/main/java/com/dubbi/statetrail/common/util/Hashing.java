@@ -17,6 +17,30 @@ public final class Hashing {
             throw new IllegalStateException("sha256 failed", e);
         }
     }
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * 문자열의 64-bit 지문 (xxHash64 방식 혼합, 암호학적 해시 아님)
+     * 대규모 dedup용: N개 URL에서 충돌 확률은 약 N^2 / 2^65
+     */
+    public static long fingerprint64(CharSequence input) {
+        int len = input.length();
+        long h = P5 + len;
+        for (int i = 0; i < len; i++) {
+            h ^= input.charAt(i) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
 }
 
 
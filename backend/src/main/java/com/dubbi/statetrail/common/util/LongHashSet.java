@@ -0,0 +1,82 @@
+package com.dubbi.statetrail.common.util;
+
+/**
+ * long primitive open-addressing 해시셋 (linear probing, 삭제 미지원)
+ * thread-safe하지 않음.
+ */
+public final class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+
+    public LongHashSet(int expectedSize) {
+        allocate(LongIntHashMap.tableSizeFor(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR))));
+    }
+
+    /**
+     * @return 새로 추가했으면 true, 이미 있었으면 false
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (hasZeroKey) return false;
+            hasZeroKey = true;
+            size++;
+            return true;
+        }
+        int slot = LongIntHashMap.mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                keys[slot] = key;
+                if (++size >= resizeAt) rehash(keys.length << 1);
+                return true;
+            }
+            if (k == key) return false;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) return hasZeroKey;
+        int slot = LongIntHashMap.mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) return false;
+            if (k == key) return true;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 테이블이 차지하는 대략적인 heap 바이트 수
+     */
+    public long estimatedBytes() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        for (long k : oldKeys) {
+            if (k == EMPTY) continue;
+            int slot = LongIntHashMap.mix(k) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,137 @@
+package com.dubbi.statetrail.common.util;
+
+/**
+ * long → int primitive open-addressing 해시맵 (linear probing, 삭제 미지원)
+ * 박싱/엔트리 객체 없이 키 8바이트 + 값 4바이트만 사용한다. thread-safe하지 않음.
+ */
+public final class LongIntHashMap {
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    // 키 0은 빈 슬롯 표시로 쓰므로 따로 보관
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)));
+        allocate(capacity);
+    }
+
+    /**
+     * @return 키에 매핑된 값, 없으면 missing
+     */
+    public int get(long key, int missing) {
+        if (key == EMPTY) return hasZeroKey ? zeroValue : missing;
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) return missing;
+            if (k == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 키가 없을 때만 값을 넣음
+     *
+     * @return 기존 값, 새로 넣었으면 missing
+     */
+    public int putIfAbsent(long key, int value, int missing) {
+        if (key == EMPTY) {
+            if (hasZeroKey) return zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            size++;
+            return missing;
+        }
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size >= resizeAt) rehash(keys.length << 1);
+                return missing;
+            }
+            if (k == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 키의 값에 delta를 더함 (없으면 0에서 시작)
+     *
+     * @return 더한 뒤의 값
+     */
+    public int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                zeroValue = 0;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) {
+                keys[slot] = key;
+                values[slot] = delta;
+                if (++size >= resizeAt) rehash(keys.length << 1);
+                return delta;
+            }
+            if (k == key) return values[slot] += delta;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 테이블이 차지하는 대략적인 heap 바이트 수
+     */
+    public long estimatedBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int slot = mix(k) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(1, n - 1)) << 1;
+        if (capacity <= 0) throw new IllegalStateException("hash table too large: " + n);
+        return capacity;
+    }
+}
@@ -0,0 +1,122 @@
+package com.dubbi.statetrail.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 64-bit 지문을 원소로 하는 scalable Bloom filter (Almeida et al.)
+ *
+ * 현재 단계가 용량에 차면 용량 2배, 목표 오탐률 절반인 단계를 추가하므로
+ * 원소 수를 미리 몰라도 전체 오탐률이 initialFpp / (1 - 0.5) 이하로 유지된다.
+ * thread-safe하지 않음.
+ */
+public final class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final double LN2 = Math.log(2);
+
+    private final List<Stage> stages = new ArrayList<>();
+    private long size;
+
+    public ScalableBloomFilter(int initialCapacity, double initialFpp) {
+        if (initialFpp <= 0 || initialFpp >= 1) throw new IllegalArgumentException("fpp must be in (0, 1): " + initialFpp);
+        stages.add(new Stage(Math.max(64, initialCapacity), initialFpp));
+    }
+
+    public void add(long fingerprint) {
+        Stage current = stages.get(stages.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Stage(current.capacity * GROWTH, current.targetFpp * TIGHTENING_RATIO);
+            stages.add(current);
+        }
+        current.add(fingerprint);
+        size++;
+    }
+
+    /**
+     * @return 추가된 적이 없으면 항상 false, 추가된 적이 있으면 true (오탐 가능)
+     */
+    public boolean mightContain(long fingerprint) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(fingerprint)) return true;
+        }
+        return false;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int stageCount() {
+        return stages.size();
+    }
+
+    /**
+     * 현재 채워진 정도 기준의 추정 오탐률
+     */
+    public double expectedFpp() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1.0 - stage.currentFpp();
+        }
+        return 1.0 - allNegative;
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) bytes += (long) stage.bits.length * Long.BYTES;
+        return bytes;
+    }
+
+    private static final class Stage {
+        final long capacity;
+        final double targetFpp;
+        final long[] bits;
+        final long bitCount;
+        final int hashCount;
+        long count;
+
+        Stage(long capacity, double targetFpp) {
+            this.capacity = capacity;
+            this.targetFpp = targetFpp;
+            long m = (long) Math.ceil(-capacity * Math.log(targetFpp) / (LN2 * LN2));
+            this.bits = new long[(int) Math.max(1, (m + 63) >>> 6)];
+            this.bitCount = (long) bits.length << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        void add(long fingerprint) {
+            long h1 = fingerprint;
+            long h2 = secondHash(fingerprint);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            count++;
+        }
+
+        boolean mightContain(long fingerprint) {
+            long h1 = fingerprint;
+            long h2 = secondHash(fingerprint);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        double currentFpp() {
+            return Math.pow(1.0 - Math.exp(-(double) hashCount * count / bitCount), hashCount);
+        }
+
+        // Kirsch–Mitzenmacher double hashing용 두 번째 해시 (홀수로 만들어 주기 확보)
+        private static long secondHash(long x) {
+            x ^= x >>> 31;
+            x *= 0x7FB5D329728EA185L;
+            x ^= x >>> 27;
+            x *= 0x81DADEF4BC2DD44DL;
+            x ^= x >>> 33;
+            return x | 1L;
+        }
+    }
+}
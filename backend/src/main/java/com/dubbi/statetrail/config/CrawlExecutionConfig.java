@@ -0,0 +1,29 @@
+package com.dubbi.statetrail.config;
+
+import com.dubbi.statetrail.crawl.service.CrawlExecution;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CrawlExecutionConfig {
+    /**
+     * WebCrawlerService.start(@Async)를 실행하는 executor
+     * virtual-threads 모드면 run마다 virtual thread 하나, 아니면 고정 크기 platform thread 풀
+     */
+    @Bean(name = "crawlRunExecutor")
+    public TaskExecutor crawlRunExecutor(CrawlExecution crawlExecution) {
+        if (crawlExecution.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("crawl-run-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setThreadNamePrefix("crawl-run-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -22,10 +24,27 @@ public class CrawlRunEventsController {
         this.eventHub = eventHub;
     }
 
+    /**
+     * 재접속 시 EventSource가 보내는 Last-Event-ID(또는 lastEventId 쿼리) 이후 이벤트만 재전송
+     */
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public ResponseEntity<SseEmitter> subscribe(@PathVariable UUID runId) {
+    public ResponseEntity<SseEmitter> subscribe(
+            @PathVariable UUID runId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam
+    ) {
         if (crawlRunRepository.findById(runId).isEmpty()) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(eventHub.subscribe(runId));
+        Long lastEventId = parseEventId(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+        return ResponseEntity.ok(eventHub.subscribe(runId, lastEventId));
+    }
+
+    private static Long parseEventId(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
 
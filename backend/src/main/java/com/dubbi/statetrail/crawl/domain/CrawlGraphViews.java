@@ -0,0 +1,74 @@
+package com.dubbi.statetrail.crawl.domain;
+
+import com.dubbi.statetrail.crawl.web.ActionType;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 그래프 조회용 읽기 모델 (필요한 컬럼만 select, html_snapshot은 읽지 않음)
+ */
+public final class CrawlGraphViews {
+    private CrawlGraphViews() {}
+
+    /**
+     * 그래프 화면의 노드
+     */
+    public record PageNodeView(
+            UUID id,
+            String nodeKey,
+            String url,
+            String urlPattern,
+            String title,
+            Integer httpStatus,
+            String contentType,
+            int depth,
+            String screenshotObjectKey,
+            String networkLogObjectKey,
+            Map<String, Object> uiSignatureSummary,
+            Map<String, Object> riskTags,
+            Double pageRank,
+            Double betweenness,
+            Integer inDegree
+    ) {
+        /**
+         * 중심성 점수가 저장되어 있는지 (run 완료 후 계산됨)
+         */
+        public boolean hasCentrality() {
+            return pageRank != null && betweenness != null && inDegree != null;
+        }
+    }
+
+    /**
+     * 그래프 화면의 엣지
+     */
+    public record LinkEdgeView(
+            UUID id,
+            UUID fromPageId,
+            UUID toPageId,
+            ActionType actionType,
+            String locator,
+            String anchorText,
+            Map<String, Object> riskTags
+    ) {}
+
+    /**
+     * 인스펙터 노드 상세 (HTML은 앞부분 snippet과 전체 길이만 DB에서 계산해서 가져옴)
+     */
+    public record PageDetailView(
+            UUID id,
+            String nodeKey,
+            String url,
+            String title,
+            Integer httpStatus,
+            String contentType,
+            int depth,
+            Instant discoveredAt,
+            Instant fetchedAt,
+            Integer htmlSize,
+            String htmlSnippet,
+            String screenshotObjectKey,
+            String networkLogObjectKey,
+            Map<String, Object> uiSignature
+    ) {}
+}
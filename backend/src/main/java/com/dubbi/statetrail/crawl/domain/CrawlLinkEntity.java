@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -20,7 +21,9 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Table(
         name = "crawl_links",
-        uniqueConstraints = @UniqueConstraint(name = "uq_crawl_links_run_from_to", columnNames = {"crawl_run_id", "from_page_id", "to_page_id"})
+        uniqueConstraints = @UniqueConstraint(name = "uq_crawl_links_run_from_to", columnNames = {"crawl_run_id", "from_page_id", "to_page_id"}),
+        // 그래프 스트리밍 keyset 조회용
+        indexes = @Index(name = "idx_crawl_links_run_created", columnList = "crawl_run_id, created_at, id")
 )
 public class CrawlLinkEntity {
     @Id
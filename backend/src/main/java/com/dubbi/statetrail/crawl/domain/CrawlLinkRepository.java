@@ -1,5 +1,6 @@
 package com.dubbi.statetrail.crawl.domain;
 
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.LinkEdgeView;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,11 @@ import org.springframework.data.repository.query.Param;
 public interface CrawlLinkRepository extends JpaRepository<CrawlLinkEntity, UUID> {
     @Query("select e from CrawlLinkEntity e where e.crawlRun.id = :runId order by e.createdAt asc")
     List<CrawlLinkEntity> findByRunId(@Param("runId") UUID runId);
-}
-
 
+    @Query("""
+            select new com.dubbi.statetrail.crawl.domain.CrawlGraphViews$LinkEdgeView(
+                e.id, e.fromPage.id, e.toPage.id, e.actionType, e.locator, e.anchorText, e.riskTags)
+            from CrawlLinkEntity e where e.crawlRun.id = :runId order by e.createdAt asc
+            """)
+    List<LinkEdgeView> findEdgeViewsByRunId(@Param("runId") UUID runId);
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +18,9 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Table(
         name = "crawl_pages",
-        uniqueConstraints = @UniqueConstraint(name = "uq_crawl_pages_run_url", columnNames = {"crawl_run_id", "url"})
+        uniqueConstraints = @UniqueConstraint(name = "uq_crawl_pages_run_url", columnNames = {"crawl_run_id", "url"}),
+        // 그래프 스트리밍 keyset 조회용
+        indexes = @Index(name = "idx_crawl_pages_run_discovered", columnList = "crawl_run_id, discovered_at, id")
 )
 public class CrawlPageEntity {
     @Id
@@ -68,6 +71,25 @@ public class CrawlPageEntity {
     @Column(name = "ui_signature", columnDefinition = "jsonb")
     private Map<String, Object> uiSignature;
 
+    // ui_signature에서 저장 시점에 미리 계산한 그래프용 요약/리스크 태그 (UiSignatureSummary)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "ui_signature_summary", columnDefinition = "jsonb")
+    private Map<String, Object> uiSignatureSummary;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "risk_tags", columnDefinition = "jsonb")
+    private Map<String, Object> riskTags;
+
+    // run 완료 후 GraphAnalyticsService가 계산하는 중심성 점수 (smoke 타겟 선택용)
+    @Column(name = "page_rank")
+    private Double pageRank;
+
+    @Column(name = "betweenness")
+    private Double betweenness;
+
+    @Column(name = "in_degree")
+    private Integer inDegree;
+
     protected CrawlPageEntity() {}
 
     public CrawlPageEntity(UUID id, CrawlRunEntity crawlRun, String nodeKey, String url, int depth) {
@@ -155,6 +177,26 @@ public class CrawlPageEntity {
         this.uiSignature = uiSignature;
     }
 
+    public Map<String, Object> getUiSignatureSummary() {
+        return uiSignatureSummary;
+    }
+
+    public Map<String, Object> getRiskTags() {
+        return riskTags;
+    }
+
+    public Double getPageRank() {
+        return pageRank;
+    }
+
+    public Double getBetweenness() {
+        return betweenness;
+    }
+
+    public Integer getInDegree() {
+        return inDegree;
+    }
+
     public void markFetched(Integer httpStatus, String contentType, String title, String htmlSnapshot) {
         this.httpStatus = httpStatus;
         this.contentType = contentType;
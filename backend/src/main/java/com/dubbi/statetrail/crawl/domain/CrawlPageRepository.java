@@ -1,5 +1,7 @@
 package com.dubbi.statetrail.crawl.domain;
 
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageDetailView;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +15,31 @@ public interface CrawlPageRepository extends JpaRepository<CrawlPageEntity, UUID
 
     @Query("select p from CrawlPageEntity p where p.crawlRun.id = :runId and p.url = :url")
     Optional<CrawlPageEntity> findByRunIdAndUrl(@Param("runId") UUID runId, @Param("url") String url);
-}
 
+    @Query("""
+            select new com.dubbi.statetrail.crawl.domain.CrawlGraphViews$PageNodeView(
+                p.id, p.nodeKey, p.url, p.urlPattern, p.title, p.httpStatus, p.contentType, p.depth,
+                p.screenshotObjectKey, p.networkLogObjectKey, p.uiSignatureSummary, p.riskTags,
+                p.pageRank, p.betweenness, p.inDegree)
+            from CrawlPageEntity p where p.crawlRun.id = :runId order by p.discoveredAt asc
+            """)
+    List<PageNodeView> findNodeViewsByRunId(@Param("runId") UUID runId);
+
+    /**
+     * html_snapshot 전체 대신 길이와 앞 8000자만 DB에서 잘라서 가져옴
+     */
+    @Query("""
+            select new com.dubbi.statetrail.crawl.domain.CrawlGraphViews$PageDetailView(
+                p.id, p.nodeKey, p.url, p.title, p.httpStatus, p.contentType, p.depth, p.discoveredAt, p.fetchedAt,
+                length(p.htmlSnapshot), substring(p.htmlSnapshot, 1, 8000),
+                p.screenshotObjectKey, p.networkLogObjectKey, p.uiSignature)
+            from CrawlPageEntity p where p.id = :nodeId and p.crawlRun.id = :runId
+            """)
+    Optional<PageDetailView> findDetailView(@Param("runId") UUID runId, @Param("nodeId") UUID nodeId);
 
+    @Query("select p.htmlSnapshot from CrawlPageEntity p where p.id = :nodeId and p.crawlRun.id = :runId")
+    Optional<String> findHtmlSnapshot(@Param("runId") UUID runId, @Param("nodeId") UUID nodeId);
+
+    @Query("select count(p) > 0 from CrawlPageEntity p where p.id = :nodeId and p.crawlRun.id = :runId")
+    boolean existsInRun(@Param("runId") UUID runId, @Param("nodeId") UUID nodeId);
+}
@@ -0,0 +1,448 @@
+package com.dubbi.statetrail.crawl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 브라우저 모드 정적 리소스(script/stylesheet/font/image)의 디스크 캐시
+ *
+ * BrowserContext.route로 GET 하위 리소스 요청을 가로채 캐시에 있으면 디스크에서 바로 응답하고,
+ * 없으면 route.fetch로 받아 저장한 뒤 그대로 응답한다. 같은 프로젝트의 run/context끼리 공유된다.
+ *  - 본문은 SHA-256 이름의 blob으로 한 번만 저장 (content-addressed, 프로젝트 간에도 중복 제거)
+ *  - (프로젝트, URL) → blob 메타데이터는 meta/{projectId}/ 아래 JSON으로 저장
+ *  - Cache-Control(no-store/no-cache/max-age), Expires, Last-Modified 휴리스틱으로 신선도를 정하고,
+ *    만료된 항목은 ETag/Last-Modified 조건부 요청으로 재검증
+ *  - Cache-Control: private 응답은 저장하지 않음 (키에 인증 프로필이 없어 같은 프로젝트의 다른 로그인 상태에 노출될 수 있음)
+ *  - blob 전체 크기가 max-size-mb를 넘으면 가장 오래 쓰지 않은 blob부터 삭제 (재시작 시에는 기록 시각 순)
+ * Vary는 보지 않는다 (크롤러의 요청 헤더가 항상 같고, 본문은 압축 해제된 상태로 저장).
+ */
+@Service
+public class AssetCache {
+    private static final Set<String> CACHEABLE_TYPES = Set.of("script", "stylesheet", "font", "image");
+    // 압축 해제된 본문과 맞지 않거나 응답마다 달라지는 헤더는 저장하지 않음
+    private static final Set<String> DROPPED_HEADERS = Set.of(
+            "content-encoding", "content-length", "transfer-encoding", "connection", "keep-alive", "set-cookie", "date", "age");
+    // Last-Modified만 있는 응답의 휴리스틱 신선도 (RFC 9111 4.2.2: 경과 시간의 10%) 상한
+    private static final long MAX_HEURISTIC_FRESHNESS_MS = Duration.ofDays(1).toMillis();
+    // 메모리에 올려 두는 메타데이터 수 (넘으면 비우고 디스크에서 다시 읽음)
+    private static final int MAX_INDEX_ENTRIES = 100_000;
+
+    record Entry(String url, String sha256, int status, Map<String, String> headers, long size,
+                 long storedAt, long expiresAt, String etag, String lastModified) {}
+
+    /**
+     * run 하나의 캐시 사용량 (run stats에 포함)
+     */
+    public static final class Usage {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong revalidated = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong stored = new AtomicLong();
+        private final AtomicLong bytesServed = new AtomicLong();
+
+        public Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hits", hits.get());
+            stats.put("revalidated", revalidated.get());
+            stats.put("misses", misses.get());
+            stats.put("stored", stored.get());
+            stats.put("bytesServed", bytesServed.get());
+            return stats;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Path blobDir;
+    private final Path metaDir;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    // virtual thread가 carrier에 pin되지 않도록 synchronized 대신 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    // lock으로 보호: sha256 → 크기 (접근 순서 = LRU)
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public AssetCache(
+            ObjectMapper objectMapper,
+            @Value("${crawl.asset-cache.enabled:true}") boolean enabled,
+            @Value("${crawl.asset-cache.dir:${java.io.tmpdir}/statetrail-assets}") String dir,
+            @Value("${crawl.asset-cache.max-size-mb:1024}") long maxSizeMb,
+            @Value("${crawl.asset-cache.max-entry-mb:32}") long maxEntryMb
+    ) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = Math.max(1, maxSizeMb) * 1024 * 1024;
+        this.maxEntryBytes = Math.min(this.maxBytes, Math.max(1, maxEntryMb) * 1024 * 1024);
+        this.blobDir = Path.of(dir, "blobs");
+        this.metaDir = Path.of(dir, "meta");
+        this.enabled = enabled && loadBlobs();
+    }
+
+    /**
+     * context에 캐시 route 설치 (비활성화되어 있으면 아무것도 하지 않음)
+     * 다른 route보다 먼저 설치해야 나중에 설치한 route(리소스 차단 등)가 fallback한 요청만 받는다.
+     */
+    public void install(BrowserContext context, UUID projectId, Usage usage) {
+        if (!enabled) return;
+        context.route("**/*", route -> handle(route, projectId, usage));
+    }
+
+    private void handle(Route route, UUID projectId, Usage usage) {
+        Request request = route.request();
+        if (!"GET".equals(request.method()) || !CACHEABLE_TYPES.contains(request.resourceType())
+                || !request.url().startsWith("http")) {
+            route.fallback();
+            return;
+        }
+
+        String url = request.url();
+        long now = System.currentTimeMillis();
+        try {
+            Entry entry = lookup(projectId, url);
+            if (entry != null && now < entry.expiresAt()) {
+                byte[] body = readBlob(entry.sha256());
+                if (body != null) {
+                    fulfill(route, entry, body, usage);
+                    usage.hits.incrementAndGet();
+                    return;
+                }
+                entry = null;
+            }
+
+            APIResponse response;
+            if (entry != null && (entry.etag() != null || entry.lastModified() != null)) {
+                // 만료된 항목: 조건부 요청으로 재검증
+                Map<String, String> headers = new HashMap<>(request.headers());
+                if (entry.etag() != null) headers.put("if-none-match", entry.etag());
+                if (entry.lastModified() != null) headers.put("if-modified-since", entry.lastModified());
+                response = route.fetch(new Route.FetchOptions().setHeaders(headers));
+                if (response.status() == 304) {
+                    byte[] body = readBlob(entry.sha256());
+                    if (body != null) {
+                        Entry refreshed = refresh(entry, response.headers(), now);
+                        // 이제 저장하면 안 되는 응답(no-store/private)이 되었으면 이번만 응답하고 항목은 버림
+                        if (refreshed != null) writeMeta(projectId, refreshed);
+                        else forget(projectId, url);
+                        fulfill(route, refreshed != null ? refreshed : entry, body, usage);
+                        usage.revalidated.incrementAndGet();
+                        response.dispose();
+                        return;
+                    }
+                    // blob이 사라졌으면 조건 없이 다시 받음
+                    response.dispose();
+                    response = route.fetch();
+                }
+            } else {
+                response = route.fetch();
+            }
+
+            usage.misses.incrementAndGet();
+            if (response.status() == 200) {
+                try {
+                    store(projectId, url, response, now, usage);
+                } catch (IOException e) {
+                    System.err.printf("[AssetCache] Failed to store %s: %s%n", url, e.getMessage());
+                }
+            }
+            route.fulfill(new Route.FulfillOptions().setResponse(response));
+        } catch (Exception e) {
+            // fetch 실패 등은 캐시 없이 원래 요청으로 (이미 처리된 route면 무시)
+            try {
+                route.fallback();
+            } catch (Exception ignored) {}
+        }
+    }
+
+    private void fulfill(Route route, Entry entry, byte[] body, Usage usage) {
+        route.fulfill(new Route.FulfillOptions()
+                .setStatus(entry.status())
+                .setHeaders(entry.headers())
+                .setBodyBytes(body));
+        usage.bytesServed.addAndGet(body.length);
+    }
+
+    private Entry lookup(UUID projectId, String url) {
+        String key = projectId + "\n" + url;
+        Entry entry = index.get(key);
+        if (entry != null) return entry;
+        Path file = metaFile(projectId, url);
+        if (!Files.exists(file)) return null;
+        try {
+            entry = objectMapper.readValue(file.toFile(), Entry.class);
+        } catch (Exception e) {
+            deleteQuietly(file);
+            return null;
+        }
+        if (!url.equals(entry.url())) return null;
+        if (index.size() >= MAX_INDEX_ENTRIES) index.clear();
+        index.put(key, entry);
+        return entry;
+    }
+
+    private void store(UUID projectId, String url, APIResponse response, long now, Usage usage) throws IOException {
+        Map<String, String> responseHeaders = response.headers();
+        long freshness = freshnessMs(responseHeaders, now);
+        String etag = responseHeaders.get("etag");
+        String lastModified = responseHeaders.get("last-modified");
+        // no-store, private, Vary: *, 신선도도 검증자도 없는 응답은 저장하지 않음 (이전에 저장한 항목도 버림)
+        if (freshness < 0 || (freshness == 0 && etag == null && lastModified == null)) {
+            forget(projectId, url);
+            return;
+        }
+
+        byte[] body = response.body();
+        if (body == null || body.length > maxEntryBytes) return;
+
+        String sha256 = sha256Hex(body);
+        writeBlob(sha256, body);
+        Map<String, String> headers = new HashMap<>();
+        responseHeaders.forEach((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name)) headers.put(name, value);
+        });
+        Entry entry = new Entry(url, sha256, response.status(), headers, body.length, now, now + freshness, etag, lastModified);
+        writeMeta(projectId, entry);
+        usage.stored.incrementAndGet();
+    }
+
+    /**
+     * 304 응답의 캐시 헤더로 만료 시각과 검증자 갱신
+     */
+    private Entry refresh(Entry entry, Map<String, String> notModifiedHeaders, long now) {
+        Map<String, String> headers = new HashMap<>(entry.headers());
+        for (String name : List.of("cache-control", "expires", "etag", "last-modified")) {
+            String value = notModifiedHeaders.get(name);
+            if (value != null) headers.put(name, value);
+        }
+        long freshness = freshnessMs(headers, now);
+        if (freshness < 0) return null;
+        return new Entry(entry.url(), entry.sha256(), entry.status(), headers, entry.size(), now, now + freshness,
+                headers.get("etag"), headers.get("last-modified"));
+    }
+
+    /**
+     * 응답 헤더로 정한 신선도 (ms), 저장하면 안 되는 응답이면 -1
+     */
+    static long freshnessMs(Map<String, String> headers, long now) {
+        if ("*".equals(trimmed(headers.get("vary")))) return -1;
+        String cacheControl = headers.get("cache-control");
+        if (cacheControl != null) {
+            long maxAge = -1;
+            for (String directive : cacheControl.toLowerCase().split(",")) {
+                String d = directive.trim();
+                // private="Set-Cookie"처럼 필드를 지정한 경우도 응답 전체를 저장하지 않음
+                if (d.equals("no-store") || d.equals("private") || d.startsWith("private=")) return -1;
+                if (d.equals("no-cache")) return 0;
+                if (d.startsWith("max-age=")) {
+                    try {
+                        maxAge = Long.parseLong(d.substring("max-age=".length()).replace("\"", "").trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            if (maxAge >= 0) return maxAge * 1000;
+        }
+        long date = parseDate(headers.get("date"), now);
+        if (date <= 0) date = now;
+        String expires = headers.get("expires");
+        if (expires != null) {
+            return Math.max(0, parseDate(expires, date) - date);
+        }
+        String lastModified = headers.get("last-modified");
+        if (lastModified != null) {
+            long age = date - parseDate(lastModified, date);
+            return Math.min(MAX_HEURISTIC_FRESHNESS_MS, Math.max(0, age / 10));
+        }
+        return 0;
+    }
+
+    /**
+     * 디렉터리에 남아 있는 blob으로 LRU 목록 복원 (기록 시각이 오래된 것부터)
+     */
+    private boolean loadBlobs() {
+        try {
+            Files.createDirectories(blobDir);
+            Files.createDirectories(metaDir);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(blobDir, 2)) {
+                files = walk.filter(Files::isRegularFile).filter(p -> !p.getFileName().toString().endsWith(".tmp")).toList();
+            }
+            List<Path> sorted = new ArrayList<>(files);
+            sorted.sort(Comparator.comparingLong(AssetCache::lastModifiedMillis));
+            lock.lock();
+            try {
+                for (Path file : sorted) {
+                    long size = Files.size(file);
+                    blobs.put(file.getFileName().toString(), size);
+                    totalBytes += size;
+                }
+            } finally {
+                lock.unlock();
+            }
+            evictOverflow();
+            System.out.printf("[AssetCache] %d blobs (%d MB) in %s%n", blobs.size(), totalBytes / (1024 * 1024), blobDir.getParent());
+            return true;
+        } catch (IOException e) {
+            System.err.printf("[AssetCache] Disabled, cannot use %s: %s%n", blobDir, e.getMessage());
+            return false;
+        }
+    }
+
+    private byte[] readBlob(String sha256) {
+        lock.lock();
+        try {
+            // 접근 순서 갱신
+            if (blobs.get(sha256) == null) return null;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return Files.readAllBytes(blobFile(sha256));
+        } catch (IOException e) {
+            lock.lock();
+            try {
+                Long size = blobs.remove(sha256);
+                if (size != null) totalBytes -= size;
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+    }
+
+    private void writeBlob(String sha256, byte[] body) throws IOException {
+        Path file = blobFile(sha256);
+        lock.lock();
+        try {
+            if (blobs.get(sha256) != null) return;
+        } finally {
+            lock.unlock();
+        }
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(sha256 + "." + Thread.currentThread().threadId() + ".tmp");
+        Files.write(tmp, body);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lock.lock();
+        try {
+            if (blobs.putIfAbsent(sha256, (long) body.length) == null) totalBytes += body.length;
+        } finally {
+            lock.unlock();
+        }
+        evictOverflow();
+    }
+
+    private void writeMeta(UUID projectId, Entry entry) throws IOException {
+        Path file = metaFile(projectId, entry.url());
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + "." + Thread.currentThread().threadId() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), entry);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (index.size() >= MAX_INDEX_ENTRIES) index.clear();
+        index.put(projectId + "\n" + entry.url(), entry);
+    }
+
+    /**
+     * (프로젝트, URL) 메타데이터 삭제 (blob은 다른 항목이 공유할 수 있으므로 LRU 삭제에 맡김)
+     */
+    private void forget(UUID projectId, String url) {
+        index.remove(projectId + "\n" + url);
+        deleteQuietly(metaFile(projectId, url));
+    }
+
+    /**
+     * 전체 크기가 상한을 넘으면 가장 오래 쓰지 않은 blob부터 삭제
+     * 삭제된 blob을 가리키는 메타데이터는 다음 조회 때 miss로 처리된다.
+     */
+    private void evictOverflow() {
+        List<String> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Long>> it = blobs.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (String sha256 : evicted) {
+            deleteQuietly(blobFile(sha256));
+        }
+    }
+
+    private Path blobFile(String sha256) {
+        return blobDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private Path metaFile(UUID projectId, String url) {
+        return metaDir.resolve(projectId.toString()).resolve(sha256Hex(url.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException("sha256 failed", e);
+        }
+    }
+
+    private static long parseDate(String value, long defaultValue) {
+        if (value == null) return defaultValue;
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            // 잘못된 Expires(예: "0")는 이미 만료된 것으로 취급
+            return 0;
+        }
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,196 @@
+package com.dubbi.statetrail.crawl.service;
+
+import com.dubbi.statetrail.crawl.web.CrawlerAgent;
+import com.dubbi.statetrail.crawl.web.PageSettleDetector;
+import com.dubbi.statetrail.crawl.web.UiSignatureExtractor;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 크롤러가 공유하는 장수명(long-lived) Playwright 브라우저 풀
+ *
+ * Playwright Java 객체는 thread-safe하지 않으므로 브라우저 하나(= Playwright 인스턴스 하나)는
+ * 한 번에 한 워커에게만 대여된다. 워커는 대여받은 브라우저에서 자기 전용 BrowserContext를
+ * 만들어 쓰고(run의 storage state 주입), 반납 시 context만 닫히고 브라우저는 재사용된다.
+ */
+@Service
+public class BrowserPool {
+    // 대기 중 run 종료 여부를 다시 확인하는 간격
+    private static final long LEASE_POLL_MS = 500;
+
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final boolean headless;
+    private final double slowMoMs;
+    private final int maxBrowsers;
+
+    private final Semaphore available;
+    private final LinkedBlockingDeque<PooledBrowser> idle = new LinkedBlockingDeque<>();
+    private final List<PooledBrowser> launched = new CopyOnWriteArrayList<>();
+    private volatile boolean shutdown;
+
+    public BrowserPool(
+            @Value("${crawl.browser.headless:true}") boolean headless,
+            @Value("${crawl.browser.slow-mo-ms:0}") double slowMoMs,
+            @Value("${crawl.browser.pool-size:4}") int maxBrowsers
+    ) {
+        this.headless = headless;
+        this.slowMoMs = Math.max(0, slowMoMs);
+        this.maxBrowsers = Math.max(1, maxBrowsers);
+        this.available = new Semaphore(this.maxBrowsers, true);
+    }
+
+    public int maxBrowsers() {
+        return maxBrowsers;
+    }
+
+    /**
+     * 브라우저 하나를 대여해 격리된 context + page를 생성
+     * 풀이 모두 대여 중이면 빌 때까지 기다린다 (다른 run이 브라우저를 모두 쥐고 있어도 실패하지 않음).
+     *
+     * @param storageStateJson 주입할 Playwright storage state JSON (없으면 null)
+     * @param deadline 이 시각까지 브라우저가 나지 않으면 포기 (run 종료 시각)
+     * @param stillWanted false가 되면 더 기다리지 않음 (다른 워커가 이미 run을 끝낸 경우 등)
+     * @return 대여한 브라우저, 포기했으면 null
+     */
+    public BrowserLease lease(String storageStateJson, Instant deadline, BooleanSupplier stillWanted) throws InterruptedException {
+        if (shutdown) throw new IllegalStateException("browser pool is shut down");
+        while (!available.tryAcquire(LEASE_POLL_MS, TimeUnit.MILLISECONDS)) {
+            if (shutdown) throw new IllegalStateException("browser pool is shut down");
+            if (!Instant.now().isBefore(deadline) || !stillWanted.getAsBoolean()) return null;
+        }
+
+        PooledBrowser pooled = null;
+        try {
+            pooled = idle.pollFirst();
+            if (pooled != null && !pooled.browser.isConnected()) {
+                discard(pooled);
+                pooled = null;
+            }
+            if (pooled == null) {
+                pooled = launch();
+            }
+
+            Browser.NewContextOptions options = new Browser.NewContextOptions()
+                    .setViewportSize(1280, 720)
+                    .setUserAgent(USER_AGENT);
+            if (storageStateJson != null) {
+                options.setStorageState(storageStateJson);
+            }
+            BrowserContext context = pooled.browser.newContext(options);
+            // 고정 sleep 대신 DOM/요청 안정화를 감지하기 위한 추적 스크립트
+            context.addInitScript(PageSettleDetector.INIT_SCRIPT);
+            // UI 시그니처/링크 스캔 함수를 미리 주입 (매 추출마다 스크립트 본문을 보내지 않도록)
+            context.addInitScript(UiSignatureExtractor.INIT_SCRIPT);
+            // MutationObserver로 바뀐 노드만 색인하는 상태 감지 에이전트
+            context.addInitScript(CrawlerAgent.INIT_SCRIPT);
+            return new BrowserLease(pooled, context, context.newPage());
+        } catch (RuntimeException e) {
+            if (pooled != null) discard(pooled);
+            available.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shutdown = true;
+        PooledBrowser pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private PooledBrowser launch() {
+        Playwright playwright = Playwright.create();
+        try {
+            BrowserType.LaunchOptions options = new BrowserType.LaunchOptions().setHeadless(headless);
+            if (slowMoMs > 0) options.setSlowMo(slowMoMs);
+            Browser browser = playwright.chromium().launch(options);
+            PooledBrowser pooled = new PooledBrowser(playwright, browser);
+            launched.add(pooled);
+            System.out.printf("[BrowserPool] Launched browser %d/%d (headless=%s)%n", launched.size(), maxBrowsers, headless);
+            return pooled;
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
+
+    private void release(PooledBrowser pooled, BrowserContext context) {
+        try {
+            context.close();
+        } catch (Exception e) {
+            System.err.printf("[BrowserPool] Failed to close context: %s%n", e.getMessage());
+        }
+        if (shutdown || !pooled.browser.isConnected()) {
+            discard(pooled);
+        } else {
+            // 최근 사용한 브라우저를 먼저 재사용 (LIFO)
+            idle.offerFirst(pooled);
+        }
+        available.release();
+    }
+
+    private void discard(PooledBrowser pooled) {
+        launched.remove(pooled);
+        try {
+            pooled.browser.close();
+        } catch (Exception e) {
+            // ignore cleanup errors
+        }
+        try {
+            pooled.playwright.close();
+        } catch (Exception e) {
+            // ignore cleanup errors
+        }
+    }
+
+    private record PooledBrowser(Playwright playwright, Browser browser) {}
+
+    /**
+     * 대여한 브라우저의 context/page (close 시 context를 닫고 브라우저를 풀에 반납)
+     * 대여한 스레드만 사용해야 한다.
+     */
+    public final class BrowserLease implements AutoCloseable {
+        private final PooledBrowser pooled;
+        private final BrowserContext context;
+        private final Page page;
+        private boolean released;
+
+        private BrowserLease(PooledBrowser pooled, BrowserContext context, Page page) {
+            this.pooled = pooled;
+            this.context = context;
+            this.page = page;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        public Page page() {
+            return page;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(pooled, context);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.dubbi.statetrail.crawl.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * 응답 본문 스트림을 최대 크기까지만 읽고, 앞부분 prefixBytes만 snapshot용으로 복사해 둠
+ * (maxBytes 이후는 EOF로 보이고 나머지는 읽지 않음, 호출자가 닫으면 연결째 버려짐)
+ */
+final class CappedBodyStream extends FilterInputStream {
+    private final long maxBytes;
+    private final int prefixBytes;
+    private final ByteArrayOutputStream prefix;
+    private long read;
+
+    CappedBodyStream(InputStream in, long maxBytes, int prefixBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.prefixBytes = prefixBytes;
+        this.prefix = new ByteArrayOutputStream(Math.min(prefixBytes, 16 * 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == 1 ? one[0] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (read >= maxBytes) return -1;
+        int n = in.read(b, off, (int) Math.min(len, maxBytes - read));
+        if (n <= 0) return n;
+        if (prefix.size() < prefixBytes) prefix.write(b, off, Math.min(n, prefixBytes - prefix.size()));
+        read += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 건너뛴 부분도 snapshot에 남도록 읽어서 버림
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        long skipped = 0;
+        int r;
+        while (skipped < n && (r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped))) > 0) {
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(super.available(), maxBytes - read);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        // 지원하지 않음 (Jsoup은 자체 버퍼로 charset 재감지를 처리)
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * snapshot 앞부분이 찰 때까지 읽음 (본문을 파싱하지 않는 응답용)
+     */
+    void readPrefix() throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        do {
+            n = read(buffer, 0, Math.min(buffer.length, prefixBytes - prefix.size()));
+        } while (n > 0 && prefix.size() < prefixBytes);
+    }
+
+    /**
+     * 복사해 둔 앞부분을 문자열로 (끝에서 잘린 멀티바이트 문자는 대체 문자가 됨)
+     */
+    String prefix(Charset charset) {
+        return prefix.toString(charset);
+    }
+}
@@ -0,0 +1,223 @@
+package com.dubbi.statetrail.crawl.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 크롤 워커 스레드 생성 및 동시 fetch 한도 관리
+ * virtual-threads 모드에서는 워커 하나(= in-flight fetch 하나)가 virtual thread 하나이고,
+ * 전체/호스트별 동시 fetch 수는 모든 run이 공유하는 세마포어로 제한한다.
+ * 호스트별 요청 간격(token bucket, crawl delay, 429/503·지연 기반 backoff)도 run 간에 공유한다.
+ * 호스트 상태는 사용 중인 요청이 없고 예약/Retry-After 대기가 끝난 채 host-idle-ttl 동안 쓰이지 않으면
+ * 버린다 (오래 떠 있는 서버에서 한 번 본 호스트가 계속 쌓이지 않도록, 남은 backoff도 이때 잊음).
+ */
+@Component
+public class CrawlExecution {
+    private final boolean virtualThreads;
+    private final int maxPlatformWorkers;
+    private final int maxInFlightPerHost;
+    private final Semaphore inFlight;
+    private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+    private final double requestsPerSecondPerHost;
+    private final int burstPerHost;
+    private final Duration crawlDelay;
+    private final double maxBackoff;
+    private final double slowLatencyFactor;
+    private final Duration maxRetryAfter;
+    private final long hostIdleTtlNanos;
+    private final AtomicLong nextEvictionAt;
+
+    public CrawlExecution(
+            @Value("${crawl.execution.virtual-threads:false}") boolean virtualThreads,
+            @Value("${crawl.execution.max-platform-workers:16}") int maxPlatformWorkers,
+            @Value("${crawl.execution.max-in-flight-fetches:1024}") int maxInFlightFetches,
+            @Value("${crawl.execution.max-in-flight-fetches-per-host:8}") int maxInFlightPerHost,
+            @Value("${crawl.politeness.requests-per-second-per-host:4}") double requestsPerSecondPerHost,
+            @Value("${crawl.politeness.burst:4}") int burstPerHost,
+            @Value("${crawl.politeness.crawl-delay-ms:0}") long crawlDelayMs,
+            @Value("${crawl.politeness.max-backoff:32}") double maxBackoff,
+            @Value("${crawl.politeness.slow-latency-factor:3}") double slowLatencyFactor,
+            @Value("${crawl.politeness.max-retry-after-seconds:60}") long maxRetryAfterSeconds,
+            @Value("${crawl.politeness.host-idle-ttl-seconds:600}") long hostIdleTtlSeconds
+    ) {
+        this.virtualThreads = virtualThreads;
+        this.maxPlatformWorkers = Math.max(1, maxPlatformWorkers);
+        this.maxInFlightPerHost = Math.max(1, maxInFlightPerHost);
+        this.inFlight = new Semaphore(Math.max(1, maxInFlightFetches));
+        this.requestsPerSecondPerHost = Math.max(0, requestsPerSecondPerHost);
+        this.burstPerHost = Math.max(1, burstPerHost);
+        this.crawlDelay = Duration.ofMillis(Math.max(0, crawlDelayMs));
+        this.maxBackoff = maxBackoff;
+        this.slowLatencyFactor = slowLatencyFactor;
+        this.maxRetryAfter = Duration.ofSeconds(Math.max(0, maxRetryAfterSeconds));
+        this.hostIdleTtlNanos = Duration.ofSeconds(Math.max(0, hostIdleTtlSeconds)).toNanos();
+        this.nextEvictionAt = new AtomicLong(System.nanoTime() + hostIdleTtlNanos);
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 요청된 워커 수를 실행 모드에 맞게 조정 (platform thread 모드는 상한 적용)
+     */
+    public int effectiveWorkers(int requested) {
+        int workers = Math.max(1, requested);
+        return virtualThreads ? workers : Math.min(workers, maxPlatformWorkers);
+    }
+
+    /**
+     * run 전용 워커 executor 생성 (호출자가 shutdown 책임)
+     * 브라우저 워커는 Playwright 드라이버와의 동기 통신 중 carrier thread를 점유할 수 있어
+     * 항상 platform thread로 실행한다.
+     */
+    public ExecutorService newWorkerExecutor(UUID runId, int workers, boolean browser) {
+        String prefix = "crawl-" + runId.toString().substring(0, 8) + "-";
+        if (virtualThreads && !browser) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+        }
+        AtomicInteger threadSeq = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, prefix + threadSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * fetch 슬롯 획득 (호스트별 동시성 → 호스트 요청 간격 → 전체 순서로 대기)
+     * try-with-resources로 반드시 반납해야 하고, 응답을 받으면 record()로 결과를 알려야
+     * backoff가 동작한다.
+     *
+     * @param runCrawlDelay 프로젝트 설정의 crawl delay (전역 설정보다 길 때만 적용)
+     */
+    public FetchPermit acquireFetch(String host, Duration runCrawlDelay) throws InterruptedException {
+        evictIdleHostsIfDue();
+        String key = host == null ? "" : host.toLowerCase();
+        Host h = enter(key);
+        try {
+            h.permits.acquire();
+        } catch (InterruptedException e) {
+            leave(key, h);
+            throw e;
+        }
+        try {
+            long waitNanos = h.politeness.reserve(runCrawlDelay == null ? Duration.ZERO : runCrawlDelay);
+            if (waitNanos > 0) Thread.sleep(Duration.ofNanos(waitNanos));
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            h.permits.release();
+            leave(key, h);
+            throw e;
+        }
+        return new FetchPermit(key, h);
+    }
+
+    /**
+     * 호스트의 요청 간격 상태 (run stats 용)
+     */
+    public Map<String, Object> hostStats(String host) {
+        Host h = hosts.get(host == null ? "" : host.toLowerCase());
+        return h == null ? Map.of() : h.politeness.stats();
+    }
+
+    /**
+     * 상태를 들고 있는 호스트 수
+     */
+    int trackedHosts() {
+        return hosts.size();
+    }
+
+    /**
+     * 오래 쓰이지 않은 호스트 상태 제거 (users는 compute 안에서만 바꾸므로 사용 중인 호스트와 엇갈리지 않음)
+     */
+    void evictIdleHosts(long now) {
+        for (String key : hosts.keySet()) {
+            hosts.computeIfPresent(key, (k, h) ->
+                    h.users == 0 && now - h.idleSince >= hostIdleTtlNanos && h.politeness.idleAt(now) ? null : h);
+        }
+    }
+
+    private void evictIdleHostsIfDue() {
+        long now = System.nanoTime();
+        long due = nextEvictionAt.get();
+        if (now - due >= 0 && nextEvictionAt.compareAndSet(due, now + hostIdleTtlNanos)) {
+            evictIdleHosts(now);
+        }
+    }
+
+    private Host enter(String key) {
+        return hosts.compute(key, (k, h) -> {
+            if (h == null) h = new Host();
+            h.users++;
+            return h;
+        });
+    }
+
+    private void leave(String key, Host host) {
+        hosts.computeIfPresent(key, (k, h) -> {
+            if (h == host) {
+                h.users--;
+                h.idleSince = System.nanoTime();
+            }
+            return h;
+        });
+    }
+
+    public int availableFetchPermits() {
+        return inFlight.availablePermits();
+    }
+
+    /**
+     * 호스트 하나의 동시 fetch 한도와 요청 간격 상태
+     */
+    private final class Host {
+        private final Semaphore permits = new Semaphore(maxInFlightPerHost);
+        private final HostPoliteness politeness = new HostPoliteness(
+                requestsPerSecondPerHost, burstPerHost, crawlDelay, maxBackoff, slowLatencyFactor, maxRetryAfter);
+        // hosts.compute 안에서만 접근: 슬롯을 기다리거나 쥐고 있는 요청 수, 마지막으로 놓은 시각
+        private int users;
+        private long idleSince = System.nanoTime();
+    }
+
+    public final class FetchPermit implements AutoCloseable {
+        private final String key;
+        private final Host host;
+        private final long startedAt = System.nanoTime();
+        private boolean released;
+
+        private FetchPermit(String key, Host host) {
+            this.key = key;
+            this.host = host;
+        }
+
+        /**
+         * 응답 상태/지연 시간을 호스트 스케줄에 반영
+         *
+         * @param retryAfter Retry-After 헤더 원문 (없으면 null)
+         */
+        public void record(int status, String retryAfter) {
+            long latencyMs = (System.nanoTime() - startedAt) / 1_000_000;
+            host.politeness.record(status, latencyMs, retryAfter);
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            inFlight.release();
+            host.permits.release();
+            leave(key, host);
+        }
+    }
+}
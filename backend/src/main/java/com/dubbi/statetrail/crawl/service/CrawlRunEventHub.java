@@ -1,52 +1,487 @@
 package com.dubbi.statetrail.crawl.service;
 
+import com.dubbi.statetrail.crawl.domain.CrawlRunRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlRunStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * 크롤 run 이벤트를 SSE 구독자에게 비동기로 전달하는 hub
+ *
+ * publish()는 구독자별 bounded 큐에 넣기만 하고 즉시 반환한다 (크롤러 스레드는 네트워크 쓰기를 기다리지 않음).
+ * 큐는 batch-window 뒤에 구독자마다 별도 virtual thread에서 비워지며, 그동안 쌓인 NODE_CREATED/EDGE_CREATED는
+ * 최대 batch-size개씩 BATCH 프레임 하나로 묶어 보낸다. STATS는 최신 값 하나만 유지한다.
+ * 느린 구독자의 큐가 queue-capacity를 넘으면 overflow 정책을 적용한다.
+ *  - COLLAPSE: 쌓인 노드/엣지 이벤트를 버리고 RESYNC 이벤트로 그래프 재조회를 요청 (기본값)
+ *  - DROP_OLDEST: 가장 오래된 노드/엣지 이벤트부터 버리고 다음 BATCH에 버린 개수를 표시
+ *
+ * STATUS와 노드/엣지 이벤트는 run별 RunEventLog에 기록되어 1부터 증가하는 SSE id를 갖는다 (BATCH는 마지막 id).
+ * 재접속한 클라이언트가 Last-Event-ID를 보내면 그 이후 이벤트만 재전송하고, 재전송할 수 없으면 RESYNC를 보낸다.
+ * 재전송 범위는 ring과 spill 파일에 남은 범위 전체이며, drain이 REPLAY_CHUNK개씩 읽어 live 이벤트보다 먼저 보낸다.
+ * 기록은 run 종료 후 retention 동안 유지된다. 이미 끝난 run을 구독해서 만든 기록도 같은 retention 뒤에 삭제한다.
+ */
 @Component
 public class CrawlRunEventHub {
-    private final ConcurrentHashMap<UUID, CopyOnWriteArrayList<SseEmitter>> emittersByRunId = new ConcurrentHashMap<>();
+    public static final String BATCH = "BATCH";
+    public static final String RESYNC = "RESYNC";
+    private static final int REPLAY_CHUNK = 1_000;
+
+    public enum OverflowPolicy {
+        COLLAPSE,
+        DROP_OLDEST
+    }
+
+    private final ConcurrentHashMap<UUID, Channel> channelsByRunId = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final CrawlRunRepository crawlRunRepository;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long batchWindowMs;
+    private final OverflowPolicy overflowPolicy;
+    private final int replayBuffer;
+    private final Path spillDir;
+    private final long retentionMinutes;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "crawl-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CrawlRunEventHub(
+            ObjectMapper objectMapper,
+            CrawlRunRepository crawlRunRepository,
+            @Value("${crawl.events.queue-capacity:5000}") int queueCapacity,
+            @Value("${crawl.events.batch-size:200}") int batchSize,
+            @Value("${crawl.events.batch-window-ms:100}") long batchWindowMs,
+            @Value("${crawl.events.overflow:COLLAPSE}") OverflowPolicy overflowPolicy,
+            @Value("${crawl.events.replay-buffer:10000}") int replayBuffer,
+            @Value("${crawl.events.spill-dir:}") String spillDir,
+            @Value("${crawl.events.retention-minutes:30}") long retentionMinutes
+    ) {
+        this.objectMapper = objectMapper;
+        this.crawlRunRepository = crawlRunRepository;
+        this.queueCapacity = Math.max(16, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWindowMs = Math.max(0, batchWindowMs);
+        this.overflowPolicy = overflowPolicy;
+        this.replayBuffer = Math.max(16, replayBuffer);
+        this.spillDir = spillDir == null || spillDir.isBlank() ? null : Path.of(spillDir);
+        this.retentionMinutes = Math.max(0, retentionMinutes);
+    }
 
     public SseEmitter subscribe(UUID runId) {
+        return subscribe(runId, null);
+    }
+
+    /**
+     * @param lastEventId 재접속 시 클라이언트가 마지막으로 받은 이벤트 id (없으면 null)
+     */
+    public SseEmitter subscribe(UUID runId, Long lastEventId) {
         SseEmitter emitter = new SseEmitter(0L);
-        emittersByRunId.computeIfAbsent(runId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        Channel channel = channelForSubscriber(runId);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        long upTo;
+        channel.lock.lock();
+        try {
+            // 재전송을 큐에 채우기 전까지 drain 보류, 이후 live 이벤트는 upTo 다음부터 큐에 쌓임
+            subscriber.scheduled = true;
+            upTo = channel.log.lastSeq();
+            channel.subscribers.add(subscriber);
+        } finally {
+            channel.lock.unlock();
+        }
 
-        emitter.onCompletion(() -> remove(runId, emitter));
-        emitter.onTimeout(() -> remove(runId, emitter));
-        emitter.onError((e) -> remove(runId, emitter));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError((e) -> remove(subscriber));
 
+        if (lastEventId != null && lastEventId < upTo) {
+            if (lastEventId + 1 >= channel.log.firstSeq()) {
+                subscriber.startReplay(lastEventId, upTo);
+            } else {
+                // ring에서 밀려났고 spill에도 없는 범위
+                subscriber.requestResync("REPLAY_UNAVAILABLE", upTo);
+            }
+        } else if (lastEventId != null && lastEventId > upTo) {
+            // 서버 재시작 등으로 기록이 사라진 run
+            subscriber.requestResync("REPLAY_UNAVAILABLE", upTo);
+        }
         // initial ping
-        publish(runId, "PING", Map.of("ts", Instant.now().toString()));
+        subscriber.sendFirst(new Event(0, "PING", Map.of("ts", Instant.now().toString())));
+        subscriber.startDrain();
         return emitter;
     }
 
+    /**
+     * 이벤트를 run 기록에 남기고 모든 구독자 큐에 넣음 (블로킹 없음)
+     */
     public void publish(UUID runId, String type, Object payload) {
-        List<SseEmitter> emitters = emittersByRunId.get(runId);
-        if (emitters == null) return;
+        Channel channel = channelOf(runId);
+        channel.lock.lock();
+        try {
+            // STATS는 최신 값만 의미가 있으므로 기록/재전송하지 않음
+            long seq = "STATS".equals(type) ? 0 : channel.log.append(type, payload);
+            if (channel.subscribers.isEmpty()) return;
+            Event event = new Event(seq, type, payload);
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.enqueue(event);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    /**
+     * run 종료 (retention 후 이벤트 기록 삭제)
+     */
+    public void finish(UUID runId) {
+        Channel channel = channelsByRunId.get(runId);
+        if (channel == null) return;
+        try {
+            dispatcher.schedule(() -> {
+                channel.log.dispose();
+                channelsByRunId.remove(runId, channel);
+            }, retentionMinutes, TimeUnit.MINUTES);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        channelsByRunId.values().forEach(channel -> channel.log.dispose());
+    }
+
+    /**
+     * 첫 publish 전에 붙은 구독자도 이후 이벤트를 받도록 channel을 만들어 둠
+     * 이미 끝난 run이면 finish가 다시 호출되지 않으므로 여기서 정리를 예약한다.
+     * (run 상태는 finish 전에 저장되므로 channel을 만든 뒤에 확인하면 finish와 엇갈려도 정리가 빠지지 않음)
+     */
+    private Channel channelForSubscriber(UUID runId) {
+        Channel existing = channelsByRunId.get(runId);
+        if (existing != null) return existing;
+        Channel channel = channelOf(runId);
+        boolean active = crawlRunRepository.findById(runId)
+                .map(run -> run.getStatus() == CrawlRunStatus.QUEUED || run.getStatus() == CrawlRunStatus.RUNNING)
+                .orElse(false);
+        if (!active) finish(runId);
+        return channel;
+    }
+
+    private Channel channelOf(UUID runId) {
+        return channelsByRunId.computeIfAbsent(runId, id -> new Channel(id, new RunEventLog(id, replayBuffer, spillDir, objectMapper)));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.channel.subscribers.remove(subscriber);
+    }
+
+    private static boolean isGraphEvent(Event event) {
+        return "NODE_CREATED".equals(event.type()) || "EDGE_CREATED".equals(event.type());
+    }
+
+    /**
+     * @param seq SSE id (0이면 id 없이 전송)
+     */
+    private record Event(long seq, String type, Object payload) {}
+
+    /**
+     * run 하나의 이벤트 기록과 구독자 목록 (publish/subscribe는 lock으로 seq 순서를 맞춤)
+     */
+    private static final class Channel {
+        final UUID runId;
+        final ReentrantLock lock = new ReentrantLock();
+        final RunEventLog log;
+        final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        Channel(UUID runId, RunEventLog log) {
+            this.runId = runId;
+            this.log = log;
+        }
+    }
+
+    /**
+     * 구독자 하나의 bounded 큐와 전송 상태
+     * drain은 구독자마다 한 번에 하나만 실행된다.
+     */
+    private final class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // lock으로 보호되는 상태
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private Event latestStats;
+        private int graphEvents;
+        private long dropped;
+        private long droppedUpToSeq;
+        private String resyncReason;
+        private boolean scheduled;
+        // 재전송 대기 구간: replayAfter < replayUpTo이면 drain이 log에서 다음 구간을 읽어 replayed에 채움
+        private final ArrayDeque<Event> replayed = new ArrayDeque<>();
+        private long replayAfter;
+        private long replayUpTo;
+
+        private volatile boolean closed;
+
+        private Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        /**
+         * 재전송과 live 이벤트보다 먼저 보냄 (startDrain 전에만 호출)
+         */
+        void sendFirst(Event event) {
+            lock.lock();
+            try {
+                replayed.addFirst(event);
+            } finally {
+                lock.unlock();
+            }
+        }
 
-        for (SseEmitter emitter : emitters) {
+        /**
+         * afterSeq 다음부터 upToSeq까지를 live 이벤트 앞에 재전송 (startDrain 전에만 호출)
+         */
+        void startReplay(long afterSeq, long upToSeq) {
+            lock.lock();
             try {
-                emitter.send(SseEmitter.event().name(type).data(payload, MediaType.APPLICATION_JSON));
+                replayAfter = afterSeq;
+                replayUpTo = upToSeq;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 재전송 대신 클라이언트에 전체 재조회를 요청
+         */
+        void requestResync(String reason, long upToSeq) {
+            lock.lock();
+            try {
+                resyncReason = reason;
+                droppedUpToSeq = Math.max(droppedUpToSeq, upToSeq);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * subscribe에서 보류한 drain 시작
+         */
+        void startDrain() {
+            scheduleDrain(0);
+        }
+
+        void enqueue(Event event) {
+            if (closed) return;
+            boolean schedule;
+            lock.lock();
+            try {
+                if ("STATS".equals(event.type())) {
+                    latestStats = event;
+                } else {
+                    queue.addLast(event);
+                    if (isGraphEvent(event) && ++graphEvents > queueCapacity) overflow();
+                }
+                schedule = !scheduled;
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) scheduleDrain(batchWindowMs);
+        }
+
+        /**
+         * lock을 잡은 상태에서 호출
+         */
+        private void overflow() {
+            if (overflowPolicy == OverflowPolicy.COLLAPSE) {
+                // 상태 이벤트(STATUS 등)는 남기고 노드/엣지만 버린 뒤 재조회 요청
+                int removed = removeGraphEvents(Integer.MAX_VALUE);
+                dropped += removed;
+                resyncReason = "SUBSCRIBER_LAGGING";
+                // 재조회 결과가 남은 재전송 구간도 포함하므로 id가 RESYNC보다 뒤로 가지 않게 재전송을 중단
+                if (replayAfter < replayUpTo || !replayed.isEmpty()) {
+                    replayed.removeIf(event -> event.seq() > 0);
+                    droppedUpToSeq = Math.max(droppedUpToSeq, replayUpTo);
+                    replayAfter = replayUpTo;
+                }
+            } else {
+                dropped += removeGraphEvents(graphEvents - queueCapacity);
+            }
+        }
+
+        private int removeGraphEvents(int max) {
+            int removed = 0;
+            Iterator<Event> it = queue.iterator();
+            while (removed < max && it.hasNext()) {
+                Event event = it.next();
+                if (isGraphEvent(event)) {
+                    droppedUpToSeq = Math.max(droppedUpToSeq, event.seq());
+                    it.remove();
+                    removed++;
+                }
+            }
+            graphEvents -= removed;
+            return removed;
+        }
+
+        private void scheduleDrain(long delayMs) {
+            try {
+                // 느린 구독자가 다른 구독자 전송을 막지 않도록 실제 전송은 구독자별 virtual thread에서 수행
+                dispatcher.schedule(() -> Thread.ofVirtual().name("crawl-events-" + channel.runId.toString().substring(0, 8))
+                        .start(this::drain), delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+            }
+        }
+
+        /**
+         * 재전송 대기열이 비었으면 log에서 다음 구간을 읽어 채움 (spill 파일 읽기는 lock 밖에서)
+         */
+        private void fillReplay() {
+            long after;
+            long upTo;
+            lock.lock();
+            try {
+                if (!replayed.isEmpty() || replayAfter >= replayUpTo) return;
+                after = replayAfter;
+                upTo = replayUpTo;
+            } finally {
+                lock.unlock();
+            }
+            List<RunEventLog.Entry> entries;
+            try {
+                entries = channel.log.since(after, upTo, REPLAY_CHUNK);
             } catch (IOException e) {
-                remove(runId, emitter);
+                System.err.printf("[EventHub] Replay failed for run %s: %s%n", channel.runId, e.getMessage());
+                entries = null;
+            }
+            lock.lock();
+            try {
+                // 그 사이 overflow로 재전송이 취소됨
+                if (replayAfter != after) return;
+                if (entries == null || entries.isEmpty()) {
+                    // 읽는 사이 ring에서 밀려났거나 기록이 삭제됨
+                    replayAfter = replayUpTo;
+                    resyncReason = "REPLAY_UNAVAILABLE";
+                    droppedUpToSeq = Math.max(droppedUpToSeq, upTo);
+                    return;
+                }
+                for (RunEventLog.Entry e : entries) {
+                    replayed.addLast(new Event(e.seq(), e.type(), e.payload()));
+                }
+                replayAfter = entries.get(entries.size() - 1).seq();
+            } finally {
+                lock.unlock();
             }
         }
-    }
 
-    private void remove(UUID runId, SseEmitter emitter) {
-        List<SseEmitter> emitters = emittersByRunId.get(runId);
-        if (emitters == null) return;
-        emitters.remove(emitter);
-        if (emitters.isEmpty()) emittersByRunId.remove(runId);
-    }
-}
+        private void drain() {
+            while (!closed) {
+                fillReplay();
+                List<Event> batch = new ArrayList<>();
+                boolean control;
+                String resync;
+                long droppedCount = 0;
+                long resyncSeq;
+                Event stats;
+                lock.lock();
+                try {
+                    // 노드/엣지가 아닌 이벤트는 단독으로 보내고, 노드/엣지는 연속된 구간만 묶어 순서를 유지
+                    // 재전송 이벤트를 모두 보낸 뒤에 live 큐를 비움
+                    ArrayDeque<Event> source = replayed.isEmpty() ? queue : replayed;
+                    Event head = source.peekFirst();
+                    control = head != null && !isGraphEvent(head);
+                    if (control) {
+                        batch.add(source.pollFirst());
+                    } else {
+                        while (batch.size() < batchSize && (head = source.peekFirst()) != null && isGraphEvent(head)) {
+                            batch.add(source.pollFirst());
+                        }
+                        if (source == queue) graphEvents -= batch.size();
+                    }
+                    resync = resyncReason;
+                    resyncReason = null;
+                    resyncSeq = droppedUpToSeq;
+                    if (resync != null || !control) {
+                        droppedCount = dropped;
+                        dropped = 0;
+                    }
+                    stats = latestStats;
+                    latestStats = null;
+                    if (batch.isEmpty() && stats == null && resync == null && droppedCount == 0) {
+                        scheduled = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
 
+                try {
+                    if (resync != null) {
+                        // 재조회한 그래프는 버린 이벤트까지 포함하므로 id를 그 위치로 맞춤
+                        send(resyncSeq, RESYNC, Map.of("reason", resync, "dropped", droppedCount));
+                        droppedCount = 0;
+                    }
+                    if (control || (batch.size() == 1 && droppedCount == 0)) {
+                        Event only = batch.get(0);
+                        send(only.seq(), only.type(), only.payload());
+                    } else if (!batch.isEmpty() || droppedCount > 0) {
+                        long lastSeq = batch.isEmpty() ? 0 : batch.get(batch.size() - 1).seq();
+                        send(lastSeq, BATCH, batchPayload(batch, droppedCount));
+                    }
+                    if (stats != null) send(0, stats.type(), stats.payload());
+                } catch (IOException | IllegalStateException e) {
+                    remove(this);
+                    return;
+                }
+            }
+        }
+
+        private void send(long seq, String type, Object payload) throws IOException {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(type);
+            if (seq > 0) event.id(Long.toString(seq));
+            emitter.send(event.data(payload, MediaType.APPLICATION_JSON));
+        }
 
+        private Map<String, Object> batchPayload(List<Event> events, long droppedCount) {
+            List<Map<String, Object>> items = new ArrayList<>(events.size());
+            for (Event e : events) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("type", e.type());
+                item.put("data", e.payload());
+                items.add(item);
+            }
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("events", items);
+            if (droppedCount > 0) payload.put("dropped", droppedCount);
+            return payload;
+        }
+    }
+}
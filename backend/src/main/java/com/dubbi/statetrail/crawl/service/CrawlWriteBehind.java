@@ -0,0 +1,323 @@
+package com.dubbi.statetrail.crawl.service;
+
+import com.dubbi.statetrail.crawl.web.ActionType;
+import com.dubbi.statetrail.graph.util.UiSignatureSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 크롤 중 생성되는 페이지/링크를 모아서 JDBC batch로 저장하는 write-behind 단계
+ *
+ * run마다 RunWriter를 열어 사용한다. 버퍼가 batch-size에 도달하거나 flush-interval이 지나면
+ * 페이지 insert → 페이지 fetch 결과 update → 링크 insert 순서로 한 트랜잭션에서 flush한다.
+ * (링크가 참조하는 페이지는 항상 같은 flush 또는 이전 flush에서 먼저 insert된다)
+ * 저장이 끝난 행은 FlushListener로 알려서, 노드/엣지 이벤트가 DB에 반영된 뒤에 나가도록 한다.
+ */
+@Component
+public class CrawlWriteBehind {
+    /**
+     * crawl_pages.url 컬럼 길이 (이보다 긴 URL은 노드로 만들지 않는다)
+     */
+    public static final int MAX_URL_LENGTH = 2048;
+
+    private static final String INSERT_PAGE_SQL = """
+            INSERT INTO crawl_pages (id, crawl_run_id, node_key, url, url_pattern, depth, discovered_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (crawl_run_id, url) DO NOTHING
+            """;
+
+    private static final String UPDATE_FETCHED_PAGE_SQL = """
+            UPDATE crawl_pages
+               SET http_status = ?, content_type = ?, title = ?, html_snapshot = ?, fetched_at = ?,
+                   ui_signature = COALESCE(?::jsonb, ui_signature),
+                   ui_signature_summary = COALESCE(?::jsonb, ui_signature_summary),
+                   risk_tags = COALESCE(?::jsonb, risk_tags),
+                   screenshot_object_key = COALESCE(?, screenshot_object_key),
+                   network_log_object_key = COALESCE(?, network_log_object_key)
+             WHERE id = ?
+            """;
+
+    private static final String INSERT_LINK_SQL = """
+            INSERT INTO crawl_links (id, crawl_run_id, from_page_id, to_page_id, anchor_text, action_type, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (crawl_run_id, from_page_id, to_page_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final ScheduledExecutorService flushTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "crawl-write-behind");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CrawlWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${crawl.persistence.batch-size:500}") int batchSize,
+            @Value("${crawl.persistence.flush-interval-ms:500}") long flushIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(50, flushIntervalMs);
+    }
+
+    public RunWriter open(UUID runId) {
+        return open(runId, (pages, links) -> {});
+    }
+
+    public RunWriter open(UUID runId, FlushListener listener) {
+        return new RunWriter(runId, listener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushTimer.shutdownNow();
+    }
+
+    /**
+     * 페이지 fetch 결과 (null인 object key/uiSignature는 기존 값을 유지)
+     */
+    public record FetchedPage(
+            UUID id,
+            Integer httpStatus,
+            String contentType,
+            String title,
+            String htmlSnapshot,
+            Map<String, Object> uiSignature,
+            String screenshotObjectKey,
+            String networkLogObjectKey
+    ) {}
+
+    public record PageInsert(UUID id, String nodeKey, String url, String urlPattern, int depth, Instant discoveredAt) {}
+
+    private record PageUpdate(FetchedPage page, String uiSignatureJson, String summaryJson, String riskTagsJson, Instant fetchedAt) {}
+
+    public record LinkInsert(UUID id, UUID fromPageId, UUID toPageId, String anchorText, ActionType actionType, Instant createdAt) {}
+
+    /**
+     * flush가 커밋된 뒤 호출 (flush한 스레드에서, 링크가 참조하는 페이지는 같은 호출이나 이전 호출에 포함됨)
+     */
+    @FunctionalInterface
+    public interface FlushListener {
+        void flushed(List<PageInsert> pages, List<LinkInsert> links);
+    }
+
+    /**
+     * run 하나의 write-behind 버퍼 (여러 워커가 동시에 사용)
+     * close()에서 남은 버퍼를 flush하며, flush 중 실패가 있었으면 예외를 던진다.
+     */
+    public final class RunWriter implements AutoCloseable {
+        private final UUID runId;
+        private final FlushListener listener;
+        private final ReentrantLock bufferLock = new ReentrantLock();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private final ScheduledFuture<?> timer;
+
+        private List<PageInsert> pageInserts = new ArrayList<>();
+        private List<PageUpdate> pageUpdates = new ArrayList<>();
+        private List<LinkInsert> linkInserts = new ArrayList<>();
+        private int pending;
+
+        private final AtomicLong flushes = new AtomicLong();
+        private final AtomicLong rowsWritten = new AtomicLong();
+        private volatile RuntimeException failure;
+
+        private RunWriter(UUID runId, FlushListener listener) {
+            this.runId = runId;
+            this.listener = listener;
+            this.timer = flushTimer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+
+        public void insertPage(UUID id, String nodeKey, String url, String urlPattern, int depth) {
+            // 노드 생성 콜백(CrawlFrontier.getOrAddNode의 frontier lock 안)에서 호출되므로 여기서는 flush하지 않음
+            add(() -> pageInserts.add(new PageInsert(id, nodeKey, url, urlPattern, depth, Instant.now())), false);
+        }
+
+        public void updateFetchedPage(FetchedPage page) {
+            String uiSignatureJson = null;
+            String summaryJson = null;
+            String riskTagsJson = null;
+            if (page.uiSignature() != null && !page.uiSignature().isEmpty()) {
+                try {
+                    uiSignatureJson = objectMapper.writeValueAsString(page.uiSignature());
+                    // 그래프 조회 때마다 시그니처를 다시 훑지 않도록 요약/리스크 태그를 같이 저장
+                    summaryJson = objectMapper.writeValueAsString(UiSignatureSummary.summarize(page.uiSignature()));
+                    riskTagsJson = objectMapper.writeValueAsString(UiSignatureSummary.extractRiskTags(page.uiSignature()));
+                } catch (Exception e) {
+                    System.err.printf("[WriteBehind] Failed to serialize ui signature for page %s: %s%n", page.id(), e.getMessage());
+                }
+            }
+            PageUpdate update = new PageUpdate(page, uiSignatureJson, summaryJson, riskTagsJson, Instant.now());
+            add(() -> pageUpdates.add(update), true);
+        }
+
+        public void insertLink(UUID id, UUID fromPageId, UUID toPageId, String anchorText, ActionType actionType) {
+            add(() -> linkInserts.add(new LinkInsert(id, fromPageId, toPageId, anchorText, actionType, Instant.now())), true);
+        }
+
+        public long flushCount() {
+            return flushes.get();
+        }
+
+        public long rowsWritten() {
+            return rowsWritten.get();
+        }
+
+        private void add(Runnable append, boolean mayFlush) {
+            boolean full;
+            bufferLock.lock();
+            try {
+                append.run();
+                full = ++pending >= batchSize;
+            } finally {
+                bufferLock.unlock();
+            }
+            // 버퍼를 채운 워커가 직접 flush (DB가 느리면 자연스럽게 backpressure)
+            if (full && mayFlush) flush();
+        }
+
+        /**
+         * 현재까지 버퍼된 행을 저장 (실패는 기록만 하고 close()에서 보고)
+         */
+        public void flush() {
+            flushLock.lock();
+            try {
+                List<PageInsert> pages;
+                List<PageUpdate> updates;
+                List<LinkInsert> links;
+                bufferLock.lock();
+                try {
+                    if (pending == 0) return;
+                    pages = pageInserts;
+                    updates = pageUpdates;
+                    links = linkInserts;
+                    pageInserts = new ArrayList<>();
+                    pageUpdates = new ArrayList<>();
+                    linkInserts = new ArrayList<>();
+                    pending = 0;
+                } finally {
+                    bufferLock.unlock();
+                }
+                write(pages, updates, links);
+                flushes.incrementAndGet();
+                rowsWritten.addAndGet(pages.size() + updates.size() + links.size());
+                notifyFlushed(pages, links);
+            } catch (RuntimeException e) {
+                System.err.printf("[WriteBehind] Flush failed for run %s: %s%n", runId, e.getMessage());
+                if (failure == null) failure = e;
+            } finally {
+                flushLock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            timer.cancel(false);
+            flush();
+            if (failure != null) {
+                throw new IllegalStateException("failed to persist crawl results: " + failure.getMessage(), failure);
+            }
+        }
+
+        private void notifyFlushed(List<PageInsert> pages, List<LinkInsert> links) {
+            if (pages.isEmpty() && links.isEmpty()) return;
+            try {
+                listener.flushed(pages, links);
+            } catch (RuntimeException e) {
+                // 이벤트 전송 실패는 저장 결과와 무관
+                System.err.printf("[WriteBehind] Flush listener failed for run %s: %s%n", runId, e.getMessage());
+            }
+        }
+
+        private void write(List<PageInsert> pages, List<PageUpdate> updates, List<LinkInsert> links) {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (!pages.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_PAGE_SQL, pages, batchSize, (ps, p) -> {
+                        ps.setObject(1, p.id());
+                        ps.setObject(2, runId);
+                        ps.setString(3, p.nodeKey());
+                        ps.setString(4, p.url());
+                        ps.setString(5, truncate(p.urlPattern(), MAX_URL_LENGTH));
+                        ps.setInt(6, p.depth());
+                        ps.setObject(7, utc(p.discoveredAt()));
+                    });
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_FETCHED_PAGE_SQL, updates, batchSize, (ps, u) -> {
+                        FetchedPage p = u.page();
+                        setInteger(ps, 1, p.httpStatus());
+                        ps.setString(2, truncate(p.contentType(), 255));
+                        ps.setString(3, truncate(p.title(), 512));
+                        ps.setString(4, truncate(p.htmlSnapshot(), Integer.MAX_VALUE));
+                        ps.setObject(5, utc(u.fetchedAt()));
+                        ps.setString(6, u.uiSignatureJson());
+                        ps.setString(7, u.summaryJson());
+                        ps.setString(8, u.riskTagsJson());
+                        ps.setString(9, p.screenshotObjectKey());
+                        ps.setString(10, p.networkLogObjectKey());
+                        ps.setObject(11, p.id());
+                    });
+                }
+                if (!links.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_LINK_SQL, links, batchSize, (ps, l) -> {
+                        ps.setObject(1, l.id());
+                        ps.setObject(2, runId);
+                        ps.setObject(3, l.fromPageId());
+                        ps.setObject(4, l.toPageId());
+                        ps.setString(5, truncate(l.anchorText(), 512));
+                        ps.setString(6, l.actionType() == null ? null : l.actionType().name());
+                        ps.setObject(7, utc(l.createdAt()));
+                    });
+                }
+            });
+        }
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.INTEGER);
+        else ps.setInt(index, value);
+    }
+
+    /**
+     * 컬럼 길이에 맞게 자르고 PostgreSQL text가 허용하지 않는 NUL 문자를 제거
+     * (행 하나의 오류로 batch 전체가 실패하지 않도록)
+     */
+    private static String truncate(String value, int maxLength) {
+        if (value == null) return null;
+        if (value.indexOf('\u0000') >= 0) value = value.replace("\u0000", "");
+        if (value.length() <= maxLength) return value;
+        return value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,159 @@
+package com.dubbi.statetrail.crawl.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 호스트 하나의 요청 간격 스케줄 (token bucket + crawl delay + adaptive backoff)
+ *
+ * token bucket은 GCRA(가상 도착 시각) 방식으로 계산한다: 요청마다 interval만큼 시각을 예약하고,
+ * burst개까지는 미리 당겨 쓸 수 있다. interval = max(1/rate, crawlDelay) × backoff.
+ * 429/503 응답이나 지연 시간 급증 시 backoff를 키우고, 정상 응답이 이어지면 천천히 되돌린다.
+ * Retry-After가 오면 그 시각까지 호스트 전체를 막는다.
+ */
+final class HostPoliteness {
+    private static final double BACKOFF_ON_THROTTLE = 2.0;
+    private static final double BACKOFF_ON_SLOW = 1.5;
+    private static final double RECOVERY = 0.9;
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long baseIntervalNanos;
+    private final int burst;
+    private final double maxBackoff;
+    private final double slowLatencyFactor;
+    private final Duration maxRetryAfter;
+
+    // lock으로 보호되는 상태
+    private long theoreticalArrival;
+    private long blockedUntil;
+    private double backoff = 1.0;
+    private double latencyEwmaMs;
+    private double latencyFloorMs = Double.MAX_VALUE;
+    private long requests;
+    private long throttled;
+
+    HostPoliteness(double requestsPerSecond, int burst, Duration crawlDelay, double maxBackoff,
+                   double slowLatencyFactor, Duration maxRetryAfter) {
+        long rateInterval = requestsPerSecond > 0 ? (long) (1_000_000_000L / requestsPerSecond) : 0;
+        this.baseIntervalNanos = Math.max(rateInterval, crawlDelay.toNanos());
+        // crawl delay가 있으면 요청 사이 간격을 항상 지키도록 burst를 쓰지 않음
+        this.burst = crawlDelay.isZero() ? Math.max(1, burst) : 1;
+        this.maxBackoff = Math.max(1.0, maxBackoff);
+        this.slowLatencyFactor = Math.max(1.0, slowLatencyFactor);
+        this.maxRetryAfter = maxRetryAfter;
+        this.theoreticalArrival = System.nanoTime();
+        this.blockedUntil = theoreticalArrival;
+    }
+
+    /**
+     * 다음 요청 시각을 예약
+     *
+     * @param minInterval run별 crawl delay (전역 설정보다 길면 이 값을 사용)
+     * @return 요청을 보내기 전에 기다려야 하는 nanos (0이면 바로)
+     */
+    long reserve(Duration minInterval) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long interval = (long) (Math.max(baseIntervalNanos, minInterval.toNanos()) * backoff);
+            int effectiveBurst = minInterval.isZero() ? burst : 1;
+            long earliest = Math.max(blockedUntil, theoreticalArrival - interval * (effectiveBurst - 1));
+            long at = Math.max(now, earliest);
+            theoreticalArrival = Math.max(theoreticalArrival, at) + interval;
+            requests++;
+            return at - now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 응답 결과로 backoff 조정
+     *
+     * @param retryAfter Retry-After 헤더 원문 (없으면 null)
+     */
+    void record(int status, long latencyMs, String retryAfter) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (status == 429 || status == 503) {
+                throttled++;
+                backoff = Math.min(maxBackoff, backoff * BACKOFF_ON_THROTTLE);
+                Duration wait = parseRetryAfter(retryAfter);
+                if (wait != null) {
+                    if (wait.compareTo(maxRetryAfter) > 0) wait = maxRetryAfter;
+                    blockedUntil = Math.max(blockedUntil, now + wait.toNanos());
+                }
+                return;
+            }
+            if (status <= 0) return;
+
+            latencyEwmaMs = latencyEwmaMs == 0
+                    ? latencyMs
+                    : LATENCY_EWMA_ALPHA * latencyMs + (1 - LATENCY_EWMA_ALPHA) * latencyEwmaMs;
+            latencyFloorMs = Math.min(latencyFloorMs, latencyEwmaMs);
+            // 평소보다 눈에 띄게 느려지면 서버 부하로 보고 속도를 줄임
+            if (requests > 5 && latencyEwmaMs > latencyFloorMs * slowLatencyFactor) {
+                backoff = Math.min(maxBackoff, backoff * BACKOFF_ON_SLOW);
+                // 같은 지연으로 계속 backoff가 커지지 않도록 기준을 현재 수준에 맞춤
+                latencyFloorMs = latencyEwmaMs;
+            } else {
+                backoff = Math.max(1.0, backoff * RECOVERY);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 예약된 요청 시각과 Retry-After 대기가 모두 지났는지 (상태를 버려도 요청 간격이 깨지지 않음)
+     */
+    boolean idleAt(long now) {
+        lock.lock();
+        try {
+            return now - theoreticalArrival >= 0 && now - blockedUntil >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests);
+            stats.put("throttled", throttled);
+            stats.put("backoff", Math.round(backoff * 100) / 100.0);
+            stats.put("latencyMs", Math.round(latencyEwmaMs));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retry-After 값 파싱 (초 단위 정수 또는 HTTP-date)
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(v)));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date 형식 시도
+        }
+        try {
+            Instant at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration wait = Duration.between(Instant.now(), at);
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dubbi.statetrail.crawl.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 공유 java.net.http.HttpClient 기반 fetcher (crawl.fetcher.type=httpclient, 기본값)
+ *
+ * 모든 run이 클라이언트 하나를 공유하므로 호스트별 연결이 keep-alive로 재사용되고,
+ * HTTP/2를 지원하는 서버에는 연결 하나에 요청을 multiplex한다 (TLS handshake를 페이지마다 하지 않음).
+ * gzip/deflate로 압축 전송을 요청하고, 본문은 압축을 풀며 스트림으로 바로 Jsoup에 넘겨 파싱한다.
+ * (JDK에 brotli 디코더가 없어 br은 요청하지 않는다)
+ * HttpRequest.timeout은 응답 헤더까지만 적용되므로, 본문은 요청 시작부터 같은 시간 안에 다 읽지 못하면
+ * 스트림을 닫아 읽기를 끊는다 (본문을 천천히 흘려보내는 서버가 워커를 붙잡지 않도록).
+ */
+@Component
+@ConditionalOnProperty(name = "crawl.fetcher.type", havingValue = "httpclient", matchIfMissing = true)
+public class HttpClientPageFetcher implements PageFetcher {
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final ScheduledExecutorService bodyDeadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fetch-body-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public HttpClientPageFetcher(
+            @Value("${crawl.fetcher.connect-timeout-ms:10000}") long connectTimeoutMs,
+            @Value("${crawl.fetcher.request-timeout-ms:10000}") long requestTimeoutMs
+    ) {
+        this.requestTimeout = Duration.ofMillis(Math.max(1, requestTimeoutMs));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(Math.max(1, connectTimeoutMs)))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bodyDeadlines.shutdownNow();
+    }
+
+    @Override
+    public FetchResponse fetch(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", ACCEPT)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        HttpResponse<InputStream> res = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        String contentType = res.headers().firstValue("Content-Type").orElse(null);
+        String encoding = res.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        InputStream body = res.body();
+        AtomicBoolean expired = new AtomicBoolean();
+        long remainingNanos = requestTimeout.toNanos() - (System.nanoTime() - started);
+        ScheduledFuture<?> deadline = bodyDeadlines.schedule(() -> {
+            expired.set(true);
+            closeQuietly(body);
+        }, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        // 크기 제한을 넘거나 HTML이 아니어서 덜 읽은 본문은 close로 연결째 버림
+        try (InputStream in = decode(body, encoding)) {
+            return FetchResponse.read(
+                    res.statusCode(),
+                    contentType,
+                    res.uri().toString(),
+                    charsetOf(contentType),
+                    res.headers().firstValue("Retry-After").orElse(null),
+                    in
+            );
+        } catch (IOException e) {
+            if (expired.get()) {
+                throw new HttpTimeoutException("response body not received within " + requestTimeout.toMillis() + "ms");
+            }
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // 읽던 스레드가 IOException으로 빠져나옴
+        }
+    }
+
+    private static InputStream decode(InputStream raw, String encoding) throws IOException {
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(raw, 8192);
+            case "deflate" -> new InflaterInputStream(raw);
+            default -> raw;
+        };
+    }
+
+    /**
+     * Content-Type의 charset (없거나 JVM이 지원하지 않는 이름이면 null → HTML은 meta 태그로 감지)
+     */
+    static String charsetOf(String contentType) {
+        if (contentType == null) return null;
+        for (String part : contentType.split(";")) {
+            String p = part.trim();
+            if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+                String cs = p.substring(8).trim().replace("\"", "");
+                return cs.isEmpty() || !isSupported(cs) ? null : cs;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSupported(String charset) {
+        try {
+            return Charset.isSupported(charset);
+        } catch (IllegalCharsetNameException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.dubbi.statetrail.crawl.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청마다 Jsoup.connect로 새 연결을 여는 기존 fetcher (crawl.fetcher.type=jsoup)
+ */
+@Component
+@ConditionalOnProperty(name = "crawl.fetcher.type", havingValue = "jsoup")
+public class JsoupPageFetcher implements PageFetcher {
+    @Override
+    public FetchResponse fetch(String url) throws IOException {
+        Connection.Response res = Jsoup.connect(url)
+                .userAgent(USER_AGENT)
+                .timeout(10_000)
+                .maxBodySize(MAX_BODY_BYTES)
+                .followRedirects(true)
+                .ignoreHttpErrors(true)
+                .ignoreContentType(true)
+                .execute();
+        try (InputStream in = res.bodyStream()) {
+            return FetchResponse.read(
+                    res.statusCode(),
+                    res.contentType(),
+                    res.url().toString(),
+                    res.charset(),
+                    res.header("Retry-After"),
+                    in
+            );
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dubbi.statetrail.crawl.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * Jsoup 모드에서 페이지 하나를 HTTP로 가져오는 fetcher (crawl.fetcher.type으로 구현 선택)
+ * 구현체는 thread-safe해야 하며, 호스트별 요청 간격/동시성 제한은 호출자(CrawlExecution)가 담당한다.
+ */
+public interface PageFetcher {
+    String USER_AGENT = "StateTrailBot/0.1";
+
+    /**
+     * 응답 본문 최대 크기 (압축 해제 후, 넘는 부분은 버림)
+     */
+    int MAX_BODY_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * 저장하는 본문 snapshot 최대 글자 수
+     */
+    int MAX_SNAPSHOT_CHARS = 200_000;
+
+    FetchResponse fetch(String url) throws IOException, InterruptedException;
+
+    /**
+     * @param finalUrl 리다이렉트를 따라간 최종 URL (상대 링크 해석 기준)
+     * @param document HTML이면 파싱한 문서, 아니면 null
+     * @param snapshot 본문 앞부분 (최대 MAX_SNAPSHOT_CHARS자)
+     * @param retryAfter Retry-After 헤더 원문 (없으면 null)
+     */
+    record FetchResponse(
+            int status,
+            String contentType,
+            String finalUrl,
+            Document document,
+            String snapshot,
+            String retryAfter
+    ) {
+        /**
+         * 본문 스트림에서 응답을 만듦
+         * HTML은 크기 제한을 건 스트림에서 바로 Jsoup으로 파싱하고 (본문 전체를 byte[]로 모으지 않음),
+         * snapshot용 앞부분만 따로 복사해 둔다. HTML이 아니면 앞부분만 읽는다.
+         *
+         * @param charset Content-Type의 charset (없으면 null, HTML은 meta 태그로 감지)
+         */
+        static FetchResponse read(int status, String contentType, String finalUrl, String charset, String retryAfter,
+                                  InputStream body) throws IOException {
+            // UTF-8 기준 최대 MAX_SNAPSHOT_CHARS자
+            CappedBodyStream in = new CappedBodyStream(body, MAX_BODY_BYTES, MAX_SNAPSHOT_CHARS * 4);
+            Document document = null;
+            Charset snapshotCharset;
+            if (isHtml(contentType)) {
+                document = Jsoup.parse(in, charset, finalUrl);
+                // meta 태그로 감지한 charset으로 snapshot 디코딩
+                snapshotCharset = document.charset();
+            } else {
+                in.readPrefix();
+                snapshotCharset = charsetOrUtf8(charset);
+            }
+            String snapshot = in.prefix(snapshotCharset);
+            if (snapshot.length() > MAX_SNAPSHOT_CHARS) snapshot = snapshot.substring(0, MAX_SNAPSHOT_CHARS);
+            return new FetchResponse(status, contentType, finalUrl, document, snapshot, retryAfter);
+        }
+
+        private static boolean isHtml(String contentType) {
+            return contentType != null && contentType.toLowerCase().contains("text/html");
+        }
+
+        private static Charset charsetOrUtf8(String charset) {
+            if (charset != null) {
+                try {
+                    return Charset.forName(charset);
+                } catch (Exception ignored) {
+                    // 알 수 없는 charset은 UTF-8 사용
+                }
+            }
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
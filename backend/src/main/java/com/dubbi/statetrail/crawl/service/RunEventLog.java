@@ -0,0 +1,219 @@
+package com.dubbi.statetrail.crawl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * run 하나의 이벤트 기록 (재접속 시 Last-Event-ID 이후 이벤트 재전송용)
+ *
+ * 이벤트마다 1부터 증가하는 seq를 붙여 고정 크기 ring buffer에 보관하고, ring에서 밀려난 이벤트는
+ * spill 파일에 (seq, type, payload JSON) 레코드로 이어 쓴다. spill 파일에는 SPARSE_INDEX_EVERY개마다
+ * (seq, offset) sparse index를 두어 재전송 시작 위치로 바로 건너뛴다.
+ * spill 디렉터리가 없으면 ring에 남은 범위만 재전송할 수 있다.
+ * 재전송은 since()로 최대 max개씩 나눠 읽는다 (긴 run도 한 번에 메모리에 올리지 않음).
+ */
+final class RunEventLog {
+    private static final int SPARSE_INDEX_EVERY = 256;
+
+    record Entry(long seq, String type, Object payload) {}
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ObjectMapper objectMapper;
+    private final Entry[] ring;
+    private final Path spillFile;
+
+    // lock으로 보호되는 상태
+    private long lastSeq;
+    private int ringStart;
+    private int ringSize;
+    private DataOutputStream spill;
+    private long spillBytes;
+    private long spilledCount;
+    private long[] indexSeq = new long[16];
+    private long[] indexOffset = new long[16];
+    private int indexSize;
+    private boolean spillFailed;
+    private boolean disposed;
+
+    RunEventLog(UUID runId, int capacity, Path spillDir, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[Math.max(16, capacity)];
+        this.spillFile = spillDir == null ? null : spillDir.resolve("run-" + runId + ".events");
+    }
+
+    /**
+     * 이벤트를 기록하고 seq를 반환
+     */
+    long append(String type, Object payload) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(++lastSeq, type, payload);
+            if (ringSize == ring.length) {
+                spill(ring[ringStart]);
+                ring[ringStart] = entry;
+                ringStart = (ringStart + 1) % ring.length;
+            } else {
+                ring[(ringStart + ringSize++) % ring.length] = entry;
+            }
+            return entry.seq();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 재전송할 수 있는 가장 오래된 seq (ring + spill 범위, 기록이 없으면 lastSeq + 1)
+     */
+    long firstSeq() {
+        lock.lock();
+        try {
+            if (disposed) return lastSeq + 1;
+            if (spill != null && !spillFailed && indexSize > 0) return indexSeq[0];
+            return ringSize == 0 ? lastSeq + 1 : ring[ringStart].seq();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * afterSeq 다음부터 upToSeq까지의 이벤트 중 앞에서부터 최대 max개
+     * (spill에서 읽은 payload는 원본 JSON 그대로 RawValue로 감쌈)
+     *
+     * @return 이벤트 목록, 이미 버려져 재전송할 수 없는 범위면 null
+     */
+    List<Entry> since(long afterSeq, long upToSeq, int max) throws IOException {
+        List<Entry> fromRing = new ArrayList<>();
+        long spillLength;
+        long startOffset = 0;
+        long ringFirstSeq;
+        lock.lock();
+        try {
+            if (disposed) return null;
+            ringFirstSeq = ringSize == 0 ? lastSeq + 1 : ring[ringStart].seq();
+            for (int i = 0; i < ringSize; i++) {
+                Entry e = ring[(ringStart + i) % ring.length];
+                if (e.seq() > afterSeq && e.seq() <= upToSeq && fromRing.size() < max) fromRing.add(e);
+            }
+            if (afterSeq + 1 >= ringFirstSeq) return fromRing;
+            // 필요한 범위 일부가 ring 밖
+            if (spill == null || spillFailed) return null;
+            spill.flush();
+            spillLength = spillBytes;
+            int i = Arrays.binarySearch(indexSeq, 0, indexSize, afterSeq + 1);
+            int at = i >= 0 ? i : -i - 2;
+            if (at >= 0) startOffset = indexOffset[at];
+        } finally {
+            lock.unlock();
+        }
+
+        // 파일은 append-only이므로 lock 밖에서 캡처한 길이까지만 읽음
+        List<Entry> out = new ArrayList<>();
+        try (InputStream raw = Files.newInputStream(spillFile)) {
+            raw.skipNBytes(startOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024));
+            long offset = startOffset;
+            while (offset < spillLength && out.size() < max) {
+                long seq = in.readLong();
+                String type = in.readUTF();
+                byte[] json = new byte[in.readInt()];
+                in.readFully(json);
+                offset += recordBytes(type, json.length);
+                if (seq <= afterSeq) continue;
+                if (seq >= ringFirstSeq || seq > upToSeq) break;
+                out.add(new Entry(seq, type, new RawValue(new String(json, StandardCharsets.UTF_8))));
+            }
+        }
+        for (int i = 0; i < fromRing.size() && out.size() < max; i++) {
+            out.add(fromRing.get(i));
+        }
+        return out;
+    }
+
+    /**
+     * spill 파일 삭제 (run 종료 후 보존 기간이 지나면 호출)
+     */
+    void dispose() {
+        lock.lock();
+        try {
+            disposed = true;
+            Arrays.fill(ring, null);
+            ringSize = 0;
+            closeSpill();
+            if (spillFile != null) Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            System.err.printf("[EventLog] Failed to delete %s: %s%n", spillFile, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void spill(Entry entry) {
+        if (spillFile == null || spillFailed) return;
+        try {
+            if (spill == null) {
+                Files.createDirectories(spillFile.getParent());
+                spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile), 64 * 1024));
+            }
+            if (spilledCount % SPARSE_INDEX_EVERY == 0) {
+                if (indexSize == indexSeq.length) {
+                    indexSeq = Arrays.copyOf(indexSeq, indexSize << 1);
+                    indexOffset = Arrays.copyOf(indexOffset, indexSize << 1);
+                }
+                indexSeq[indexSize] = entry.seq();
+                indexOffset[indexSize++] = spillBytes;
+            }
+            byte[] json = objectMapper.writeValueAsBytes(entry.payload());
+            spill.writeLong(entry.seq());
+            spill.writeUTF(entry.type());
+            spill.writeInt(json.length);
+            spill.write(json);
+            spillBytes += recordBytes(entry.type(), json.length);
+            spilledCount++;
+        } catch (IOException e) {
+            // 이후 재전송은 ring 범위만 가능 (재접속 클라이언트는 RESYNC로 전체 재조회)
+            System.err.printf("[EventLog] Spill to %s failed, replay limited to memory: %s%n", spillFile, e.getMessage());
+            spillFailed = true;
+            closeSpill();
+        }
+    }
+
+    /**
+     * 레코드 하나의 바이트 수 (seq + writeUTF(type) + 길이 + JSON, 이벤트 type은 ASCII)
+     */
+    private static long recordBytes(String type, int jsonLength) {
+        return Long.BYTES + 2 + type.length() + Integer.BYTES + jsonLength;
+    }
+
+    private void closeSpill() {
+        if (spill == null) return;
+        try {
+            spill.close();
+        } catch (IOException ignored) {
+            // ignore cleanup errors
+        }
+        spill = null;
+    }
+}
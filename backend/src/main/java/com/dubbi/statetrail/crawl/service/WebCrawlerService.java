@@ -1,46 +1,47 @@
 package com.dubbi.statetrail.crawl.service;
 
-import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserContext;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
 import com.microsoft.playwright.Response;
 import com.microsoft.playwright.options.LoadState;
 import com.dubbi.statetrail.common.util.Hashing;
 import com.dubbi.statetrail.common.util.UrlPattern;
 import com.dubbi.statetrail.common.storage.ObjectStorageService;
 import com.dubbi.statetrail.crawl.web.UiSignatureExtractor;
+import com.dubbi.statetrail.graph.service.GraphAnalyticsService;
 import com.dubbi.statetrail.auth.domain.AuthProfileRepository;
+import com.dubbi.statetrail.auth.domain.AuthProfileType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.dubbi.statetrail.crawl.domain.CrawlLinkEntity;
-import com.dubbi.statetrail.crawl.domain.CrawlLinkRepository;
-import com.dubbi.statetrail.crawl.domain.CrawlPageEntity;
-import com.dubbi.statetrail.crawl.domain.CrawlPageRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlRunEntity;
 import com.dubbi.statetrail.crawl.domain.CrawlRunRepository;
+import com.dubbi.statetrail.crawl.web.ActionOutcomeCache;
 import com.dubbi.statetrail.crawl.web.ActionType;
 import com.dubbi.statetrail.crawl.web.AllowlistRules;
 import com.dubbi.statetrail.crawl.web.CrawlBudget;
+import com.dubbi.statetrail.crawl.web.CrawlFrontier;
+import com.dubbi.statetrail.crawl.web.CrawlSettings;
 import com.dubbi.statetrail.crawl.web.CrawlStrategy;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import com.dubbi.statetrail.crawl.web.CrawlerAgent;
+import com.dubbi.statetrail.crawl.web.LinkPrefilter;
+import com.dubbi.statetrail.crawl.web.PageSettleDetector;
+import com.dubbi.statetrail.crawl.web.ResourceBlocker;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.scheduling.annotation.Async;
@@ -49,32 +50,44 @@ import org.springframework.stereotype.Service;
 @Service
 public class WebCrawlerService {
     private final CrawlRunRepository crawlRunRepository;
-    private final CrawlPageRepository crawlPageRepository;
-    private final CrawlLinkRepository crawlLinkRepository;
     private final CrawlRunEventHub eventHub;
     private final ObjectStorageService objectStorageService;
     private final AuthProfileRepository authProfileRepository;
     private final ObjectMapper objectMapper;
+    private final CrawlExecution crawlExecution;
+    private final BrowserPool browserPool;
+    private final CrawlWriteBehind crawlWriteBehind;
+    private final PageFetcher pageFetcher;
+    private final GraphAnalyticsService graphAnalyticsService;
+    private final AssetCache assetCache;
 
     public WebCrawlerService(
             CrawlRunRepository crawlRunRepository,
-            CrawlPageRepository crawlPageRepository,
-            CrawlLinkRepository crawlLinkRepository,
             CrawlRunEventHub eventHub,
             ObjectStorageService objectStorageService,
             AuthProfileRepository authProfileRepository,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            CrawlExecution crawlExecution,
+            BrowserPool browserPool,
+            CrawlWriteBehind crawlWriteBehind,
+            PageFetcher pageFetcher,
+            GraphAnalyticsService graphAnalyticsService,
+            AssetCache assetCache
     ) {
         this.crawlRunRepository = crawlRunRepository;
-        this.crawlPageRepository = crawlPageRepository;
-        this.crawlLinkRepository = crawlLinkRepository;
         this.eventHub = eventHub;
         this.objectStorageService = objectStorageService;
         this.authProfileRepository = authProfileRepository;
         this.objectMapper = objectMapper;
+        this.crawlExecution = crawlExecution;
+        this.browserPool = browserPool;
+        this.crawlWriteBehind = crawlWriteBehind;
+        this.pageFetcher = pageFetcher;
+        this.graphAnalyticsService = graphAnalyticsService;
+        this.assetCache = assetCache;
     }
 
-    @Async
+    @Async("crawlRunExecutor")
     public void start(UUID runId) {
         var runOpt = crawlRunRepository.findByIdWithRelations(runId);
         if (runOpt.isEmpty()) return;
@@ -84,8 +97,7 @@ public class WebCrawlerService {
         crawlRunRepository.save(run);
         eventHub.publish(runId, "STATUS", Map.of("status", "RUNNING", "startedAt", Instant.now().toString()));
 
-        int edges = 0;
-        int errors = 0;
+        RunState state = null;
 
         try {
             CrawlBudget budget = CrawlBudget.from(run.getBudget());
@@ -98,25 +110,6 @@ public class WebCrawlerService {
                 allowlist.domains(), allowlist.pathPrefixes(), allowlist.deny());
             Instant deadline = Instant.now().plus(budget.maxDuration());
 
-            // in-memory state
-            Set<String> visited = new HashSet<>();
-            Set<String> enqueued = new HashSet<>();
-            Set<String> edgeSeen = new HashSet<>();
-            Map<String, Integer> depthByUrl = new HashMap<>();
-            Map<String, CrawlPageEntity> pageByUrl = new HashMap<>();
-
-            // frontier
-            ArrayDeque<String> bfs = new ArrayDeque<>();
-            Map<String, Integer> mcsScore = new HashMap<>();
-            long[] seq = new long[]{0L};
-            PriorityQueue<FrontierItem> mcs = new PriorityQueue<>(
-                    (a, b) -> {
-                        int c = Integer.compare(b.score(), a.score());
-                        if (c != 0) return c;
-                        return Long.compare(a.seq(), b.seq());
-                    }
-            );
-
             URI startUri;
             try {
                 startUri = URI.create(run.getStartUrl());
@@ -137,317 +130,462 @@ public class WebCrawlerService {
             // Note: If allowlist is empty (no domains/paths specified), it allows all URLs.
             // This enables crawling external sites like example.com without restrictions.
 
+            // 브라우저 모드는 워커마다 풀에서 브라우저 하나를 대여하므로 풀 크기로 제한
+            int workers = browserMode
+                    ? Math.min(budget.concurrency(), browserPool.maxBrowsers())
+                    : crawlExecution.effectiveWorkers(budget.concurrency());
+            var settings = CrawlSettings.from(run.getProject().getCrawlSettings());
+            state = new RunState(runId, run, budget, browserMode, allowlist, deadline, new CrawlFrontier(ordering, budget.mcsScoring(), budget.maxNodes(), budget.maxEdges()),
+                    settings, new PageSettleDetector(settings), crawlWriteBehind.open(runId, (pages, links) -> publishCreated(runId, pages, links)));
+            if (browserMode) {
+                loadBrowserAuth(state);
+            }
+
             // seed
-            var startPage = getOrCreatePage(runId, run.getStartUrl(), 0);
-            pageByUrl.put(run.getStartUrl(), startPage);
-            depthByUrl.put(run.getStartUrl(), 0);
-            eventHub.publish(runId, "NODE_CREATED", Map.of(
-                    "id", startPage.getId(),
-                    "url", run.getStartUrl(),
-                    "depth", 0,
-                    "nodeKey", startPage.getNodeKey()
-            ));
-            offer(ordering, run.getStartUrl(), bfs, enqueued, mcsScore, mcs, seq);
+            int seed = getOrCreatePage(state, run.getStartUrl(), 0);
+            if (seed != CrawlFrontier.NO_NODE) {
+                state.frontier.offer(seed, run.getStartUrl());
+            }
 
-            Playwright playwright = null;
-            Browser browser = null;
-            BrowserContext context = null;
-            Page page = null;
-            Path tempStorageStatePath = null;
-            try {
-                if (browserMode) {
-                    playwright = Playwright.create();
-                    // headless=false로 설정하여 실제 브라우저 창을 띄워 상태 변화를 더 정확히 감지
-                    browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                            .setHeadless(false)
-                            .setSlowMo(100)); // 100ms 지연으로 디버깅 용이
-                    
-                    // Auth 컨텍스트 주입
-                    if (run.getAuthProfile() != null) {
-                        var authProfile = authProfileRepository.findById(run.getAuthProfile().getId()).orElse(null);
-                        if (authProfile != null) {
-                            if (authProfile.getType() == com.dubbi.statetrail.auth.domain.AuthProfileType.STORAGE_STATE 
-                                    && authProfile.getStorageStateObjectKey() != null) {
-                                try {
-                                    // MinIO에서 storage state 로드
-                                    var storageStateStream = objectStorageService.loadStorageState(authProfile.getStorageStateObjectKey());
-                                    var storageStateJson = new String(storageStateStream.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-                                    
-                                    // 임시 파일로 저장 (Playwright는 파일 경로를 요구)
-                                    tempStorageStatePath = Files.createTempFile("playwright-storage-state-" + runId + "-", ".json");
-                                    Files.write(tempStorageStatePath, storageStateJson.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                                    
-                                    System.out.printf("[Crawl] Loaded storage state for auth profile: %s (temp file: %s)%n", 
-                                        authProfile.getName(), tempStorageStatePath);
-                                } catch (Exception e) {
-                                    System.err.printf("[Crawl] Failed to load storage state: %s%n", e.getMessage());
-                                    e.printStackTrace();
-                                }
-                            } else if (authProfile.getType() == com.dubbi.statetrail.auth.domain.AuthProfileType.SCRIPT_LOGIN
-                                    && authProfile.getLoginScript() != null) {
-                                System.out.printf("[Crawl] Auth profile '%s' has login script, will execute after navigation%n", authProfile.getName());
-                                // 로그인 스크립트는 startUrl로 이동한 후 실행 (아래에서 처리)
-                            }
-                        }
-                    }
-                    
-                    // 브라우저 컨텍스트 옵션 설정 (더 나은 상태 감지를 위해)
-                    Browser.NewContextOptions baseContextOptions = new Browser.NewContextOptions()
-                            .setViewportSize(1280, 720)
-                            .setUserAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-                    
-                    // Storage state가 있으면 파일 경로로 주입, 없으면 기본 컨텍스트 생성
-                    if (tempStorageStatePath != null) {
-                        context = browser.newContext(baseContextOptions
-                                .setStorageStatePath(tempStorageStatePath));
-                    } else {
-                        context = browser.newContext(baseContextOptions);
+            if (workers <= 1 && !browserMode) {
+                crawlWorker(state, null, null);
+            } else {
+                System.out.printf("[Crawl] Starting %d %s workers for run %s%n",
+                        workers, browserMode ? "browser" : crawlExecution.isVirtualThreads() ? "virtual" : "platform", runId);
+                if (runWorkers(state, workers) == 0 && !state.frontier.isFinished()) {
+                    // 다른 run이 브라우저를 모두 쥔 채로 run 시간이 끝남
+                    state.writer.close();
+                    run.markFailed("no browser available before the run deadline", run.getStats());
+                    crawlRunRepository.save(run);
+                    eventHub.publish(runId, "STATUS", Map.of("status", "FAILED", "error", run.getErrorMessage()));
+                    return;
+                }
+            }
+
+            // 남은 write-behind 버퍼를 모두 저장한 뒤에 SUCCEEDED로 표시
+            state.writer.close();
+
+            Map<String, Object> finalStats = new HashMap<>();
+            finalStats.put("nodes", state.frontier.nodeCount());
+            finalStats.put("edges", state.edges.get());
+            finalStats.put("errors", state.errors.get());
+            finalStats.put("visited", state.frontier.visitedCount());
+            finalStats.put("frontierBytes", state.frontier.estimatedBytes());
+            finalStats.put("workers", workers);
+            finalStats.put("finishedReason", Instant.now().isAfter(deadline) ? "TIME" : "BUDGET_OR_FRONTIER");
+            if (state.prefilter != null) {
+                finalStats.put("linkPrefilter", state.prefilter.stats());
+            }
+            if (browserMode) {
+                finalStats.put("actionCache", state.actionOutcomes.stats());
+                finalStats.put("resourceBlocking", state.resourceBlocker.stats());
+                finalStats.put("assetCache", state.assetCacheUsage.stats());
+            }
+            finalStats.put("hostPoliteness", crawlExecution.hostStats(URI.create(run.getStartUrl()).getHost()));
+            run.markSucceeded(finalStats);
+            crawlRunRepository.save(run);
+            eventHub.publish(runId, "STATUS", Map.of("status", "SUCCEEDED", "finishedAt", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString()));
+            eventHub.publish(runId, "STATS", finalStats);
+            // 완료된 그래프의 중심성 점수는 백그라운드로 저장
+            graphAnalyticsService.submit(run);
+        } catch (Exception fatal) {
+            if (state != null) {
+                try {
+                    state.writer.close();
+                } catch (Exception ignored) {
+                    // 이미 실패 처리 중
+                }
+            }
+            var stats = Map.<String, Object>of(
+                    "edges", state == null ? 0 : state.edges.get(),
+                    "errors", state == null ? 0 : state.errors.get()
+            );
+            run.markFailed("crawler crashed: " + fatal.getClass().getSimpleName() + ": " + fatal.getMessage(), stats);
+            crawlRunRepository.save(run);
+            eventHub.publish(runId, "STATUS", Map.of("status", "FAILED", "error", run.getErrorMessage()));
+        } finally {
+            eventHub.finish(runId);
+        }
+    }
+
+    /**
+     * run 하나의 크롤 상태 (모든 워커가 공유)
+     */
+    private static final class RunState {
+        final UUID runId;
+        final CrawlRunEntity run;
+        final CrawlBudget budget;
+        final boolean browserMode;
+        final AllowlistRules allowlist;
+        final Instant deadline;
+        final CrawlFrontier frontier;
+        final CrawlSettings settings;
+        final PageSettleDetector settle;
+        final CrawlWriteBehind.RunWriter writer;
+        // budget.bloomFilter=false면 null
+        final LinkPrefilter prefilter;
+        // 브라우저 모드에서 페이지 간 같은 컴포넌트의 액션 결과 재사용
+        final ActionOutcomeCache actionOutcomes = new ActionOutcomeCache();
+        // 브라우저 모드 리소스 차단 (프로젝트 설정의 프로필, 워커 context마다 route 설치)
+        final ResourceBlocker resourceBlocker;
+        // 프로젝트 단위 정적 리소스 디스크 캐시의 이 run 사용량
+        final AssetCache.Usage assetCacheUsage = new AssetCache.Usage();
+        // 브라우저 모드 인증 (각 워커의 context에 주입)
+        volatile String storageStateJson;
+        volatile String loginScript;
+
+        final AtomicInteger edges = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicInteger processed = new AtomicInteger();
+        // virtual thread가 carrier에 pin되지 않도록 synchronized 대신 사용
+        final ReentrantLock statsLock = new ReentrantLock();
+
+        RunState(UUID runId, CrawlRunEntity run, CrawlBudget budget, boolean browserMode,
+                 AllowlistRules allowlist, Instant deadline, CrawlFrontier frontier, CrawlSettings settings,
+                 PageSettleDetector settle, CrawlWriteBehind.RunWriter writer) {
+            this.runId = runId;
+            this.run = run;
+            this.budget = budget;
+            this.browserMode = browserMode;
+            this.allowlist = allowlist;
+            this.deadline = deadline;
+            this.frontier = frontier;
+            this.settings = settings;
+            this.settle = settle;
+            this.writer = writer;
+            this.prefilter = budget.bloomFilter() ? new LinkPrefilter(budget.maxNodes()) : null;
+            this.resourceBlocker = new ResourceBlocker(settings.resourceBlocking(), settings.blockedDomains());
+        }
+
+        boolean nodeBudgetExhausted() {
+            return frontier.nodeCount() >= budget.maxNodes();
+        }
+
+        boolean edgeBudgetExhausted() {
+            return edges.get() >= budget.maxEdges();
+        }
+
+        /**
+         * 엣지 예산 1개 예약 (CAS로 maxEdges 초과 방지)
+         */
+        boolean tryReserveEdge() {
+            while (true) {
+                int current = edges.get();
+                if (current >= budget.maxEdges()) return false;
+                if (edges.compareAndSet(current, current + 1)) return true;
+            }
+        }
+    }
+
+    /**
+     * 워커 N개를 띄워 frontier를 병렬로 소진
+     * Jsoup 모드의 실제 동시 fetch 수는 CrawlExecution의 전체/호스트별 한도로 제한되고,
+     * 브라우저 모드는 워커마다 BrowserPool에서 브라우저 하나와 전용 context를 대여한다.
+     * 브라우저를 못 받은 워커는 run이 끝나거나(다른 워커가 frontier를 소진) 시간이 다 될 때까지 기다리다가 조용히 빠진다.
+     *
+     * @return 실제로 크롤을 수행한 워커 수
+     */
+    private int runWorkers(RunState state, int workers) throws Exception {
+        ExecutorService pool = crawlExecution.newWorkerExecutor(state.runId, workers, state.browserMode);
+        AtomicInteger started = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> {
+                    if (!state.browserMode) {
+                        started.incrementAndGet();
+                        crawlWorker(state, null, null);
+                        return null;
                     }
-                    
-                    page = context.newPage();
-                    
-                    // 디버깅을 위한 로깅
-                    System.out.printf("[Crawl] Browser launched in non-headless mode (visible window) for better state change detection%n");
-                    
-                    // SCRIPT_LOGIN 타입인 경우 로그인 스크립트 실행
-                    if (run.getAuthProfile() != null && page != null) {
-                        var authProfile = authProfileRepository.findById(run.getAuthProfile().getId()).orElse(null);
-                        if (authProfile != null 
-                                && authProfile.getType() == com.dubbi.statetrail.auth.domain.AuthProfileType.SCRIPT_LOGIN
-                                && authProfile.getLoginScript() != null) {
-                            try {
-                                // startUrl로 이동
-                                page.navigate(run.getStartUrl(), new Page.NavigateOptions().setTimeout(15_000));
-                                page.waitForLoadState(LoadState.DOMCONTENTLOADED);
-                                
-                                // 로그인 스크립트 실행 (JavaScript로 평가)
-                                // 주의: 실제 로그인 스크립트는 Playwright API 호출로 변환되어야 함
-                                // 현재는 간단히 JavaScript로 실행 (향후 더 정교한 파싱 필요)
-                                page.evaluate(authProfile.getLoginScript());
-                                page.waitForTimeout(1000); // 로그인 완료 대기
-                                
-                                System.out.printf("[Crawl] Executed login script for auth profile: %s%n", authProfile.getName());
-                            } catch (Exception e) {
-                                System.err.printf("[Crawl] Failed to execute login script: %s%n", e.getMessage());
-                                e.printStackTrace();
-                            }
+                    try (BrowserPool.BrowserLease lease = browserPool.lease(state.storageStateJson, state.deadline,
+                            () -> !state.frontier.isFinished())) {
+                        if (lease == null) {
+                            System.out.printf("[Crawl] Worker left run %s without a browser (run finished or deadline reached)%n", state.runId);
+                            return null;
                         }
+                        started.incrementAndGet();
+                        // 캐시 route를 먼저 설치: 차단 route가 통과시킨 요청만 캐시를 거침
+                        assetCache.install(lease.context(), state.run.getProject().getId(), state.assetCacheUsage);
+                        ResourceBlocker.Session blocking = state.resourceBlocker.install(lease.context());
+                        runLoginScript(state, lease.page());
+                        crawlWorker(state, lease.page(), blocking);
                     }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    state.frontier.close();
+                    if (e.getCause() instanceof Exception cause) throw cause;
+                    throw e;
                 }
+            }
+            return started.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-            while (Instant.now().isBefore(deadline)) {
-                if (pageByUrl.size() >= budget.maxNodes()) break;
-                if (edges >= budget.maxEdges()) break;
+    /**
+     * run의 auth profile에서 브라우저 context에 주입할 인증 정보를 로드
+     */
+    private void loadBrowserAuth(RunState state) {
+        if (state.run.getAuthProfile() == null) return;
+        var authProfile = authProfileRepository.findById(state.run.getAuthProfile().getId()).orElse(null);
+        if (authProfile == null) return;
 
-                String url = poll(ordering, bfs, mcsScore, mcs, visited);
-                if (url == null) break;
+        if (authProfile.getType() == AuthProfileType.STORAGE_STATE
+                && authProfile.getStorageStateObjectKey() != null) {
+            try (var storageStateStream = objectStorageService.loadStorageState(authProfile.getStorageStateObjectKey())) {
+                // Playwright context에 JSON으로 직접 주입 (임시 파일 불필요)
+                state.storageStateJson = new String(storageStateStream.readAllBytes(), StandardCharsets.UTF_8);
+                System.out.printf("[Crawl] Loaded storage state for auth profile: %s%n", authProfile.getName());
+            } catch (Exception e) {
+                System.err.printf("[Crawl] Failed to load storage state: %s%n", e.getMessage());
+                e.printStackTrace();
+            }
+        } else if (authProfile.getType() == AuthProfileType.SCRIPT_LOGIN
+                && authProfile.getLoginScript() != null) {
+            System.out.printf("[Crawl] Auth profile '%s' has login script, will execute after navigation%n", authProfile.getName());
+            state.loginScript = authProfile.getLoginScript();
+        }
+    }
 
-                if (visited.contains(url)) continue;
-                int depth = depthByUrl.getOrDefault(url, 0);
-                if (depth > budget.maxDepth()) {
-                    visited.add(url);
-                    continue;
-                }
+    /**
+     * SCRIPT_LOGIN: 워커 context마다 startUrl로 이동한 뒤 로그인 스크립트 실행
+     */
+    private void runLoginScript(RunState state, Page page) {
+        if (state.loginScript == null) return;
+        try {
+            page.navigate(state.run.getStartUrl(), new Page.NavigateOptions().setTimeout(15_000));
+            page.waitForLoadState(LoadState.DOMCONTENTLOADED);
 
-                visited.add(url);
+            // 로그인 스크립트 실행 (JavaScript로 평가)
+            // 주의: 실제 로그인 스크립트는 Playwright API 호출로 변환되어야 함
+            // 현재는 간단히 JavaScript로 실행 (향후 더 정교한 파싱 필요)
+            page.evaluate(state.loginScript);
+            state.settle.waitFor(page); // 로그인 완료 대기
 
-                CrawlPageEntity current = pageByUrl.computeIfAbsent(url, u -> getOrCreatePage(runId, u, depth));
+            System.out.printf("[Crawl] Executed login script for run %s%n", state.runId);
+        } catch (Exception e) {
+            System.err.printf("[Crawl] Failed to execute login script: %s%n", e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-                try {
-                    // 브라우저 모드인 경우, 현재 페이지가 목표 URL과 다르면 navigate
-                    if (browserMode && page != null) {
-                        String currentPageUrl = page.url();
-                        // URL이 정확히 일치하지 않으면 navigate
-                        if (!currentPageUrl.equals(url) && !currentPageUrl.equals(url + "/") && !(currentPageUrl + "/").equals(url)) {
-                            System.out.printf("[Crawl] Browser: Navigating from %s to %s%n", currentPageUrl, url);
-                            page.navigate(url, new Page.NavigateOptions().setTimeout(15_000));
-                            page.waitForLoadState(LoadState.DOMCONTENTLOADED);
-                            page.waitForTimeout(3000);
-                            try {
-                                page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(5_000));
-                            } catch (Exception e) {
-                                // 타임아웃되어도 계속
-                            }
-                            page.waitForTimeout(1000);
-                        } else {
-                            System.out.printf("[Crawl] Browser: Already on %s, using current page%n", url);
-                        }
-                    }
-                    
-                    PageFetchResult result = browserMode
-                            ? fetchWithBrowser(page, url)
-                            : fetchWithJsoup(url);
+    /**
+     * 워커 루프: 예산/시간이 남아 있는 동안 frontier에서 URL을 꺼내 처리
+     */
+    private void crawlWorker(RunState state, Page page, ResourceBlocker.Session blocking) {
+        while (Instant.now().isBefore(state.deadline)) {
+            if (state.nodeBudgetExhausted() || state.edgeBudgetExhausted()) {
+                state.frontier.close();
+                break;
+            }
 
-                    current.markFetched(result.status, result.contentType, result.title, result.htmlSnapshot);
-                    
-                    // 브라우저 모드인 경우 UI 시그니처, 스크린샷, 네트워크 로그 저장
-                    if (browserMode && page != null) {
-                        if (result.uiSignature() != null && !result.uiSignature().isEmpty()) {
-                            current.setUiSignature(result.uiSignature());
-                        }
-                        
-                        // 스크린샷 캡처 및 저장
-                        try {
-                            byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(false));
-                            String screenshotKey = objectStorageService.saveScreenshot(runId, current.getId(), screenshot);
-                            current.setScreenshotObjectKey(screenshotKey);
-                            System.out.printf("[Crawl] Saved screenshot: %s%n", screenshotKey);
-                        } catch (Exception e) {
-                            System.err.printf("[Crawl] Failed to save screenshot: %s%n", e.getMessage());
-                        }
-                        
-                        // 네트워크 로그를 HAR 형식으로 변환하여 저장
-                        if (result.networkRequests() != null && !result.networkRequests().isEmpty()) {
-                            try {
-                                Map<String, Object> har = createHarFromRequests(result.networkRequests());
-                                String harJson = objectMapper.writeValueAsString(har);
-                                String networkLogKey = objectStorageService.saveNetworkLog(runId, current.getId(), harJson);
-                                current.setNetworkLogObjectKey(networkLogKey);
-                                System.out.printf("[Crawl] Saved network log: %s%n", networkLogKey);
-                            } catch (Exception e) {
-                                System.err.printf("[Crawl] Failed to save network log: %s%n", e.getMessage());
-                            }
-                        }
-                    }
-                    
-                    crawlPageRepository.save(current);
-
-                    // expand
-                    int linksFound = result.links.size();
-                    int linksAllowed = 0;
-                    int linksEnqueued = 0;
-                    for (LinkOut link : result.links) {
-                        if (pageByUrl.size() >= budget.maxNodes()) break;
-                        if (edges >= budget.maxEdges()) break;
-                        if (Instant.now().isAfter(deadline)) break;
-
-                        String toUrl = normalize(url, link.href());
-                        if (toUrl == null) {
-                            System.out.printf("[Crawl] Failed to normalize link: %s (from %s)%n", link.href(), url);
-                            continue;
-                        }
-                        URI toUri;
-                        try {
-                            toUri = URI.create(toUrl);
-                        } catch (Exception e) {
-                            System.out.printf("[Crawl] Failed to create URI from: %s (error: %s)%n", toUrl, e.getMessage());
-                            continue;
-                        }
-                        if (!allowlist.allows(toUri)) {
-                            System.out.printf("[Crawl] Link denied by allowlist: %s%n", toUrl);
-                            continue;
-                        }
-                        linksAllowed++;
+            CrawlFrontier.Next next = state.frontier.take(state.deadline);
+            if (next == null) break;
 
-                        int toDepth = depth + 1;
-                        if (toDepth > budget.maxDepth()) {
-                            System.out.printf("[Crawl] Link exceeds max depth (%d > %d): %s%n", toDepth, budget.maxDepth(), toUrl);
-                            continue;
-                        }
+            try {
+                int depth = state.frontier.depthOf(next.ordinal());
+                if (depth > state.budget.maxDepth()) continue;
+                processUrl(state, next.ordinal(), next.url(), depth, page, blocking);
+            } finally {
+                state.frontier.done();
+            }
 
-                        CrawlPageEntity toPage = pageByUrl.get(toUrl);
-                        if (toPage == null) {
-                            toPage = getOrCreatePage(runId, toUrl, toDepth);
-                            pageByUrl.put(toUrl, toPage);
-                            depthByUrl.put(toUrl, toDepth);
-                            Map<String, Object> nodeEvent = new HashMap<>();
-                            nodeEvent.put("id", toPage.getId());
-                            nodeEvent.put("url", toUrl);
-                            nodeEvent.put("depth", toDepth);
-                            nodeEvent.put("nodeKey", toPage.getNodeKey());
-                            if (toPage.getTitle() != null) {
-                                nodeEvent.put("title", toPage.getTitle());
-                            }
-                            eventHub.publish(runId, "NODE_CREATED", nodeEvent);
-                        }
+            // stats heartbeat
+            if (state.processed.incrementAndGet() % 5 == 0) {
+                var stats = Map.<String, Object>of(
+                        "nodes", state.frontier.nodeCount(),
+                        "edges", state.edges.get(),
+                        "errors", state.errors.get(),
+                        "visited", state.frontier.visitedCount()
+                );
+                state.statsLock.lock();
+                try {
+                    state.run.updateStats(stats);
+                    crawlRunRepository.save(state.run);
+                } finally {
+                    state.statsLock.unlock();
+                }
+                eventHub.publish(state.runId, "STATS", stats);
+            }
+        }
+    }
 
-                        String edgeKey = current.getId() + "->" + toPage.getId();
-                        if (edgeSeen.add(edgeKey)) {
-                            try {
-                                var linkEntity = new CrawlLinkEntity(UUID.randomUUID(), run, current, toPage, link.anchorText());
-                                linkEntity.setActionType(ActionType.NAVIGATE);
-                                crawlLinkRepository.save(linkEntity);
-                                edges++;
-                                
-                                Map<String, Object> edgeEvent = new HashMap<>();
-                                edgeEvent.put("id", linkEntity.getId());
-                                edgeEvent.put("from", current.getId());
-                                edgeEvent.put("to", toPage.getId());
-                                edgeEvent.put("actionType", ActionType.NAVIGATE.name());
-                                if (link.anchorText() != null) {
-                                    edgeEvent.put("anchorText", link.anchorText());
-                                }
-                                eventHub.publish(runId, "EDGE_CREATED", edgeEvent);
-                            } catch (Exception ignored) {
-                                // ignore duplicates due to race/constraints
-                            }
-                        }
+    /**
+     * URL 하나를 fetch하고, 발견한 링크로 노드/엣지를 만들고 frontier를 확장
+     */
+    private void processUrl(RunState state, int ordinal, String url, int depth, Page page, ResourceBlocker.Session blocking) {
+        UUID runId = state.runId;
+        boolean browserMode = state.browserMode;
+        UUID currentId = state.frontier.idOf(ordinal);
 
-                        if (visited.contains(toUrl)) {
-                            System.out.printf("[Crawl] Link already visited, skipping: %s%n", toUrl);
-                        } else if (enqueued.contains(toUrl)) {
-                            System.out.printf("[Crawl] Link already enqueued, skipping: %s%n", toUrl);
-                        } else {
-                            linksEnqueued++;
-                            System.out.printf("[Crawl] Enqueuing link: %s (depth=%d)%n", toUrl, toDepth);
-                            if (ordering == CrawlStrategy.MCS) {
-                                mcsScore.put(toUrl, mcsScore.getOrDefault(toUrl, 0) + 1);
-                            }
-                            offer(ordering, toUrl, bfs, enqueued, mcsScore, mcs, seq);
+        try {
+            if (blocking != null) {
+                // 스크린샷을 찍을 페이지 로드: 이전 페이지의 차단 기록은 버리고 이미지 허용
+                blocking.screenshotState(true);
+                blocking.drainBlocked();
+            }
+            // 브라우저 모드인 경우, 현재 페이지가 목표 URL과 다르면 navigate
+            if (browserMode && page != null) {
+                String currentPageUrl = page.url();
+                // URL이 정확히 일치하지 않으면 navigate
+                if (!currentPageUrl.equals(url) && !currentPageUrl.equals(url + "/") && !(currentPageUrl + "/").equals(url)) {
+                    System.out.printf("[Crawl] Browser: Navigating from %s to %s%n", currentPageUrl, url);
+                    // 문서 요청도 Jsoup 모드와 같은 호스트별 요청 간격을 따름
+                    try (var permit = crawlExecution.acquireFetch(URI.create(url).getHost(), state.settings.crawlDelay())) {
+                        Response navigation = page.navigate(url, new Page.NavigateOptions().setTimeout(15_000));
+                        if (navigation != null) {
+                            permit.record(navigation.status(), navigation.headerValue("retry-after"));
                         }
                     }
-                    
-                    // Log link extraction stats for debugging
-                    if (linksFound > 0) {
-                        System.out.printf("[Crawl] %s: found %d links, %d allowed, %d enqueued (depth=%d)%n", 
-                            url, linksFound, linksAllowed, linksEnqueued, depth);
-                    }
-                } catch (Exception e) {
-                    errors++;
-                    System.err.printf("[Crawl] Error fetching %s: %s%n", url, e.getMessage());
-                    e.printStackTrace();
+                    page.waitForLoadState(LoadState.DOMCONTENTLOADED);
+                    // 안정화 대기는 fetchWithBrowser에서 수행
+                } else {
+                    System.out.printf("[Crawl] Browser: Already on %s, using current page%n", url);
                 }
+            }
+            
+            PageFetchResult result = browserMode
+                    ? fetchWithBrowser(page, url, state.settle, state.actionOutcomes, blocking)
+                    : fetchHttp(url, state.settings.crawlDelay());
 
-                // stats heartbeat
-                if (visited.size() % 5 == 0) {
-                    var stats = Map.<String, Object>of("nodes", pageByUrl.size(), "edges", edges, "errors", errors, "visited", visited.size());
-                    run.updateStats(stats);
-                    crawlRunRepository.save(run);
-                    eventHub.publish(runId, "STATS", stats);
+            String screenshotKey = null;
+            String networkLogKey = null;
+
+            // 브라우저 모드인 경우 스크린샷, 네트워크 로그 저장
+            if (browserMode && page != null) {
+                // 스크린샷 캡처 및 저장
+                try {
+                    byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(false));
+                    screenshotKey = objectStorageService.saveScreenshot(runId, currentId, screenshot);
+                    System.out.printf("[Crawl] Saved screenshot: %s%n", screenshotKey);
+                } catch (Exception e) {
+                    System.err.printf("[Crawl] Failed to save screenshot: %s%n", e.getMessage());
                 }
-            }
-            } finally {
-                if (page != null) page.close();
-                if (context != null) context.close();
-                if (browser != null) browser.close();
-                if (playwright != null) playwright.close();
                 
-                // 임시 storage state 파일 정리
-                if (tempStorageStatePath != null) {
+                // 네트워크 로그를 HAR 형식으로 변환하여 저장
+                if (result.networkRequests() != null && !result.networkRequests().isEmpty()) {
                     try {
-                        Files.deleteIfExists(tempStorageStatePath);
-                    } catch (IOException e) {
-                        System.err.printf("[Crawl] Failed to delete temp storage state file: %s%n", e.getMessage());
+                        Map<String, Object> har = createHarFromRequests(result.networkRequests());
+                        String harJson = objectMapper.writeValueAsString(har);
+                        networkLogKey = objectStorageService.saveNetworkLog(runId, currentId, harJson);
+                        System.out.printf("[Crawl] Saved network log: %s%n", networkLogKey);
+                    } catch (Exception e) {
+                        System.err.printf("[Crawl] Failed to save network log: %s%n", e.getMessage());
                     }
                 }
             }
+            
+            state.writer.updateFetchedPage(new CrawlWriteBehind.FetchedPage(
+                    currentId,
+                    result.status(),
+                    result.contentType(),
+                    result.title(),
+                    result.htmlSnapshot(),
+                    browserMode ? result.uiSignature() : null,
+                    screenshotKey,
+                    networkLogKey
+            ));
 
-            var finalStats = Map.<String, Object>of(
-                    "nodes", pageByUrl.size(),
-                    "edges", edges,
-                    "errors", errors,
-                    "visited", visited.size(),
-                    "finishedReason", Instant.now().isAfter(deadline) ? "TIME" : "BUDGET_OR_FRONTIER"
-            );
-            run.markSucceeded(finalStats);
-            crawlRunRepository.save(run);
-            eventHub.publish(runId, "STATUS", Map.of("status", "SUCCEEDED", "finishedAt", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString()));
-            eventHub.publish(runId, "STATS", finalStats);
-        } catch (Exception fatal) {
-            var stats = Map.<String, Object>of("edges", edges, "errors", errors);
-            run.markFailed("crawler crashed: " + fatal.getClass().getSimpleName() + ": " + fatal.getMessage(), stats);
-            crawlRunRepository.save(run);
-            eventHub.publish(runId, "STATUS", Map.of("status", "FAILED", "error", run.getErrorMessage()));
+            // expand
+            int linksFound = result.links.size();
+            int linksAllowed = 0;
+            int linksEnqueued = 0;
+            int toDepth = depth + 1;
+            if (toDepth > state.budget.maxDepth()) {
+                // 이 페이지의 링크는 모두 depth 초과이므로 링크별 검사 없이 종료
+                if (linksFound > 0) {
+                    System.out.printf("[Crawl] %s: %d links exceed max depth (%d > %d), not expanding%n",
+                        url, linksFound, toDepth, state.budget.maxDepth());
+                }
+                return;
+            }
+            LinkPrefilter prefilter = state.prefilter;
+            for (LinkOut link : result.links) {
+                if (state.nodeBudgetExhausted()) break;
+                if (state.edgeBudgetExhausted()) break;
+                if (Instant.now().isAfter(state.deadline)) break;
+
+                // 사전 검사: 이미 해석한 링크는 ordinal을 바로 쓰고, 거부된 링크는 건너뜀
+                long linkKey = 0;
+                int toOrdinal = CrawlFrontier.NO_NODE;
+                if (prefilter != null) {
+                    linkKey = LinkPrefilter.keyOf(url, link.href());
+                    toOrdinal = prefilter.knownOrdinal(linkKey);
+                    if (toOrdinal == CrawlFrontier.NO_NODE && prefilter.isRejected(linkKey)) continue;
+                }
+
+                String toUrl = null;
+                if (toOrdinal == CrawlFrontier.NO_NODE) {
+                    toUrl = normalize(url, link.href());
+                    if (toUrl == null) {
+                        System.out.printf("[Crawl] Failed to normalize link: %s (from %s)%n", link.href(), url);
+                        if (prefilter != null) prefilter.recordRejected(linkKey);
+                        continue;
+                    }
+                    if (toUrl.length() > CrawlWriteBehind.MAX_URL_LENGTH) {
+                        System.out.printf("[Crawl] Link too long (%d chars), skipping: %.200s...%n", toUrl.length(), toUrl);
+                        if (prefilter != null) prefilter.recordRejected(linkKey);
+                        continue;
+                    }
+                    URI toUri;
+                    try {
+                        toUri = URI.create(toUrl);
+                    } catch (Exception e) {
+                        System.out.printf("[Crawl] Failed to create URI from: %s (error: %s)%n", toUrl, e.getMessage());
+                        if (prefilter != null) prefilter.recordRejected(linkKey);
+                        continue;
+                    }
+                    if (!state.allowlist.allows(toUri)) {
+                        System.out.printf("[Crawl] Link denied by allowlist: %s%n", toUrl);
+                        if (prefilter != null) prefilter.recordRejected(linkKey);
+                        continue;
+                    }
+
+                    toOrdinal = getOrCreatePage(state, toUrl, toDepth);
+                    if (toOrdinal == CrawlFrontier.NO_NODE) break; // node budget exhausted
+                    if (prefilter != null) prefilter.recordResolved(linkKey, toOrdinal);
+                }
+                linksAllowed++;
+
+                if (state.frontier.addEdge(ordinal, toOrdinal)) {
+                    if (!state.tryReserveEdge()) break; // edge budget exhausted
+                    UUID toId = state.frontier.idOf(toOrdinal);
+                    UUID linkId = UUID.randomUUID();
+                    // EDGE_CREATED는 write-behind flush 후에 publishCreated에서 전송
+                    state.writer.insertLink(linkId, currentId, toId, link.anchorText(), ActionType.NAVIGATE);
+                }
+
+                if (toUrl == null) {
+                    // 사전 검사로 찾은 노드: 보통 이미 enqueue/방문되었으므로 URL 해석 없이 넘어감
+                    if (state.frontier.isVisited(toOrdinal) || state.frontier.isEnqueued(toOrdinal)) continue;
+                    toUrl = normalize(url, link.href());
+                    if (toUrl == null) continue;
+                }
+                if (state.frontier.isVisited(toOrdinal)) {
+                    System.out.printf("[Crawl] Link already visited, skipping: %s%n", toUrl);
+                } else if (state.frontier.isEnqueued(toOrdinal)) {
+                    System.out.printf("[Crawl] Link already enqueued, skipping: %s%n", toUrl);
+                } else if (state.frontier.offer(toOrdinal, toUrl)) {
+                    linksEnqueued++;
+                    System.out.printf("[Crawl] Enqueuing link: %s (depth=%d)%n", toUrl, toDepth);
+                }
+            }
+            
+            // Log link extraction stats for debugging
+            if (linksFound > 0) {
+                System.out.printf("[Crawl] %s: found %d links, %d allowed, %d enqueued (depth=%d)%n", 
+                    url, linksFound, linksAllowed, linksEnqueued, depth);
+            }
+        } catch (Exception e) {
+            state.errors.incrementAndGet();
+            System.err.printf("[Crawl] Error fetching %s: %s%n", url, e.getMessage());
+            e.printStackTrace();
         }
     }
 
@@ -466,20 +604,22 @@ public class WebCrawlerService {
         String text,           // 버튼/링크 텍스트
         String selector,       // CSS selector
         String href,           // 링크인 경우 href (null 가능)
-        int priority           // 우선순위: 1=아코디언/메뉴, 2=페이지네이션, 3=일반 버튼
+        int priority,          // 우선순위: 1=아코디언/메뉴, 2=페이지네이션, 3=일반 버튼
+        String component,      // 감싼 컴포넌트의 구조 해시 (null 가능)
+        boolean global         // nav/aside/header 같은 전역 영역 안인지
     ) {}
     
     /**
      * 상태 변화 감지 결과
      */
     private record StateChangeResult(
+        boolean performed,            // 액션을 실제로 실행했는지 (클릭 실패/예외면 false)
         boolean changed,              // 상태가 변경되었는지
         String newUrl,                // 새 URL (변경된 경우)
         String newDomHash,            // 새 DOM 해시
         Map<String, Object> newUiSignature,  // 새 UI 시그니처
         List<LinkOut> discoveredLinks // 새로 발견된 링크들
     ) {}
-    private record FrontierItem(String url, int score, long seq) {}
     private record PageFetchResult(
             Integer status, 
             String contentType, 
@@ -490,32 +630,36 @@ public class WebCrawlerService {
             List<Map<String, Object>> networkRequests
     ) {}
 
-    private PageFetchResult fetchWithJsoup(String url) throws Exception {
-        Connection.Response res = Jsoup.connect(url)
-                .userAgent("StateTrailBot/0.1")
-                .timeout(10_000)
-                .followRedirects(true)
-                .ignoreHttpErrors(true)
-                .ignoreContentType(true)
-                .execute();
+    // 429/503 응답을 받은 페이지의 재시도 횟수
+    private static final int THROTTLE_RETRIES = 1;
 
-        String contentType = res.contentType();
-        Integer status = res.statusCode();
-        String body = res.body();
+    private PageFetchResult fetchHttp(String url, Duration crawlDelay) throws Exception {
+        PageFetcher.FetchResponse res;
+        String host = URI.create(url).getHost();
+        int attempt = 0;
+        while (true) {
+            // 응답 본문을 다 읽을 때까지 fetch 슬롯 점유 (HTML은 읽으면서 파싱)
+            try (var permit = crawlExecution.acquireFetch(host, crawlDelay)) {
+                res = pageFetcher.fetch(url);
+                permit.record(res.status(), res.retryAfter());
+            }
+            // 429/503은 호스트 스케줄이 Retry-After/backoff만큼 늦춘 뒤 한 번 더 시도
+            if ((res.status() != 429 && res.status() != 503) || attempt++ >= THROTTLE_RETRIES) break;
+            System.out.printf("[Crawl] %s throttled (HTTP %d), retrying after host backoff%n", url, res.status());
+        }
 
         String title = null;
         Set<LinkOut> links = Set.of();
-        if (contentType != null && contentType.toLowerCase().contains("text/html")) {
-            Document doc = res.parse();
+        Document doc = res.document();
+        if (doc != null) {
             title = doc.title();
             links = extractLinks(doc);
         }
-
-        String snapshot = body == null ? null : (body.length() > 200_000 ? body.substring(0, 200_000) : body);
-        return new PageFetchResult(status, contentType, title, snapshot, links, Map.of(), List.of());
+        return new PageFetchResult(res.status(), res.contentType(), title, res.snapshot(), links, Map.of(), List.of());
     }
 
-    private PageFetchResult fetchWithBrowser(Page page, String url) {
+    private PageFetchResult fetchWithBrowser(Page page, String url, PageSettleDetector settle,
+                                             ActionOutcomeCache actionOutcomes, ResourceBlocker.Session blocking) {
         // 네트워크 요청 추적 시작
         List<Map<String, Object>> networkRequests = new ArrayList<>();
         
@@ -540,16 +684,8 @@ public class WebCrawlerService {
             System.out.printf("[Crawl] Browser: Already on %s, using current page%n", url);
         }
         
-        // SPA hydration / client fetch time - React 앱이 완전히 렌더링될 때까지 대기
-        page.waitForTimeout(3000);
-        // 네트워크가 안정될 때까지 추가 대기 (API 호출 완료 대기)
-        try {
-            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(5_000));
-        } catch (Exception e) {
-            // 타임아웃되어도 계속 진행
-        }
-        // React Router가 완전히 초기화될 때까지 추가 대기
-        page.waitForTimeout(1000);
+        // SPA hydration / client fetch - DOM 변경과 API 호출이 멈출 때까지 대기
+        settle.waitFor(page);
 
         String contentType = null;
         Integer status = null;
@@ -567,23 +703,40 @@ public class WebCrawlerService {
             html = page.content();
         } catch (Exception ignored) {}
 
-        // UI 시그니처 추출
-        Map<String, Object> uiSignature = UiSignatureExtractor.extractFromPage(page);
+        // UI 시그니처와 정적 링크를 한 번의 스캔으로 추출
+        UiSignatureExtractor.PageScan scan = UiSignatureExtractor.scan(page);
+        Map<String, Object> uiSignature = scan.signature();
 
-        // 상태/행동 탐색 방식: 액션 후보 추출 및 실행
-        Set<LinkOut> links = extractActionsAndDiscoverLinks(page, uiSignature);
+        // 상태/행동 탐색 방식: 액션 후보 추출 및 실행 (탐색 중 상태는 스크린샷 대상이 아님)
+        if (blocking != null) blocking.screenshotState(false);
+        Set<LinkOut> links = extractActionsAndDiscoverLinks(page, scan, settle, actionOutcomes);
+        if (blocking != null) {
+            blocking.screenshotState(true);
+            // 차단한 요청을 네트워크 로그에 표시
+            Map<String, String> blocked = blocking.drainBlocked();
+            if (!blocked.isEmpty()) {
+                for (Map<String, Object> req : networkRequests) {
+                    String reason = blocked.get((String) req.get("url"));
+                    if (reason != null) req.put("blocked", reason);
+                }
+                System.out.printf("[Crawl] Browser: Blocked %d resource requests on %s%n", blocked.size(), url);
+            }
+        }
         String snapshot = html == null ? null : (html.length() > 200_000 ? html.substring(0, 200_000) : html);
         return new PageFetchResult(status, contentType, title, snapshot, links, uiSignature, networkRequests);
     }
     
     /**
      * 상태/행동 탐색 방식으로 액션 후보를 추출하고 실행하여 링크 발견
+     * run 안에서 같은 컴포넌트의 같은 액션을 이미 실행했으면 클릭하지 않고 그 결과(발견한 링크)를 재사용
      */
-    private static Set<LinkOut> extractActionsAndDiscoverLinks(Page page, Map<String, Object> uiSignature) {
+    private static Set<LinkOut> extractActionsAndDiscoverLinks(Page page, UiSignatureExtractor.PageScan scan,
+                                                               PageSettleDetector settle, ActionOutcomeCache actionOutcomes) {
         Set<LinkOut> links = new HashSet<>();
+        Map<String, Object> uiSignature = scan.signature();
         
-        // 1. 먼저 일반적인 <a href> 링크 추출
-        Set<LinkOut> staticLinks = extractStaticLinks(page);
+        // 1. 먼저 일반적인 <a href> 링크 (시그니처와 같은 스캔에서 수집됨)
+        Set<LinkOut> staticLinks = toLinkOuts(scan.links());
         links.addAll(staticLinks);
         
         // 2. 액션 후보 추출 (항상 수행)
@@ -625,17 +778,30 @@ public class WebCrawlerService {
             for (ActionCandidate action : actionsToExecute) {
                 if (links.size() >= 20) break; // 최대 20개까지만
                 
+                Long outcomeKey = ActionOutcomeCache.keyOf(currentUrl, action.component(), action.global(),
+                        action.type(), action.selector(), action.text());
+                ActionOutcomeCache.Outcome cached = actionOutcomes.get(outcomeKey);
+                if (cached != null) {
+                    links.addAll(toLinkOuts(cached.links()));
+                    System.out.printf("[Crawl] Browser: Reusing outcome of action '%s' from an identical component (changed=%s, links=%d)%n",
+                            action.text(), cached.changed(), cached.links().size());
+                    continue;
+                }
+                
                 System.out.printf("[Crawl] Browser: Executing action '%s' (type=%s, priority=%d)%n", 
                         action.text(), action.type(), action.priority());
                 
-                StateChangeResult result = tryActionAndDetectStateChange(page, action, currentUrl, currentDomHash, uiSignature);
+                // 앞선 액션이 다른 페이지로 이동시켰으면 스캔한 컴포넌트의 결과가 아니므로 캐시하지 않음
+                boolean onScannedPage = currentUrl.equals(page.url());
+                StateChangeResult result = tryActionAndDetectStateChange(page, action, currentUrl, currentDomHash, uiSignature, settle);
+                List<LinkOut> outcomeLinks = new ArrayList<>();
                 
                 if (result.changed()) {
                     System.out.printf("[Crawl] Browser: State changed after action '%s': URL=%s -> %s, domHash=%s -> %s%n", 
                             action.text(), currentUrl, result.newUrl(), currentDomHash, result.newDomHash());
                     
                     // 새로 발견된 링크 추가
-                    links.addAll(result.discoveredLinks());
+                    outcomeLinks.addAll(result.discoveredLinks());
                     System.out.printf("[Crawl] Browser: Discovered %d links from action '%s'%n", 
                             result.discoveredLinks().size(), action.text());
                     
@@ -653,7 +819,7 @@ public class WebCrawlerService {
                                 if (newHref != null && !newHref.isBlank()) {
                                     try {
                                         String newText = (String) newCTA.getOrDefault("text", "");
-                                        links.add(new LinkOut(newHref, newText));
+                                        outcomeLinks.add(new LinkOut(newHref, newText));
                                         System.out.printf("[Crawl] Browser: Found link in new CTA: %s (text: '%s')%n", newHref, newText);
                                     } catch (Exception e) {
                                         // 무시
@@ -665,6 +831,10 @@ public class WebCrawlerService {
                 } else {
                     System.out.printf("[Crawl] Browser: No state change detected after action '%s'%n", action.text());
                 }
+                links.addAll(outcomeLinks);
+                if (result.performed() && onScannedPage) {
+                    actionOutcomes.put(outcomeKey, new ActionOutcomeCache.Outcome(result.changed(), toScannedLinks(outcomeLinks)));
+                }
             }
             
             // 2단계: 확장된 상태에서 정적 링크 다시 추출
@@ -692,6 +862,8 @@ public class WebCrawlerService {
             String text = (String) cta.getOrDefault("text", "");
             String selector = (String) cta.getOrDefault("selector", "");
             String href = (String) cta.get("href");
+            String component = (String) cta.get("component");
+            boolean global = "global".equals(cta.get("region"));
             
             if (text.isBlank() && selector.isBlank()) continue;
             
@@ -719,7 +891,7 @@ public class WebCrawlerService {
             }
             
             String actionType = href != null ? "navigate" : "click";
-            ActionCandidate candidate = new ActionCandidate(actionType, text, selector, href, priority);
+            ActionCandidate candidate = new ActionCandidate(actionType, text, selector, href, priority, component, global);
             actions.add(candidate);
             System.out.printf("[Crawl] Browser: Added action candidate: text='%s', type=%s, priority=%d, selector='%s'%n", 
                     text, actionType, priority, selector);
@@ -739,9 +911,13 @@ public class WebCrawlerService {
             ActionCandidate action, 
             String beforeUrl, 
             String beforeDomHash,
-            Map<String, Object> beforeUiSignature) {
+            Map<String, Object> beforeUiSignature,
+            PageSettleDetector settle) {
         
         try {
+            // 액션 전 기준점 (에이전트가 있으면 액션 후 바뀐 노드 수만 보고 DOM 변화 여부를 판단)
+            CrawlerAgent.Snapshot agentBefore = CrawlerAgent.mark(page);
+
             // 액션 실행
             boolean clicked = false;
             if ("navigate".equals(action.type()) && action.href() != null) {
@@ -884,7 +1060,7 @@ public class WebCrawlerService {
             }
             
             if (!clicked) {
-                return new StateChangeResult(false, beforeUrl, beforeDomHash, null, List.of());
+                return new StateChangeResult(false, false, beforeUrl, beforeDomHash, null, List.of());
             }
             
             // 아코디언이 실제로 펼쳐져 있는지 확인하고 링크 개수 확인
@@ -1005,36 +1181,43 @@ public class WebCrawlerService {
             System.out.printf("[Crawl] Browser: Accordion state - expanded: %s, links found: %d%n", 
                     accordionIsExpanded, newLinksCount);
             
-            // 아코디언이 펼쳐져 있으면 잠시 대기 (애니메이션 완료)
-            if (accordionIsExpanded) {
-                page.waitForTimeout(500);
-            }
-            
-            // DOM 안정화 대기
-            page.waitForTimeout(500);
-            try {
-                page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(2000));
-            } catch (Exception e) {
-                // 타임아웃되어도 계속
-            }
-            page.waitForTimeout(500);
+            // DOM 안정화 대기 (아코디언 애니메이션, 클릭으로 시작된 API 호출 포함)
+            settle.waitFor(page);
             
             // 상태 변화 확인
             String afterUrl = page.url();
-            Map<String, Object> newUiSignature = UiSignatureExtractor.extractFromPage(page);
-            String afterDomHash = (String) newUiSignature.getOrDefault("domHash", "");
-            
-            // 더 정교한 DOM 변화 감지: CTA 개수 변화도 확인
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> beforeCTAs = beforeUiSignature != null ? 
-                (List<Map<String, Object>>) beforeUiSignature.getOrDefault("ctas", List.of()) : List.of();
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> afterCTAs = (List<Map<String, Object>>) 
-                newUiSignature.getOrDefault("ctas", List.of());
-            
             boolean urlChanged = !afterUrl.equals(beforeUrl);
-            boolean domHashChanged = !afterDomHash.equals(beforeDomHash);
-            boolean ctaCountChanged = afterCTAs.size() != beforeCTAs.size();
+            CrawlerAgent.Snapshot agentAfter = agentBefore != null ? CrawlerAgent.snapshot(page) : null;
+
+            Map<String, Object> newUiSignature;
+            String afterDomHash;
+            List<LinkOut> scannedLinks;
+            boolean domHashChanged;
+            boolean ctaCountChanged;
+            if (!urlChanged && agentAfter != null && !agentAfter.changedSince(agentBefore)) {
+                // 에이전트 기준 바뀐 노드가 없으면 전체 DOM 스캔 생략
+                newUiSignature = beforeUiSignature;
+                afterDomHash = beforeDomHash;
+                scannedLinks = List.of();
+                domHashChanged = false;
+                ctaCountChanged = false;
+            } else {
+                UiSignatureExtractor.PageScan newScan = UiSignatureExtractor.scan(page);
+                newUiSignature = newScan.signature();
+                afterDomHash = (String) newUiSignature.getOrDefault("domHash", "");
+                scannedLinks = toLinkOuts(newScan.links()).stream().toList();
+
+                // 더 정교한 DOM 변화 감지: CTA 개수 변화도 확인
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> beforeCTAs = beforeUiSignature != null ? 
+                    (List<Map<String, Object>>) beforeUiSignature.getOrDefault("ctas", List.of()) : List.of();
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> afterCTAs = (List<Map<String, Object>>) 
+                    newUiSignature.getOrDefault("ctas", List.of());
+
+                domHashChanged = !afterDomHash.equals(beforeDomHash);
+                ctaCountChanged = afterCTAs.size() != beforeCTAs.size();
+            }
             
             // 아코디언이 펼쳐졌거나, DOM 해시가 변경되었거나, CTA 개수가 변경되었거나, 새로운 링크가 발견되었으면 상태 변화로 간주
             boolean domChanged = accordionIsExpanded || domHashChanged || ctaCountChanged || (newLinksCount > 0);
@@ -1049,7 +1232,7 @@ public class WebCrawlerService {
                         urlChanged, domChanged, accordionIsExpanded, newLinksCount);
                 
                 // 새로 발견된 링크 추출 (펼쳐진 아코디언 내부 링크 포함)
-                List<LinkOut> discoveredLinks = extractStaticLinks(page).stream().toList();
+                List<LinkOut> discoveredLinks = scannedLinks;
                 System.out.printf("[Crawl] Browser: Found %d static links in changed state%n", discoveredLinks.size());
                 
                 // 아코디언이 펼쳐진 경우, 펼쳐진 영역에서 추가 링크 찾기 (항상 실행)
@@ -1072,23 +1255,23 @@ public class WebCrawlerService {
                     // 중요: 아코디언이 펼쳐져 있으면 무조건 내부 항목들을 클릭해봐야 함
                     if (accordionLinks.isEmpty()) {
                         System.out.printf("[Crawl] Browser: Trying to click items inside accordion '%s' to discover links...%n", action.text());
-                        List<LinkOut> clickedLinks = clickItemsInAccordionAndExtractLinks(page, action.text());
+                        List<LinkOut> clickedLinks = clickItemsInAccordionAndExtractLinks(page, action.text(), settle);
                         discoveredLinks.addAll(clickedLinks);
                         System.out.printf("[Crawl] Browser: Found %d links by clicking items in accordion%n", clickedLinks.size());
                     }
                 }
                 
-                return new StateChangeResult(true, afterUrl, afterDomHash, newUiSignature, discoveredLinks);
+                return new StateChangeResult(true, true, afterUrl, afterDomHash, newUiSignature, discoveredLinks);
             } else {
                 System.out.printf("[Crawl] Browser: No state change detected (URL: %s, DOM: %s, accordion: %s, new links: %d)%n", 
                         urlChanged, domChanged, accordionIsExpanded, newLinksCount);
             }
             
-            return new StateChangeResult(false, beforeUrl, beforeDomHash, null, List.of());
+            return new StateChangeResult(true, false, beforeUrl, beforeDomHash, null, List.of());
             
         } catch (Exception e) {
             System.out.printf("[Crawl] Browser: Error executing action '%s': %s%n", action.text(), e.getMessage());
-            return new StateChangeResult(false, beforeUrl, beforeDomHash, null, List.of());
+            return new StateChangeResult(false, false, beforeUrl, beforeDomHash, null, List.of());
         }
     }
     
@@ -1254,7 +1437,7 @@ public class WebCrawlerService {
      * 아코디언 내부의 항목을 클릭하여 링크 발견
      * FE 코드 기반: Lnb.tsx의 Stack 컴포넌트 구조를 정확히 파악하여 클릭
      */
-    private static List<LinkOut> clickItemsInAccordionAndExtractLinks(Page page, String accordionText) {
+    private static List<LinkOut> clickItemsInAccordionAndExtractLinks(Page page, String accordionText, PageSettleDetector settle) {
         List<LinkOut> links = new ArrayList<>();
         
         try {
@@ -1470,23 +1653,12 @@ public class WebCrawlerService {
                                 
                                 if (clicked) {
                                     // URL 변화 대기 (React Router는 history.pushState를 사용하므로 즉시 바뀔 수 있음)
-                                    page.waitForTimeout(2000); // 더 길게 대기
-                                    
-                                    // URL 변화를 기다림
-                                    try {
-                                        // React Router는 history.pushState를 사용하므로 URL이 즉시 바뀔 수 있음
-                                        page.waitForFunction("() => window.location.href !== arguments[0]", currentUrl, 
-                                                new Page.WaitForFunctionOptions().setTimeout(5000));
-                                    } catch (Exception e) {
-                                        // 타임아웃되어도 계속 (URL이 이미 바뀌었을 수 있음)
-                                    }
-                                    
-                                    page.waitForTimeout(1000);
-                                    try {
-                                        page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(3000));
-                                    } catch (Exception e) {
-                                        // 타임아웃되어도 계속
+                                    // 바뀌지 않는 경우(같은 페이지 내 동작)는 DOM이 안정되면 바로 진행
+                                    settle.waitFor(page);
+                                    if (page.url().equals(currentUrl)) {
+                                        settle.waitForUrlChange(page, currentUrl);
                                     }
+                                    settle.waitFor(page);
                                     
                                     String afterClickUrl = page.url();
                                     
@@ -1501,7 +1673,6 @@ public class WebCrawlerService {
                                         currentUrl = afterClickUrl;
                                         
                                         // 새 페이지에서 아코디언이 다시 펼쳐져 있는지 확인하고, 필요하면 다시 펼침
-                                        page.waitForTimeout(1000);
                                         
                                         // 아코디언이 닫혀있으면 다시 펼치기
                                         String accordionTextEscaped2 = accordionText.replace("\\", "\\\\").replace("\"", "\\\"");
@@ -1527,7 +1698,7 @@ public class WebCrawlerService {
                                         """, accordionTextEscaped2));
                                         
                                         if (accordionExpanded instanceof Boolean && (Boolean) accordionExpanded) {
-                                            page.waitForTimeout(500); // 아코디언 펼쳐질 시간
+                                            settle.waitFor(page); // 아코디언 펼쳐질 시간
                                         }
                                     } else {
                                         System.out.printf("[Crawl] Browser: ✗ Clicked item '%s' but URL did not change (current: %s, target might be same page)%n", itemText, currentUrl);
@@ -1703,359 +1874,36 @@ public class WebCrawlerService {
     }
     
     /**
-     * 정적 링크 추출 (<a href> 태그)
+     * 정적 링크 추출 (<a href> 태그, UiSignatureExtractor 스캔 함수의 링크 전용 모드)
      */
     private static Set<LinkOut> extractStaticLinks(Page page) {
-        Set<LinkOut> links = new HashSet<>();
-        
         try {
-            Object raw = page.evaluate("""
-                () => {
-                    const links = [];
-                    const baseUrl = window.location.origin;
-                    const currentUrl = window.location.href.split('#')[0];
-                    
-                    document.querySelectorAll('a[href]').forEach(a => {
-                        try {
-                            const href = a.href || a.getAttribute('href');
-                            if (href && typeof href === 'string' && 
-                                !href.startsWith('javascript:') && 
-                                !href.startsWith('#') && 
-                                href !== '' &&
-                                href !== currentUrl) {
-                                let url;
-                                try {
-                                    url = href.startsWith('http') ? href : new URL(href, baseUrl).href;
-                                    url = url.split('#')[0];
-                                } catch (e) {
-                                    return;
-                                }
-                                
-                                if (url.startsWith('http://') || url.startsWith('https://')) {
-                                    const text = (a.innerText || a.textContent || '').trim().slice(0, 200);
-                                    links.push({
-                                        href: url,
-                                        text: text || url
-                                    });
-                                }
-                            }
-                        } catch (e) {}
-                    });
-                    
-                    return links;
-                }
-            """);
-            
-            if (raw instanceof List<?>) {
-                for (Object item : (List<?>) raw) {
-                    if (item instanceof Map<?, ?>) {
-                        Map<?, ?> m = (Map<?, ?>) item;
-                        Object hrefObj = m.get("href");
-                        Object textObj = m.get("text");
-                        if (hrefObj instanceof String) {
-                            String href = (String) hrefObj;
-                            String text = textObj instanceof String ? (String) textObj : href;
-                            links.add(new LinkOut(href, text));
-                        }
-                    }
-                }
-            }
+            return toLinkOuts(UiSignatureExtractor.scanLinks(page));
         } catch (Exception e) {
             System.out.printf("[Crawl] Browser: Error extracting static links: %s%n", e.getMessage());
+            return new HashSet<>();
         }
-        
-        return links;
     }
 
-    // Deprecated: extractActionsAndDiscoverLinks로 대체됨
-    @Deprecated
-    private static Set<LinkOut> extractLinksFromBrowser(Page page, Map<String, Object> uiSignature) {
+    private static Set<LinkOut> toLinkOuts(List<UiSignatureExtractor.ScannedLink> scanned) {
         Set<LinkOut> links = new HashSet<>();
-        
-        // 먼저 일반적인 <a href> 링크 추출
-        Object raw = page.evaluate("""
-            () => {
-                const links = new Set();
-                const baseUrl = window.location.origin;
-                const currentUrl = window.location.href;
-                
-                // 디버깅 정보 (백엔드 로그로 전달)
-                const debugInfo = {
-                    currentUrl: currentUrl,
-                    totalATags: document.querySelectorAll('a').length,
-                    totalAHrefTags: document.querySelectorAll('a[href]').length,
-                    bodyHtml: document.body ? document.body.innerHTML.length : 0
-                };
-                
-                // 1. 일반 <a href> 링크 (절대 URL로 변환)
-                document.querySelectorAll('a[href]').forEach(a => {
-                    try {
-                        const hrefAttr = a.getAttribute('href');
-                        const href = a.href || hrefAttr; // a.href는 브라우저가 자동으로 절대 URL로 변환
-                        
-                        if (href && typeof href === 'string' && 
-                            !href.startsWith('javascript:') && 
-                            !href.startsWith('#') && 
-                            href !== '' &&
-                            href !== window.location.href) {
-                            
-                            let url;
-                            try {
-                                // 브라우저의 a.href는 이미 절대 URL
-                                url = href.startsWith('http') ? href : new URL(href, baseUrl).href;
-                            } catch (e) {
-                                console.warn('[LinkExtraction] Failed to parse href:', href, e);
-                                return;
-                            }
-                            
-                            // 자기 자신 페이지는 제외
-                            if (url === currentUrl || url === currentUrl.split('#')[0]) {
-                                return;
-                            }
-                            
-                            const text = (a.innerText || a.textContent || '').trim().slice(0, 200);
-                            const linkData = {
-                                href: url,
-                                text: text || url
-                            };
-                            links.add(JSON.stringify(linkData));
-                        }
-                    } catch (e) {
-                        console.warn('[LinkExtraction] Error processing <a> tag:', e);
-                    }
-                });
-                
-                // 2. React Router Link 컴포넌트의 실제 <a> 태그 찾기
-                // React Router v6+는 Link를 <a> 태그로 렌더링하므로 이미 1번에서 처리됨
-                // 하지만 명시적으로 확인하기 위해 추가 검사
-                
-                // 3. data-* 속성에서 URL 추출
-                document.querySelectorAll('[data-to], [to], [data-href], [data-path], [data-route], [data-url]').forEach(el => {
-                    try {
-                        const path = el.getAttribute('data-to') || el.getAttribute('to') || 
-                                    el.getAttribute('data-href') || el.getAttribute('data-path') || 
-                                    el.getAttribute('data-route') || el.getAttribute('data-url');
-                        if (path && typeof path === 'string' && path !== '' && !path.startsWith('#')) {
-                            let url;
-                            try {
-                                url = path.startsWith('http') ? path : new URL(path, baseUrl).href;
-                            } catch (e) {
-                                return;
-                            }
-                            if (url !== currentUrl) {
-                                const text = (el.innerText || el.textContent || '').trim().slice(0, 200);
-                                links.add(JSON.stringify({
-                                    href: url,
-                                    text: text || url
-                                }));
-                            }
-                        }
-                    } catch (e) {}
-                });
-                
-                // 4. 버튼이나 클릭 가능한 요소에서 href 속성 찾기 (이미 <a>가 아닌 경우)
-                document.querySelectorAll('button[href], [role="button"][href], [role="link"][href]').forEach(el => {
-                    try {
-                        const href = el.getAttribute('href');
-                        if (href && typeof href === 'string' && 
-                            !href.startsWith('javascript:') && 
-                            !href.startsWith('#') && 
-                            href !== '') {
-                            let url;
-                            try {
-                                url = href.startsWith('http') ? href : new URL(href, baseUrl).href;
-                            } catch (e) {
-                                return;
-                            }
-                            if (url !== currentUrl) {
-                                const text = (el.innerText || el.textContent || '').trim().slice(0, 200);
-                                links.add(JSON.stringify({
-                                    href: url,
-                                    text: text || url
-                                }));
-                            }
-                        }
-                    } catch (e) {}
-                });
-                
-                // 4. React Router Link 컴포넌트에서 실제 to 속성 추출
-                // React Router v6+는 실제로 <a> 태그를 렌더링하지만, data 속성이나 특별한 클래스를 사용할 수 있음
-                // 또는 실제 React Fiber 트리에서 Link 컴포넌트의 props를 찾기
-                try {
-                    // React DevTools가 설치되어 있으면 window.__REACT_DEVTOOLS_GLOBAL_HOOK__를 사용할 수 있지만,
-                    // 일반적으로는 실제 렌더링된 DOM만 확인
-                    
-                    // React Router가 렌더링한 <a> 태그는 보통 href 속성을 가지고 있음
-                    // 하지만 SPA이므로 실제 네비게이션은 클라이언트 사이드에서 처리
-                    // 따라서 실제로 <a href>를 찾는 것이 가장 안전함
-                } catch (e) {}
-                
-                // 5. MUI 및 Material-UI 컴포넌트에서 실제 <a> 태그 찾기
-                // MUI ListItemButton은 보통 React Router Link로 감싸져 있어서 <a> 태그로 렌더링됨
-                // 이미 1번에서 처리되지만, 명시적으로 확인
-                document.querySelectorAll('[class*="MuiListItemButton"] a[href], [class*="MuiListItem-root"] a[href], [class*="MuiAccordionSummary"] a[href]').forEach(a => {
-                    try {
-                        const href = a.href || a.getAttribute('href');
-                        if (href && typeof href === 'string' && 
-                            !href.startsWith('javascript:') && 
-                            !href.startsWith('#') && 
-                            href !== '' &&
-                            href !== currentUrl) {
-                            let url;
-                            try {
-                                url = href.startsWith('http') ? href : new URL(href, baseUrl).href;
-                            } catch (e) {
-                                return;
-                            }
-                            const text = (a.innerText || a.textContent || '').trim().slice(0, 200);
-                            links.add(JSON.stringify({
-                                href: url,
-                                text: text || url
-                            }));
-                        }
-                    } catch (e) {}
-                });
-                
-                // 6. 부모 체인에서 <a> 태그 찾기 (MUI 컴포넌트가 <a>로 감싸져 있는 경우)
-                document.querySelectorAll('[class*="MuiListItemButton"], [class*="MuiListItem-root"], [class*="MuiButtonBase-root"]').forEach(el => {
-                    try {
-                        // 자신 또는 부모에서 <a> 태그 찾기
-                        let target = el;
-                        while (target && target !== document.body) {
-                            if (target.tagName === 'A') {
-                                const href = target.href || target.getAttribute('href');
-                                if (href && typeof href === 'string' && 
-                                    !href.startsWith('javascript:') && 
-                                    !href.startsWith('#') && 
-                                    href !== '' &&
-                                    href !== currentUrl) {
-                                    let url;
-                                    try {
-                                        url = href.startsWith('http') ? href : new URL(href, baseUrl).href;
-                                    } catch (e) {
-                                        break;
-                                    }
-                                    const text = (target.innerText || target.textContent || el.innerText || el.textContent || '').trim().slice(0, 200);
-                                    links.add(JSON.stringify({
-                                        href: url,
-                                        text: text || url
-                                    }));
-                                }
-                                break;
-                            }
-                            target = target.parentElement;
-                        }
-                    } catch (e) {}
-                });
-                
-                // 8. 모든 클릭 가능한 요소에서 data-* 속성으로 URL 추출 (실제 속성만)
-                document.querySelectorAll('[data-path], [data-route], [data-page], [data-href], [data-url]').forEach(el => {
-                    try {
-                        const path = el.getAttribute('data-path') || el.getAttribute('data-route') || 
-                                    el.getAttribute('data-page') || el.getAttribute('data-href') || 
-                                    el.getAttribute('data-url');
-                        if (path && path.startsWith('/') && path !== '/') {
-                            const url = new URL(path, baseUrl).href;
-                            links.add(JSON.stringify({
-                                href: url,
-                                text: (el.innerText || el.textContent || '').trim().slice(0, 200)
-                            }));
-                        }
-                    } catch (e) {}
-                });
-                
-                // 디버깅 정보를 반환에 포함
-                const result = {
-                    links: Array.from(links).map(s => JSON.parse(s)),
-                    debug: debugInfo
-                };
-                return result;
-            }
-        """);
-        
-        // 결과가 Map인 경우 (디버깅 정보 포함) links 추출, 아니면 List로 처리
-        List<?> list;
-        Map<?, ?> debugInfo = null;
-        if (raw instanceof Map<?, ?> map) {
-            Object linksObj = map.get("links");
-            Object debugObj = map.get("debug");
-            if (linksObj instanceof List<?>) {
-                list = (List<?>) linksObj;
-                if (debugObj instanceof Map<?, ?>) {
-                    debugInfo = (Map<?, ?>) debugObj;
-                    System.out.printf("[Crawl] Browser: Link extraction debug - currentUrl: %s, totalATags: %s, totalAHrefTags: %s, bodyHtmlLength: %s%n",
-                            debugInfo.get("currentUrl"),
-                            debugInfo.get("totalATags"),
-                            debugInfo.get("totalAHrefTags"),
-                            debugInfo.get("bodyHtml"));
-                }
-            } else {
-                System.out.println("[Crawl] Browser: Evaluation returned unexpected format");
-                return Set.of();
-            }
-        } else if (raw instanceof List<?>) {
-            list = (List<?>) raw;
-        } else {
-            System.out.println("[Crawl] Browser: No links found or evaluation failed");
-            return Set.of();
+        for (UiSignatureExtractor.ScannedLink link : scanned) {
+            links.add(new LinkOut(link.href(), link.text()));
         }
-        
-        Set<LinkOut> out = new HashSet<>();
-        for (Object item : list) {
-            if (!(item instanceof Map<?, ?> m)) continue;
-            Object hrefObj = m.get("href");
-            if (hrefObj == null) continue;
-            String href = String.valueOf(hrefObj);
-            if (href.isBlank()) continue;
-            
-            // URL 정규화: fragment 제거
-            try {
-                java.net.URI uri = java.net.URI.create(href);
-                if (uri.getFragment() != null) {
-                    href = new java.net.URI(uri.getScheme(), uri.getUserInfo(), uri.getHost(), uri.getPort(), 
-                            uri.getPath(), uri.getQuery(), null).toString();
-                }
-            } catch (Exception e) {
-                // URL 파싱 실패 시 건너뛰기
-                continue;
-            }
-            
-            // http/https만 허용
-            if (!(href.startsWith("http://") || href.startsWith("https://"))) {
-                continue;
-            }
-            
-            // 자기 자신 페이지는 제외 (순환 방지)
-            String currentUrl = page.url();
-            try {
-                java.net.URI current = java.net.URI.create(currentUrl);
-                java.net.URI link = java.net.URI.create(href);
-                String currentPath = current.getPath() != null ? current.getPath() : "/";
-                String linkPath = link.getPath() != null ? link.getPath() : "/";
-                if (current.getHost() != null && current.getHost().equals(link.getHost()) && 
-                    currentPath.equals(linkPath) && 
-                    (current.getQuery() == null ? "" : current.getQuery()).equals(link.getQuery() == null ? "" : link.getQuery())) {
-                    continue;
-                }
-            } catch (Exception e) {
-                // 비교 실패해도 계속 진행
-            }
-            
-            Object textObj = m.get("text");
-            String text = textObj == null ? "" : String.valueOf(textObj);
-            out.add(new LinkOut(href, text));
+        return links;
+    }
+
+    private static List<UiSignatureExtractor.ScannedLink> toScannedLinks(List<LinkOut> links) {
+        List<UiSignatureExtractor.ScannedLink> scanned = new ArrayList<>(links.size());
+        for (LinkOut link : links) {
+            scanned.add(new UiSignatureExtractor.ScannedLink(link.href(), link.anchorText()));
         }
-        
-        System.out.printf("[Crawl] Browser: Extracted %d links from page (after deduplication)%n", out.size());
-        
-        // extractActionsAndDiscoverLinks에서 이미 처리됨
-        
-        return out;
+        return scanned;
     }
-    
+
     // Deprecated: extractActionsAndDiscoverLinks로 대체됨
     @Deprecated
-    private static Set<LinkOut> extractLinksByClicking(Page page, List<Map<String, Object>> ctas) {
+    private static Set<LinkOut> extractLinksByClicking(Page page, List<Map<String, Object>> ctas, PageSettleDetector settle) {
         Set<LinkOut> links = new HashSet<>();
         String originalUrl = page.url();
         
@@ -2151,8 +1999,8 @@ public class WebCrawlerService {
                     }
                 }
                 
-                // DOM 변경 완료 대기 (짧게)
-                page.waitForTimeout(300);
+                // DOM 변경 완료 대기
+                settle.waitFor(page);
             } catch (Exception e) {
                 System.out.printf("[Crawl] Browser: Error clicking button '%s': %s%n", text, e.getMessage());
                 // 계속 진행
@@ -2160,12 +2008,7 @@ public class WebCrawlerService {
         }
         
         // 모든 버튼 클릭 완료 후 최종 대기
-        page.waitForTimeout(1000);
-        try {
-            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(2000));
-        } catch (Exception e) {
-            // 타임아웃되어도 계속
-        }
+        settle.waitFor(page);
         
         // 2단계: 아코디언이 모두 펼쳐진 상태에서 링크 추출
         try {
@@ -2270,6 +2113,7 @@ public class WebCrawlerService {
         Map<String, Object> log = new HashMap<>();
         
         List<Map<String, Object>> entries = new ArrayList<>();
+        Map<String, Integer> blockedByReason = new HashMap<>();
         for (Map<String, Object> req : requests) {
             Map<String, Object> entry = new HashMap<>();
             entry.put("request", Map.of(
@@ -2277,74 +2121,69 @@ public class WebCrawlerService {
                     "url", req.getOrDefault("url", ""),
                     "headers", req.getOrDefault("headers", Map.of())
             ));
+            // 리소스 차단 프로필로 abort된 요청은 응답 없음 (HAR 확장 필드 _blockedReason)
+            String blockedReason = (String) req.get("blocked");
             entry.put("response", Map.of(
-                    "status", 200, // 실제 응답 정보는 나중에 추가 가능
+                    "status", blockedReason != null ? 0 : 200, // 실제 응답 정보는 나중에 추가 가능
                     "headers", Map.of()
             ));
+            if (blockedReason != null) {
+                entry.put("_blockedReason", blockedReason);
+                blockedByReason.merge(blockedReason, 1, Integer::sum);
+            }
             entries.add(entry);
         }
         
         log.put("version", "1.2");
         log.put("entries", entries);
+        if (!blockedByReason.isEmpty()) {
+            log.put("_blocked", Map.of(
+                    "total", blockedByReason.values().stream().mapToInt(Integer::intValue).sum(),
+                    "byReason", blockedByReason
+            ));
+        }
         har.put("log", log);
         return har;
     }
 
-    private CrawlPageEntity getOrCreatePage(UUID runId, String url, int depth) {
-        // defensive: use repository to avoid unique constraint violations
-        return crawlPageRepository.findByRunIdAndUrl(runId, url).orElseGet(() -> {
-            String nodeKey = Hashing.sha256Hex(url);
-            String urlPattern = UrlPattern.normalizeToPattern(url);
-            CrawlPageEntity created = new CrawlPageEntity(UUID.randomUUID(), crawlRunRepository.getReferenceById(runId), nodeKey, url, depth);
-            created.setUrlPattern(urlPattern);
-            try {
-                return crawlPageRepository.save(created);
-            } catch (Exception e) {
-                return crawlPageRepository.findByRunIdAndUrl(runId, url).orElse(created);
-            }
+    /**
+     * URL의 노드를 찾거나 maxNodes 안에서 새로 생성
+     * DB 조회 없이 frontier의 compact store로 중복을 제거하고, 행 insert는 write-behind로 넘긴다.
+     *
+     * @return 노드 ordinal, 노드 예산이 소진되어 만들 수 없으면 CrawlFrontier.NO_NODE
+     */
+    private int getOrCreatePage(RunState state, String url, int depth) {
+        // NODE_CREATED는 write-behind flush 후에 publishCreated에서 전송
+        return state.frontier.getOrAddNode(url, depth, state.budget.maxNodes(), (o, id) -> {
+            // 다른 워커가 이 노드를 보기 전에 insert가 버퍼에 들어가야 링크 FK 순서가 보장됨
+            state.writer.insertPage(id, Hashing.sha256Hex(url), url, UrlPattern.normalizeToPattern(url), depth);
         });
     }
 
-    private static void offer(
-            CrawlStrategy strategy,
-            String url,
-            ArrayDeque<String> bfs,
-            Set<String> enqueued,
-            Map<String, Integer> mcsScore,
-            PriorityQueue<FrontierItem> mcs,
-            long[] seq
-    ) {
-        if (strategy == CrawlStrategy.BFS) {
-            if (enqueued.add(url)) bfs.addLast(url);
-            return;
-        }
-        // MCS: only add if not already enqueued
-        if (enqueued.add(url)) {
-            int score = mcsScore.getOrDefault(url, 0);
-            mcs.add(new FrontierItem(url, score, seq[0]++));
-        }
-    }
-
-    private static String poll(
-            CrawlStrategy strategy,
-            ArrayDeque<String> bfs,
-            Map<String, Integer> mcsScore,
-            PriorityQueue<FrontierItem> mcs,
-            Set<String> visited
-    ) {
-        if (strategy == CrawlStrategy.BFS) {
-            String url = bfs.pollFirst();
-            return url;
+    /**
+     * DB에 저장된 노드/엣지를 이벤트로 전송 (클라이언트가 이벤트를 받고 조회하면 항상 행이 보이도록)
+     * 한 flush 안에서 페이지를 먼저 보내므로 엣지가 아직 모르는 노드를 가리키지 않는다.
+     */
+    private void publishCreated(UUID runId, List<CrawlWriteBehind.PageInsert> pages, List<CrawlWriteBehind.LinkInsert> links) {
+        for (CrawlWriteBehind.PageInsert page : pages) {
+            Map<String, Object> nodeEvent = new HashMap<>();
+            nodeEvent.put("id", page.id());
+            nodeEvent.put("url", page.url());
+            nodeEvent.put("depth", page.depth());
+            nodeEvent.put("nodeKey", page.nodeKey());
+            nodeEvent.put("urlPattern", page.urlPattern());
+            eventHub.publish(runId, "NODE_CREATED", nodeEvent);
         }
-
-        // MCS: poll from priority queue
-        while (true) {
-            FrontierItem item = mcs.poll();
-            if (item == null) return null;
-            if (visited.contains(item.url())) continue;
-            int current = mcsScore.getOrDefault(item.url(), 0);
-            if (current != item.score()) continue; // stale
-            return item.url();
+        for (CrawlWriteBehind.LinkInsert link : links) {
+            Map<String, Object> edgeEvent = new HashMap<>();
+            edgeEvent.put("id", link.id());
+            edgeEvent.put("from", link.fromPageId());
+            edgeEvent.put("to", link.toPageId());
+            edgeEvent.put("actionType", link.actionType() == null ? null : link.actionType().name());
+            if (link.anchorText() != null) {
+                edgeEvent.put("anchorText", link.anchorText());
+            }
+            eventHub.publish(runId, "EDGE_CREATED", edgeEvent);
         }
     }
 }
@@ -0,0 +1,81 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.dubbi.statetrail.common.util.Hashing;
+import com.dubbi.statetrail.common.util.UrlPattern;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * run 안에서 이미 탐색한 UI 컴포넌트의 액션 결과 캐시 (브라우저 모드)
+ *
+ * 사이드바 아코디언처럼 모든 페이지에 같은 컴포넌트가 반복되는 사이트에서
+ * 페이지마다 같은 버튼을 다시 클릭하고 펼치지 않도록 한다.
+ * 키는 (URL 패턴, 컴포넌트 구조 해시, 액션 locator):
+ *  - 컴포넌트 구조 해시는 UiSignatureExtractor가 CTA마다 계산한 component (상태 클래스 제외)
+ *  - nav/aside/header/Drawer/Sidebar 같은 전역 영역의 컴포넌트는 URL 패턴 대신 origin으로 묶는다
+ */
+public class ActionOutcomeCache {
+    private static final int MAX_ENTRIES = 10_000;
+
+    /**
+     * 액션 한 번의 결과
+     *
+     * @param changed 상태가 변경되었는지
+     * @param links 액션으로 발견된 링크 (펼친 아코디언, 새 CTA 링크 포함)
+     */
+    public record Outcome(boolean changed, List<UiSignatureExtractor.ScannedLink> links) {}
+
+    private final ConcurrentHashMap<Long, Outcome> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @return 캐시 키, 컴포넌트 해시가 없으면(예전 스캔 결과 등) null
+     */
+    public static Long keyOf(String pageUrl, String component, boolean global,
+                             String type, String selector, String text) {
+        if (component == null || component.isBlank() || pageUrl == null) return null;
+        String scope = global ? origin(pageUrl) : UrlPattern.normalizeToPattern(pageUrl);
+        return Hashing.fingerprint64(scope + '\n' + component + '\n' + type + '\n' + selector + '\n' + text);
+    }
+
+    /**
+     * @return 같은 컴포넌트에서 이미 실행한 액션의 결과, 없으면 null
+     */
+    public Outcome get(Long key) {
+        if (key == null) return null;
+        Outcome outcome = outcomes.get(key);
+        (outcome != null ? hits : misses).incrementAndGet();
+        return outcome;
+    }
+
+    public void put(Long key, Outcome outcome) {
+        if (key == null || outcomes.size() >= MAX_ENTRIES) return;
+        outcomes.putIfAbsent(key, outcome);
+    }
+
+    /**
+     * run stats에 포함할 지표
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("entries", outcomes.size());
+        return stats;
+    }
+
+    private static String origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() != null && uri.getRawAuthority() != null) {
+                return uri.getScheme() + "://" + uri.getRawAuthority();
+            }
+        } catch (Exception ignored) {}
+        return url;
+    }
+}
@@ -7,14 +7,38 @@ public record CrawlBudget(
         int maxNodes,
         int maxEdges,
         int maxDepth,
-        Duration maxDuration
+        Duration maxDuration,
+        int concurrency,
+        boolean bloomFilter,
+        FrontierScoring mcsScoring
 ) {
+    /**
+     * 한 run에서 동시에 돌릴 수 있는 최대 워커 수
+     * (platform thread 모드에서는 crawl.execution.max-platform-workers로 한 번 더 제한)
+     */
+    public static final int MAX_CONCURRENCY = 1024;
+
     public static CrawlBudget from(Map<String, Object> budget) {
         int maxNodes = intOrDefault(budget, "maxNodes", 100);
         int maxEdges = intOrDefault(budget, "maxEdges", 400);
         int maxDepth = intOrDefault(budget, "maxDepth", 6);
         int maxMinutes = intOrDefault(budget, "maxMinutes", 5);
-        return new CrawlBudget(maxNodes, maxEdges, maxDepth, Duration.ofMinutes(maxMinutes));
+        int concurrency = Math.max(1, Math.min(MAX_CONCURRENCY, intOrDefault(budget, "concurrency", 1)));
+        boolean bloomFilter = boolOrDefault(budget, "bloomFilter", false);
+        FrontierScoring mcsScoring = FrontierScoring.fromNullable(budget == null ? null : stringOrNull(budget.get("mcsScoring")));
+        return new CrawlBudget(maxNodes, maxEdges, maxDepth, Duration.ofMinutes(maxMinutes), concurrency, bloomFilter, mcsScoring);
+    }
+
+    private static String stringOrNull(Object v) {
+        return v == null ? null : v.toString();
+    }
+
+    private static boolean boolOrDefault(Map<String, Object> map, String key, boolean defaultValue) {
+        if (map == null) return defaultValue;
+        Object v = map.get(key);
+        if (v == null) return defaultValue;
+        if (v instanceof Boolean b) return b;
+        return Boolean.parseBoolean(v.toString());
     }
 
     private static int intOrDefault(Map<String, Object> map, String key, int defaultValue) {
@@ -29,5 +53,3 @@ public record CrawlBudget(
         }
     }
 }
-
-
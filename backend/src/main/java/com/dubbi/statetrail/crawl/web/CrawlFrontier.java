@@ -0,0 +1,343 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.dubbi.statetrail.common.util.Hashing;
+import com.dubbi.statetrail.common.util.LongIntHashMap;
+import com.dubbi.statetrail.common.util.UrlPattern;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 여러 워커가 공유하는 thread-safe 크롤 frontier
+ * BFS는 FIFO 큐, MCS는 indexed max-heap을 사용한다.
+ * MCS에서 노드는 heap에 한 번만 들어가고, 아직 방문하지 않은 노드로 새 inlink가 생길 때마다
+ * 같은 항목의 점수를 올려(increase-key) 재정렬한다. 점수 방식은 FrontierScoring으로 고른다.
+ *
+ * 노드는 URL 대신 ordinal(int)로 식별하며, dedup 상태(지문, 페이지 ID, depth, 방문 여부, 엣지)는
+ * CrawlNodeStore의 primitive 배열에 보관한다. URL 문자열은 아직 방문하지 않은 큐 항목에만 남는다.
+ *
+ * take()는 큐가 비어 있어도 처리 중인 워커가 있으면 새 URL이 들어올 때까지 대기하고,
+ * 큐가 비었고 처리 중인 워커도 없으면 null을 반환해 크롤 종료를 알린다.
+ */
+public class CrawlFrontier {
+    public static final int NO_NODE = CrawlNodeStore.NOT_FOUND;
+
+    private static final int INITIAL_NODES = 4096;
+
+    private final CrawlStrategy ordering;
+    private final FrontierScoring scoring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // lock으로 보호되는 상태
+    private final CrawlNodeStore nodes;
+    private final ArrayDeque<Next> bfs = new ArrayDeque<>();
+    private final IndexedMaxHeap mcs;
+    // MCS 전용, ordinal로 인덱싱 (pendingUrl은 heap에 있는 동안만 유지)
+    private String[] pendingUrl;
+    private int[] inDegree;
+    private long[] patternKey;
+    // PATTERN_NOVELTY 전용: URL 패턴 지문 → 방문 수
+    private final LongIntHashMap visitedByPattern;
+    private int inFlight;
+    private boolean closed;
+
+    /**
+     * frontier에서 꺼낸 다음 처리 대상
+     */
+    public record Next(int ordinal, String url) {}
+
+    /**
+     * getOrAddNode에서 노드가 새로 만들어졌을 때 lock 안에서 호출되는 콜백
+     * (다른 워커가 노드를 보기 전에 처리해야 하는 짧은 메모리 작업만 수행할 것)
+     */
+    @FunctionalInterface
+    public interface NodeCreated {
+        void created(int ordinal, UUID id);
+    }
+
+    public CrawlFrontier(CrawlStrategy ordering, FrontierScoring scoring, int maxNodes, int maxEdges) {
+        this.ordering = ordering.base();
+        this.scoring = scoring == null ? FrontierScoring.IN_DEGREE : scoring;
+        int expected = Math.min(maxNodes, INITIAL_NODES);
+        this.nodes = new CrawlNodeStore(expected, Math.min(maxEdges, INITIAL_NODES * 4));
+        boolean mcsOrdering = this.ordering == CrawlStrategy.MCS;
+        this.mcs = mcsOrdering ? new IndexedMaxHeap(expected) : null;
+        this.pendingUrl = mcsOrdering ? new String[Math.max(16, expected)] : null;
+        this.inDegree = mcsOrdering ? new int[Math.max(16, expected)] : null;
+        boolean novelty = mcsOrdering && this.scoring == FrontierScoring.PATTERN_NOVELTY;
+        this.patternKey = novelty ? new long[Math.max(16, expected)] : null;
+        this.visitedByPattern = novelty ? new LongIntHashMap(64) : null;
+    }
+
+    /**
+     * URL의 노드 ordinal 조회
+     *
+     * @return ordinal, 없으면 NO_NODE
+     */
+    public int ordinalOf(String url) {
+        lock.lock();
+        try {
+            return nodes.ordinalOf(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * URL의 노드를 찾거나 maxNodes 안에서 새로 생성
+     * 새로 만든 경우에만 onCreate가 lock 안에서 호출된다.
+     *
+     * @return ordinal, 노드 예산이 소진되어 만들 수 없으면 NO_NODE
+     */
+    public int getOrAddNode(String url, int depth, int maxNodes, NodeCreated onCreate) {
+        lock.lock();
+        try {
+            int ordinal = nodes.ordinalOf(url);
+            if (ordinal != NO_NODE) return ordinal;
+            if (nodes.size() >= maxNodes) return NO_NODE;
+            UUID id = UUID.randomUUID();
+            ordinal = nodes.add(url, id, depth);
+            onCreate.created(ordinal, id);
+            return ordinal;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public UUID idOf(int ordinal) {
+        lock.lock();
+        try {
+            return nodes.idOf(ordinal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depthOf(int ordinal) {
+        lock.lock();
+        try {
+            return nodes.depthOf(ordinal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isVisited(int ordinal) {
+        lock.lock();
+        try {
+            return nodes.isVisited(ordinal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnqueued(int ordinal) {
+        lock.lock();
+        try {
+            return nodes.isEnqueued(ordinal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 엣지 (from → to) 기록
+     * MCS에서는 to가 아직 방문 전이면 inlink 수를 올리고, 대기 중인 항목의 점수를 갱신한다.
+     *
+     * @return 처음 보는 엣지면 true
+     */
+    public boolean addEdge(int from, int to) {
+        lock.lock();
+        try {
+            if (!nodes.addEdge(from, to)) return false;
+            if (mcs != null && !nodes.isVisited(to)) {
+                ensureMcsCapacity(to);
+                inDegree[to]++;
+                if (mcs.contains(to)) mcs.upsert(to, scoreOf(to));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int visitedCount() {
+        lock.lock();
+        try {
+            return nodes.visitedCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * dedup 상태가 차지하는 대략적인 heap 바이트 수 (큐에 남은 URL 문자열 제외)
+     */
+    public long estimatedBytes() {
+        lock.lock();
+        try {
+            long bytes = nodes.estimatedBytes();
+            if (mcs != null) {
+                bytes += mcs.estimatedBytes() + (long) inDegree.length * (Integer.BYTES + 8);
+                if (patternKey != null) bytes += (long) patternKey.length * Long.BYTES + visitedByPattern.estimatedBytes();
+            }
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 노드를 frontier에 추가 (이미 enqueue된 노드면 false)
+     */
+    public boolean offer(int ordinal, String url) {
+        lock.lock();
+        try {
+            if (closed || !nodes.markEnqueued(ordinal)) return false;
+            if (ordering == CrawlStrategy.BFS) {
+                bfs.addLast(new Next(ordinal, url));
+            } else {
+                ensureMcsCapacity(ordinal);
+                pendingUrl[ordinal] = url;
+                if (patternKey != null) patternKey[ordinal] = Hashing.fingerprint64(UrlPattern.normalizeToPattern(url));
+                mcs.upsert(ordinal, scoreOf(ordinal));
+            }
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다음 노드를 꺼내 visited로 표시하고 처리 중(in-flight)으로 등록
+     * 처리가 끝나면 반드시 done()을 호출해야 한다.
+     *
+     * @return 다음 노드, frontier가 소진되었거나 닫혔거나 deadline이 지나면 null
+     */
+    public Next take(Instant deadline) {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) return null;
+                Next next = pollLocked();
+                if (next != null) {
+                    nodes.markVisited(next.ordinal());
+                    if (visitedByPattern != null) visitedByPattern.addTo(patternKey[next.ordinal()], 1);
+                    inFlight++;
+                    return next;
+                }
+                // 처리 중인 워커가 없으면 더 이상 새 URL이 들어올 수 없음
+                if (inFlight == 0) return null;
+                long waitNanos = Duration.between(Instant.now(), deadline).toNanos();
+                if (waitNanos <= 0) return null;
+                changed.awaitNanos(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * take()로 꺼낸 노드의 처리 완료
+     */
+    public void done() {
+        lock.lock();
+        try {
+            inFlight--;
+            if (inFlight == 0) changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 더 꺼낼 노드도 처리 중인 노드도 없는지 (close된 경우 포함)
+     * 아직 일을 시작하지 못한 워커가 더 기다릴 필요가 있는지 판단하는 용도
+     */
+    public boolean isFinished() {
+        lock.lock();
+        try {
+            if (closed) return true;
+            boolean empty = ordering == CrawlStrategy.BFS ? bfs.isEmpty() : mcs.size() == 0;
+            return empty && inFlight == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 예산 소진 등으로 크롤을 멈출 때 대기 중인 워커를 모두 깨움
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Next pollLocked() {
+        if (ordering == CrawlStrategy.BFS) {
+            while (true) {
+                Next next = bfs.pollFirst();
+                if (next == null || !nodes.isVisited(next.ordinal())) return next;
+            }
+        }
+
+        // MCS: 최고 점수 노드
+        while (true) {
+            int top = mcs.peek();
+            if (top < 0) return null;
+            if (patternKey != null) {
+                // 같은 패턴의 형제 노드가 방문되면 점수가 내려가므로 꺼내기 직전에 다시 계산
+                double current = scoreOf(top);
+                if (current < mcs.scoreOf(top)) {
+                    mcs.upsert(top, current);
+                    continue;
+                }
+            }
+            mcs.poll();
+            String url = pendingUrl[top];
+            pendingUrl[top] = null;
+            return new Next(top, url);
+        }
+    }
+
+    private double scoreOf(int ordinal) {
+        // 시드처럼 inlink가 없는 노드도 0보다 큰 점수를 갖도록 +1
+        double links = inDegree[ordinal] + 1;
+        return switch (scoring) {
+            case IN_DEGREE -> links;
+            case DEPTH_PENALISED -> links / (1 + nodes.depthOf(ordinal));
+            case PATTERN_NOVELTY -> links / (1 + visitedByPattern.get(patternKey[ordinal], 0));
+        };
+    }
+
+    private void ensureMcsCapacity(int ordinal) {
+        if (ordinal < inDegree.length) return;
+        int capacity = Math.max(ordinal + 1, inDegree.length << 1);
+        pendingUrl = Arrays.copyOf(pendingUrl, capacity);
+        inDegree = Arrays.copyOf(inDegree, capacity);
+        if (patternKey != null) patternKey = Arrays.copyOf(patternKey, capacity);
+    }
+}
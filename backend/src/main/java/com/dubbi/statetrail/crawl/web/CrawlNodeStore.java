@@ -0,0 +1,123 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.dubbi.statetrail.common.util.Hashing;
+import com.dubbi.statetrail.common.util.LongHashSet;
+import com.dubbi.statetrail.common.util.LongIntHashMap;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * run 하나의 노드/엣지 dedup 상태를 primitive 배열로 보관하는 compact store
+ *
+ * URL 문자열 대신 64-bit 지문 → 노드 ordinal 맵을 두고, ordinal별로 페이지 ID(UUID 상/하위 long),
+ * depth, visited/enqueued 플래그를 배열에 저장한다. 엣지는 (from ordinal, to ordinal) 쌍을
+ * long 하나로 묶어 보관한다. 노드당 수십 바이트 수준이라 백만 URL도 수십 MB에 들어간다.
+ * thread-safe하지 않으므로 CrawlFrontier의 lock 아래에서만 사용한다.
+ */
+final class CrawlNodeStore {
+    static final int NOT_FOUND = -1;
+
+    private static final byte ENQUEUED = 1;
+    private static final byte VISITED = 1 << 1;
+
+    private final LongIntHashMap ordinalByFingerprint;
+    private final LongHashSet edges;
+    private long[] idMsb;
+    private long[] idLsb;
+    private int[] depth;
+    private byte[] flags;
+    private int size;
+    private int visitedCount;
+
+    CrawlNodeStore(int expectedNodes, int expectedEdges) {
+        int nodes = Math.max(16, expectedNodes);
+        this.ordinalByFingerprint = new LongIntHashMap(nodes);
+        this.edges = new LongHashSet(Math.max(16, expectedEdges));
+        this.idMsb = new long[nodes];
+        this.idLsb = new long[nodes];
+        this.depth = new int[nodes];
+        this.flags = new byte[nodes];
+    }
+
+    int ordinalOf(String url) {
+        return ordinalByFingerprint.get(Hashing.fingerprint64(url), NOT_FOUND);
+    }
+
+    /**
+     * 새 노드 추가 (호출자가 ordinalOf로 없음을 확인한 뒤 호출)
+     */
+    int add(String url, UUID id, int nodeDepth) {
+        int ordinal = size;
+        int existing = ordinalByFingerprint.putIfAbsent(Hashing.fingerprint64(url), ordinal, NOT_FOUND);
+        if (existing != NOT_FOUND) return existing;
+        if (ordinal == idMsb.length) grow();
+        idMsb[ordinal] = id.getMostSignificantBits();
+        idLsb[ordinal] = id.getLeastSignificantBits();
+        depth[ordinal] = nodeDepth;
+        size++;
+        return ordinal;
+    }
+
+    UUID idOf(int ordinal) {
+        return new UUID(idMsb[ordinal], idLsb[ordinal]);
+    }
+
+    int depthOf(int ordinal) {
+        return depth[ordinal];
+    }
+
+    boolean isEnqueued(int ordinal) {
+        return (flags[ordinal] & ENQUEUED) != 0;
+    }
+
+    boolean isVisited(int ordinal) {
+        return (flags[ordinal] & VISITED) != 0;
+    }
+
+    /**
+     * @return 처음 enqueue되면 true
+     */
+    boolean markEnqueued(int ordinal) {
+        if (isEnqueued(ordinal)) return false;
+        flags[ordinal] |= ENQUEUED;
+        return true;
+    }
+
+    void markVisited(int ordinal) {
+        if (isVisited(ordinal)) return;
+        flags[ordinal] |= VISITED;
+        visitedCount++;
+    }
+
+    /**
+     * @return 처음 보는 엣지면 true
+     */
+    boolean addEdge(int from, int to) {
+        return edges.add(((long) from << 32) | (to & 0xFFFFFFFFL));
+    }
+
+    int size() {
+        return size;
+    }
+
+    int visitedCount() {
+        return visitedCount;
+    }
+
+    int edgeCount() {
+        return edges.size();
+    }
+
+    long estimatedBytes() {
+        long perNode = Long.BYTES * 2L + Integer.BYTES + 1;
+        return ordinalByFingerprint.estimatedBytes() + edges.estimatedBytes() + perNode * idMsb.length;
+    }
+
+    private void grow() {
+        int capacity = idMsb.length << 1;
+        idMsb = Arrays.copyOf(idMsb, capacity);
+        idLsb = Arrays.copyOf(idLsb, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
@@ -0,0 +1,56 @@
+package com.dubbi.statetrail.crawl.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프로젝트별 크롤 설정 (projects.crawl_settings jsonb)
+ */
+public record CrawlSettings(
+        Duration settleQuietPeriod,
+        Duration settleTimeout,
+        Duration crawlDelay,
+        ResourceBlockingProfile resourceBlocking,
+        List<String> blockedDomains
+) {
+    public static final int DEFAULT_SETTLE_QUIET_MS = 200;
+    public static final int DEFAULT_SETTLE_TIMEOUT_MS = 5_000;
+    private static final int MAX_SETTLE_TIMEOUT_MS = 60_000;
+    private static final int MAX_CRAWL_DELAY_MS = 60_000;
+
+    public static CrawlSettings from(Map<String, Object> settings) {
+        int quietMs = Math.max(0, intOrDefault(settings, "settleQuietMs", DEFAULT_SETTLE_QUIET_MS));
+        int timeoutMs = Math.max(quietMs, Math.min(MAX_SETTLE_TIMEOUT_MS,
+                intOrDefault(settings, "settleTimeoutMs", DEFAULT_SETTLE_TIMEOUT_MS)));
+        // 같은 호스트에 보내는 요청 사이 최소 간격 (전역 crawl.politeness 설정보다 길 때만 적용)
+        int crawlDelayMs = Math.max(0, Math.min(MAX_CRAWL_DELAY_MS, intOrDefault(settings, "crawlDelayMs", 0)));
+        // 브라우저 모드 리소스 차단: 프로필 + 기본 트래커 목록에 더할 도메인
+        ResourceBlockingProfile resourceBlocking = ResourceBlockingProfile.fromNullable(
+                settings != null && settings.get("resourceBlocking") != null ? settings.get("resourceBlocking").toString() : null);
+        return new CrawlSettings(Duration.ofMillis(quietMs), Duration.ofMillis(timeoutMs), Duration.ofMillis(crawlDelayMs),
+                resourceBlocking, stringList(settings, "blockedDomains"));
+    }
+
+    private static int intOrDefault(Map<String, Object> map, String key, int defaultValue) {
+        if (map == null) return defaultValue;
+        Object v = map.get(key);
+        if (v == null) return defaultValue;
+        if (v instanceof Number n) return n.intValue();
+        try {
+            return Integer.parseInt(v.toString());
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    private static List<String> stringList(Map<String, Object> map, String key) {
+        if (map == null || !(map.get(key) instanceof List<?> items)) return List.of();
+        List<String> values = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item != null && !item.toString().isBlank()) values.add(item.toString().trim().toLowerCase());
+        }
+        return List.copyOf(values);
+    }
+}
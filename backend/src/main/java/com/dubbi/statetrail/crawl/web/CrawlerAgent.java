@@ -0,0 +1,203 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.microsoft.playwright.Page;
+import java.util.Map;
+
+/**
+ * 페이지 안에 상주하는 크롤러 에이전트
+ *
+ * INIT_SCRIPT가 문서마다 window.__stAgent를 만들고, MutationObserver로 추가/삭제/속성 변경된 노드만
+ * 색인에 반영한다: domHash와 같은 구조 요소 개수, 인터랙티브 요소/링크 수, 순서와 무관한 구조 해시.
+ * mark()로 기준점을 찍고 액션 후 snapshot()을 보면 그 사이 바뀐 노드 수(텍스트 변경, 이동 포함)를
+ * DOM 전체를 다시 보지 않고 알 수 있다. 액션이 아무것도 바꾸지 않았는지 판단하는 데만 쓰며,
+ * 바뀐 상태의 시그니처와 링크는 UiSignatureExtractor.scan으로 다시 읽는다.
+ * 조회 시 takeRecords()로 아직 전달되지 않은 mutation까지 반영한다.
+ * class/style/hidden/aria-* 같은 표시 속성 변경은 색인에는 영향이 없지만 변경 노드로 센다
+ * (메뉴/아코디언/탭이 요소 추가 없이 보이기만 바뀌어도 다시 스캔하도록).
+ */
+public final class CrawlerAgent {
+    /**
+     * BrowserContext.addInitScript로 모든 문서에 주입하는 에이전트 스크립트
+     */
+    public static final String INIT_SCRIPT = """
+        (() => {
+            if (window.__stAgent) return;
+            // h1, h2, h3, form, button, input, a[href], [role="button"], [role="link"] (UiSignatureExtractor domHash와 같은 순서)
+            const counts = [0, 0, 0, 0, 0, 0, 0, 0, 0];
+            const TAGS = { h1: 0, h2: 1, h3: 2, form: 3, button: 4, input: 5 };
+            // 색인(contribution)에 들어가는 속성, 나머지 관찰 속성은 표시 상태 변경으로만 셈
+            const STRUCTURAL = ['href', 'role', 'data-to', 'data-href', 'data-path'];
+            const VISIBILITY = ['class', 'style', 'hidden', 'open', 'aria-expanded', 'aria-hidden', 'aria-selected'];
+            const indexed = new WeakMap(); // element → 색인 당시 기여분 { bits, hash, interactive, link }
+            const a = {
+                doc: Math.random().toString(36).slice(2),
+                rev: 0, structHash: 0, interactive: 0, links: 0,
+                changed: 0
+            };
+
+            const hashOf = key => {
+                let h = 0x811c9dc5;
+                for (let i = 0; i < key.length; i++) h = Math.imul(h ^ key.charCodeAt(i), 0x01000193);
+                return h >>> 0;
+            };
+            const contribution = el => {
+                const name = el.localName;
+                const role = el.getAttribute('role');
+                const link = name === 'a' && el.hasAttribute('href');
+                let bits = 0;
+                if (name in TAGS) bits |= 1 << TAGS[name];
+                if (link) bits |= 1 << 6;
+                if (role === 'button') bits |= 1 << 7;
+                else if (role === 'link') bits |= 1 << 8;
+                const interactive = name === 'button' || link || role === 'button' || role === 'link' || role === 'menuitem' ||
+                    el.hasAttribute('data-to') || el.hasAttribute('data-href') || el.hasAttribute('data-path');
+                return { bits, hash: hashOf(name + '|' + (role || '') + (link ? '|a' : '')), interactive, link };
+            };
+            const apply = (c, sign) => {
+                for (let i = 0; i < counts.length; i++) if (c.bits & (1 << i)) counts[i] += sign;
+                a.structHash = (a.structHash + sign * c.hash) >>> 0;
+                if (c.interactive) a.interactive += sign;
+                if (c.link) a.links += sign;
+                a.changed++;
+            };
+            const add = el => {
+                if (indexed.has(el)) return;
+                const c = contribution(el);
+                indexed.set(el, c);
+                apply(c, 1);
+            };
+            const remove = el => {
+                const c = indexed.get(el);
+                if (!c || el.isConnected) return; // 이동된 노드는 그대로 유지
+                indexed.delete(el);
+                apply(c, -1);
+            };
+            const each = (node, fn) => {
+                if (node.nodeType !== 1) return;
+                fn(node);
+                const walker = document.createTreeWalker(node, NodeFilter.SHOW_ELEMENT);
+                for (let el = walker.nextNode(); el; el = walker.nextNode()) fn(el);
+            };
+            const process = records => {
+                if (records.length === 0) return;
+                a.rev++;
+                for (const r of records) {
+                    if (r.type === 'childList') {
+                        // 텍스트 노드 추가/삭제와 이동된 요소는 색인은 그대로지만 변경으로 셈
+                        r.removedNodes.forEach(n => {
+                            if (n.nodeType !== 1 || n.isConnected) a.changed++;
+                            each(n, remove);
+                        });
+                        r.addedNodes.forEach(n => {
+                            if (n.nodeType !== 1) a.changed++;
+                            else if (n.isConnected) each(n, add);
+                        });
+                    } else if (r.type === 'characterData') {
+                        a.changed++;
+                    } else if (r.type === 'attributes' && !STRUCTURAL.includes(r.attributeName)) {
+                        // 펼치기/숨기기 토글: 색인은 그대로지만 변경으로 셈
+                        a.changed++;
+                    } else if (r.type === 'attributes' && indexed.has(r.target)) {
+                        const el = r.target;
+                        const before = indexed.get(el);
+                        const after = contribution(el);
+                        indexed.set(el, after);
+                        apply(before, -1);
+                        apply(after, 1);
+                        a.changed--; // 속성 변경은 노드 하나로 셈
+                    }
+                }
+            };
+
+            const observer = new MutationObserver(process);
+            const start = () => {
+                if (document.documentElement) each(document.documentElement, add);
+                observer.observe(document, {
+                    childList: true, subtree: true, characterData: true, attributes: true,
+                    attributeFilter: STRUCTURAL.concat(VISIBILITY)
+                });
+            };
+            start();
+
+            const state = () => {
+                process(observer.takeRecords());
+                return {
+                    doc: a.doc, rev: a.rev, domHash: counts.join(','), structHash: a.structHash,
+                    interactive: a.interactive, links: a.links, changed: a.changed
+                };
+            };
+            window.__stAgent = {
+                // 기준점: 이후 변경 노드 수를 새로 셈
+                mark: () => {
+                    const s = state();
+                    a.changed = 0;
+                    s.changed = 0;
+                    return s;
+                },
+                snapshot: state
+            };
+        })();
+        """;
+
+    private static final String MARK_CALL = "() => window.__stAgent ? window.__stAgent.mark() : null";
+    private static final String SNAPSHOT_CALL = "() => window.__stAgent ? window.__stAgent.snapshot() : null";
+
+    private CrawlerAgent() {}
+
+    /**
+     * 에이전트가 색인한 현재 문서 상태
+     *
+     * @param document 문서마다 새로 생기는 id (navigation/reload 감지)
+     * @param changedNodes 마지막 mark 이후 추가/삭제/속성(표시 속성 포함) 변경된 노드 수
+     */
+    public record Snapshot(String document, long revision, String domHash, long structureHash,
+                           int interactive, int links, int changedNodes) {
+
+        /**
+         * 기준 스냅샷 이후 DOM 구조가 바뀌었는지
+         */
+        public boolean changedSince(Snapshot before) {
+            return !document.equals(before.document)
+                    || changedNodes > 0
+                    || structureHash != before.structureHash
+                    || !domHash.equals(before.domHash);
+        }
+    }
+
+    /**
+     * 기준점을 찍고 현재 상태 반환 (에이전트가 없거나 실패하면 null)
+     */
+    public static Snapshot mark(Page page) {
+        return call(page, MARK_CALL);
+    }
+
+    /**
+     * 현재 상태 (에이전트가 없거나 실패하면 null)
+     */
+    public static Snapshot snapshot(Page page) {
+        return call(page, SNAPSHOT_CALL);
+    }
+
+    private static Snapshot call(Page page, String script) {
+        try {
+            if (page.evaluate(script) instanceof Map<?, ?> m) {
+                return new Snapshot(
+                        String.valueOf(m.get("doc")),
+                        number(m.get("rev")),
+                        String.valueOf(m.get("domHash")),
+                        number(m.get("structHash")),
+                        (int) number(m.get("interactive")),
+                        (int) number(m.get("links")),
+                        (int) number(m.get("changed"))
+                );
+            }
+        } catch (Exception e) {
+            // 에이전트 없이 기존 방식으로 진행
+        }
+        return null;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dubbi.statetrail.crawl.web;
+
+/**
+ * MCS frontier의 우선순위 점수 방식 (budget.mcsScoring)
+ */
+public enum FrontierScoring {
+    /**
+     * 지금까지 발견된 inlink 수 (기본값)
+     */
+    IN_DEGREE,
+    /**
+     * inlink 수 / (1 + depth): 얕은 페이지 우선
+     */
+    DEPTH_PENALISED,
+    /**
+     * inlink 수 / (1 + 같은 URL 패턴의 방문 수): 처음 보는 패턴 우선
+     */
+    PATTERN_NOVELTY;
+
+    public static FrontierScoring fromNullable(String raw) {
+        if (raw == null) return IN_DEGREE;
+        try {
+            return FrontierScoring.valueOf(raw.trim().toUpperCase());
+        } catch (Exception ignored) {
+            return IN_DEGREE;
+        }
+    }
+}
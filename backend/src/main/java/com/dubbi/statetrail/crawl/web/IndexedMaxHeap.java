@@ -0,0 +1,140 @@
+package com.dubbi.statetrail.crawl.web;
+
+import java.util.Arrays;
+
+/**
+ * 노드 ordinal을 키로 하는 indexed binary max-heap
+ *
+ * ordinal마다 heap 내 위치를 pos 배열에 기록해 두므로 같은 노드는 heap에 항상 한 번만 존재하고,
+ * 점수 변경(update)은 stale 항목을 쌓지 않고 O(log n)에 제자리에서 재정렬된다.
+ * 점수가 같으면 먼저 들어온 노드(seq가 작은 쪽)가 먼저 나온다.
+ * thread-safe하지 않으므로 CrawlFrontier의 lock 아래에서만 사용한다.
+ */
+final class IndexedMaxHeap {
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private int size;
+    // ordinal로 인덱싱
+    private int[] pos;
+    private double[] score;
+    private long[] seq;
+    private long nextSeq;
+
+    IndexedMaxHeap(int expectedNodes) {
+        int capacity = Math.max(16, expectedNodes);
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        Arrays.fill(pos, ABSENT);
+        this.score = new double[capacity];
+        this.seq = new long[capacity];
+    }
+
+    boolean contains(int ordinal) {
+        return ordinal < pos.length && pos[ordinal] != ABSENT;
+    }
+
+    double scoreOf(int ordinal) {
+        return score[ordinal];
+    }
+
+    /**
+     * 노드를 추가하거나, 이미 있으면 점수를 바꿔 제자리에서 재정렬
+     */
+    void upsert(int ordinal, double newScore) {
+        ensureOrdinal(ordinal);
+        int i = pos[ordinal];
+        if (i == ABSENT) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, heap.length << 1);
+            score[ordinal] = newScore;
+            seq[ordinal] = nextSeq++;
+            heap[size] = ordinal;
+            pos[ordinal] = size;
+            siftUp(size++);
+            return;
+        }
+        double old = score[ordinal];
+        score[ordinal] = newScore;
+        if (newScore > old) siftUp(i);
+        else if (newScore < old) siftDown(i);
+    }
+
+    /**
+     * @return 최고 점수 노드 ordinal (heap에 그대로 남음), 비어 있으면 -1
+     */
+    int peek() {
+        return size == 0 ? ABSENT : heap[0];
+    }
+
+    /**
+     * @return 최고 점수 노드 ordinal, 비어 있으면 -1
+     */
+    int poll() {
+        if (size == 0) return ABSENT;
+        int top = heap[0];
+        pos[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        return (long) heap.length * Integer.BYTES
+                + (long) pos.length * (Integer.BYTES + Double.BYTES + Long.BYTES);
+    }
+
+    private void ensureOrdinal(int ordinal) {
+        if (ordinal < pos.length) return;
+        int capacity = Math.max(ordinal + 1, pos.length << 1);
+        int old = pos.length;
+        pos = Arrays.copyOf(pos, capacity);
+        Arrays.fill(pos, old, capacity, ABSENT);
+        score = Arrays.copyOf(score, capacity);
+        seq = Arrays.copyOf(seq, capacity);
+    }
+
+    private boolean higher(int a, int b) {
+        int c = Double.compare(score[a], score[b]);
+        if (c != 0) return c > 0;
+        return seq[a] < seq[b];
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (!higher(node, p)) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        pos[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && higher(heap[right], heap[child])) child = right;
+            int c = heap[child];
+            if (!higher(c, node)) break;
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = node;
+        pos[node] = i;
+    }
+}
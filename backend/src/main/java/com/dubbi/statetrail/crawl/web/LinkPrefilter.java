@@ -0,0 +1,124 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.dubbi.statetrail.common.util.Hashing;
+import com.dubbi.statetrail.common.util.LongIntHashMap;
+import com.dubbi.statetrail.common.util.ScalableBloomFilter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 링크 확장 전 단계의 저비용 사전 검사 (budget.bloomFilter=true일 때만 사용)
+ *
+ * 같은 전역 네비게이션 링크가 모든 페이지에 반복되는 사이트에서
+ * normalize / URI.create / allowlist 검사를 링크마다 반복하지 않도록 한다.
+ *  - 이미 노드로 확정된 링크: 원본 href 지문 → 노드 ordinal (정확 조회, 엣지 생성은 그대로 수행)
+ *  - 거부된 링크(정규화 실패, 허용 목록 밖 등): scalable Bloom filter (오탐 시 링크 하나를 놓칠 수 있음)
+ */
+public class LinkPrefilter {
+    private static final double INITIAL_FPP = 0.001;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScalableBloomFilter rejected;
+    private final LongIntHashMap ordinalByLink;
+    private final AtomicLong rejectedHits = new AtomicLong();
+    private final AtomicLong knownHits = new AtomicLong();
+
+    public LinkPrefilter(int maxNodes) {
+        int expected = Math.max(1024, Math.min(maxNodes, 1 << 20));
+        this.rejected = new ScalableBloomFilter(expected, INITIAL_FPP);
+        this.ordinalByLink = new LongIntHashMap(Math.min(expected, 4096));
+    }
+
+    /**
+     * 페이지 URL과 원본 href로 해석 결과가 같은 링크끼리 같은 키를 만든다.
+     * 절대 URL은 그대로, '/'로 시작하면 origin 기준, 나머지 상대 경로는 페이지 URL 기준.
+     */
+    public static long keyOf(String pageUrl, String href) {
+        if (href.startsWith("http://") || href.startsWith("https://")) {
+            return Hashing.fingerprint64(href);
+        }
+        if (href.startsWith("/") && !href.startsWith("//")) {
+            return Hashing.fingerprint64(origin(pageUrl) + href);
+        }
+        return Hashing.fingerprint64(pageUrl + '\n' + href);
+    }
+
+    /**
+     * @return 이미 거부된 링크로 보이면 true (오탐 가능)
+     */
+    public boolean isRejected(long key) {
+        lock.lock();
+        try {
+            if (!rejected.mightContain(key)) return false;
+        } finally {
+            lock.unlock();
+        }
+        rejectedHits.incrementAndGet();
+        return true;
+    }
+
+    public void recordRejected(long key) {
+        lock.lock();
+        try {
+            rejected.add(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 이 링크가 이미 해석된 노드 ordinal, 없으면 CrawlFrontier.NO_NODE
+     */
+    public int knownOrdinal(long key) {
+        int ordinal;
+        lock.lock();
+        try {
+            ordinal = ordinalByLink.get(key, CrawlFrontier.NO_NODE);
+        } finally {
+            lock.unlock();
+        }
+        if (ordinal != CrawlFrontier.NO_NODE) knownHits.incrementAndGet();
+        return ordinal;
+    }
+
+    public void recordResolved(long key, int ordinal) {
+        lock.lock();
+        try {
+            ordinalByLink.putIfAbsent(key, ordinal, CrawlFrontier.NO_NODE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * run stats에 포함할 지표
+     */
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("rejectedHits", rejectedHits.get());
+            stats.put("knownHits", knownHits.get());
+            stats.put("rejectedEntries", rejected.size());
+            stats.put("knownEntries", ordinalByLink.size());
+            stats.put("bloomStages", rejected.stageCount());
+            stats.put("bloomFpp", rejected.expectedFpp());
+            stats.put("bytes", rejected.estimatedBytes() + ordinalByLink.estimatedBytes());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String origin(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) return url;
+        for (int i = schemeEnd + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') return url.substring(0, i);
+        }
+        return url;
+    }
+}
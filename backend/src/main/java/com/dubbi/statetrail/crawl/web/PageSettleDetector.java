@@ -0,0 +1,105 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.microsoft.playwright.Page;
+
+/**
+ * 고정 sleep 대신 페이지가 "안정"될 때까지만 대기
+ *
+ * INIT_SCRIPT가 MutationObserver로 마지막 DOM 변경 시각을, fetch/XHR 래핑으로
+ * 진행 중인 요청 수를 기록한다. waitFor()는 진행 중인 요청이 없고 quiet period 동안
+ * DOM 변경이 없으면 즉시 반환하며, 최대 settleTimeout(프로젝트별 설정)까지만 기다린다.
+ */
+public final class PageSettleDetector {
+    /**
+     * BrowserContext.addInitScript로 모든 문서에 주입하는 추적 스크립트
+     */
+    public static final String INIT_SCRIPT = """
+        (() => {
+            if (window.__stSettle) return;
+            const s = window.__stSettle = { inflight: 0, lastChange: performance.now() };
+            const touch = () => { s.lastChange = performance.now(); };
+            const begin = () => { s.inflight++; touch(); };
+            const end = () => { s.inflight = Math.max(0, s.inflight - 1); touch(); };
+
+            const observe = () => {
+                new MutationObserver(touch).observe(document, {
+                    childList: true, subtree: true, attributes: true, characterData: true
+                });
+            };
+            if (document.documentElement) observe();
+            else document.addEventListener('readystatechange', observe, { once: true });
+
+            const origFetch = window.fetch;
+            if (origFetch) {
+                window.fetch = function (...args) {
+                    begin();
+                    return origFetch.apply(this, args).finally(end);
+                };
+            }
+            const origSend = XMLHttpRequest.prototype.send;
+            XMLHttpRequest.prototype.send = function (...args) {
+                begin();
+                this.addEventListener('loadend', end, { once: true });
+                try {
+                    return origSend.apply(this, args);
+                } catch (e) {
+                    end();
+                    throw e;
+                }
+            };
+        })();
+        """;
+
+    private static final String MARK_SCRIPT = "() => { if (window.__stSettle) window.__stSettle.lastChange = performance.now(); }";
+
+    private static final String SETTLED_PREDICATE = """
+        quietMs => {
+            const s = window.__stSettle;
+            if (document.readyState === 'loading') return false;
+            if (!s) return true;
+            return s.inflight === 0 && performance.now() - s.lastChange >= quietMs;
+        }
+        """;
+
+    private static final double POLLING_MS = 50;
+
+    private final long quietMs;
+    private final long timeoutMs;
+
+    public PageSettleDetector(CrawlSettings settings) {
+        this.quietMs = settings.settleQuietPeriod().toMillis();
+        this.timeoutMs = settings.settleTimeout().toMillis();
+    }
+
+    /**
+     * 페이지가 안정될 때까지 대기 (최소 quiet period, 최대 settleTimeout)
+     *
+     * @return ceiling 안에 안정되었으면 true, 타임아웃/오류면 false (호출자는 그대로 진행)
+     */
+    public boolean waitFor(Page page) {
+        try {
+            // 직전 액션의 효과가 아직 DOM에 반영되지 않았을 수 있으므로 지금부터 quiet period를 센다
+            page.evaluate(MARK_SCRIPT);
+            page.waitForFunction(SETTLED_PREDICATE, quietMs, new Page.WaitForFunctionOptions()
+                    .setTimeout(timeoutMs)
+                    .setPollingInterval(POLLING_MS));
+            return true;
+        } catch (Exception e) {
+            // 타임아웃(계속 변하는 페이지)이나 navigation 중 context 파괴는 무시하고 진행
+            return false;
+        }
+    }
+
+    /**
+     * URL이 바뀔 때까지 대기 (pushState 기반 SPA 라우팅 포함)
+     */
+    public boolean waitForUrlChange(Page page, String fromUrl) {
+        try {
+            page.waitForFunction("from => window.location.href !== from", fromUrl,
+                    new Page.WaitForFunctionOptions().setTimeout(timeoutMs).setPollingInterval(POLLING_MS));
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
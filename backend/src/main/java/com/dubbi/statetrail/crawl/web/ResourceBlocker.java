@@ -0,0 +1,141 @@
+package com.dubbi.statetrail.crawl.web;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 브라우저 모드 리소스 차단 (run 단위)
+ *
+ * 링크 추출과 UI 시그니처에 필요 없는 동영상/오디오, 폰트, 트래커 요청을 BrowserContext.route에서 abort해서
+ * 대역폭과 페이지 안정화 시간을 줄인다. AGGRESSIVE 프로필은 이미지도 막지만
+ * 스크린샷을 찍는 페이지 로드 중(screenshotState=true)에는 허용한다.
+ * 워커마다 install로 context에 route를 걸고, 차단 건수는 run 전체로 모은다.
+ */
+public class ResourceBlocker {
+    // 차단한 요청 URL은 페이지당 이 개수까지만 기록 (네트워크 로그 표시용)
+    private static final int MAX_BLOCKED_URLS_PER_PAGE = 1_000;
+
+    private static final List<String> TRACKER_DOMAINS = List.of(
+            "google-analytics.com", "googletagmanager.com", "googleadservices.com", "doubleclick.net",
+            "facebook.net", "connect.facebook.com", "hotjar.com", "clarity.ms", "segment.io", "segment.com",
+            "mixpanel.com", "amplitude.com", "fullstory.com", "bat.bing.com", "analytics.tiktok.com",
+            "ads-twitter.com", "wcs.naver.net", "adservice.google.com"
+    );
+    private static final Set<String> ALWAYS_BLOCKED_TYPES = Set.of("media", "font");
+
+    private final ResourceBlockingProfile profile;
+    private final List<String> trackerDomains;
+    private final Map<String, AtomicLong> blockedByReason = new LinkedHashMap<>();
+
+    public ResourceBlocker(ResourceBlockingProfile profile, List<String> extraDomains) {
+        this.profile = profile;
+        this.trackerDomains = extraDomains.isEmpty()
+                ? TRACKER_DOMAINS
+                : Stream.concat(TRACKER_DOMAINS.stream(), extraDomains.stream()).distinct().toList();
+        for (String reason : List.of("media", "font", "image", "tracker")) {
+            blockedByReason.put(reason, new AtomicLong());
+        }
+    }
+
+    public boolean enabled() {
+        return profile != ResourceBlockingProfile.OFF;
+    }
+
+    /**
+     * context에 차단 route 설치 (OFF면 아무것도 하지 않는 session)
+     */
+    public Session install(BrowserContext context) {
+        Session session = new Session();
+        if (enabled()) {
+            context.route("**/*", session::handle);
+        }
+        return session;
+    }
+
+    /**
+     * run stats에 포함할 지표
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("profile", profile.name());
+        long total = 0;
+        for (Map.Entry<String, AtomicLong> e : blockedByReason.entrySet()) {
+            stats.put(e.getKey(), e.getValue().get());
+            total += e.getValue().get();
+        }
+        stats.put("total", total);
+        return stats;
+    }
+
+    /**
+     * @return 차단 사유 (media/font/image/tracker), 통과시키면 null
+     */
+    String reasonFor(String resourceType, String url, boolean allowImages) {
+        if ("document".equals(resourceType)) return null;
+        if (isTracker(url)) return "tracker";
+        if (ALWAYS_BLOCKED_TYPES.contains(resourceType)) return resourceType;
+        if ("image".equals(resourceType) && profile == ResourceBlockingProfile.AGGRESSIVE && !allowImages) return "image";
+        return null;
+    }
+
+    private boolean isTracker(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (Exception e) {
+            return false;
+        }
+        if (host == null) return false;
+        host = host.toLowerCase();
+        for (String domain : trackerDomains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 워커 context 하나의 차단 상태 (route 핸들러는 Playwright를 호출하는 워커 스레드에서 실행됨)
+     */
+    public final class Session {
+        private boolean screenshotState = true;
+        private Map<String, String> blockedUrls = new HashMap<>();
+
+        private void handle(Route route) {
+            Request request = route.request();
+            String reason = reasonFor(request.resourceType(), request.url(), screenshotState);
+            if (reason == null) {
+                // 먼저 설치된 route(AssetCache)가 있으면 그쪽으로, 없으면 네트워크로
+                route.fallback();
+                return;
+            }
+            blockedByReason.get(reason).incrementAndGet();
+            if (blockedUrls.size() < MAX_BLOCKED_URLS_PER_PAGE) blockedUrls.put(request.url(), reason);
+            route.abort("blockedbyclient");
+        }
+
+        /**
+         * 스크린샷을 찍을 페이지 상태인지 (false면 AGGRESSIVE 프로필이 이미지도 차단)
+         */
+        public void screenshotState(boolean value) {
+            this.screenshotState = value;
+        }
+
+        /**
+         * 마지막 호출 이후 차단한 요청 URL → 사유
+         */
+        public Map<String, String> drainBlocked() {
+            Map<String, String> drained = blockedUrls;
+            blockedUrls = new HashMap<>();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.dubbi.statetrail.crawl.web;
+
+/**
+ * 브라우저 모드에서 차단할 리소스 범위 (projects.crawl_settings.resourceBlocking)
+ *
+ * OFF: 차단하지 않음 (차단 route를 설치하지 않음)
+ * STANDARD: 동영상/오디오, 폰트, 알려진 트래커 도메인
+ * AGGRESSIVE: STANDARD + 이미지 (스크린샷을 찍는 페이지 로드 중에는 이미지 허용)
+ */
+public enum ResourceBlockingProfile {
+    OFF,
+    STANDARD,
+    AGGRESSIVE;
+
+    public static ResourceBlockingProfile fromNullable(String raw) {
+        if (raw == null) return STANDARD;
+        try {
+            return ResourceBlockingProfile.valueOf(raw.trim().toUpperCase());
+        } catch (Exception ignored) {
+            return STANDARD;
+        }
+    }
+}
@@ -9,271 +9,288 @@ import java.util.Map;
 /**
  * UI 시그니처 추출 유틸리티
  * 페이지의 DOM 구조, CTA, 폼 필드 등을 분석하여 UI 시그니처 생성
+ *
+ * 시그니처(domHash, CTA, 폼, 네비게이션, 메타데이터)와 정적 링크를 DOM 한 번 순회(TreeWalker)로 모아
+ * page.evaluate 한 번에 가져온다. 스캔 함수는 INIT_SCRIPT로 모든 문서에 미리 주입되어 있어
+ * 매 호출마다 스크립트 본문을 보내고 파싱하지 않으며, 주입되지 않은 페이지에서는 처음 호출할 때 설치한다.
+ * CTA마다 감싼 컴포넌트의 구조 해시(component)와 전역 영역 여부(region)를 함께 담는다 (ActionOutcomeCache 키).
  */
 public class UiSignatureExtractor {
-    
     /**
-     * Playwright Page에서 UI 시그니처 추출
+     * 스캔 함수 본문 (opts.signature === false면 링크만 수집, getComputedStyle 호출 없음)
      */
-    public static Map<String, Object> extractFromPage(Page page) {
-        Map<String, Object> signature = new HashMap<>();
-        
-        try {
-            // DOM 해시 계산 (간단한 구조 해시)
-            String domHash = extractDomHash(page);
-            signature.put("domHash", domHash);
-            
-            // CTA (Call-to-Action) 요소들 추출
-            List<Map<String, Object>> ctas = extractCTAs(page);
-            signature.put("ctas", ctas);
-            
-            // 폼 필드 추출
-            List<Map<String, Object>> forms = extractForms(page);
-            signature.put("forms", forms);
-            
-            // 네비게이션 요소 (링크, 버튼) 추출
-            List<Map<String, Object>> navElements = extractNavigationElements(page);
-            signature.put("navElements", navElements);
-            
-            // 페이지 메타데이터
-            Map<String, Object> metadata = extractMetadata(page);
-            signature.put("metadata", metadata);
-            
-        } catch (Exception e) {
-            // 추출 실패 시 빈 시그니처 반환
-            signature.put("error", e.getMessage());
-        }
-        
-        return signature;
-    }
-    
-    private static String extractDomHash(Page page) {
-        try {
-            // 주요 구조 요소들의 선택자 기반 해시 계산
-            Object result = page.evaluate("""
-                () => {
-                    const selectors = [
-                        'h1', 'h2', 'h3', 'form', 'button', 'input', 
-                        'a[href]', '[role="button"]', '[role="link"]'
-                    ];
-                    const counts = selectors.map(s => document.querySelectorAll(s).length);
-                    return counts.join(',');
-                }
-            """);
-            return String.valueOf(result);
-        } catch (Exception e) {
-            return "";
-        }
-    }
-    
-    private static List<Map<String, Object>> extractCTAs(Page page) {
-        try {
-            Object result = page.evaluate("""
-                () => {
-                    const ctas = [];
-                    const seenTexts = new Set();
-                    
-                    // 1. 기본 버튼과 링크 요소 추출
-                    document.querySelectorAll('button, a[href], [role="button"], [role="link"], [role="menuitem"]').forEach(el => {
-                        const text = (el.innerText || el.textContent || '').trim();
-                        const type = el.tagName.toLowerCase();
-                        const href = el.getAttribute('href') || el.getAttribute('data-href') || el.getAttribute('data-to') || el.getAttribute('data-path');
-                        
-                        // 중복 제거 (동일한 텍스트가 이미 있으면 스킵)
-                        if (text.length > 0 && seenTexts.has(text)) return;
-                        if (text.length > 0 || href) {
-                            seenTexts.add(text);
-                            ctas.push({
-                                type: type,
-                                text: text.slice(0, 100),
-                                href: href || null,
-                                selector: generateSelector(el)
-                            });
-                        }
-                    });
-                    
-                    // 2. SPA 네비게이션 패턴: data-to, data-href, data-path 속성
-                    document.querySelectorAll('[data-to], [data-href], [data-path]').forEach(el => {
-                        const text = (el.innerText || el.textContent || '').trim();
-                        const href = el.getAttribute('data-to') || el.getAttribute('data-href') || el.getAttribute('data-path');
-                        if (!seenTexts.has(text) && text.length > 0) {
-                            seenTexts.add(text);
-                            ctas.push({
-                                type: el.tagName.toLowerCase(),
-                                text: text.slice(0, 100),
-                                href: href || null,
-                                selector: generateSelector(el)
-                            });
-                        }
-                    });
-                    
-                    // 3. cursor:pointer인 클릭 가능한 요소 (MUI Stack/div 기반 메뉴 대응)
-                    // 단, 너무 큰 컨테이너는 제외 (화면의 50% 이상 덮는 요소 제외)
-                    const viewportWidth = window.innerWidth;
-                    const viewportHeight = window.innerHeight;
-                    const viewportArea = viewportWidth * viewportHeight;
-                    const thresholdArea = viewportArea * 0.5;
-                    
-                    document.querySelectorAll('*').forEach(el => {
-                        // 이미 처리한 요소는 스킵
-                        if (el.tagName === 'BUTTON' || el.tagName === 'A' || el.getAttribute('role') === 'button' || el.getAttribute('role') === 'link' || el.getAttribute('role') === 'menuitem') {
-                            return;
-                        }
-                        
-                        // data 속성이 이미 처리되었으면 스킵
-                        if (el.hasAttribute('data-to') || el.hasAttribute('data-href') || el.hasAttribute('data-path')) {
-                            return;
-                        }
-                        
-                        const style = window.getComputedStyle(el);
-                        const cursor = style.cursor;
-                        const display = style.display;
-                        const visibility = style.visibility;
-                        const opacity = parseFloat(style.opacity) || 1;
-                        
-                        // cursor:pointer이고 보이는 요소만
-                        if (cursor === 'pointer' && 
-                            display !== 'none' && 
-                            visibility !== 'hidden' && 
-                            opacity > 0 &&
-                            el.offsetParent !== null) {
-                            
-                            // 너무 큰 컨테이너는 제외
-                            const rect = el.getBoundingClientRect();
-                            const area = rect.width * rect.height;
-                            if (area > thresholdArea) {
-                                return;
-                            }
-                            
-                            const text = (el.innerText || el.textContent || '').trim();
-                            // 텍스트가 있고, 중복이 아니고, 의미있는 텍스트인 경우만 (너무 짧거나 긴 것 제외)
-                            if (text.length >= 2 && text.length <= 200 && !seenTexts.has(text)) {
-                                // nav/aside/drawer 하위 요소에 가중치 (네비게이션 가능성 높음)
-                                const isInNav = el.closest('nav, aside, [role="navigation"], [role="complementary"], [class*="Drawer"], [class*="Sidebar"], [class*="Lnb"]') !== null;
-                                
-                                seenTexts.add(text);
-                                ctas.push({
-                                    type: el.tagName.toLowerCase(),
-                                    text: text.slice(0, 100),
-                                    href: null, // cursor:pointer는 href가 없을 수 있음
-                                    selector: generateSelector(el)
-                                });
+    private static final String SCAN_FUNCTION = """
+        function (opts) {
+            const withSignature = !opts || opts.signature !== false;
+            const root = document.documentElement;
+            const links = [];
+            if (!root) return withSignature ? { domHash: '', ctas: [], forms: [], navElements: [], metadata: {}, links } : { links };
+
+            const baseUrl = window.location.origin;
+            const currentUrl = window.location.href.split('#')[0];
+            const viewportWidth = window.innerWidth;
+            const viewportHeight = window.innerHeight;
+            const thresholdArea = viewportWidth * viewportHeight * 0.5;
+            const NAV = 'nav, [role="navigation"]';
+
+            // h1, h2, h3, form, button, input, a[href], [role="button"], [role="link"] 개수
+            const counts = [0, 0, 0, 0, 0, 0, 0, 0, 0];
+            const primary = [];
+            const dataNav = [];
+            const pointer = [];
+            const forms = new Map();
+            const navs = new Map();
+
+            const walker = document.createTreeWalker(root, NodeFilter.SHOW_ELEMENT);
+            for (let el = walker.currentNode; el; el = walker.nextNode()) {
+                const name = el.localName;
+                const isAnchor = name === 'a' && el.hasAttribute('href');
+
+                // 정적 링크 (<a href>, 자기 자신/앵커/javascript: 제외)
+                if (isAnchor) {
+                    try {
+                        const href = el.href || el.getAttribute('href');
+                        if (href && typeof href === 'string' &&
+                            !href.startsWith('javascript:') &&
+                            !href.startsWith('#') &&
+                            href !== currentUrl) {
+                            let url = null;
+                            try {
+                                url = (href.startsWith('http') ? href : new URL(href, baseUrl).href).split('#')[0];
+                            } catch (e) {}
+                            if (url && (url.startsWith('http://') || url.startsWith('https://'))) {
+                                const text = (el.innerText || el.textContent || '').trim().slice(0, 200);
+                                links.push({ href: url, text: text || url });
                             }
                         }
-                    });
-                    
-                    return ctas;
+                    } catch (e) {}
                 }
-                function generateSelector(el) {
-                    // id → data-testid → aria-label → 안정 클래스 순으로 선택자 생성
-                    if (el.id) return '#' + el.id;
-                    if (el.getAttribute('data-testid')) return '[data-testid="' + el.getAttribute('data-testid') + '"]';
-                    if (el.getAttribute('aria-label')) return '[aria-label="' + el.getAttribute('aria-label') + '"]';
-                    if (el.className) {
-                        // 해시 클래스(css-xxxx) 제외하고 안정 클래스만 사용
-                        const classes = el.className.split(' ').filter(c => c && !c.match(/^css-[a-z0-9]+$/)).slice(0, 2).join('.');
-                        if (classes) return el.tagName.toLowerCase() + '.' + classes;
+                if (!withSignature) continue;
+
+                const role = el.getAttribute('role');
+                if (name === 'h1') counts[0]++;
+                else if (name === 'h2') counts[1]++;
+                else if (name === 'h3') counts[2]++;
+                else if (name === 'form') counts[3]++;
+                else if (name === 'button') counts[4]++;
+                else if (name === 'input') counts[5]++;
+                if (isAnchor) counts[6]++;
+                if (role === 'button') counts[7]++;
+                else if (role === 'link') counts[8]++;
+
+                // 폼과 필드 (문서 순서이므로 form이 자식 필드보다 먼저 등록됨)
+                if (name === 'form') {
+                    forms.set(el, { action: el.action || null, method: el.method || 'GET', fields: [] });
+                } else if (name === 'input' || name === 'select' || name === 'textarea') {
+                    const form = el.closest('form');
+                    if (form && forms.has(form)) {
+                        forms.get(form).fields.push({
+                            type: el.type || name,
+                            name: el.name || null,
+                            id: el.id || null,
+                            required: el.required || false
+                        });
                     }
-                    return el.tagName.toLowerCase();
                 }
-            """);
-            
-            if (result instanceof List<?>) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> list = (List<Map<String, Object>>) result;
-                return list;
+
+                // 네비게이션 영역과 그 안의 링크 (중첩된 nav면 바깥 nav에도 포함)
+                if (name === 'nav' || role === 'navigation') navs.set(el, []);
+                if (isAnchor) {
+                    for (let nav = el.closest(NAV); nav; nav = nav.parentElement ? nav.parentElement.closest(NAV) : null) {
+                        const navLinks = navs.get(nav);
+                        if (navLinks) navLinks.push({ text: (el.innerText || '').trim().slice(0, 50), href: el.href });
+                    }
+                }
+
+                // CTA 후보: 1) 버튼/링크/role 요소 2) data-to/href/path 요소 3) cursor:pointer 요소
+                const isPrimary = name === 'button' || isAnchor || role === 'button' || role === 'link' || role === 'menuitem';
+                const hasData = el.hasAttribute('data-to') || el.hasAttribute('data-href') || el.hasAttribute('data-path');
+                if (isPrimary) primary.push(el);
+                if (hasData) dataNav.push(el);
+                if (isPrimary || hasData || name === 'a') continue;
+
+                const style = window.getComputedStyle(el);
+                const opacity = parseFloat(style.opacity) || 1;
+                if (style.cursor !== 'pointer' ||
+                    style.display === 'none' ||
+                    style.visibility === 'hidden' ||
+                    opacity <= 0 ||
+                    el.offsetParent === null) continue;
+                // 너무 큰 컨테이너는 제외 (화면의 50% 이상 덮는 요소)
+                const rect = el.getBoundingClientRect();
+                if (rect.width * rect.height > thresholdArea) continue;
+                pointer.push(el);
             }
-        } catch (Exception e) {
-            // ignore
-        }
-        return new ArrayList<>();
-    }
-    
-    private static List<Map<String, Object>> extractForms(Page page) {
-        try {
-            Object result = page.evaluate("""
-                () => {
-                    const forms = [];
-                    document.querySelectorAll('form').forEach(form => {
-                        const fields = [];
-                        form.querySelectorAll('input, select, textarea').forEach(input => {
-                            fields.push({
-                                type: input.type || input.tagName.toLowerCase(),
-                                name: input.name || null,
-                                id: input.id || null,
-                                required: input.required || false
-                            });
-                        });
-                        if (fields.length > 0) {
-                            forms.push({
-                                action: form.action || null,
-                                method: form.method || 'GET',
-                                fields: fields
-                            });
-                        }
-                    });
-                    return forms;
+            if (!withSignature) return { links };
+
+            const selectorOf = el => {
+                // id → data-testid → aria-label → 안정 클래스 순으로 선택자 생성
+                if (el.id) return '#' + el.id;
+                if (el.getAttribute('data-testid')) return '[data-testid="' + el.getAttribute('data-testid') + '"]';
+                if (el.getAttribute('aria-label')) return '[aria-label="' + el.getAttribute('aria-label') + '"]';
+                if (typeof el.className === 'string' && el.className) {
+                    // 해시 클래스(css-xxxx) 제외하고 안정 클래스만 사용
+                    const classes = el.className.split(' ').filter(c => c && !c.match(/^css-[a-z0-9]+$/)).slice(0, 2).join('.');
+                    if (classes) return el.localName + '.' + classes;
+                }
+                return el.localName;
+            };
+            const textOf = el => (el.innerText || el.textContent || '').trim();
+
+            // 컴포넌트 구조 해시: CTA를 감싼 아코디언/전역 영역(없으면 CTA 자신)의 태그, 안정 클래스, 텍스트, href 골격.
+            // 열림/선택 같은 상태 클래스는 빼서 다른 페이지의 같은 사이드바가 같은 값이 되도록 함
+            const GLOBAL = 'nav, aside, header, [role="navigation"], [class*="Drawer"], [class*="Sidebar"], [class*="Lnb"]';
+            const COMPONENT = '.MuiAccordion-root, ' + GLOBAL;
+            const STATE_CLASS = /^(css-[a-z0-9]+|Mui-(expanded|selected|focused|focusVisible|active|checked|disabled)|active|selected|open)$/;
+            const fnv = (h, s) => {
+                for (let i = 0; i < s.length; i++) h = Math.imul(h ^ s.charCodeAt(i), 0x01000193);
+                return h >>> 0;
+            };
+            const components = new Map();
+            const componentOf = el => {
+                const container = el.closest(COMPONENT) || el;
+                let hash = components.get(container);
+                if (hash !== undefined) return hash;
+                let h = 0x811c9dc5;
+                const w = document.createTreeWalker(container, NodeFilter.SHOW_ELEMENT | NodeFilter.SHOW_TEXT);
+                for (let n = w.currentNode; n; n = w.nextNode()) {
+                    if (n.nodeType === 3) {
+                        const t = n.data.trim();
+                        if (t) h = fnv(h, '"' + t.slice(0, 50));
+                        continue;
+                    }
+                    h = fnv(h, '<' + n.localName);
+                    if (typeof n.className === 'string') {
+                        for (const c of n.className.split(' ')) if (c && !STATE_CLASS.test(c)) h = fnv(h, '.' + c);
+                    }
+                    if (n.localName === 'a') h = fnv(h, '@' + (n.getAttribute('href') || ''));
+                }
+                hash = h.toString(16);
+                components.set(container, hash);
+                return hash;
+            };
+            const ctaOf = (el, text, href) => ({
+                type: el.localName, text: text.slice(0, 100), href: href || null, selector: selectorOf(el),
+                component: componentOf(el), region: el.closest(GLOBAL) ? 'global' : 'page'
+            });
+
+            // 같은 텍스트의 CTA는 앞 단계에서 나온 것만 남김
+            const ctas = [];
+            const seenTexts = new Set();
+            for (const el of primary) {
+                const text = textOf(el);
+                const href = el.getAttribute('href') || el.getAttribute('data-href') || el.getAttribute('data-to') || el.getAttribute('data-path');
+                if (text.length > 0 && seenTexts.has(text)) continue;
+                if (text.length > 0 || href) {
+                    seenTexts.add(text);
+                    ctas.push(ctaOf(el, text, href));
                 }
-            """);
-            
-            if (result instanceof List<?>) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> list = (List<Map<String, Object>>) result;
-                return list;
             }
-        } catch (Exception e) {
-            // ignore
+            for (const el of dataNav) {
+                const text = textOf(el);
+                const href = el.getAttribute('data-to') || el.getAttribute('data-href') || el.getAttribute('data-path');
+                if (text.length > 0 && !seenTexts.has(text)) {
+                    seenTexts.add(text);
+                    ctas.push(ctaOf(el, text, href));
+                }
+            }
+            for (const el of pointer) {
+                const text = textOf(el);
+                if (text.length >= 2 && text.length <= 200 && !seenTexts.has(text)) {
+                    seenTexts.add(text);
+                    ctas.push(ctaOf(el, text, null));
+                }
+            }
+
+            return {
+                domHash: counts.join(','),
+                ctas,
+                forms: [...forms.values()].filter(f => f.fields.length > 0),
+                navElements: [...navs.values()].filter(l => l.length > 0).map(l => ({ links: l })),
+                metadata: { title: document.title, viewport: { width: viewportWidth, height: viewportHeight } },
+                links
+            };
         }
-        return new ArrayList<>();
+        """;
+
+    /**
+     * BrowserContext.addInitScript로 모든 문서에 주입하는 스캔 함수 (window.__stScan)
+     */
+    public static final String INIT_SCRIPT = "(() => { if (!window.__stScan) window.__stScan = " + SCAN_FUNCTION + "; })()";
+
+    private static final String SCAN_CALL = "opts => window.__stScan ? window.__stScan(opts) : null";
+
+    // init script가 없는 페이지(컨텍스트 밖에서 연 페이지 등)에서는 설치하면서 실행
+    private static final String INSTALL_AND_SCAN = "opts => (window.__stScan = window.__stScan || " + SCAN_FUNCTION + ")(opts)";
+
+    private static final Map<String, Object> FULL = Map.of("signature", true);
+    private static final Map<String, Object> LINKS_ONLY = Map.of("signature", false);
+
+    /**
+     * 페이지의 정적 링크 (절대 URL, fragment 제거)
+     */
+    public record ScannedLink(String href, String text) {}
+
+    /**
+     * 한 번의 스캔 결과
+     */
+    public record PageScan(Map<String, Object> signature, List<ScannedLink> links) {}
+
+    /**
+     * Playwright Page에서 UI 시그니처 추출
+     */
+    public static Map<String, Object> extractFromPage(Page page) {
+        return scan(page).signature();
     }
-    
-    private static List<Map<String, Object>> extractNavigationElements(Page page) {
+
+    /**
+     * UI 시그니처와 정적 링크를 한 번에 추출 (실패하면 error가 담긴 빈 시그니처)
+     */
+    public static PageScan scan(Page page) {
+        Map<String, Object> signature = new HashMap<>();
+        List<ScannedLink> links = List.of();
         try {
-            Object result = page.evaluate("""
-                () => {
-                    const navs = [];
-                    document.querySelectorAll('nav, [role="navigation"]').forEach(nav => {
-                        const links = [];
-                        nav.querySelectorAll('a[href]').forEach(a => {
-                            links.push({
-                                text: (a.innerText || '').trim().slice(0, 50),
-                                href: a.href
-                            });
-                        });
-                        if (links.length > 0) {
-                            navs.push({ links: links });
-                        }
-                    });
-                    return navs;
-                }
-            """);
-            
-            if (result instanceof List<?>) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> list = (List<Map<String, Object>>) result;
-                return list;
+            Object raw = evaluate(page, FULL);
+            if (raw instanceof Map<?, ?> result) {
+                signature.put("domHash", result.get("domHash") != null ? String.valueOf(result.get("domHash")) : "");
+                signature.put("ctas", listOrEmpty(result.get("ctas")));
+                signature.put("forms", listOrEmpty(result.get("forms")));
+                signature.put("navElements", listOrEmpty(result.get("navElements")));
+                signature.put("metadata", result.get("metadata") instanceof Map<?, ?> ? result.get("metadata") : new HashMap<>());
+                links = toLinks(result.get("links"));
             }
         } catch (Exception e) {
-            // ignore
+            // 추출 실패 시 빈 시그니처 반환
+            signature.put("error", e.getMessage());
         }
-        return new ArrayList<>();
+        return new PageScan(signature, links);
     }
-    
-    private static Map<String, Object> extractMetadata(Page page) {
-        Map<String, Object> metadata = new HashMap<>();
-        try {
-            String title = page.title();
-            metadata.put("title", title);
-            
-            // viewport 정보
-            Object viewport = page.evaluate("() => ({ width: window.innerWidth, height: window.innerHeight })");
-            if (viewport instanceof Map<?, ?>) {
-                metadata.put("viewport", viewport);
+
+    /**
+     * 정적 링크만 추출 (스타일 계산 없이 같은 스캔 함수 사용, 실패하면 예외)
+     */
+    public static List<ScannedLink> scanLinks(Page page) {
+        Object raw = evaluate(page, LINKS_ONLY);
+        return raw instanceof Map<?, ?> result ? toLinks(result.get("links")) : List.of();
+    }
+
+    private static Object evaluate(Page page, Map<String, Object> opts) {
+        Object raw = page.evaluate(SCAN_CALL, opts);
+        return raw != null ? raw : page.evaluate(INSTALL_AND_SCAN, opts);
+    }
+
+    private static List<?> listOrEmpty(Object value) {
+        return value instanceof List<?> list ? list : new ArrayList<>();
+    }
+
+    private static List<ScannedLink> toLinks(Object raw) {
+        if (!(raw instanceof List<?> items)) return List.of();
+        List<ScannedLink> links = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> m && m.get("href") instanceof String href) {
+                links.add(new ScannedLink(href, m.get("text") instanceof String text ? text : href));
             }
-        } catch (Exception e) {
-            // ignore
         }
-        return metadata;
+        return links;
     }
 }
-
@@ -8,6 +8,7 @@ import com.dubbi.statetrail.flow.domain.FlowEntity;
 import com.dubbi.statetrail.flow.domain.FlowRepository;
 import com.dubbi.statetrail.flow.domain.FlowSource;
 import com.dubbi.statetrail.flow.service.FlowMiner;
+import com.dubbi.statetrail.flow.service.SmokeMode;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -43,13 +45,22 @@ public class FlowController {
         return ResponseEntity.ok(ListResponse.of(flows));
     }
 
+    /**
+     * @param mode shortest | multi-source | k-shortest
+     * @param k k-shortest일 때 타겟마다 만들 대안 경로 수
+     */
     @PostMapping("/api/crawl-runs/{runId}/flows/auto-smoke")
-    public ResponseEntity<Map<String, Object>> generateAutoSmoke(@PathVariable UUID runId) {
+    public ResponseEntity<Map<String, Object>> generateAutoSmoke(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) String mode,
+            @RequestParam(defaultValue = "3") int k
+    ) {
         var runOpt = crawlRunRepository.findById(runId);
         if (runOpt.isEmpty()) return ResponseEntity.notFound().build();
 
         var run = runOpt.get();
-        var flows = flowMiner.extractSmokeFlows(run, 10); // 최대 10개 smoke 플로우
+        // 최대 10개 smoke 플로우
+        var flows = flowMiner.extractSmokeFlows(run, 10, SmokeMode.fromNullable(mode), Math.min(Math.max(k, 1), 10));
         
         for (var flow : flows) {
             flowRepository.save(flow);
@@ -58,6 +69,37 @@ public class FlowController {
         return ResponseEntity.ok(Map.of("ok", true, "count", flows.size()));
     }
 
+    /**
+     * startUrl에서 도달 가능한 모든 엣지를 커버하는 플로우 생성
+     *
+     * @param resetCost 플로우 하나를 더 만드는 비용 (없으면 graph.coverage.reset-cost)
+     */
+    @PostMapping("/api/crawl-runs/{runId}/flows/auto-coverage")
+    public ResponseEntity<Map<String, Object>> generateAutoCoverage(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) Integer resetCost
+    ) {
+        var runOpt = crawlRunRepository.findById(runId);
+        if (runOpt.isEmpty()) return ResponseEntity.notFound().build();
+
+        var run = runOpt.get();
+        var result = resetCost == null
+                ? flowMiner.extractEdgeCoverageFlows(run)
+                : flowMiner.extractEdgeCoverageFlows(run, Math.min(Math.max(resetCost, 1), 1000));
+        flowRepository.saveAll(result.flows());
+
+        var plan = result.plan();
+        return ResponseEntity.ok(Map.of(
+                "ok", true,
+                "count", result.flows().size(),
+                "coveredEdges", plan.coveredEdges(),
+                "totalEdges", plan.totalEdges(),
+                "coverage", Math.round(plan.coveragePercent() * 10) / 10.0,
+                "totalSteps", plan.totalSteps(),
+                "exact", plan.exact()
+        ));
+    }
+
     @GetMapping("/api/flows/{flowId}")
     public ResponseEntity<FlowDTO> get(@PathVariable UUID flowId) {
         return flowRepository.findById(flowId)
@@ -1,35 +1,45 @@
 package com.dubbi.statetrail.flow.service;
 
-import com.dubbi.statetrail.crawl.domain.CrawlLinkEntity;
-import com.dubbi.statetrail.crawl.domain.CrawlLinkRepository;
-import com.dubbi.statetrail.crawl.domain.CrawlPageEntity;
-import com.dubbi.statetrail.crawl.domain.CrawlPageRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
 import com.dubbi.statetrail.crawl.domain.CrawlRunEntity;
 import com.dubbi.statetrail.flow.domain.FlowEntity;
 import com.dubbi.statetrail.flow.domain.FlowSource;
+import com.dubbi.statetrail.graph.service.CoverageEngine;
+import com.dubbi.statetrail.graph.service.GraphAnalyticsService;
+import com.dubbi.statetrail.graph.service.PathEngine;
+import com.dubbi.statetrail.graph.service.PathEngine.ShortestPaths;
+import com.dubbi.statetrail.graph.service.RunGraph;
+import com.dubbi.statetrail.graph.service.RunGraphCache;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * 그래프에서 플로우를 자동 추출하는 서비스
+ * 그래프는 RunGraphCache의 CSR 그래프(int ordinal)를 사용하고, 경로 계산은 PathEngine에 맡긴다.
  */
 @Service
 public class FlowMiner {
-    private final CrawlPageRepository crawlPageRepository;
-    private final CrawlLinkRepository crawlLinkRepository;
+    private final RunGraphCache runGraphCache;
+    private final GraphAnalyticsService graphAnalyticsService;
+    private final int resetCost;
+    private final long exactWorkLimit;
 
-    public FlowMiner(CrawlPageRepository crawlPageRepository, CrawlLinkRepository crawlLinkRepository) {
-        this.crawlPageRepository = crawlPageRepository;
-        this.crawlLinkRepository = crawlLinkRepository;
+    public FlowMiner(
+            RunGraphCache runGraphCache,
+            GraphAnalyticsService graphAnalyticsService,
+            @Value("${graph.coverage.reset-cost:4}") int resetCost,
+            @Value("${graph.coverage.exact-work-limit:" + CoverageEngine.EXACT_WORK_LIMIT + "}") long exactWorkLimit
+    ) {
+        this.runGraphCache = runGraphCache;
+        this.graphAnalyticsService = graphAnalyticsService;
+        this.resetCost = Math.max(1, resetCost);
+        this.exactWorkLimit = Math.max(0, exactWorkLimit);
     }
 
     /**
@@ -37,221 +47,180 @@ public class FlowMiner {
      * startUrl에서 다른 주요 노드들까지의 최단경로를 찾아서 플로우로 생성
      */
     public List<FlowEntity> extractSmokeFlows(CrawlRunEntity run, int maxFlows) {
-        var pages = crawlPageRepository.findByRunId(run.getId());
-        var links = crawlLinkRepository.findByRunId(run.getId());
-        
-        if (pages.isEmpty() || links.isEmpty()) {
-            return List.of();
-        }
-        
-        // 그래프 구조 생성: pageId -> List<edgeId>
-        Map<UUID, List<CrawlLinkEntity>> graph = buildGraph(links);
-        
-        // startUrl에 해당하는 노드 찾기
-        var startPageOpt = pages.stream()
-                .filter(p -> p.getUrl().equals(run.getStartUrl()))
-                .findFirst();
-        if (startPageOpt.isEmpty()) {
-            return List.of();
-        }
-        var startPage = startPageOpt.get();
-        
-        // BFS로 최단경로 찾기 (edgeId 경로 저장)
-        Map<UUID, List<UUID>> shortestPaths = findShortestPaths(graph, startPage.getId());
-        
-        // 주요 노드들 선택 (depth가 깊은 노드들 우선, 또는 특정 조건 만족하는 노드들)
-        List<CrawlPageEntity> targetPages = selectTargetPages(pages, startPage, maxFlows);
-        
-        // 각 타겟까지의 경로로 플로우 생성
-        List<FlowEntity> flows = new ArrayList<>();
-        for (int i = 0; i < Math.min(targetPages.size(), maxFlows); i++) {
-            var target = targetPages.get(i);
-            List<UUID> path = shortestPaths.get(target.getId());
-            
-            if (path != null && !path.isEmpty()) {
-                // 경로를 steps로 변환 (edgeId 리스트)
-                List<Map<String, Object>> steps = path.stream()
-                        .map(edgeId -> Map.<String, Object>of("edgeId", edgeId.toString()))
-                        .toList();
-                
-                var flow = new FlowEntity(
-                        UUID.randomUUID(),
-                        run.getProject(),
-                        run.getAuthProfile(),
-                        run,
-                        String.format("Smoke: %s → %s", 
-                                getPageLabel(startPage), 
-                                getPageLabel(target)),
-                        FlowSource.AUTO_SMOKE,
-                        steps,
-                        Map.of("suite", "smoke", "from", startPage.getId().toString(), "to", target.getId().toString())
-                );
-                flows.add(flow);
-            }
-        }
-        
-        return flows;
+        return extractSmokeFlows(run, maxFlows, SmokeMode.SHORTEST, 1);
     }
 
     /**
-     * 엣지 커버리지 플로우 추출
-     * 모든 엣지를 최소한 한 번씩 커버하는 플로우 집합 생성 (Chinese Postman Problem의 변형)
+     * smoke 플로우 추출
+     *
+     * @param mode 경로 선택 방식
+     * @param k K_SHORTEST일 때 타겟마다 만들 대안 경로 수
      */
-    public List<FlowEntity> extractEdgeCoverageFlows(CrawlRunEntity run) {
-        var pages = crawlPageRepository.findByRunId(run.getId());
-        var links = crawlLinkRepository.findByRunId(run.getId());
-        
-        if (pages.isEmpty() || links.isEmpty()) {
+    public List<FlowEntity> extractSmokeFlows(CrawlRunEntity run, int maxFlows, SmokeMode mode, int k) {
+        RunGraph graph = runGraphCache.get(run);
+
+        if (graph.nodeCount() == 0 || graph.edgeCount() == 0) {
             return List.of();
         }
-        
-        // 그래프 구조 생성
-        Map<UUID, List<CrawlLinkEntity>> graph = buildGraph(links);
-        
-        // startUrl 노드 찾기
-        var startPageOpt = pages.stream()
-                .filter(p -> p.getUrl().equals(run.getStartUrl()))
-                .findFirst();
-        if (startPageOpt.isEmpty()) {
+
+        // startUrl에 해당하는 노드 찾기
+        int start = graph.findByUrl(run.getStartUrl());
+        if (start < 0) {
             return List.of();
         }
-        var startPage = startPageOpt.get();
-        
-        // 간단한 휴리스틱: 각 엣지를 순회하면서 경로 생성
-        Set<UUID> coveredEdges = new HashSet<>();
+
+        PathEngine engine = new PathEngine(graph);
         List<FlowEntity> flows = new ArrayList<>();
-        List<UUID> currentPath = new ArrayList<>();
-        UUID currentNode = startPage.getId();
-        
-        // DFS 기반으로 엣지 커버리지 추적
-        while (coveredEdges.size() < links.size() && flows.size() < 50) { // 최대 50개 플로우
-            List<CrawlLinkEntity> outgoing = graph.getOrDefault(currentNode, List.of());
-            
-            // 아직 커버되지 않은 엣지 찾기
-            var uncoveredEdge = outgoing.stream()
-                    .filter(e -> !coveredEdges.contains(e.getId()))
-                    .findFirst();
-            
-            if (uncoveredEdge.isPresent()) {
-                var edge = uncoveredEdge.get();
-                currentPath.add(edge.getId());
-                coveredEdges.add(edge.getId());
-                currentNode = edge.getToPage().getId();
-            } else {
-                // 더 이상 갈 곳이 없으면 플로우 생성
-                if (!currentPath.isEmpty()) {
-                    List<Map<String, Object>> steps = currentPath.stream()
-                            .map(edgeId -> Map.<String, Object>of("edgeId", edgeId.toString()))
-                            .toList();
-                    
-                    var flow = new FlowEntity(
-                            UUID.randomUUID(),
-                            run.getProject(),
-                            run.getAuthProfile(),
-                            run,
-                            String.format("Edge Coverage #%d", flows.size() + 1),
-                            FlowSource.AUTO_EDGE_COVERAGE,
-                            steps,
-                            Map.of("suite", "coverage", "edgeCount", currentPath.size())
-                    );
-                    flows.add(flow);
-                    currentPath.clear();
-                    currentNode = startPage.getId();
-                } else {
-                    break;
+        double[] importance = graphAnalyticsService.scores(run, graph).importance();
+
+        if (mode == SmokeMode.K_SHORTEST) {
+            // 타겟 수를 줄이고 타겟마다 대안 경로를 만듦
+            int alternatives = Math.max(1, k);
+            int[] targets = selectTargetPages(graph, importance, start, Math.max(1, (maxFlows + alternatives - 1) / alternatives));
+            for (int target : targets) {
+                List<int[]> paths = engine.kShortestPaths(start, target, alternatives);
+                for (int i = 0; i < paths.size() && flows.size() < maxFlows; i++) {
+                    String suffix = i == 0 ? "" : String.format(" (alt %d)", i + 1);
+                    flows.add(smokeFlow(run, graph, start, target, paths.get(i), suffix));
                 }
             }
+            return flows;
         }
-        
-        // 마지막 플로우 처리
-        if (!currentPath.isEmpty()) {
-            List<Map<String, Object>> steps = currentPath.stream()
-                    .map(edgeId -> Map.<String, Object>of("edgeId", edgeId.toString()))
-                    .toList();
-            
-            var flow = new FlowEntity(
-                    UUID.randomUUID(),
-                    run.getProject(),
-                    run.getAuthProfile(),
-                    run,
-                    String.format("Edge Coverage #%d", flows.size() + 1),
-                    FlowSource.AUTO_EDGE_COVERAGE,
-                    steps,
-                    Map.of("suite", "coverage", "edgeCount", currentPath.size())
-            );
-            flows.add(flow);
+
+        // BFS로 최단경로 트리 구성 (노드마다 도달한 엣지만 저장, 경로는 선택된 타겟만 복원)
+        int[] sources = mode == SmokeMode.MULTI_SOURCE ? entryPages(graph, start) : new int[] {start};
+        ShortestPaths tree = engine.fromSources(sources);
+
+        // 주요 노드들 선택 (중심성 점수가 높은 노드 우선)
+        int[] targets = selectTargetPages(graph, importance, start, maxFlows);
+
+        // 각 타겟까지의 경로로 플로우 생성
+        for (int i = 0; i < Math.min(targets.length, maxFlows); i++) {
+            int target = targets[i];
+            int[] path = tree.pathTo(target);
+
+            if (path != null && path.length > 0) {
+                flows.add(smokeFlow(run, graph, tree.root(target), target, path, ""));
+            }
         }
-        
+
         return flows;
     }
 
+    private FlowEntity smokeFlow(CrawlRunEntity run, RunGraph graph, int from, int to, int[] path, String nameSuffix) {
+        // 경로를 steps로 변환 (edgeId 리스트)
+        List<Map<String, Object>> steps = new ArrayList<>(path.length);
+        for (int edge : path) {
+            steps.add(Map.of("edgeId", graph.edge(edge).id().toString()));
+        }
+
+        PageNodeView fromPage = graph.node(from);
+        PageNodeView toPage = graph.node(to);
+        return new FlowEntity(
+                UUID.randomUUID(),
+                run.getProject(),
+                run.getAuthProfile(),
+                run,
+                String.format("Smoke: %s → %s%s",
+                        getPageLabel(fromPage),
+                        getPageLabel(toPage),
+                        nameSuffix),
+                FlowSource.AUTO_SMOKE,
+                steps,
+                Map.of("suite", "smoke", "from", fromPage.id().toString(), "to", toPage.id().toString())
+        );
+    }
+
     /**
-     * 그래프 구조 생성: pageId -> outgoing edges
+     * MULTI_SOURCE 출발점: startUrl 노드와 startUrl에서 바로 링크된 페이지들
      */
-    private Map<UUID, List<CrawlLinkEntity>> buildGraph(List<CrawlLinkEntity> links) {
-        Map<UUID, List<CrawlLinkEntity>> graph = new HashMap<>();
-        for (var link : links) {
-            graph.computeIfAbsent(link.getFromPage().getId(), k -> new ArrayList<>()).add(link);
+    private int[] entryPages(RunGraph graph, int start) {
+        int[] entries = new int[1 + graph.outDegree(start)];
+        int count = 0;
+        entries[count++] = start;
+        for (int i = graph.outStart(start); i < graph.outEnd(start); i++) {
+            int next = graph.target(graph.outEdge(i));
+            if (next != start) entries[count++] = next;
         }
-        return graph;
+        return Arrays.copyOf(entries, count);
     }
 
     /**
-     * BFS로 최단경로 찾기 (edgeId 경로 반환)
+     * 엣지 커버리지 플로우와 계획 통계 (커버리지 %, 총 step 수)
      */
-    private Map<UUID, List<UUID>> findShortestPaths(Map<UUID, List<CrawlLinkEntity>> graph, UUID start) {
-        Map<UUID, List<UUID>> paths = new HashMap<>();
-        Map<UUID, UUID> parentEdge = new HashMap<>(); // node -> edge that reached it
-        Queue<UUID> queue = new LinkedList<>();
-        Set<UUID> visited = new HashSet<>();
-        
-        queue.offer(start);
-        visited.add(start);
-        paths.put(start, List.of()); // start node has empty path
-        
-        while (!queue.isEmpty()) {
-            UUID current = queue.poll();
-            
-            for (var edge : graph.getOrDefault(current, List.of())) {
-                UUID next = edge.getToPage().getId();
-                
-                if (!visited.contains(next)) {
-                    visited.add(next);
-                    parentEdge.put(next, edge.getId());
-                    queue.offer(next);
-                    
-                    // 경로 재구성
-                    List<UUID> path = new ArrayList<>(paths.get(current));
-                    path.add(edge.getId());
-                    paths.put(next, path);
-                }
-            }
+    public record CoverageFlows(List<FlowEntity> flows, CoverageEngine.Plan plan) {}
+
+    public CoverageFlows extractEdgeCoverageFlows(CrawlRunEntity run) {
+        return extractEdgeCoverageFlows(run, resetCost);
+    }
+
+    /**
+     * 엣지 커버리지 플로우 추출
+     * startUrl에서 도달 가능한 모든 엣지를 최소한 한 번씩 커버하는 플로우 집합 생성 (directed Chinese Postman, CoverageEngine 참고)
+     *
+     * @param resetCost 플로우 하나를 더 만드는 비용 (step 수 단위, 클수록 적고 긴 플로우)
+     */
+    public CoverageFlows extractEdgeCoverageFlows(CrawlRunEntity run, int resetCost) {
+        RunGraph graph = runGraphCache.get(run);
+
+        if (graph.nodeCount() == 0 || graph.edgeCount() == 0) {
+            return new CoverageFlows(List.of(), new CoverageEngine.Plan(List.of(), 0, graph.edgeCount(), 0, true));
+        }
+
+        // startUrl 노드 찾기
+        int start = graph.findByUrl(run.getStartUrl());
+        if (start < 0) {
+            return new CoverageFlows(List.of(), new CoverageEngine.Plan(List.of(), 0, graph.edgeCount(), 0, true));
+        }
+
+        CoverageEngine.Plan plan = new CoverageEngine(graph).plan(start, resetCost, exactWorkLimit);
+        List<FlowEntity> flows = new ArrayList<>(plan.walks().size());
+        for (int[] walk : plan.walks()) {
+            flows.add(edgeCoverageFlow(run, graph, walk, flows.size() + 1));
         }
-        
-        return paths;
+        return new CoverageFlows(flows, plan);
+    }
+
+    private FlowEntity edgeCoverageFlow(CrawlRunEntity run, RunGraph graph, int[] path, int number) {
+        List<Map<String, Object>> steps = new ArrayList<>(path.length);
+        for (int edge : path) {
+            steps.add(Map.of("edgeId", graph.edge(edge).id().toString()));
+        }
+
+        return new FlowEntity(
+                UUID.randomUUID(),
+                run.getProject(),
+                run.getAuthProfile(),
+                run,
+                String.format("Edge Coverage #%d", number),
+                FlowSource.AUTO_EDGE_COVERAGE,
+                steps,
+                Map.of("suite", "coverage", "edgeCount", path.length)
+        );
     }
 
     /**
-     * 타겟 노드 선택 (depth가 깊은 노드들 우선)
+     * 타겟 노드 선택 (PageRank/betweenness/in-degree 종합 점수가 높은 순, 같으면 depth가 깊은 순)
      */
-    private List<CrawlPageEntity> selectTargetPages(
-            List<CrawlPageEntity> pages, 
-            CrawlPageEntity startPage, 
-            int maxCount
-    ) {
-        return pages.stream()
-                .filter(p -> !p.getId().equals(startPage.getId())) // start 제외
-                .sorted((a, b) -> Integer.compare(b.getDepth(), a.getDepth())) // depth 큰 순
+    private int[] selectTargetPages(RunGraph graph, double[] importance, int start, int maxCount) {
+        return IntStream.range(0, graph.nodeCount())
+                .filter(v -> v != start) // start 제외
+                .boxed()
+                .sorted((a, b) -> {
+                    int c = Double.compare(importance[b], importance[a]); // 점수 큰 순
+                    return c != 0 ? c : Integer.compare(graph.node(b).depth(), graph.node(a).depth());
+                })
                 .limit(maxCount)
-                .toList();
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
-    private String getPageLabel(CrawlPageEntity page) {
-        if (page.getTitle() != null && !page.getTitle().isBlank()) {
-            return page.getTitle();
+    private String getPageLabel(PageNodeView page) {
+        if (page.title() != null && !page.title().isBlank()) {
+            return page.title();
         }
         try {
-            var url = new java.net.URL(page.getUrl());
+            var url = new java.net.URL(page.url());
             var path = url.getPath();
             if (path.isEmpty() || path.equals("/")) {
                 return url.getHost();
@@ -259,8 +228,7 @@ public class FlowMiner {
             var segments = path.split("/");
             return segments[segments.length - 1];
         } catch (Exception e) {
-            return page.getUrl();
+            return page.url();
         }
     }
 }
-
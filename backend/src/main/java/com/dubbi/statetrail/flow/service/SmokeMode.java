@@ -0,0 +1,28 @@
+package com.dubbi.statetrail.flow.service;
+
+/**
+ * smoke 플로우 경로 선택 방식
+ */
+public enum SmokeMode {
+    /**
+     * startUrl에서 각 타겟까지의 최단경로 (기본값)
+     */
+    SHORTEST,
+    /**
+     * startUrl과 그 직속 페이지(depth 1)를 모두 출발점으로 두고 가장 가까운 출발점에서의 최단경로
+     */
+    MULTI_SOURCE,
+    /**
+     * startUrl에서 각 타겟까지 짧은 순서로 k개의 대안 경로 (Yen)
+     */
+    K_SHORTEST;
+
+    public static SmokeMode fromNullable(String raw) {
+        if (raw == null) return SHORTEST;
+        try {
+            return SmokeMode.valueOf(raw.trim().toUpperCase().replace('-', '_'));
+        } catch (Exception ignored) {
+            return SHORTEST;
+        }
+    }
+}
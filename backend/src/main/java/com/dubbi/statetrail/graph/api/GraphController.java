@@ -1,80 +1,134 @@
 package com.dubbi.statetrail.graph.api;
 
 import com.dubbi.statetrail.crawl.domain.CrawlRunRepository;
-import com.dubbi.statetrail.crawl.domain.CrawlLinkRepository;
-import com.dubbi.statetrail.crawl.domain.CrawlPageRepository;
 import com.dubbi.statetrail.common.storage.ObjectStorageService;
 import com.dubbi.statetrail.graph.api.dto.GraphDtos.GraphDTO;
 import com.dubbi.statetrail.graph.api.dto.GraphDtos.NodeDTO;
 import com.dubbi.statetrail.graph.api.dto.GraphDtos.EdgeDTO;
-import com.dubbi.statetrail.graph.util.UiSignatureSummary;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import com.dubbi.statetrail.graph.service.GraphStreamService;
+import com.dubbi.statetrail.graph.service.GraphStreamService.Scope;
+import com.dubbi.statetrail.graph.service.GraphStreamService.StreamRequest;
+import com.dubbi.statetrail.graph.service.RunGraph;
+import com.dubbi.statetrail.graph.service.RunGraphCache;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/crawl-runs/{runId}/graph")
 public class GraphController {
     private final CrawlRunRepository crawlRunRepository;
-    private final CrawlPageRepository crawlPageRepository;
-    private final CrawlLinkRepository crawlLinkRepository;
+    private final RunGraphCache runGraphCache;
     private final ObjectStorageService objectStorageService;
+    private final GraphStreamService graphStreamService;
 
     public GraphController(
             CrawlRunRepository crawlRunRepository, 
-            CrawlPageRepository crawlPageRepository, 
-            CrawlLinkRepository crawlLinkRepository,
-            ObjectStorageService objectStorageService
+            RunGraphCache runGraphCache,
+            ObjectStorageService objectStorageService,
+            GraphStreamService graphStreamService
     ) {
         this.crawlRunRepository = crawlRunRepository;
-        this.crawlPageRepository = crawlPageRepository;
-        this.crawlLinkRepository = crawlLinkRepository;
+        this.runGraphCache = runGraphCache;
         this.objectStorageService = objectStorageService;
+        this.graphStreamService = graphStreamService;
+    }
+
+    /**
+     * 그래프를 NDJSON으로 스트리밍 (노드 → 엣지 순서, 한 줄에 하나)
+     * 예: /stream?fields=id,url,depth&limit=5000, 응답 마지막 줄의 cursor로 다음 페이지 요청
+     *
+     * @param scope nodes | edges | all
+     * @param fields 쉼표로 구분한 필드 목록 (노드/엣지 필드 공용, 없으면 기본 필드)
+     * @param limit 응답 최대 줄 수 (0이면 끝까지)
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @PathVariable UUID runId,
+            @RequestParam(defaultValue = "all") String scope,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int limit
+    ) {
+        if (crawlRunRepository.findById(runId).isEmpty()) return ResponseEntity.notFound().build();
+        Scope parsedScope;
+        try {
+            parsedScope = Scope.valueOf(scope.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (limit < 0 || !GraphStreamService.isValidCursor(cursor)) return ResponseEntity.badRequest().build();
+
+        Set<String> fieldSet = new LinkedHashSet<>();
+        if (fields != null) {
+            Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).forEach(fieldSet::add);
+        }
+        StreamRequest request = new StreamRequest(runId, parsedScope, fieldSet, cursor, limit);
+        StreamingResponseBody body = out -> graphStreamService.write(request, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping
     public ResponseEntity<GraphDTO> get(@PathVariable UUID runId) {
-        if (crawlRunRepository.findById(runId).isEmpty()) return ResponseEntity.notFound().build();
+        var runOpt = crawlRunRepository.findById(runId);
+        if (runOpt.isEmpty()) return ResponseEntity.notFound().build();
         
-        var nodes = crawlPageRepository.findByRunId(runId).stream()
+        // 완료된 run은 캐시된 그래프 사용 (DB 조회 없음)
+        RunGraph graph = runGraphCache.get(runOpt.get());
+        List<PageNodeView> pages = IntStream.range(0, graph.nodeCount()).mapToObj(graph::node).toList();
+        // 스크린샷 썸네일 presigned URL은 한 번에 생성 (캐시에 없는 것만 병렬 서명, 실패한 키는 null)
+        Map<String, String> screenshotUrls = objectStorageService.getPresignedUrls(
+                pages.stream().map(PageNodeView::screenshotObjectKey).filter(Objects::nonNull).toList());
+
+        var nodes = pages.stream()
                 .map(p -> {
-                    // 스크린샷 썸네일 presigned URL 생성
-                    String screenshotThumbUrl = null;
-                    if (p.getScreenshotObjectKey() != null) {
-                        try {
-                            screenshotThumbUrl = objectStorageService.getPresignedUrl(p.getScreenshotObjectKey());
-                        } catch (Exception e) {
-                            // ignore presigned URL generation errors
-                        }
-                    }
+                    String screenshotThumbUrl = p.screenshotObjectKey() != null
+                            ? screenshotUrls.get(p.screenshotObjectKey())
+                            : null;
                     
-                    // UI 시그니처 요약
-                    Map<String, Object> uiSignatureSummary = UiSignatureSummary.summarize(p.getUiSignature());
-                    
-                    // 리스크 태그
-                    Map<String, Object> riskTags = UiSignatureSummary.extractRiskTags(p.getUiSignature());
+                    // UI 시그니처 요약 / 리스크 태그 (저장 시점에 계산된 값)
+                    Map<String, Object> uiSignatureSummary = p.uiSignatureSummary() != null ? p.uiSignatureSummary() : Map.of();
+                    Map<String, Object> riskTags = p.riskTags() != null ? p.riskTags() : Map.of();
                     
                     // 메타데이터
                     Map<String, Object> metadata = new HashMap<>();
-                    metadata.put("httpStatus", p.getHttpStatus());
-                    metadata.put("contentType", p.getContentType());
-                    if (p.getNetworkLogObjectKey() != null) {
+                    metadata.put("httpStatus", p.httpStatus());
+                    metadata.put("contentType", p.contentType());
+                    if (p.networkLogObjectKey() != null) {
                         metadata.put("hasNetworkLog", true);
                     }
+                    // 중심성 점수 (run 완료 후 계산됨)
+                    if (p.hasCentrality()) {
+                        metadata.put("pageRank", p.pageRank());
+                        metadata.put("betweenness", p.betweenness());
+                        metadata.put("inDegree", p.inDegree());
+                    }
                     
                     return new NodeDTO(
-                            p.getId(),
-                            p.getNodeKey(),
-                            p.getUrl(),
-                            p.getUrlPattern() != null ? p.getUrlPattern() : p.getUrl(),
-                            p.getTitle(),
+                            p.id(),
+                            p.nodeKey(),
+                            p.url(),
+                            p.urlPattern() != null ? p.urlPattern() : p.url(),
+                            p.title(),
                             screenshotThumbUrl,
-                            p.getDepth(),
+                            p.depth(),
                             uiSignatureSummary,
                             riskTags,
                             metadata
@@ -82,24 +136,24 @@ public class GraphController {
                 })
                 .toList();
         
-        var edges = crawlLinkRepository.findByRunId(runId).stream()
+        var edges = IntStream.range(0, graph.edgeCount()).mapToObj(graph::edge)
                 .map(e -> {
                     // ActionType이 null이면 기본값 "NAVIGATE"
-                    String actionType = e.getActionType() != null ? e.getActionType().name() : "NAVIGATE";
+                    String actionType = e.actionType() != null ? e.actionType().name() : "NAVIGATE";
                     
                     // Edge 태그 (anchorText 포함)
                     Map<String, Object> tags = new HashMap<>();
-                    if (e.getAnchorText() != null) {
-                        tags.put("anchorText", e.getAnchorText());
+                    if (e.anchorText() != null) {
+                        tags.put("anchorText", e.anchorText());
                     }
                     
                     return new EdgeDTO(
-                            e.getId(),
-                            e.getFromPage().getId(),
-                            e.getToPage().getId(),
+                            e.id(),
+                            e.fromPageId(),
+                            e.toPageId(),
                             actionType,
-                            e.getLocator(),
-                            e.getRiskTags() != null ? e.getRiskTags() : Map.of(),
+                            e.locator(),
+                            e.riskTags() != null ? e.riskTags() : Map.of(),
                             tags
                     );
                 })
@@ -33,18 +33,14 @@ public class GraphInspectorController {
 
     @GetMapping("/nodes/{nodeId}")
     public ResponseEntity<NodeDetailDTO> getNode(@PathVariable UUID runId, @PathVariable UUID nodeId) {
-        return crawlPageRepository.findById(nodeId)
-                .filter(p -> p.getCrawlRun().getId().equals(runId))
+        // html_snapshot은 DB에서 앞 8000자와 길이만 계산 (전체는 /html에서 필요할 때 조회)
+        return crawlPageRepository.findDetailView(runId, nodeId)
                 .map(p -> {
-                    String html = p.getHtmlSnapshot();
-                    Integer size = html == null ? null : html.length();
-                    String snippet = html == null ? null : (html.length() > 8000 ? html.substring(0, 8000) : html);
-                    
                     // 스크린샷 원본 presigned URL
                     String screenshotUrl = null;
-                    if (p.getScreenshotObjectKey() != null) {
+                    if (p.screenshotObjectKey() != null) {
                         try {
-                            screenshotUrl = objectStorageService.getPresignedUrl(p.getScreenshotObjectKey());
+                            screenshotUrl = objectStorageService.getPresignedUrl(p.screenshotObjectKey());
                         } catch (Exception e) {
                             // ignore
                         }
@@ -52,35 +48,48 @@ public class GraphInspectorController {
                     
                     // 네트워크 로그 presigned URL
                     String networkLogUrl = null;
-                    if (p.getNetworkLogObjectKey() != null) {
+                    if (p.networkLogObjectKey() != null) {
                         try {
-                            networkLogUrl = objectStorageService.getPresignedUrl(p.getNetworkLogObjectKey());
+                            networkLogUrl = objectStorageService.getPresignedUrl(p.networkLogObjectKey());
                         } catch (Exception e) {
                             // ignore
                         }
                     }
                     
                     return new NodeDetailDTO(
-                            p.getId(),
-                            p.getNodeKey(),
-                            p.getUrl(),
-                            p.getTitle(),
-                            p.getHttpStatus(),
-                            p.getContentType(),
-                            p.getDepth(),
-                            p.getDiscoveredAt(),
-                            p.getFetchedAt(),
-                            size,
-                            snippet,
+                            p.id(),
+                            p.nodeKey(),
+                            p.url(),
+                            p.title(),
+                            p.httpStatus(),
+                            p.contentType(),
+                            p.depth(),
+                            p.discoveredAt(),
+                            p.fetchedAt(),
+                            p.htmlSize(),
+                            p.htmlSnippet(),
                             screenshotUrl,
                             networkLogUrl,
-                            p.getUiSignature() != null ? p.getUiSignature() : Map.of()
+                            p.uiSignature() != null ? p.uiSignature() : Map.of()
                     );
                 })
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.<NodeDetailDTO>notFound().build());
     }
 
+    /**
+     * 노드의 전체 HTML 스냅샷 (인스펙터에서 요청할 때만 조회)
+     * 크롤링한 페이지를 같은 origin에서 렌더링하지 않도록 text/plain으로 내려줌
+     */
+    @GetMapping(value = "/nodes/{nodeId}/html", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> getNodeHtml(@PathVariable UUID runId, @PathVariable UUID nodeId) {
+        return crawlPageRepository.findHtmlSnapshot(runId, nodeId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> crawlPageRepository.existsInRun(runId, nodeId)
+                        ? ResponseEntity.noContent().build()
+                        : ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/edges/{edgeId}")
     public ResponseEntity<EdgeDetailDTO> getEdge(@PathVariable UUID runId, @PathVariable UUID edgeId) {
         return crawlLinkRepository.findById(edgeId)
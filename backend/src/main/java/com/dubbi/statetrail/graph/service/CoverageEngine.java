@@ -0,0 +1,443 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.graph.service.PathEngine.ShortestPaths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 엣지 커버리지 플로우 계산 (모든 플로우는 start 노드에서 시작)
+ *
+ * 정확 모드: 방향 그래프 Chinese Postman 문제로 푼다. start에서 도달 가능한 엣지를 모두 한 번 이상 지나는
+ * 닫힌 walk를 찾되, 어느 노드에서든 플로우를 끝내고 start로 돌아가는 "reset" 호(비용 resetCost)를 허용한다.
+ * 노드별 in/out 차이를 min-cost flow(successive shortest path, Dijkstra + potential)로 메워
+ * 중복 통과할 엣지와 reset 위치를 정하고, Hierholzer로 Euler circuit을 만든 뒤 reset마다 잘라 플로우로 만든다.
+ * 비용은 (총 step 수 + resetCost × 플로우 수)이므로 resetCost가 클수록 적고 긴 플로우가 나온다.
+ * 플로우 수 = reset 수가 되도록 reset은 최소 한 번 사용한다(마지막 플로우도 어딘가에서 끝나므로).
+ *
+ * 그래프가 커서 min-cost flow 작업량이 한도를 넘으면, 가장 가까운 미커버 엣지로 이동하는 greedy로 대신한다.
+ * start에서 도달할 수 없는 엣지는 어떤 플로우로도 커버할 수 없으므로 커버리지에서 빠진다.
+ */
+public final class CoverageEngine {
+    /**
+     * 정확 모드 작업량 한도 (불균형 노드 수 × 도달 가능 엣지 수)
+     */
+    public static final long EXACT_WORK_LIMIT = 10_000_000L;
+
+    private static final long INF = Long.MAX_VALUE / 4;
+    private static final int RESET = -1;
+
+    /**
+     * @param walks 플로우별 엣지 ordinal 경로 (모두 start에서 시작)
+     * @param exact min-cost flow로 계산했으면 true, greedy면 false
+     */
+    public record Plan(List<int[]> walks, int coveredEdges, int totalEdges, long totalSteps, boolean exact) {
+        /**
+         * 커버된 엣지 비율 (0~100)
+         */
+        public double coveragePercent() {
+            return totalEdges == 0 ? 100.0 : coveredEdges * 100.0 / totalEdges;
+        }
+    }
+
+    private final RunGraph graph;
+
+    public CoverageEngine(RunGraph graph) {
+        this.graph = graph;
+    }
+
+    public Plan plan(int start, int resetCost) {
+        return plan(start, resetCost, EXACT_WORK_LIMIT);
+    }
+
+    /**
+     * @param resetCost 플로우 하나를 더 만드는 비용 (step 수 단위, 1 이상)
+     * @param exactWorkLimit 이 값을 넘으면 greedy 사용
+     */
+    public Plan plan(int start, int resetCost, long exactWorkLimit) {
+        int n = graph.nodeCount();
+        int cost = Math.max(1, resetCost);
+        ShortestPaths fromStart = new PathEngine(graph).fromSources(start);
+        boolean[] reachable = new boolean[n];
+        for (int v = 0; v < n; v++) reachable[v] = fromStart.reachable(v);
+
+        int[] balance = new int[n]; // in - out (도달 가능한 엣지만)
+        int reachableEdges = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            if (!reachable[graph.source(e)]) continue;
+            reachableEdges++;
+            balance[graph.target(e)]++;
+            balance[graph.source(e)]--;
+        }
+        if (reachableEdges == 0) return new Plan(List.of(), 0, graph.edgeCount(), 0, true);
+
+        long imbalanced = 0;
+        for (int b : balance) if (b != 0) imbalanced++;
+        if (imbalanced * reachableEdges > exactWorkLimit) {
+            return greedy(start, cost, fromStart, reachableEdges);
+        }
+        return exact(start, cost, reachable, reachableEdges, balance);
+    }
+
+    // ---------------------------------------------------------------- exact
+
+    private Plan exact(int start, int resetCost, boolean[] reachable, int reachableEdges, int[] balance) {
+        int n = graph.nodeCount();
+        FlowNetwork net = new FlowNetwork(n + 3, reachableEdges + 3 * n);
+        int src = n;
+        int snk = n + 1;
+        int resetHub = n + 2; // 모든 reset은 v → resetHub → start
+
+        // 실제 엣지: 한 번 더 지날 때마다 비용 1
+        int[] edgeArc = new int[graph.edgeCount()];
+        Arrays.fill(edgeArc, -1);
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            if (reachable[graph.source(e)]) edgeArc[e] = net.addArc(graph.source(e), graph.target(e), INF, 1);
+        }
+        // 마지막 플로우도 reset으로 끝나야 하므로 resetHub → start에 하한 1을 둔다:
+        // 미리 한 단위를 흘린 것으로 보고 start에 공급 1, resetHub에 수요 1을 추가
+        net.addArc(resetHub, start, INF, 0);
+        net.addArc(resetHub, snk, 1, 0);
+        // 도착이 더 많은 노드(공급 > 0)는 추가로 나가야 함: 실제 엣지로 이동하거나 reset
+        int[] resetArc = new int[n];
+        Arrays.fill(resetArc, -1);
+        for (int v = 0; v < n; v++) {
+            int supply = balance[v] + (v == start ? 1 : 0);
+            if (supply > 0) {
+                net.addArc(src, v, supply, 0);
+                resetArc[v] = net.addArc(v, resetHub, INF, resetCost);
+            } else if (supply < 0) {
+                net.addArc(v, snk, -supply, 0);
+            }
+        }
+        net.minCostFlow(src, snk);
+
+        // 멀티그래프 구성: 엣지 e는 (1 + 추가 통과 수)번, reset은 흐른 만큼
+        int[] outCount = new int[n];
+        long tokens = 0;
+        int[] multiplicity = new int[graph.edgeCount()];
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            if (edgeArc[e] < 0) continue;
+            long extra = net.flow(edgeArc[e]);
+            multiplicity[e] = (int) (1 + extra);
+            outCount[graph.source(e)] += multiplicity[e];
+            tokens += multiplicity[e];
+        }
+        int[] resets = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (resetArc[v] < 0) continue;
+            resets[v] = (int) net.flow(resetArc[v]);
+            outCount[v] += resets[v];
+            tokens += resets[v];
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + outCount[v];
+        int[] arcs = new int[(int) tokens];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        // 노드별로 CSR 순서(링크 생성 순서)대로 엣지를 넣고 reset은 마지막에 둠 → reset은 나갈 엣지를 다 쓴 뒤에만 사용
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+                int e = graph.outEdge(i);
+                for (int c = 0; c < multiplicity[e]; c++) arcs[cursor[v]++] = e;
+            }
+            for (int c = 0; c < resets[v]; c++) arcs[cursor[v]++] = RESET;
+        }
+
+        int[] circuit = eulerCircuit(start, offsets, arcs);
+        return split(circuit, reachableEdges, true);
+    }
+
+    /**
+     * Hierholzer (반복형): start에서 시작하는 Euler circuit의 호 순서
+     */
+    private int[] eulerCircuit(int start, int[] offsets, int[] arcs) {
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] stackNode = new int[arcs.length + 1];
+        int[] stackArc = new int[arcs.length + 1];
+        int[] circuit = new int[arcs.length];
+        int top = 0;
+        int out = arcs.length;
+        stackNode[0] = start;
+        stackArc[0] = Integer.MIN_VALUE;
+        while (top >= 0) {
+            int v = stackNode[top];
+            if (next[v] < offsets[v + 1]) {
+                int arc = arcs[next[v]++];
+                top++;
+                stackNode[top] = arc == RESET ? start : graph.target(arc);
+                stackArc[top] = arc;
+            } else {
+                if (top > 0) circuit[--out] = stackArc[top];
+                top--;
+            }
+        }
+        return out == 0 ? circuit : Arrays.copyOfRange(circuit, out, circuit.length);
+    }
+
+    /**
+     * circuit을 reset 위치에서 잘라 플로우 목록으로 변환
+     * 마지막 reset 뒤 구간(start로 돌아오는 구간)은 첫 플로우 앞에 붙여 플로우 수 = reset 수가 되게 한다.
+     */
+    private Plan split(int[] circuit, int reachableEdges, boolean exact) {
+        int lastReset = -1;
+        for (int i = circuit.length - 1; i >= 0; i--) {
+            if (circuit[i] == RESET) {
+                lastReset = i;
+                break;
+            }
+        }
+        if (lastReset >= 0 && lastReset < circuit.length - 1) {
+            int[] rotated = new int[circuit.length];
+            int tail = circuit.length - lastReset - 1;
+            System.arraycopy(circuit, lastReset + 1, rotated, 0, tail);
+            System.arraycopy(circuit, 0, rotated, tail, lastReset + 1);
+            circuit = rotated;
+        }
+
+        List<int[]> walks = new ArrayList<>();
+        long steps = 0;
+        int from = 0;
+        for (int i = 0; i <= circuit.length; i++) {
+            if (i == circuit.length || circuit[i] == RESET) {
+                if (i > from) {
+                    walks.add(Arrays.copyOfRange(circuit, from, i));
+                    steps += i - from;
+                }
+                from = i + 1;
+            }
+        }
+        return new Plan(walks, reachableEdges, graph.edgeCount(), steps, exact);
+    }
+
+    /**
+     * min-cost flow (successive shortest path, Dijkstra + Johnson potential, 비용은 모두 0 이상)
+     */
+    private static final class FlowNetwork {
+        private final int nodes;
+        private final int[] head;
+        private int[] to;
+        private int[] nextArc;
+        private long[] cap;
+        private long[] cost;
+        private long[] initialCap;
+        private int arcCount;
+
+        FlowNetwork(int nodes, int expectedArcs) {
+            this.nodes = nodes;
+            this.head = new int[nodes];
+            Arrays.fill(head, -1);
+            int size = Math.max(4, expectedArcs * 2);
+            to = new int[size];
+            nextArc = new int[size];
+            cap = new long[size];
+            cost = new long[size];
+            initialCap = new long[size];
+        }
+
+        /**
+         * @return 순방향 호 id (flow() 조회용)
+         */
+        int addArc(int u, int v, long capacity, long arcCost) {
+            if (arcCount + 2 > to.length) grow();
+            int id = arcCount;
+            push(u, v, capacity, arcCost);
+            push(v, u, 0, -arcCost);
+            return id;
+        }
+
+        long flow(int arc) {
+            return initialCap[arc] - cap[arc];
+        }
+
+        private void push(int u, int v, long capacity, long arcCost) {
+            to[arcCount] = v;
+            cap[arcCount] = capacity;
+            initialCap[arcCount] = capacity;
+            cost[arcCount] = arcCost;
+            nextArc[arcCount] = head[u];
+            head[u] = arcCount++;
+        }
+
+        private void grow() {
+            int size = to.length * 2;
+            to = Arrays.copyOf(to, size);
+            nextArc = Arrays.copyOf(nextArc, size);
+            cap = Arrays.copyOf(cap, size);
+            cost = Arrays.copyOf(cost, size);
+            initialCap = Arrays.copyOf(initialCap, size);
+        }
+
+        void minCostFlow(int s, int t) {
+            long[] potential = new long[nodes];
+            long[] dist = new long[nodes];
+            int[] prevArc = new int[nodes];
+            while (true) {
+                Arrays.fill(dist, INF);
+                Arrays.fill(prevArc, -1);
+                dist[s] = 0;
+                PriorityQueue<long[]> pq = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+                pq.add(new long[] {0, s});
+                while (!pq.isEmpty()) {
+                    long[] top = pq.poll();
+                    int u = (int) top[1];
+                    if (top[0] > dist[u]) continue;
+                    if (u == t) break; // 나머지 노드는 dist[t]로 potential을 올려도 reduced cost가 음수가 되지 않음
+                    for (int a = head[u]; a >= 0; a = nextArc[a]) {
+                        if (cap[a] <= 0) continue;
+                        int v = to[a];
+                        long nd = dist[u] + cost[a] + potential[u] - potential[v];
+                        if (nd < dist[v]) {
+                            dist[v] = nd;
+                            prevArc[v] = a;
+                            pq.add(new long[] {nd, v});
+                        }
+                    }
+                }
+                if (dist[t] >= INF) return;
+                for (int v = 0; v < nodes; v++) potential[v] += Math.min(dist[v], dist[t]);
+                long push = INF;
+                for (int v = t; v != s; v = to[prevArc[v] ^ 1]) push = Math.min(push, cap[prevArc[v]]);
+                for (int v = t; v != s; v = to[prevArc[v] ^ 1]) {
+                    cap[prevArc[v]] -= push;
+                    cap[prevArc[v] ^ 1] += push;
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- greedy
+
+    /**
+     * 미커버 엣지가 있으면 그 엣지로, 없으면 가장 가까운 미커버 엣지까지 이동(resetCost 이하일 때)하고,
+     * 더 멀면 플로우를 끝내고 start에서 다시 시작 (start에서 가장 가까운 미커버 노드까지는 BFS 트리 경로로 이동)
+     */
+    private Plan greedy(int start, int resetCost, ShortestPaths fromStart, int reachableEdges) {
+        int n = graph.nodeCount();
+        // start 기준 거리 순 노드 목록 (counting sort) — 커버는 늘기만 하므로 포인터는 앞으로만 이동
+        int maxDistance = 0;
+        for (int v = 0; v < n; v++) maxDistance = Math.max(maxDistance, fromStart.distance(v));
+        int[] bucket = new int[maxDistance + 2];
+        for (int v = 0; v < n; v++) {
+            if (fromStart.reachable(v)) bucket[fromStart.distance(v) + 1]++;
+        }
+        for (int d = 1; d < bucket.length; d++) bucket[d] += bucket[d - 1];
+        int[] byDistance = new int[bucket[bucket.length - 1]];
+        for (int v = 0; v < n; v++) {
+            if (fromStart.reachable(v)) byDistance[bucket[fromStart.distance(v)]++] = v;
+        }
+        int nearest = 0;
+
+        boolean[] covered = new boolean[graph.edgeCount()];
+        int[] nextOut = new int[n];
+        for (int v = 0; v < n; v++) nextOut[v] = graph.outStart(v);
+        int remaining = reachableEdges;
+
+        int[] queue = new int[n];
+        int[] parentEdge = new int[n];
+        int[] seenStamp = new int[n];
+        int[] depth = new int[n];
+        int stamp = 0;
+
+        List<int[]> walks = new ArrayList<>();
+        long steps = 0;
+        IntBuffer walk = new IntBuffer();
+        int current = start;
+
+        while (remaining > 0) {
+            int edge = nextUncovered(current, nextOut, covered);
+            if (edge >= 0) {
+                covered[edge] = true;
+                remaining--;
+                walk.add(edge);
+                current = graph.target(edge);
+                continue;
+            }
+            if (walk.size() == 0) {
+                // 새 플로우: start에서 가장 가까운 미커버 노드까지 BFS 트리 경로로 이동
+                while (nearest < byDistance.length && nextUncovered(byDistance[nearest], nextOut, covered) < 0) nearest++;
+                if (nearest == byDistance.length) break; // reachable 계산상 발생하지 않음
+                int target = byDistance[nearest];
+                for (int e : fromStart.pathTo(target)) walk.add(e);
+                current = target;
+                continue;
+            }
+            // resetCost 거리 안에 미커버 엣지를 가진 노드가 있으면 이동, 없으면 플로우를 끝내고 start로
+            stamp++;
+            int found = -1;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = current;
+            seenStamp[current] = stamp;
+            depth[current] = 0;
+            while (head < tail && found < 0) {
+                int v = queue[head++];
+                if (depth[v] >= resetCost) continue;
+                for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+                    int e = graph.outEdge(i);
+                    int w = graph.target(e);
+                    if (seenStamp[w] == stamp) continue;
+                    seenStamp[w] = stamp;
+                    parentEdge[w] = e;
+                    depth[w] = depth[v] + 1;
+                    if (nextUncovered(w, nextOut, covered) >= 0) {
+                        found = w;
+                        break;
+                    }
+                    queue[tail++] = w;
+                }
+            }
+            if (found >= 0) {
+                int[] path = new int[depth[found]];
+                for (int i = path.length - 1, v = found; i >= 0; i--) {
+                    path[i] = parentEdge[v];
+                    v = graph.source(parentEdge[v]);
+                }
+                for (int e : path) walk.add(e);
+                current = found;
+            } else {
+                walks.add(walk.toArray());
+                steps += walk.size();
+                walk.clear();
+                current = start;
+            }
+        }
+        if (walk.size() > 0) {
+            walks.add(walk.toArray());
+            steps += walk.size();
+        }
+        return new Plan(walks, reachableEdges - remaining, graph.edgeCount(), steps, false);
+    }
+
+    private int nextUncovered(int v, int[] nextOut, boolean[] covered) {
+        while (nextOut[v] < graph.outEnd(v)) {
+            int e = graph.outEdge(nextOut[v]);
+            if (!covered[e]) return e;
+            nextOut[v]++;
+        }
+        return -1;
+    }
+
+    private static final class IntBuffer {
+        private int[] data = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import com.dubbi.statetrail.crawl.domain.CrawlRunEntity;
+import com.dubbi.statetrail.crawl.domain.CrawlRunStatus;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * run 그래프의 중심성 점수(PageRank, betweenness, in-degree)를 계산해서 crawl_pages에 저장
+ *
+ * run이 SUCCEEDED가 되면 한 번 계산해 저장하고, 점수가 없는 예전 run은 처음 필요할 때 계산해 저장한다.
+ * 계산은 전용 ForkJoinPool(graph.analytics.parallelism, 0이면 CPU 수)에서 돌린다.
+ * 크롤 종료 시 계산은 submit으로 analytics 스레드(graph.analytics.job-threads)에 넘겨
+ * 크롤 워커와 SUCCEEDED 이벤트 전송을 붙잡지 않는다.
+ */
+@Service
+public class GraphAnalyticsService {
+    private static final String UPDATE_SQL = "UPDATE crawl_pages SET page_rank = ?, betweenness = ?, in_degree = ? WHERE id = ?";
+    private static final int BATCH_SIZE = 500;
+
+    private record ScoreRow(UUID id, double pageRank, double betweenness, int inDegree) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RunGraphCache runGraphCache;
+    private final ForkJoinPool pool;
+    private final ExecutorService jobs;
+    private final int betweennessSamples;
+
+    public GraphAnalyticsService(
+            JdbcTemplate jdbcTemplate,
+            RunGraphCache runGraphCache,
+            @Value("${graph.analytics.parallelism:0}") int parallelism,
+            @Value("${graph.analytics.betweenness-samples:256}") int betweennessSamples,
+            @Value("${graph.analytics.job-threads:1}") int jobThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.runGraphCache = runGraphCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.jobs = Executors.newFixedThreadPool(Math.max(1, jobThreads), r -> {
+            Thread t = new Thread(r, "graph-analytics");
+            t.setDaemon(true);
+            return t;
+        });
+        this.betweennessSamples = Math.max(1, betweennessSamples);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * 완료된 run의 점수 계산을 analytics 스레드에 넘김 (실패해도 run 결과에는 영향 없음, 나중에 필요할 때 다시 계산)
+     */
+    public void submit(CrawlRunEntity run) {
+        try {
+            jobs.execute(() -> {
+                try {
+                    computeAndStore(run);
+                } catch (RuntimeException e) {
+                    System.err.printf("[Analytics] Centrality failed for run %s: %s%n", run.getId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+        }
+    }
+
+    /**
+     * 완료된 run의 점수를 계산해서 저장
+     */
+    public void computeAndStore(CrawlRunEntity run) {
+        RunGraph graph = runGraphCache.get(run);
+        long started = System.nanoTime();
+        GraphCentrality.Scores scores = GraphCentrality.compute(graph, pool, betweennessSamples);
+        store(run.getId(), graph, scores);
+        System.out.printf("[Analytics] Centrality for run %s: nodes=%d, edges=%d, %dms%n",
+                run.getId(), graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 그래프의 점수 (저장된 값이 있으면 사용, 없으면 계산하고 완료된 run이면 저장)
+     */
+    public GraphCentrality.Scores scores(CrawlRunEntity run, RunGraph graph) {
+        int n = graph.nodeCount();
+        boolean stored = n > 0;
+        for (int v = 0; v < n && stored; v++) stored = graph.node(v).hasCentrality();
+        if (stored) {
+            double[] pageRank = new double[n];
+            double[] betweenness = new double[n];
+            int[] inDegree = new int[n];
+            for (int v = 0; v < n; v++) {
+                PageNodeView node = graph.node(v);
+                pageRank[v] = node.pageRank();
+                betweenness[v] = node.betweenness();
+                inDegree[v] = node.inDegree();
+            }
+            return new GraphCentrality.Scores(pageRank, betweenness, inDegree);
+        }
+
+        GraphCentrality.Scores scores = GraphCentrality.compute(graph, pool, betweennessSamples);
+        if (run.getStatus() == CrawlRunStatus.SUCCEEDED && n > 0) {
+            store(run.getId(), graph, scores);
+        }
+        return scores;
+    }
+
+    private void store(UUID runId, RunGraph graph, GraphCentrality.Scores scores) {
+        List<ScoreRow> rows = new ArrayList<>(graph.nodeCount());
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            rows.add(new ScoreRow(graph.node(v).id(), scores.pageRank()[v], scores.betweenness()[v], scores.inDegree()[v]));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setDouble(1, row.pageRank());
+            ps.setDouble(2, row.betweenness());
+            ps.setInt(3, row.inDegree());
+            ps.setObject(4, row.id());
+        });
+        // 캐시된 그래프에는 점수가 없으므로 다음 조회 때 다시 읽도록
+        runGraphCache.evict(runId);
+    }
+}
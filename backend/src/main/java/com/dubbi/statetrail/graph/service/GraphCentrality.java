@@ -0,0 +1,228 @@
+package com.dubbi.statetrail.graph.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * RunGraph 중심성 계산 (PageRank, in-degree, betweenness)
+ *
+ * PageRank는 in-edge CSR을 따라 노드 구간별로 병렬 pull 반복하고,
+ * betweenness는 Brandes 알고리즘의 source들을 fork-join 작업으로 나눠 각자 작업 배열에 누적한 뒤 합친다.
+ * 노드가 많으면 betweenness source를 균등 간격으로 샘플링하고 n/샘플 수로 보정한다 (근사).
+ */
+public final class GraphCentrality {
+    private static final double DAMPING = 0.85;
+    private static final int MAX_ITERATIONS = 100;
+    private static final double TOLERANCE = 1e-9;
+    private static final int NODE_CHUNK = 4096;
+
+    private GraphCentrality() {}
+
+    /**
+     * 노드 ordinal 기준 점수
+     *
+     * @param pageRank 합이 1인 PageRank
+     * @param betweenness (n-1)(n-2)로 정규화한 betweenness (0~1)
+     */
+    public record Scores(double[] pageRank, double[] betweenness, int[] inDegree) {
+        /**
+         * smoke 타겟 우선순위용 종합 점수 (각 지표를 최댓값으로 나눠 가중 합)
+         */
+        public double[] importance() {
+            double maxRank = max(pageRank);
+            double maxBetweenness = max(betweenness);
+            int maxIn = 0;
+            for (int d : inDegree) maxIn = Math.max(maxIn, d);
+            double[] score = new double[pageRank.length];
+            for (int v = 0; v < score.length; v++) {
+                score[v] = 0.5 * (maxRank > 0 ? pageRank[v] / maxRank : 0)
+                        + 0.3 * (maxBetweenness > 0 ? betweenness[v] / maxBetweenness : 0)
+                        + 0.2 * (maxIn > 0 ? (double) inDegree[v] / maxIn : 0);
+            }
+            return score;
+        }
+
+        private static double max(double[] values) {
+            double max = 0;
+            for (double v : values) max = Math.max(max, v);
+            return max;
+        }
+    }
+
+    /**
+     * @param betweennessSamples betweenness source 최대 수 (노드가 더 많으면 샘플링)
+     */
+    public static Scores compute(RunGraph graph, ForkJoinPool pool, int betweennessSamples) {
+        int n = graph.nodeCount();
+        int[] inDegree = new int[n];
+        for (int v = 0; v < n; v++) inDegree[v] = graph.inDegree(v);
+        if (n == 0) return new Scores(new double[0], new double[0], inDegree);
+        return new Scores(pageRank(graph, pool), betweenness(graph, pool, betweennessSamples), inDegree);
+    }
+
+    // ---------------------------------------------------------------- PageRank
+
+    static double[] pageRank(RunGraph graph, ForkJoinPool pool) {
+        int n = graph.nodeCount();
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            // 나가는 엣지가 없는 노드의 rank는 모든 노드에 고르게 나눔
+            double dangling = 0;
+            for (int v = 0; v < n; v++) {
+                if (graph.outDegree(v) == 0) dangling += rank[v];
+            }
+            double base = (1 - DAMPING) / n + DAMPING * dangling / n;
+            double diff = pool.invoke(new RankStep(graph, rank, next, base, 0, n));
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            if (diff < TOLERANCE) break;
+        }
+        return rank;
+    }
+
+    /**
+     * [from, to) 노드의 다음 rank 계산, 변화량(L1) 반환
+     */
+    private static final class RankStep extends RecursiveTask<Double> {
+        private final RunGraph graph;
+        private final double[] rank;
+        private final double[] next;
+        private final double base;
+        private final int from;
+        private final int to;
+
+        RankStep(RunGraph graph, double[] rank, double[] next, double base, int from, int to) {
+            this.graph = graph;
+            this.rank = rank;
+            this.next = next;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from > NODE_CHUNK) {
+                int mid = (from + to) >>> 1;
+                RankStep left = new RankStep(graph, rank, next, base, from, mid);
+                left.fork();
+                double right = new RankStep(graph, rank, next, base, mid, to).compute();
+                return left.join() + right;
+            }
+            double diff = 0;
+            for (int v = from; v < to; v++) {
+                double sum = 0;
+                for (int i = graph.inStart(v); i < graph.inEnd(v); i++) {
+                    int u = graph.source(graph.inEdge(i));
+                    sum += rank[u] / graph.outDegree(u);
+                }
+                next[v] = base + DAMPING * sum;
+                diff += Math.abs(next[v] - rank[v]);
+            }
+            return diff;
+        }
+    }
+
+    // ---------------------------------------------------------------- betweenness
+
+    static double[] betweenness(RunGraph graph, ForkJoinPool pool, int maxSources) {
+        int n = graph.nodeCount();
+        int[] sources;
+        if (maxSources <= 0 || n <= maxSources) {
+            sources = new int[n];
+            for (int v = 0; v < n; v++) sources[v] = v;
+        } else {
+            sources = new int[maxSources];
+            for (int i = 0; i < maxSources; i++) sources[i] = (int) ((long) i * n / maxSources);
+        }
+        int leaf = Math.max(1, sources.length / (pool.getParallelism() * 4));
+        double[] score = pool.invoke(new BrandesTask(graph, sources, 0, sources.length, leaf));
+
+        double scale = (double) n / sources.length;
+        double norm = n > 2 ? (double) (n - 1) * (n - 2) : 1;
+        for (int v = 0; v < n; v++) score[v] = score[v] * scale / norm;
+        return score;
+    }
+
+    /**
+     * sources[from, to) 에서 출발하는 최단경로들의 의존도 합 (Brandes)
+     */
+    private static final class BrandesTask extends RecursiveTask<double[]> {
+        private final RunGraph graph;
+        private final int[] sources;
+        private final int from;
+        private final int to;
+        private final int leaf;
+
+        BrandesTask(RunGraph graph, int[] sources, int from, int to, int leaf) {
+            this.graph = graph;
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > leaf) {
+                int mid = (from + to) >>> 1;
+                BrandesTask left = new BrandesTask(graph, sources, from, mid, leaf);
+                left.fork();
+                double[] right = new BrandesTask(graph, sources, mid, to, leaf).compute();
+                double[] merged = left.join();
+                for (int v = 0; v < merged.length; v++) merged[v] += right[v];
+                return merged;
+            }
+            int n = graph.nodeCount();
+            double[] score = new double[n];
+            int[] distance = new int[n];
+            double[] sigma = new double[n];
+            double[] delta = new double[n];
+            int[] order = new int[n];
+            Arrays.fill(distance, -1);
+            for (int i = from; i < to; i++) {
+                int s = sources[i];
+                // BFS: order는 방문 순서 (거리 오름차순), 경로 수는 엣지 단위로 셈
+                int head = 0;
+                int tail = 0;
+                distance[s] = 0;
+                sigma[s] = 1;
+                order[tail++] = s;
+                while (head < tail) {
+                    int v = order[head++];
+                    for (int j = graph.outStart(v); j < graph.outEnd(v); j++) {
+                        int w = graph.target(graph.outEdge(j));
+                        if (distance[w] < 0) {
+                            distance[w] = distance[v] + 1;
+                            order[tail++] = w;
+                        }
+                        if (distance[w] == distance[v] + 1) sigma[w] += sigma[v];
+                    }
+                }
+                // 역순으로 의존도 누적 (선행 노드는 in-edge 중 거리가 1 작은 것)
+                for (int k = tail - 1; k >= 0; k--) {
+                    int w = order[k];
+                    for (int j = graph.inStart(w); j < graph.inEnd(w); j++) {
+                        int v = graph.source(graph.inEdge(j));
+                        if (distance[v] >= 0 && distance[v] == distance[w] - 1) {
+                            delta[v] += sigma[v] / sigma[w] * (1 + delta[w]);
+                        }
+                    }
+                    if (w != s) score[w] += delta[w];
+                }
+                // 방문한 노드만 초기화
+                for (int k = 0; k < tail; k++) {
+                    int v = order[k];
+                    distance[v] = -1;
+                    sigma[v] = 0;
+                    delta[v] = 0;
+                }
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.common.storage.ObjectStorageService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * run 그래프를 DB cursor에서 바로 NDJSON으로 쓰는 스트리밍 조회
+ *
+ * 엔티티/DTO 목록을 만들지 않고 JDBC fetchSize 단위로 행을 읽어 한 줄씩 쓰므로 그래프 크기와 무관하게
+ * 메모리 사용량이 일정하다. html_snapshot과 ui_signature 원본은 읽지 않고, 저장 시점에 계산된 요약 컬럼만 그대로 쓴다.
+ * 순서는 노드 (discovered_at, id) → 엣지 (created_at, id)이며, limit을 주면 keyset cursor로 이어서 받을 수 있다.
+ *
+ * 출력 줄 형식:
+ *  {"type":"node", ...필드}
+ *  {"type":"edge", ...필드}
+ *  {"type":"cursor","next":"..."}  (limit에 도달해 더 남은 경우 마지막 줄)
+ */
+@Service
+public class GraphStreamService {
+    public static final Set<String> NODE_FIELDS = Set.of(
+            "id", "nodeKey", "url", "urlPattern", "title", "depth", "httpStatus", "contentType",
+            "discoveredAt", "fetchedAt", "hasNetworkLog", "screenshotThumbUrl", "uiSignatureSummary", "riskTags",
+            "pageRank", "betweenness", "inDegree"
+    );
+    public static final Set<String> EDGE_FIELDS = Set.of(
+            "id", "from", "to", "actionType", "locator", "anchorText", "riskTags", "createdAt"
+    );
+    private static final List<String> DEFAULT_NODE_FIELDS = List.of(
+            "id", "nodeKey", "url", "urlPattern", "title", "depth", "httpStatus", "contentType"
+    );
+    private static final List<String> DEFAULT_EDGE_FIELDS = List.of("id", "from", "to", "actionType", "anchorText");
+    private static final int FETCH_SIZE = 500;
+
+    public enum Scope {
+        NODES,
+        EDGES,
+        ALL
+    }
+
+    /**
+     * @param fields 요청 필드 (비어 있으면 기본 필드, 알 수 없는 이름은 무시)
+     * @param cursor 이전 응답의 cursor (없으면 처음부터)
+     * @param limit 이번 응답의 최대 줄 수 (0 이하면 끝까지)
+     */
+    public record StreamRequest(UUID runId, Scope scope, Set<String> fields, String cursor, int limit) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final ObjectStorageService objectStorageService;
+
+    public GraphStreamService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ObjectStorageService objectStorageService
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.objectStorageService = objectStorageService;
+    }
+
+    /**
+     * 스트리밍을 시작하기 전에 cursor 형식 확인 (응답 헤더를 보낸 뒤에는 400을 줄 수 없음)
+     */
+    public static boolean isValidCursor(String cursor) {
+        try {
+            Cursor.decode(cursor);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 잘못된 cursor면 IllegalArgumentException
+     */
+    public void write(StreamRequest request, OutputStream out) throws IOException {
+        Cursor start = Cursor.decode(request.cursor());
+        List<String> nodeFields = select(request.fields(), NODE_FIELDS, DEFAULT_NODE_FIELDS);
+        List<String> edgeFields = select(request.fields(), EDGE_FIELDS, DEFAULT_EDGE_FIELDS);
+
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            // PostgreSQL은 트랜잭션 안(autocommit off)에서만 fetchSize 단위 cursor로 읽음
+            readOnlyTx.executeWithoutResult(tx -> {
+                Cursor next = streamPhases(request.scope(), start, request.limit(),
+                        (after, limit) -> streamNodes(request.runId(), after, limit, nodeFields, json),
+                        (after, limit) -> streamEdges(request.runId(), after, limit, edgeFields, json));
+                if (next != null) {
+                    String encoded = next.encode();
+                    try {
+                        writeLine(json, () -> {
+                            json.writeStringField("type", "cursor");
+                            json.writeStringField("next", encoded);
+                        });
+                    } catch (IOException | SQLException e) {
+                        throw new UncheckedIOException(new IOException(e));
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            json.flush();
+        }
+    }
+
+    /**
+     * 한 종류의 행을 after 다음부터 최대 limit행 쓰는 단계
+     */
+    interface Phase {
+        Page stream(Cursor after, int limit);
+    }
+
+    /**
+     * 노드 → 엣지 순으로 limit까지 쓰고 다음 요청의 cursor 반환 (끝까지 썼으면 null)
+     */
+    static Cursor streamPhases(Scope scope, Cursor start, int limit, Phase nodes, Phase edges) {
+        int remaining = limit > 0 ? limit : Integer.MAX_VALUE;
+        Cursor next = null;
+        boolean nodesPhase = scope != Scope.EDGES && (start == null || start.kind() == 'n');
+        if (nodesPhase) {
+            Page page = nodes.stream(start != null && start.isStart() ? null : start, remaining);
+            remaining -= page.written();
+            next = page.next();
+        }
+        if (next == null && scope != Scope.NODES) {
+            if (remaining <= 0) {
+                // 노드가 limit을 정확히 채움: 엣지는 다음 요청에서 처음부터
+                return Cursor.startOf('e');
+            }
+            Cursor edgeStart = start != null && start.kind() == 'e' && !start.isStart() ? start : null;
+            next = edges.stream(edgeStart, remaining).next();
+        }
+        return next;
+    }
+
+    private Page streamNodes(UUID runId, Cursor after, int limit, List<String> fields, JsonGenerator json) {
+        String sql = "SELECT id, node_key, url, url_pattern, title, depth, http_status, content_type, discovered_at, fetched_at,"
+                + " screenshot_object_key, network_log_object_key, page_rank, betweenness, in_degree"
+                + (fields.contains("uiSignatureSummary") ? ", ui_signature_summary::text AS ui_signature_summary" : "")
+                + (fields.contains("riskTags") ? ", risk_tags::text AS risk_tags" : "")
+                + " FROM crawl_pages WHERE crawl_run_id = ?"
+                + (after != null ? " AND (discovered_at, id) > (?, ?)" : "")
+                + " ORDER BY discovered_at, id";
+        return stream(sql, runId, after, limit, 'n', "discovered_at", rs -> writeLine(json, () -> {
+            json.writeStringField("type", "node");
+            for (String field : fields) {
+                switch (field) {
+                    case "id" -> json.writeStringField("id", rs.getString("id"));
+                    case "nodeKey" -> json.writeStringField("nodeKey", rs.getString("node_key"));
+                    case "url" -> json.writeStringField("url", rs.getString("url"));
+                    case "urlPattern" -> {
+                        String pattern = rs.getString("url_pattern");
+                        json.writeStringField("urlPattern", pattern != null ? pattern : rs.getString("url"));
+                    }
+                    case "title" -> json.writeStringField("title", rs.getString("title"));
+                    case "depth" -> json.writeNumberField("depth", rs.getInt("depth"));
+                    case "httpStatus" -> writeNullableInt(json, "httpStatus", rs, "http_status");
+                    case "contentType" -> json.writeStringField("contentType", rs.getString("content_type"));
+                    case "discoveredAt" -> json.writeStringField("discoveredAt", instantString(rs, "discovered_at"));
+                    case "fetchedAt" -> json.writeStringField("fetchedAt", instantString(rs, "fetched_at"));
+                    case "hasNetworkLog" -> json.writeBooleanField("hasNetworkLog", rs.getString("network_log_object_key") != null);
+                    case "screenshotThumbUrl" -> json.writeStringField("screenshotThumbUrl", presign(rs.getString("screenshot_object_key")));
+                    case "uiSignatureSummary" -> writeRawObject(json, "uiSignatureSummary", rs.getString("ui_signature_summary"));
+                    case "riskTags" -> writeRawObject(json, "riskTags", rs.getString("risk_tags"));
+                    case "pageRank" -> writeNullableDouble(json, "pageRank", rs, "page_rank");
+                    case "betweenness" -> writeNullableDouble(json, "betweenness", rs, "betweenness");
+                    case "inDegree" -> writeNullableInt(json, "inDegree", rs, "in_degree");
+                    default -> {
+                        // NODE_FIELDS로 걸러지므로 도달하지 않음
+                    }
+                }
+            }
+        }));
+    }
+
+    private Page streamEdges(UUID runId, Cursor after, int limit, List<String> fields, JsonGenerator json) {
+        String sql = "SELECT id, from_page_id, to_page_id, action_type, locator, anchor_text, created_at"
+                + (fields.contains("riskTags") ? ", risk_tags::text AS risk_tags" : "")
+                + " FROM crawl_links WHERE crawl_run_id = ?"
+                + (after != null ? " AND (created_at, id) > (?, ?)" : "")
+                + " ORDER BY created_at, id";
+        return stream(sql, runId, after, limit, 'e', "created_at", rs -> writeLine(json, () -> {
+            json.writeStringField("type", "edge");
+            for (String field : fields) {
+                switch (field) {
+                    case "id" -> json.writeStringField("id", rs.getString("id"));
+                    case "from" -> json.writeStringField("from", rs.getString("from_page_id"));
+                    case "to" -> json.writeStringField("to", rs.getString("to_page_id"));
+                    case "actionType" -> {
+                        // ActionType이 null이면 기본값 "NAVIGATE"
+                        String actionType = rs.getString("action_type");
+                        json.writeStringField("actionType", actionType != null ? actionType : "NAVIGATE");
+                    }
+                    case "locator" -> json.writeStringField("locator", rs.getString("locator"));
+                    case "anchorText" -> json.writeStringField("anchorText", rs.getString("anchor_text"));
+                    case "riskTags" -> writeRawObject(json, "riskTags", rs.getString("risk_tags"));
+                    case "createdAt" -> json.writeStringField("createdAt", instantString(rs, "created_at"));
+                    default -> {
+                        // EDGE_FIELDS로 걸러지므로 도달하지 않음
+                    }
+                }
+            }
+        }));
+    }
+
+    /**
+     * DB의 jsonb 텍스트를 파싱하지 않고 그대로 씀 (null이면 빈 객체)
+     */
+    private static void writeRawObject(JsonGenerator json, String field, String raw) throws IOException {
+        json.writeFieldName(field);
+        if (raw == null) {
+            json.writeStartObject();
+            json.writeEndObject();
+        } else {
+            json.writeRawValue(raw);
+        }
+    }
+
+    record Page(int written, Cursor next) {}
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write() throws SQLException, IOException;
+    }
+
+    /**
+     * 정렬 키 순서로 최대 limit행을 쓰고, 더 남아 있으면 마지막 행 위치를 cursor로 반환
+     */
+    private Page stream(String sql, UUID runId, Cursor after, int limit, char kind, String orderColumn, RowWriter writer) {
+        int[] written = {0};
+        Cursor[] last = {null};
+        boolean[] more = {false};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, runId);
+            if (after != null) {
+                ps.setObject(2, after.at().atOffset(ZoneOffset.UTC));
+                ps.setObject(3, after.id());
+            }
+            if (limit != Integer.MAX_VALUE) ps.setMaxRows(limit + 1);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            if (written[0] >= limit) {
+                more[0] = true;
+                return;
+            }
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                // 클라이언트 연결 끊김 등: 쿼리를 중단하도록 전파
+                throw new UncheckedIOException(e);
+            }
+            written[0]++;
+            last[0] = new Cursor(kind, rs.getObject(orderColumn, OffsetDateTime.class).toInstant(), rs.getObject("id", UUID.class));
+        });
+        return new Page(written[0], more[0] ? last[0] : null);
+    }
+
+    private static void writeLine(JsonGenerator json, JsonBody body) throws SQLException, IOException {
+        json.writeStartObject();
+        body.write();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeNullableInt(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) json.writeNullField(field);
+        else json.writeNumberField(field, value);
+    }
+
+    private static void writeNullableDouble(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        double value = rs.getDouble(column);
+        if (rs.wasNull()) json.writeNullField(field);
+        else json.writeNumberField(field, value);
+    }
+
+    private static String instantString(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant().toString();
+    }
+
+    private String presign(String objectKey) {
+        if (objectKey == null) return null;
+        try {
+            return objectStorageService.getPresignedUrl(objectKey);
+        } catch (Exception e) {
+            // ignore presigned URL generation errors
+            return null;
+        }
+    }
+
+    private static List<String> select(Set<String> requested, Set<String> allowed, List<String> defaults) {
+        if (requested == null || requested.isEmpty()) return defaults;
+        Set<String> out = new LinkedHashSet<>();
+        for (String field : requested) {
+            if (allowed.contains(field)) out.add(field);
+        }
+        // 스트림을 이어 붙이려면 id는 항상 필요
+        if (out.isEmpty() || !out.contains("id")) {
+            List<String> withId = new ArrayList<>();
+            withId.add("id");
+            withId.addAll(out);
+            return withId;
+        }
+        return List.copyOf(out);
+    }
+
+    /**
+     * keyset cursor: 종류(n=노드, e=엣지) + 마지막 행의 (정렬 시각, id)
+     * at/id가 없으면 그 종류의 처음부터 (노드가 limit을 정확히 채운 뒤 엣지 단계 시작용)
+     */
+    record Cursor(char kind, Instant at, UUID id) {
+        static Cursor startOf(char kind) {
+            return new Cursor(kind, null, null);
+        }
+
+        boolean isStart() {
+            return at == null;
+        }
+
+        String encode() {
+            String raw = isStart() ? String.valueOf(kind) : kind + "|" + at + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            if (value == null || value.isBlank()) return null;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                if ((parts.length != 1 && parts.length != 3) || parts[0].length() != 1 || "ne".indexOf(parts[0].charAt(0)) < 0) {
+                    throw new IllegalArgumentException("malformed cursor");
+                }
+                if (parts.length == 1) return startOf(parts[0].charAt(0));
+                return new Cursor(parts[0].charAt(0), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid cursor: " + value, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.dubbi.statetrail.graph.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * RunGraph 위의 최단경로 계산 (엣지 가중치 없음, 경로는 엣지 ordinal 배열)
+ *
+ * BFS는 int 배열 큐와 parent-pointer 배열만 쓰고, 경로는 필요한 타겟에 대해서만 parent를 거슬러 만든다.
+ * 방문/금지 표시는 stamp 배열로 관리해 BFS를 여러 번 돌려도(Yen) 배열을 다시 할당하거나 지우지 않는다.
+ * 인스턴스는 스레드 하나에서만 사용한다.
+ */
+public final class PathEngine {
+    private final RunGraph graph;
+    private final int[] queue;
+    private final int[] parentEdge;
+    private final int[] visitStamp;
+    private final int[] bannedNodeStamp;
+    private final int[] bannedEdgeStamp;
+    private int stamp;
+
+    public PathEngine(RunGraph graph) {
+        this.graph = graph;
+        int n = graph.nodeCount();
+        this.queue = new int[n];
+        this.parentEdge = new int[n];
+        this.visitStamp = new int[n];
+        this.bannedNodeStamp = new int[n];
+        this.bannedEdgeStamp = new int[graph.edgeCount()];
+    }
+
+    /**
+     * BFS 최단경로 트리 (sources 중 가장 가까운 곳에서 출발)
+     */
+    public static final class ShortestPaths {
+        private final RunGraph graph;
+        private final int[] parentEdge;
+        private final int[] distance;
+        private final int[] root;
+
+        private ShortestPaths(RunGraph graph, int[] parentEdge, int[] distance, int[] root) {
+            this.graph = graph;
+            this.parentEdge = parentEdge;
+            this.distance = distance;
+            this.root = root;
+        }
+
+        public boolean reachable(int v) {
+            return distance[v] >= 0;
+        }
+
+        /**
+         * @return 가장 가까운 source까지의 엣지 수, 도달할 수 없으면 -1
+         */
+        public int distance(int v) {
+            return distance[v];
+        }
+
+        /**
+         * @return v까지의 경로가 출발하는 source, 도달할 수 없으면 -1
+         */
+        public int root(int v) {
+            return root[v];
+        }
+
+        /**
+         * source → v 경로 (엣지 ordinal, v가 source면 빈 배열, 도달할 수 없으면 null)
+         */
+        public int[] pathTo(int v) {
+            if (distance[v] < 0) return null;
+            int[] path = new int[distance[v]];
+            for (int i = path.length - 1, at = v; i >= 0; i--) {
+                path[i] = parentEdge[at];
+                at = graph.source(parentEdge[at]);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * 여러 source에서 동시에 BFS (각 노드는 가장 가까운 source 기준, 같으면 먼저 준 source 우선)
+     */
+    public ShortestPaths fromSources(int... sources) {
+        int n = graph.nodeCount();
+        int[] parent = new int[n];
+        int[] distance = new int[n];
+        int[] root = new int[n];
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, -1);
+        Arrays.fill(root, -1);
+
+        int head = 0;
+        int tail = 0;
+        for (int s : sources) {
+            if (distance[s] >= 0) continue;
+            distance[s] = 0;
+            root[s] = s;
+            queue[tail++] = s;
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = graph.outStart(current); i < graph.outEnd(current); i++) {
+                int edge = graph.outEdge(i);
+                int next = graph.target(edge);
+                if (distance[next] < 0) {
+                    distance[next] = distance[current] + 1;
+                    parent[next] = edge;
+                    root[next] = root[current];
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return new ShortestPaths(graph, parent, distance, root);
+    }
+
+    /**
+     * source → target 최단경로 (엣지 ordinal, 없으면 null)
+     */
+    public int[] shortestPath(int source, int target) {
+        nextStamp();
+        return bfs(source, target);
+    }
+
+    /**
+     * source → target의 짧은 순서로 최대 k개의 단순 경로 (Yen 알고리즘)
+     * 길이가 같으면 먼저 발견된 경로가 앞선다.
+     */
+    public List<int[]> kShortestPaths(int source, int target, int k) {
+        List<int[]> accepted = new ArrayList<>();
+        if (k <= 0 || source == target) return accepted;
+        int[] first = shortestPath(source, target);
+        if (first == null) return accepted;
+        accepted.add(first);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<EdgePath> seen = new HashSet<>();
+        seen.add(new EdgePath(first));
+        long order = 0;
+
+        while (accepted.size() < k) {
+            int[] previous = accepted.get(accepted.size() - 1);
+            for (int i = 0; i < previous.length; i++) {
+                int spurNode = graph.source(previous[i]);
+                nextStamp();
+                // 같은 root 경로를 공유하는 기존 경로들의 다음 엣지 금지
+                for (int[] path : accepted) {
+                    if (path.length > i && Arrays.equals(path, 0, i, previous, 0, i)) {
+                        bannedEdgeStamp[path[i]] = stamp;
+                    }
+                }
+                // root 경로 위의 노드(spur 노드 제외) 금지 → 단순 경로 유지
+                for (int j = 0; j < i; j++) {
+                    bannedNodeStamp[graph.source(previous[j])] = stamp;
+                }
+                int[] spur = bfs(spurNode, target);
+                if (spur == null) continue;
+
+                int[] total = new int[i + spur.length];
+                System.arraycopy(previous, 0, total, 0, i);
+                System.arraycopy(spur, 0, total, i, spur.length);
+                if (seen.add(new EdgePath(total))) {
+                    candidates.add(new Candidate(total, order++));
+                }
+            }
+            Candidate best = candidates.poll();
+            if (best == null) break;
+            accepted.add(best.edges());
+        }
+        return accepted;
+    }
+
+    private record Candidate(int[] edges, long order) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate o) {
+            int c = Integer.compare(edges.length, o.edges.length);
+            return c != 0 ? c : Long.compare(order, o.order);
+        }
+    }
+
+    /**
+     * 중복 후보 판별용 (int[]에 내용 기반 equals/hashCode)
+     */
+    private record EdgePath(int[] edges) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EdgePath other && Arrays.equals(edges, other.edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamp, 0);
+            Arrays.fill(bannedNodeStamp, 0);
+            Arrays.fill(bannedEdgeStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * 현재 stamp의 금지 노드/엣지를 피하는 source → target BFS
+     */
+    private int[] bfs(int source, int target) {
+        if (bannedNodeStamp[source] == stamp) return null;
+        int head = 0;
+        int tail = 0;
+        visitStamp[source] = stamp;
+        parentEdge[source] = -1;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            if (current == target) break;
+            for (int i = graph.outStart(current); i < graph.outEnd(current); i++) {
+                int edge = graph.outEdge(i);
+                if (bannedEdgeStamp[edge] == stamp) continue;
+                int next = graph.target(edge);
+                if (visitStamp[next] == stamp || bannedNodeStamp[next] == stamp) continue;
+                visitStamp[next] = stamp;
+                parentEdge[next] = edge;
+                queue[tail++] = next;
+            }
+        }
+        if (visitStamp[target] != stamp) return null;
+
+        int length = 0;
+        for (int v = target; v != source; v = graph.source(parentEdge[v])) length++;
+        int[] path = new int[length];
+        for (int i = length - 1, v = target; i >= 0; i--) {
+            path[i] = parentEdge[v];
+            v = graph.source(parentEdge[v]);
+        }
+        return path;
+    }
+}
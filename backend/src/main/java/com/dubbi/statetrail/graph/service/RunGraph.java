@@ -0,0 +1,171 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.LinkEdgeView;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * run 하나의 불변 그래프 (노드/엣지를 0부터의 int ordinal로 매핑하고 인접 관계를 CSR 배열로 보관)
+ *
+ * 노드 v의 나가는 엣지는 outEdges[outOffsets[v] .. outOffsets[v+1]) 범위, 들어오는 엣지는 inEdges의 같은 방식 범위다.
+ * 각 범위 안의 엣지 순서는 links 목록 순서(created_at)를 그대로 유지한다.
+ * 그래프 알고리즘은 UUID/엔티티 대신 이 배열들 위에서 동작한다.
+ */
+public final class RunGraph {
+    private final PageNodeView[] nodes;
+    private final LinkEdgeView[] edges;
+    private final Map<UUID, Integer> ordinals;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    private RunGraph(PageNodeView[] nodes, LinkEdgeView[] edges, Map<UUID, Integer> ordinals, int[] edgeSource, int[] edgeTarget) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.ordinals = ordinals;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.outOffsets = new int[nodes.length + 1];
+        this.outEdges = new int[edges.length];
+        this.inOffsets = new int[nodes.length + 1];
+        this.inEdges = new int[edges.length];
+        fill(edgeSource, outOffsets, outEdges);
+        fill(edgeTarget, inOffsets, inEdges);
+    }
+
+    /**
+     * 페이지/링크 목록으로 그래프 생성 (양 끝 페이지를 찾을 수 없는 링크는 제외)
+     */
+    public static RunGraph build(List<PageNodeView> pages, List<LinkEdgeView> links) {
+        PageNodeView[] nodes = pages.toArray(PageNodeView[]::new);
+        Map<UUID, Integer> ordinals = new HashMap<>(Math.max(16, nodes.length * 4 / 3 + 1));
+        for (int i = 0; i < nodes.length; i++) ordinals.put(nodes[i].id(), i);
+
+        LinkEdgeView[] edges = new LinkEdgeView[links.size()];
+        int[] source = new int[links.size()];
+        int[] target = new int[links.size()];
+        int m = 0;
+        for (LinkEdgeView link : links) {
+            Integer from = ordinals.get(link.fromPageId());
+            Integer to = ordinals.get(link.toPageId());
+            if (from == null || to == null) continue;
+            edges[m] = link;
+            source[m] = from;
+            target[m] = to;
+            m++;
+        }
+        if (m < edges.length) {
+            edges = Arrays.copyOf(edges, m);
+            source = Arrays.copyOf(source, m);
+            target = Arrays.copyOf(target, m);
+        }
+        return new RunGraph(nodes, edges, ordinals, source, target);
+    }
+
+    /**
+     * counting sort로 CSR 구성 (같은 노드 안에서는 엣지 ordinal 순서 유지)
+     */
+    private static void fill(int[] endpoint, int[] offsets, int[] adjacency) {
+        for (int v : endpoint) offsets[v + 1]++;
+        for (int v = 0; v + 1 < offsets.length; v++) offsets[v + 1] += offsets[v];
+        int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int e = 0; e < endpoint.length; e++) adjacency[cursor[endpoint[e]]++] = e;
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    public PageNodeView node(int v) {
+        return nodes[v];
+    }
+
+    public LinkEdgeView edge(int e) {
+        return edges[e];
+    }
+
+    /**
+     * @return 페이지 ordinal, 없으면 -1
+     */
+    public int ordinalOf(UUID pageId) {
+        Integer v = ordinals.get(pageId);
+        return v == null ? -1 : v;
+    }
+
+    /**
+     * url이 같은 첫 노드 (discovered_at 순서)
+     *
+     * @return 페이지 ordinal, 없으면 -1
+     */
+    public int findByUrl(String url) {
+        if (url == null) return -1;
+        for (int v = 0; v < nodes.length; v++) {
+            if (url.equals(nodes[v].url())) return v;
+        }
+        return -1;
+    }
+
+    public int source(int e) {
+        return edgeSource[e];
+    }
+
+    public int target(int e) {
+        return edgeTarget[e];
+    }
+
+    public int outStart(int v) {
+        return outOffsets[v];
+    }
+
+    public int outEnd(int v) {
+        return outOffsets[v + 1];
+    }
+
+    /**
+     * outStart(v) <= i < outEnd(v) 범위의 i번째 나가는 엣지 ordinal
+     */
+    public int outEdge(int i) {
+        return outEdges[i];
+    }
+
+    public int inStart(int v) {
+        return inOffsets[v];
+    }
+
+    public int inEnd(int v) {
+        return inOffsets[v + 1];
+    }
+
+    /**
+     * inStart(v) <= i < inEnd(v) 범위의 i번째 들어오는 엣지 ordinal
+     */
+    public int inEdge(int i) {
+        return inEdges[i];
+    }
+
+    public int outDegree(int v) {
+        return outOffsets[v + 1] - outOffsets[v];
+    }
+
+    public int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    /**
+     * 캐시 크기 제한에 쓰는 원소 수 (노드 + 엣지)
+     */
+    public long weight() {
+        return (long) nodes.length + edges.length;
+    }
+}
@@ -0,0 +1,155 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.crawl.domain.CrawlLinkRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlPageRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlRunEntity;
+import com.dubbi.statetrail.crawl.domain.CrawlRunStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 완료된(SUCCEEDED) run의 RunGraph를 메모리에 보관하는 LRU 캐시
+ *
+ * 완료된 run의 페이지/링크는 더 바뀌지 않으므로 한 번 만든 그래프를 그래프 조회와 플로우 추출이 같이 쓴다.
+ * run 개수(graph.cache.max-runs)와 전체 노드+엣지 수(graph.cache.max-elements)를 넘으면 오래 안 쓴 run부터 버린다.
+ * 진행 중인 run은 매번 DB에서 새로 만들고 캐시하지 않는다.
+ */
+@Service
+public class RunGraphCache {
+    private final CrawlPageRepository crawlPageRepository;
+    private final CrawlLinkRepository crawlLinkRepository;
+    private final int maxRuns;
+    private final long maxElements;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // lock으로 보호 (access-order LinkedHashMap = LRU)
+    private final LinkedHashMap<UUID, RunGraph> graphs = new LinkedHashMap<>(16, 0.75f, true);
+    // 쓰기는 lock 안에서, 읽기는 gauge가 lock 없이 (생성자에서 this를 넘기지 않도록 값만 따로 둠)
+    private final AtomicLong cachedElements = new AtomicLong();
+
+    // 같은 run을 동시에 여러 번 만들지 않도록 로딩 중인 run 공유
+    private final ConcurrentHashMap<UUID, CompletableFuture<RunGraph>> loading = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RunGraphCache(
+            CrawlPageRepository crawlPageRepository,
+            CrawlLinkRepository crawlLinkRepository,
+            @Value("${graph.cache.max-runs:32}") int maxRuns,
+            @Value("${graph.cache.max-elements:2000000}") long maxElements,
+            MeterRegistry meterRegistry
+    ) {
+        this.crawlPageRepository = crawlPageRepository;
+        this.crawlLinkRepository = crawlLinkRepository;
+        this.maxRuns = Math.max(0, maxRuns);
+        this.maxElements = Math.max(0, maxElements);
+        this.hits = Counter.builder("graph.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("graph.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("graph.cache.elements", cachedElements, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * run의 그래프 (SUCCEEDED면 캐시 사용)
+     */
+    public RunGraph get(CrawlRunEntity run) {
+        if (run.getStatus() != CrawlRunStatus.SUCCEEDED) return load(run.getId());
+
+        UUID runId = run.getId();
+        RunGraph cached = lookup(runId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<RunGraph> mine = new CompletableFuture<>();
+        CompletableFuture<RunGraph> existing = loading.putIfAbsent(runId, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        try {
+            RunGraph graph = load(runId);
+            store(runId, graph);
+            mine.complete(graph);
+            return graph;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(runId, mine);
+        }
+    }
+
+    public void evict(UUID runId) {
+        lock.lock();
+        try {
+            RunGraph removed = graphs.remove(runId);
+            if (removed != null) cachedElements.addAndGet(-removed.weight());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            graphs.clear();
+            cachedElements.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RunGraph load(UUID runId) {
+        return RunGraph.build(
+                crawlPageRepository.findNodeViewsByRunId(runId),
+                crawlLinkRepository.findEdgeViewsByRunId(runId)
+        );
+    }
+
+    private RunGraph lookup(UUID runId) {
+        lock.lock();
+        try {
+            return graphs.get(runId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(UUID runId, RunGraph graph) {
+        // 혼자서 한도를 넘는 그래프는 캐시하지 않음
+        if (maxRuns == 0 || graph.weight() > maxElements) return;
+        lock.lock();
+        try {
+            RunGraph previous = graphs.put(runId, graph);
+            if (previous != null) cachedElements.addAndGet(-previous.weight());
+            cachedElements.addAndGet(graph.weight());
+            Iterator<RunGraph> eldest = graphs.values().iterator();
+            while ((graphs.size() > maxRuns || cachedElements.get() > maxElements) && eldest.hasNext()) {
+                RunGraph victim = eldest.next();
+                if (victim == graph) break;
+                cachedElements.addAndGet(-victim.weight());
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
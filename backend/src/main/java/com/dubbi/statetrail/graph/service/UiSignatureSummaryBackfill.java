@@ -0,0 +1,128 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.graph.util.UiSignatureSummary;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ui_signature_summary / risk_tags 컬럼이 생기기 전에 저장된 페이지를 채우는 backfill
+ *
+ * 새로 크롤한 페이지는 CrawlWriteBehind가 저장 시점에 두 컬럼을 같이 쓰므로, 여기서는
+ * ui_signature는 있는데 요약이 비어 있는 행만 id 순서(keyset)로 batch 단위로 처리한다.
+ * 시작 시 백그라운드 스레드 하나로 한 번 실행되며, 이미 채워진 행은 건드리지 않는다.
+ */
+@Component
+public class UiSignatureSummaryBackfill {
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {};
+
+    private static final String SELECT_SQL = """
+            SELECT id, ui_signature::text AS ui_signature
+              FROM crawl_pages
+             WHERE ui_signature IS NOT NULL AND ui_signature_summary IS NULL AND id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE crawl_pages
+               SET ui_signature_summary = ?::jsonb, risk_tags = ?::jsonb
+             WHERE id = ? AND ui_signature_summary IS NULL
+            """;
+
+    private record Row(UUID id, String uiSignatureJson) {}
+
+    private record Summary(UUID id, String summaryJson, String riskTagsJson) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RunGraphCache runGraphCache;
+    private final boolean onStartup;
+    private final int batchSize;
+
+    public UiSignatureSummaryBackfill(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            RunGraphCache runGraphCache,
+            @Value("${crawl.ui-summary.backfill-on-startup:true}") boolean onStartup,
+            @Value("${crawl.ui-summary.backfill-batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.runGraphCache = runGraphCache;
+        this.onStartup = onStartup;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (!onStartup) return;
+        Thread t = new Thread(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                System.err.printf("[Backfill] UI signature summary backfill stopped: %s%n", e.getMessage());
+            }
+        }, "ui-summary-backfill");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * 요약이 비어 있는 모든 페이지를 채움
+     *
+     * @return 갱신한 행 수
+     */
+    public long backfill() {
+        long updated = 0;
+        long failed = 0;
+        UUID after = new UUID(0L, 0L);
+        while (true) {
+            List<Row> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, i) -> new Row(rs.getObject("id", UUID.class), rs.getString("ui_signature")),
+                    after, batchSize);
+            if (rows.isEmpty()) break;
+            after = rows.get(rows.size() - 1).id();
+
+            List<Summary> summaries = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                try {
+                    Map<String, Object> uiSignature = objectMapper.readValue(row.uiSignatureJson(), JSON_MAP);
+                    summaries.add(new Summary(
+                            row.id(),
+                            objectMapper.writeValueAsString(UiSignatureSummary.summarize(uiSignature)),
+                            objectMapper.writeValueAsString(UiSignatureSummary.extractRiskTags(uiSignature))
+                    ));
+                } catch (Exception e) {
+                    // 파싱할 수 없는 시그니처는 건너뜀 (keyset이므로 다시 조회되지 않음)
+                    failed++;
+                }
+            }
+            if (!summaries.isEmpty()) {
+                int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, summaries, batchSize, (ps, s) -> {
+                    ps.setString(1, s.summaryJson());
+                    ps.setString(2, s.riskTagsJson());
+                    ps.setObject(3, s.id());
+                });
+                for (int[] batch : counts) {
+                    for (int c : batch) updated += Math.max(c, 0);
+                }
+            }
+            if (rows.size() < batchSize) break;
+        }
+        // 캐시된 그래프에 채우기 전의 빈 요약이 남지 않도록
+        if (updated > 0) runGraphCache.clear();
+        if (updated > 0 || failed > 0) {
+            System.out.printf("[Backfill] UI signature summaries: updated=%d, skipped=%d%n", updated, failed);
+        }
+        return updated;
+    }
+}
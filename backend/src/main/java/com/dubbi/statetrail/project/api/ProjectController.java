@@ -50,6 +50,7 @@ public class ProjectController {
     @PostMapping
     public ProjectDTO create(@Valid @RequestBody CreateProjectRequest req) {
         var entity = new ProjectEntity(UUID.randomUUID(), req.name(), req.baseUrl(), req.allowlistRules());
+        entity.setCrawlSettings(req.crawlSettings());
         return toDto(projectRepository.save(entity));
     }
 
@@ -67,6 +68,10 @@ public class ProjectController {
         if (entityOpt.isEmpty()) return ResponseEntity.notFound().build();
         var entity = entityOpt.get();
         entity.update(req.name(), req.baseUrl(), req.allowlistRules());
+        // crawlSettings를 생략하면 기존 값 유지
+        if (req.crawlSettings() != null) {
+            entity.setCrawlSettings(req.crawlSettings());
+        }
         return ResponseEntity.ok(toDto(projectRepository.save(entity)));
     }
 
@@ -111,7 +116,7 @@ public class ProjectController {
     }
 
     private static ProjectDTO toDto(ProjectEntity e) {
-        return new ProjectDTO(e.getId(), e.getName(), e.getBaseUrl(), e.getAllowlistRules());
+        return new ProjectDTO(e.getId(), e.getName(), e.getBaseUrl(), e.getAllowlistRules(), e.getCrawlSettings());
     }
 }
 
@@ -12,19 +12,22 @@ public final class ProjectDtos {
             UUID id,
             String name,
             String baseUrl,
-            Map<String, Object> allowlistRules
+            Map<String, Object> allowlistRules,
+            Map<String, Object> crawlSettings
     ) {}
 
     public record CreateProjectRequest(
             @NotBlank String name,
             @NotBlank String baseUrl,
-            @NotNull Map<String, Object> allowlistRules
+            @NotNull Map<String, Object> allowlistRules,
+            Map<String, Object> crawlSettings
     ) {}
 
     public record UpdateProjectRequest(
             @NotBlank String name,
             @NotBlank String baseUrl,
-            @NotNull Map<String, Object> allowlistRules
+            @NotNull Map<String, Object> allowlistRules,
+            Map<String, Object> crawlSettings
     ) {}
 }
 
@@ -27,6 +27,11 @@ public class ProjectEntity {
     @Column(name = "allowlist_rules", columnDefinition = "jsonb", nullable = false)
     private Map<String, Object> allowlistRules;
 
+    // 크롤 동작 설정 (settle ceiling 등), 없으면 기본값 사용
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "crawl_settings", columnDefinition = "jsonb")
+    private Map<String, Object> crawlSettings;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -60,6 +65,10 @@ public class ProjectEntity {
         return allowlistRules;
     }
 
+    public Map<String, Object> getCrawlSettings() {
+        return crawlSettings;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -74,6 +83,11 @@ public class ProjectEntity {
         this.allowlistRules = allowlistRules;
         this.updatedAt = Instant.now();
     }
+
+    public void setCrawlSettings(Map<String, Object> crawlSettings) {
+        this.crawlSettings = crawlSettings;
+        this.updatedAt = Instant.now();
+    }
 }
 
 
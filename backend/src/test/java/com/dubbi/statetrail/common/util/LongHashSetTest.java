@@ -0,0 +1,41 @@
+package com.dubbi.statetrail.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+    @Test
+    void zeroKeyIsAnOrdinaryKey() {
+        LongHashSet set = new LongHashSet(4);
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.contains(0L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void matchesHashSetAcrossRehash() {
+        Random random = new Random(31);
+        LongHashSet set = new LongHashSet(1);
+        Set<Long> reference = new HashSet<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = random.nextBoolean() ? random.nextInt(2_000) - 1_000 : random.nextLong();
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(key), set.add(key), "key=" + key);
+            } else {
+                assertEquals(reference.contains(key), set.contains(key), "key=" + key);
+            }
+        }
+        assertEquals(reference.size(), set.size());
+        for (long key : reference) assertTrue(set.contains(key));
+    }
+}
@@ -0,0 +1,68 @@
+package com.dubbi.statetrail.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    @Test
+    void zeroKeyIsAnOrdinaryKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        assertEquals(MISSING, map.get(0L, MISSING));
+        assertEquals(MISSING, map.putIfAbsent(0L, 7, MISSING));
+        assertEquals(7, map.putIfAbsent(0L, 9, MISSING));
+        assertEquals(10, map.addTo(0L, 3));
+        assertEquals(10, map.get(0L, MISSING));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void addToStartsFromZero() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        assertEquals(5, map.addTo(-42L, 5));
+        assertEquals(3, map.addTo(-42L, -2));
+        assertEquals(3, map.get(-42L, MISSING));
+        assertEquals(-1, map.get(42L, -1));
+    }
+
+    @Test
+    void matchesHashMapAcrossRehash() {
+        Random random = new Random(23);
+        LongIntHashMap map = new LongIntHashMap(1);
+        Map<Long, Integer> reference = new HashMap<>();
+        long initialBytes = map.estimatedBytes();
+
+        for (int op = 0; op < 200_000; op++) {
+            // 좁은 범위와 전체 범위를 섞어 충돌과 재사용을 모두 만듦
+            long key = random.nextBoolean() ? random.nextInt(2_000) - 1_000 : random.nextLong();
+            int value = random.nextInt(100);
+            String label = "op=" + op + " key=" + key;
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    Integer previous = reference.putIfAbsent(key, value);
+                    assertEquals(previous == null ? MISSING : previous, map.putIfAbsent(key, value, MISSING), label);
+                }
+                case 1 -> assertEquals((int) reference.merge(key, value, Integer::sum), map.addTo(key, value), label);
+                default -> assertEquals((int) reference.getOrDefault(key, MISSING), map.get(key, MISSING), label);
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), MISSING));
+        }
+        assertTrue(map.estimatedBytes() > initialBytes);
+    }
+
+    @Test
+    void tableSizeIsPowerOfTwo() {
+        assertEquals(4, LongIntHashMap.tableSizeFor(3));
+        assertEquals(4, LongIntHashMap.tableSizeFor(4));
+        assertEquals(1 << 20, LongIntHashMap.tableSizeFor((1 << 19) + 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.dubbi.statetrail.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void rejectsFppOutsideOpenUnitInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, -0.1));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 1_000; i++) assertFalse(filter.mightContain(Hashing.fingerprint64("u" + i)));
+        assertEquals(0, filter.size());
+        assertEquals(0.0, filter.expectedFpp(), 0);
+    }
+
+    @Test
+    void growsStagesWithoutFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        int n = 50_000;
+        for (int i = 0; i < n; i++) filter.add(Hashing.fingerprint64("https://example.test/p" + i));
+
+        assertEquals(n, filter.size());
+        // 1000 + 2000 + ... 이 50000을 넘으려면 6단계 필요
+        assertEquals(6, filter.stageCount());
+        for (int i = 0; i < n; i++) {
+            assertTrue(filter.mightContain(Hashing.fingerprint64("https://example.test/p" + i)), "p" + i);
+        }
+    }
+
+    @Test
+    void measuredFppStaysWithinTheCompoundBound() {
+        double initialFpp = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, initialFpp);
+        for (int i = 0; i < 50_000; i++) filter.add(Hashing.fingerprint64("in/" + i));
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(Hashing.fingerprint64("out/" + i))) falsePositives++;
+        }
+        double measured = (double) falsePositives / probes;
+        // 전체 오탐률 상한 initialFpp / (1 - 0.5)
+        assertTrue(measured <= 2 * initialFpp, "measured fpp " + measured);
+        assertTrue(filter.expectedFpp() <= 2 * initialFpp, "expected fpp " + filter.expectedFpp());
+    }
+}
@@ -0,0 +1,57 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AssetCacheTest {
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void maxAgeWinsOverExpires() {
+        assertEquals(60_000, AssetCache.freshnessMs(
+                Map.of("cache-control", "public, max-age=60", "expires", httpDate(NOW + 3_600_000)), NOW));
+    }
+
+    @Test
+    void noCacheMeansRevalidateEveryTime() {
+        assertEquals(0, AssetCache.freshnessMs(Map.of("cache-control", "no-cache, max-age=600"), NOW));
+    }
+
+    @Test
+    void uncacheableResponses() {
+        assertEquals(-1, AssetCache.freshnessMs(Map.of("cache-control", "no-store"), NOW));
+        assertEquals(-1, AssetCache.freshnessMs(Map.of("cache-control", "max-age=600", "vary", " * "), NOW));
+    }
+
+    @Test
+    void privateResponsesAreNotShared() {
+        assertEquals(-1, AssetCache.freshnessMs(Map.of("cache-control", "private, max-age=600"), NOW));
+        assertEquals(-1, AssetCache.freshnessMs(Map.of("cache-control", "Private"), NOW));
+        assertEquals(-1, AssetCache.freshnessMs(Map.of("cache-control", "max-age=600, private=\"Set-Cookie\""), NOW));
+    }
+
+    @Test
+    void expiresRelativeToDate() {
+        assertEquals(300_000, AssetCache.freshnessMs(
+                Map.of("date", httpDate(NOW), "expires", httpDate(NOW + 300_000)), NOW));
+        assertEquals(0, AssetCache.freshnessMs(Map.of("expires", "0"), NOW));
+    }
+
+    @Test
+    void lastModifiedHeuristicIsCapped() {
+        assertEquals(Duration.ofHours(1).toMillis(), AssetCache.freshnessMs(
+                Map.of("last-modified", httpDate(NOW - Duration.ofHours(10).toMillis())), NOW));
+        assertEquals(Duration.ofDays(1).toMillis(), AssetCache.freshnessMs(
+                Map.of("last-modified", httpDate(NOW - Duration.ofDays(365).toMillis())), NOW));
+    }
+
+    private static String httpDate(long epochMs) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMs).atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class CappedBodyStreamTest {
+
+    @Test
+    void readsUpToTheCapAndLeavesTheRestUnread() throws IOException {
+        ByteArrayInputStream raw = new ByteArrayInputStream(bytes(100));
+        CappedBodyStream in = new CappedBodyStream(raw, 60, 10);
+
+        assertArrayEquals(Arrays.copyOf(bytes(100), 60), in.readAllBytes());
+        assertEquals(-1, in.read());
+        assertEquals(0, in.available());
+        assertEquals(40, raw.available());
+    }
+
+    @Test
+    void copiesOnlyThePrefixAcrossReads() throws IOException {
+        CappedBodyStream in = new CappedBodyStream(new ByteArrayInputStream(ascii("abcdefghij")), 100, 4);
+
+        assertEquals('a', in.read());
+        byte[] buffer = new byte[3];
+        assertEquals(3, in.read(buffer, 0, 3));
+        assertEquals(3, in.read(buffer, 0, 3));
+        assertEquals("abcd", in.prefix(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void skippedBytesStillCountTowardsThePrefixAndTheCap() throws IOException {
+        CappedBodyStream in = new CappedBodyStream(new ByteArrayInputStream(ascii("abcdefghij")), 8, 6);
+
+        assertEquals(5, in.skip(5));
+        assertEquals(3, in.skip(100));
+        assertEquals(0, in.skip(1));
+        assertEquals("abcdef", in.prefix(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void readPrefixStopsOnceThePrefixIsFull() throws IOException {
+        ByteArrayInputStream raw = new ByteArrayInputStream(bytes(50_000));
+        CappedBodyStream in = new CappedBodyStream(raw, 40_000, 20_000);
+
+        in.readPrefix();
+        assertEquals(30_000, raw.available());
+        assertEquals(20_000, in.prefix(StandardCharsets.ISO_8859_1).length());
+
+        // 본문이 prefix보다 짧으면 EOF에서 멈춤
+        CappedBodyStream shortBody = new CappedBodyStream(new ByteArrayInputStream(ascii("abc")), 40_000, 20_000);
+        shortBody.readPrefix();
+        assertEquals("abc", shortBody.prefix(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void markIsNotSupported() {
+        CappedBodyStream in = new CappedBodyStream(new ByteArrayInputStream(bytes(10)), 10, 10);
+
+        assertFalse(in.markSupported());
+        in.mark(5);
+        assertThrows(IOException.class, in::reset);
+    }
+
+    private static byte[] bytes(int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) b[i] = (byte) i;
+        return b;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
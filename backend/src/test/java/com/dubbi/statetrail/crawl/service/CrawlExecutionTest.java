@@ -0,0 +1,69 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class CrawlExecutionTest {
+
+    @Test
+    void evictsHostsWithoutRequestsOrPendingWaits() throws Exception {
+        CrawlExecution execution = execution(0);
+        try (CrawlExecution.FetchPermit permit = execution.acquireFetch("a.example", Duration.ZERO)) {
+            permit.record(200, null);
+        }
+        assertEquals(1, execution.trackedHosts());
+
+        // 다음 acquire가 만료된 호스트를 정리
+        try (CrawlExecution.FetchPermit ignored = execution.acquireFetch("b.example", Duration.ZERO)) {
+            assertEquals(1, execution.trackedHosts());
+            assertFalse(execution.hostStats("b.example").isEmpty());
+        }
+        assertTrue(execution.hostStats("a.example").isEmpty());
+    }
+
+    @Test
+    void keepsHostsWithHeldPermits() throws Exception {
+        CrawlExecution execution = execution(0);
+        try (CrawlExecution.FetchPermit ignored = execution.acquireFetch("a.example", Duration.ZERO)) {
+            execution.evictIdleHosts(System.nanoTime());
+            assertEquals(1, execution.trackedHosts());
+        }
+        execution.evictIdleHosts(System.nanoTime());
+        assertEquals(0, execution.trackedHosts());
+    }
+
+    @Test
+    void keepsHostsBlockedByRetryAfter() throws Exception {
+        CrawlExecution execution = execution(0);
+        try (CrawlExecution.FetchPermit permit = execution.acquireFetch("a.example", Duration.ZERO)) {
+            permit.record(429, "30");
+        }
+        execution.evictIdleHosts(System.nanoTime());
+        assertEquals(1, execution.trackedHosts());
+        execution.evictIdleHosts(System.nanoTime() + Duration.ofSeconds(31).toNanos());
+        assertEquals(0, execution.trackedHosts());
+    }
+
+    @Test
+    void keepsRecentlyUsedHostsUntilTheTtl() throws Exception {
+        CrawlExecution execution = execution(60);
+        try (CrawlExecution.FetchPermit ignored = execution.acquireFetch("a.example", Duration.ZERO)) {
+            // 바로 반납
+        }
+        execution.evictIdleHosts(System.nanoTime());
+        assertEquals(1, execution.trackedHosts());
+        execution.evictIdleHosts(System.nanoTime() + Duration.ofSeconds(61).toNanos());
+        assertEquals(0, execution.trackedHosts());
+    }
+
+    /**
+     * 요청 간격 없이 (rps 0) 호스트 상태만 확인하는 설정
+     */
+    private static CrawlExecution execution(long hostIdleTtlSeconds) {
+        return new CrawlExecution(false, 4, 16, 2, 0, 1, 0, 32, 3, 60, hostIdleTtlSeconds);
+    }
+}
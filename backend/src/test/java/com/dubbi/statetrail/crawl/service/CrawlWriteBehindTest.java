@@ -0,0 +1,177 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dubbi.statetrail.crawl.web.ActionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class CrawlWriteBehindTest {
+    private final RecordingJdbc jdbc = new RecordingJdbc();
+    private final CountingTransactions transactions = new CountingTransactions();
+    private CrawlWriteBehind writeBehind;
+
+    @AfterEach
+    void shutdown() {
+        if (writeBehind != null) writeBehind.shutdown();
+    }
+
+    @Test
+    void flushWritesPagesThenUpdatesThenLinksInOneTransaction() {
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 100, 60_000);
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID());
+
+        writer.insertLink(UUID.randomUUID(), from, to, "next", ActionType.CLICK);
+        writer.updateFetchedPage(new CrawlWriteBehind.FetchedPage(from, 200, "text/html", "t", "<html/>", null, null, null));
+        writer.insertPage(from, "k1", "https://example.test/a", "/a", 0);
+        writer.insertPage(to, "k2", "https://example.test/b", "/b", 1);
+        assertTrue(jdbc.batches.isEmpty());
+
+        writer.flush();
+        assertEquals(List.of("insert-pages:2", "update-pages:1", "insert-links:1"), jdbc.batches);
+        assertEquals(1, transactions.commits);
+        assertEquals(1, writer.flushCount());
+        assertEquals(4, writer.rowsWritten());
+
+        // 비어 있으면 아무것도 쓰지 않음
+        writer.flush();
+        assertEquals(1, writer.flushCount());
+        writer.close();
+    }
+
+    @Test
+    void fullBufferIsFlushedByTheWriterExceptOnTheNodeCreationPath() {
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 3, 60_000);
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID());
+
+        for (int i = 0; i < 5; i++) writer.insertPage(UUID.randomUUID(), "k" + i, "https://example.test/" + i, "/" + i, 0);
+        assertEquals(0, writer.flushCount());
+
+        writer.insertLink(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null, ActionType.CLICK);
+        assertEquals(1, writer.flushCount());
+        assertEquals(6, writer.rowsWritten());
+        writer.close();
+    }
+
+    @Test
+    void timerFlushesWithoutAnExplicitCall() throws InterruptedException {
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 100, 50);
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID());
+        writer.insertPage(UUID.randomUUID(), "k", "https://example.test/", "/", 0);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (writer.flushCount() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(1, writer.flushCount());
+        writer.close();
+    }
+
+    @Test
+    void flushFailureIsReportedOnClose() {
+        jdbc.fail = true;
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 100, 60_000);
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID());
+        writer.insertPage(UUID.randomUUID(), "k", "https://example.test/", "/", 0);
+
+        writer.flush();
+        assertEquals(0, writer.flushCount());
+        assertEquals(1, transactions.rollbacks);
+        IllegalStateException e = assertThrows(IllegalStateException.class, writer::close);
+        assertTrue(e.getCause() instanceof DataIntegrityViolationException);
+    }
+
+    @Test
+    void listenerSeesRowsOnlyAfterTheyAreCommitted() {
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 100, 60_000);
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        List<String> notified = new ArrayList<>();
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID(), (pages, links) -> {
+            notified.add("commits:" + transactions.commits);
+            pages.forEach(p -> notified.add("page:" + p.url()));
+            links.forEach(l -> notified.add("link:" + l.anchorText()));
+        });
+
+        writer.insertPage(from, "k1", "https://example.test/a", "/a", 0);
+        writer.insertLink(UUID.randomUUID(), from, to, "next", ActionType.NAVIGATE);
+        writer.insertPage(to, "k2", "https://example.test/b", "/b", 1);
+        writer.updateFetchedPage(new CrawlWriteBehind.FetchedPage(from, 200, "text/html", "t", "<html/>", null, null, null));
+        assertTrue(notified.isEmpty());
+
+        writer.flush();
+        assertEquals(List.of("commits:1", "page:https://example.test/a", "page:https://example.test/b", "link:next"), notified);
+
+        // fetch 결과 update만 있는 flush는 알리지 않음
+        writer.updateFetchedPage(new CrawlWriteBehind.FetchedPage(to, 200, "text/html", "t", "<html/>", null, null, null));
+        writer.close();
+        assertEquals(4, notified.size());
+    }
+
+    @Test
+    void listenerIsNotCalledForAFailedFlush() {
+        jdbc.fail = true;
+        writeBehind = new CrawlWriteBehind(jdbc, transactions, new ObjectMapper(), 100, 60_000);
+        List<Integer> notified = new ArrayList<>();
+        CrawlWriteBehind.RunWriter writer = writeBehind.open(UUID.randomUUID(), (pages, links) -> notified.add(pages.size()));
+        writer.insertPage(UUID.randomUUID(), "k", "https://example.test/", "/", 0);
+
+        writer.flush();
+        assertTrue(notified.isEmpty());
+        assertThrows(IllegalStateException.class, writer::close);
+    }
+
+    /**
+     * batch마다 문장 종류와 행 수만 기록 (PreparedStatement는 만들지 않음)
+     */
+    private static final class RecordingJdbc extends JdbcTemplate {
+        final List<String> batches = new ArrayList<>();
+        volatile boolean fail;
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (fail) throw new DataIntegrityViolationException("boom");
+            String statement = sql.strip().startsWith("UPDATE") ? "update-pages"
+                    : sql.contains("crawl_links") ? "insert-links" : "insert-pages";
+            synchronized (batches) {
+                batches.add(statement + ":" + batchArgs.size());
+            }
+            return new int[0][];
+        }
+    }
+
+    private static final class CountingTransactions implements PlatformTransactionManager {
+        int commits;
+        int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+
+class HostPolitenessTest {
+    private static final long SECOND = 1_000_000_000L;
+    // reserve 호출 사이에 흐른 시간만큼 대기가 줄어드는 것을 허용
+    private static final long SLACK = 200_000_000L;
+
+    @Test
+    void parsesDeltaSeconds() {
+        assertEquals(Duration.ofSeconds(120), HostPoliteness.parseRetryAfter("120"));
+        assertEquals(Duration.ofSeconds(5), HostPoliteness.parseRetryAfter(" 5 "));
+        assertEquals(Duration.ZERO, HostPoliteness.parseRetryAfter("-3"));
+    }
+
+    @Test
+    void parsesHttpDate() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        Duration future = HostPoliteness.parseRetryAfter(now.plusSeconds(120).format(DateTimeFormatter.RFC_1123_DATE_TIME));
+        assertTrue(future.compareTo(Duration.ofSeconds(118)) >= 0 && future.compareTo(Duration.ofSeconds(120)) <= 0,
+                "future " + future);
+        assertEquals(Duration.ZERO,
+                HostPoliteness.parseRetryAfter(now.minusHours(1).format(DateTimeFormatter.RFC_1123_DATE_TIME)));
+    }
+
+    @Test
+    void ignoresMissingOrMalformedValues() {
+        assertNull(HostPoliteness.parseRetryAfter(null));
+        assertNull(HostPoliteness.parseRetryAfter("  "));
+        assertNull(HostPoliteness.parseRetryAfter("soon"));
+        assertNull(HostPoliteness.parseRetryAfter("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void burstIsFreeThenRequestsAreSpacedByTheInterval() {
+        HostPoliteness host = new HostPoliteness(1.0, 3, Duration.ZERO, 8.0, 3.0, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 3; i++) assertNear(0, host.reserve(Duration.ZERO), "burst " + i);
+        assertNear(SECOND, host.reserve(Duration.ZERO), "4th");
+        assertNear(2 * SECOND, host.reserve(Duration.ZERO), "5th");
+    }
+
+    @Test
+    void crawlDelayDisablesBurst() {
+        HostPoliteness host = new HostPoliteness(10.0, 5, Duration.ofSeconds(2), 8.0, 3.0, Duration.ofMinutes(5));
+        assertNear(0, host.reserve(Duration.ZERO), "1st");
+        assertNear(2 * SECOND, host.reserve(Duration.ZERO), "2nd");
+
+        // run별 crawl delay가 전역 설정보다 길면 그 값을 쓰고 burst도 쓰지 않음
+        HostPoliteness perRun = new HostPoliteness(10.0, 5, Duration.ZERO, 8.0, 3.0, Duration.ofMinutes(5));
+        assertNear(0, perRun.reserve(Duration.ofSeconds(3)), "1st");
+        assertNear(3 * SECOND, perRun.reserve(Duration.ofSeconds(3)), "2nd");
+    }
+
+    @Test
+    void retryAfterBlocksTheHostUpToTheCap() {
+        HostPoliteness host = new HostPoliteness(10.0, 3, Duration.ZERO, 8.0, 3.0, Duration.ofSeconds(10));
+        host.reserve(Duration.ZERO);
+        host.record(429, 50, "3600");
+
+        assertNear(10 * SECOND, host.reserve(Duration.ZERO), "capped Retry-After");
+        assertEquals(1L, host.stats().get("throttled"));
+        assertEquals(2.0, host.stats().get("backoff"));
+    }
+
+    @Test
+    void throttlingBacksOffAndSuccessRecovers() {
+        HostPoliteness host = new HostPoliteness(10.0, 1, Duration.ZERO, 4.0, 3.0, Duration.ofSeconds(10));
+        for (int i = 0; i < 5; i++) host.record(503, 50, null);
+        assertEquals(4.0, host.stats().get("backoff"));
+
+        host.record(200, 50, null);
+        assertEquals(3.6, host.stats().get("backoff"));
+        for (int i = 0; i < 100; i++) host.record(200, 50, null);
+        assertEquals(1.0, host.stats().get("backoff"));
+        assertEquals(50L, host.stats().get("latencyMs"));
+    }
+
+    private static void assertNear(long expectedNanos, long actualNanos, String label) {
+        assertTrue(actualNanos <= expectedNanos && actualNanos >= expectedNanos - SLACK,
+                label + ": expected ~" + expectedNanos + "ns but was " + actualNanos + "ns");
+    }
+}
@@ -0,0 +1,90 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class HttpClientPageFetcherTest {
+
+    @Test
+    void readsCharsetFromContentType() {
+        assertEquals("EUC-KR", HttpClientPageFetcher.charsetOf("text/html; charset=EUC-KR"));
+        assertEquals("utf-8", HttpClientPageFetcher.charsetOf("text/html;CHARSET=\"utf-8\""));
+        assertNull(HttpClientPageFetcher.charsetOf("text/html"));
+        assertNull(HttpClientPageFetcher.charsetOf(null));
+        assertNull(HttpClientPageFetcher.charsetOf("text/html; charset="));
+    }
+
+    @Test
+    void ignoresUnsupportedOrIllegalCharsetNames() {
+        assertNull(HttpClientPageFetcher.charsetOf("text/html; charset=x-no-such-charset"));
+        assertNull(HttpClientPageFetcher.charsetOf("text/html; charset=utf-8,latin1"));
+        assertNull(HttpClientPageFetcher.charsetOf("text/html; charset=@@@"));
+    }
+
+    @Test
+    void abortsBodyThatTricklesPastTheRequestTimeout() throws Exception {
+        HttpServer server = trickleServer(20_000);
+        HttpClientPageFetcher fetcher = new HttpClientPageFetcher(1_000, 500);
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            long started = System.nanoTime();
+            assertThrows(HttpTimeoutException.class, () -> fetcher.fetch(url));
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            assertTrue(elapsedMs < 5_000, "body read took " + elapsedMs + "ms");
+        } finally {
+            fetcher.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void readsBodyThatFinishesInTime() throws Exception {
+        HttpServer server = trickleServer(0);
+        HttpClientPageFetcher fetcher = new HttpClientPageFetcher(1_000, 2_000);
+        try {
+            PageFetcher.FetchResponse res = fetcher.fetch("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            assertEquals(200, res.status());
+            assertNotNull(res.document());
+        } finally {
+            fetcher.shutdown();
+            server.stop(0);
+        }
+    }
+
+    /**
+     * 헤더는 바로 보내고 본문은 totalMs 동안 조금씩 흘려보내는 서버
+     */
+    private static HttpServer trickleServer(long totalMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            long until = System.currentTimeMillis() + totalMs;
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("<html><body>".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                while (System.currentTimeMillis() < until) {
+                    out.write("<p>x</p>".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(100);
+                }
+                out.write("</body></html>".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | InterruptedException ignored) {
+                // 클라이언트가 연결을 끊음
+            }
+        });
+        server.start();
+        return server;
+    }
+}
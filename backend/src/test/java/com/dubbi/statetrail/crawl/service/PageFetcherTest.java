@@ -0,0 +1,75 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.dubbi.statetrail.crawl.service.PageFetcher.FetchResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+class PageFetcherTest {
+    private static final Charset EUC_KR = Charset.forName("EUC-KR");
+    private static final String URL = "https://example.test/a/page";
+
+    @Test
+    void parsesHtmlWithHeaderCharsetAndResolvesLinksAgainstFinalUrl() throws Exception {
+        String html = "<html><head><title>한글 제목</title></head><body><a href=\"../b\">b</a></body></html>";
+        FetchResponse res = read("text/html; charset=EUC-KR", "EUC-KR", html.getBytes(EUC_KR));
+
+        Document document = res.document();
+        assertEquals("한글 제목", document.title());
+        assertEquals("https://example.test/b", document.selectFirst("a").absUrl("href"));
+        assertEquals(html, res.snapshot());
+        assertEquals(200, res.status());
+    }
+
+    @Test
+    void snapshotUsesTheMetaCharsetWhenTheHeaderHasNone() throws Exception {
+        String html = "<html><head><meta charset=\"euc-kr\"><title>제목</title></head></html>";
+        FetchResponse res = read("TEXT/HTML", null, html.getBytes(EUC_KR));
+
+        assertEquals("제목", res.document().title());
+        assertEquals(html, res.snapshot());
+    }
+
+    @Test
+    void nonHtmlIsNotParsed() throws Exception {
+        byte[] body = "{\"name\":\"값\"}".getBytes(StandardCharsets.UTF_8);
+
+        FetchResponse res = read("application/json", null, body);
+        assertNull(res.document());
+        assertEquals("{\"name\":\"값\"}", res.snapshot());
+        // 알 수 없는 charset은 UTF-8로 읽음
+        assertEquals("{\"name\":\"값\"}", read("application/json", "no-such-charset", body).snapshot());
+        assertNull(read(null, null, body).document());
+    }
+
+    @Test
+    void snapshotIsCappedAtMaxChars() throws Exception {
+        byte[] body = "a".repeat(PageFetcher.MAX_SNAPSHOT_CHARS + 5_000).getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(PageFetcher.MAX_SNAPSHOT_CHARS, read("text/plain", null, body).snapshot().length());
+        assertEquals(PageFetcher.MAX_SNAPSHOT_CHARS, read("text/html", null, body).snapshot().length());
+    }
+
+    @Test
+    void contentBeyondTheBodyLimitIsIgnored() throws Exception {
+        ByteArrayOutputStream html = new ByteArrayOutputStream();
+        html.writeBytes("<html><body><p id=\"first\">x</p><!--".getBytes(StandardCharsets.US_ASCII));
+        html.writeBytes(new byte[PageFetcher.MAX_BODY_BYTES]);
+        html.writeBytes("--><p id=\"last\">y</p></body></html>".getBytes(StandardCharsets.US_ASCII));
+
+        Document document = read("text/html", "UTF-8", html.toByteArray()).document();
+        assertNotNull(document.getElementById("first"));
+        assertNull(document.getElementById("last"));
+    }
+
+    private static FetchResponse read(String contentType, String charset, byte[] body) throws Exception {
+        return FetchResponse.read(200, contentType, URL, charset, null, new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,129 @@
+package com.dubbi.statetrail.crawl.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunEventLogTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path spillDir;
+
+    private RunEventLog log;
+
+    @AfterEach
+    void dispose() {
+        if (log != null) log.dispose();
+    }
+
+    @Test
+    void replaysFromTheRing() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, spillDir, objectMapper);
+        appendNodes(10);
+
+        assertEquals(1, log.firstSeq());
+        assertEquals(List.of(4L, 5L, 6L, 7L), seqs(log.since(3, 7, Integer.MAX_VALUE)));
+        assertEquals(List.of(), seqs(log.since(10, 10, Integer.MAX_VALUE)));
+        // ring이 넘치지 않으면 spill 파일을 만들지 않음
+        try (var files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void replaysAcrossTheSpillFileAndTheRing() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, spillDir, objectMapper);
+        appendNodes(1_000);
+
+        assertEquals(1, log.firstSeq());
+        List<RunEventLog.Entry> all = log.since(0, 1_000, Integer.MAX_VALUE);
+        assertEquals(1_000, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).seq());
+        }
+        // spill에서 읽은 payload는 원본 JSON
+        RunEventLog.Entry spilled = all.get(499);
+        assertEquals("NODE_CREATED", spilled.type());
+        assertInstanceOf(RawValue.class, spilled.payload());
+        assertEquals("{\"n\":500}", ((RawValue) spilled.payload()).rawValue());
+        // ring에 남은 payload는 원본 객체
+        assertEquals(Map.of("n", 1_000), all.get(999).payload());
+    }
+
+    @Test
+    void sparseIndexStartsAtAnyOffset() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, spillDir, objectMapper);
+        appendNodes(700);
+
+        // sparse index 경계 전후와 spill/ring 경계 전후
+        for (long after : new long[] {0, 1, 255, 256, 257, 511, 512, 683, 684, 685, 699}) {
+            List<RunEventLog.Entry> entries = log.since(after, 700, Integer.MAX_VALUE);
+            assertEquals(700 - after, entries.size(), "after=" + after);
+            assertEquals(after + 1, entries.get(0).seq(), "after=" + after);
+        }
+    }
+
+    @Test
+    void pagesWithMax() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, spillDir, objectMapper);
+        appendNodes(300);
+
+        long after = 42;
+        int pages = 0;
+        while (after < 250) {
+            List<RunEventLog.Entry> page = log.since(after, 250, 64);
+            assertTrue(page.size() <= 64);
+            assertEquals(after + 1, page.get(0).seq());
+            after = page.get(page.size() - 1).seq();
+            pages++;
+        }
+        assertEquals(250, after);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void withoutSpillOnlyTheRingIsReplayable() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, null, objectMapper);
+        appendNodes(100);
+
+        assertEquals(85, log.firstSeq());
+        assertNull(log.since(83, 100, Integer.MAX_VALUE));
+        assertEquals(16, log.since(84, 100, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void disposedLogHasNothingToReplay() throws Exception {
+        log = new RunEventLog(UUID.randomUUID(), 16, spillDir, objectMapper);
+        appendNodes(100);
+        log.dispose();
+
+        assertEquals(101, log.firstSeq());
+        assertNull(log.since(0, 100, Integer.MAX_VALUE));
+        try (var files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private void appendNodes(int count) {
+        for (int i = 1; i <= count; i++) {
+            assertEquals(i, log.append("NODE_CREATED", Map.of("n", i)));
+        }
+    }
+
+    private static List<Long> seqs(List<RunEventLog.Entry> entries) {
+        return entries.stream().map(RunEventLog.Entry::seq).toList();
+    }
+}
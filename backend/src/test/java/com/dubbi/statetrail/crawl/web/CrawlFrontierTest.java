@@ -0,0 +1,54 @@
+package com.dubbi.statetrail.crawl.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class CrawlFrontierTest {
+    private static final Instant FAR = Instant.now().plusSeconds(60);
+
+    @Test
+    void finishedOnlyWhenNothingIsQueuedOrInFlight() {
+        for (CrawlStrategy strategy : new CrawlStrategy[] {CrawlStrategy.BFS, CrawlStrategy.MCS}) {
+            CrawlFrontier frontier = new CrawlFrontier(strategy, null, 100, 100);
+            assertTrue(frontier.isFinished(), strategy.name());
+
+            int seed = add(frontier, "https://example.test/");
+            assertTrue(frontier.offer(seed, "https://example.test/"));
+            assertFalse(frontier.isFinished(), strategy.name());
+
+            CrawlFrontier.Next next = frontier.take(FAR);
+            assertEquals(seed, next.ordinal());
+            // 처리 중인 노드가 새 링크를 더할 수 있으므로 아직 끝나지 않음
+            assertFalse(frontier.isFinished(), strategy.name());
+
+            int child = add(frontier, "https://example.test/a");
+            frontier.offer(child, "https://example.test/a");
+            frontier.done();
+            assertFalse(frontier.isFinished(), strategy.name());
+
+            assertEquals(child, frontier.take(FAR).ordinal());
+            frontier.done();
+            assertTrue(frontier.isFinished(), strategy.name());
+            assertNull(frontier.take(FAR));
+        }
+    }
+
+    @Test
+    void closedFrontierIsFinished() {
+        CrawlFrontier frontier = new CrawlFrontier(CrawlStrategy.BFS, null, 100, 100);
+        frontier.offer(add(frontier, "https://example.test/"), "https://example.test/");
+
+        frontier.close();
+        assertTrue(frontier.isFinished());
+        assertNull(frontier.take(FAR));
+    }
+
+    private static int add(CrawlFrontier frontier, String url) {
+        return frontier.getOrAddNode(url, 0, 100, (ordinal, id) -> {});
+    }
+}
@@ -0,0 +1,98 @@
+package com.dubbi.statetrail.crawl.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class IndexedMaxHeapTest {
+
+    @Test
+    void pollsHighestScoreFirstAndTiesInInsertionOrder() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(4);
+        heap.upsert(3, 1.0);
+        heap.upsert(1, 5.0);
+        heap.upsert(2, 1.0);
+        heap.upsert(0, 5.0);
+
+        assertEquals(1, heap.peek());
+        assertEquals(1, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(-1, heap.poll());
+        assertEquals(-1, heap.peek());
+    }
+
+    @Test
+    void upsertReordersInPlaceWithoutDuplicates() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(4);
+        heap.upsert(0, 1.0);
+        heap.upsert(1, 2.0);
+        heap.upsert(2, 3.0);
+        heap.upsert(0, 10.0);
+        heap.upsert(2, 0.5);
+
+        assertEquals(3, heap.size());
+        assertEquals(10.0, heap.scoreOf(0), 0);
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertFalse(heap.contains(0));
+    }
+
+    @Test
+    void growsForOrdinalsBeyondTheInitialCapacity() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(1);
+        for (int ordinal = 0; ordinal < 1_000; ordinal += 7) heap.upsert(ordinal, ordinal);
+        heap.upsert(100_000, -1);
+
+        assertTrue(heap.contains(994));
+        assertTrue(heap.contains(100_000));
+        assertFalse(heap.contains(995));
+        assertFalse(heap.contains(Integer.MAX_VALUE - 1));
+        assertEquals(994, heap.poll());
+    }
+
+    @Test
+    void matchesSortedReferenceUnderRandomOperations() {
+        Random random = new Random(17);
+        IndexedMaxHeap heap = new IndexedMaxHeap(8);
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, Long> seqs = new HashMap<>();
+        long[] nextSeq = {0};
+        TreeSet<Integer> reference = new TreeSet<>(Comparator
+                .comparingDouble((Integer o) -> -scores.get(o))
+                .thenComparingLong(seqs::get));
+
+        for (int op = 0; op < 20_000; op++) {
+            if (random.nextInt(3) > 0) {
+                int ordinal = random.nextInt(500);
+                // 같은 점수가 자주 나오도록 정수 점수 사용
+                double score = random.nextInt(20);
+                // 이미 있으면 기존 seq를 유지한 채 점수만 바뀜
+                if (scores.containsKey(ordinal) && reference.contains(ordinal)) {
+                    reference.remove(ordinal);
+                } else {
+                    seqs.put(ordinal, nextSeq[0]++);
+                }
+                scores.put(ordinal, score);
+                reference.add(ordinal);
+                heap.upsert(ordinal, score);
+            } else {
+                Integer expected = reference.pollFirst();
+                assertEquals(expected == null ? -1 : expected, heap.poll(), "op=" + op);
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+        while (!reference.isEmpty()) {
+            assertEquals((int) reference.pollFirst(), heap.poll());
+        }
+    }
+}
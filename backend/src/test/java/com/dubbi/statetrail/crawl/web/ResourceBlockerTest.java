@@ -0,0 +1,80 @@
+package com.dubbi.statetrail.crawl.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ResourceBlockerTest {
+
+    @Test
+    void standardBlocksMediaFontsAndTrackers() {
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.STANDARD, List.of());
+
+        assertEquals("media", blocker.reasonFor("media", "https://cdn.example.test/intro.mp4", false));
+        assertEquals("font", blocker.reasonFor("font", "https://cdn.example.test/a.woff2", false));
+        assertEquals("tracker", blocker.reasonFor("script", "https://www.googletagmanager.com/gtm.js", false));
+        assertEquals("tracker", blocker.reasonFor("xhr", "https://GOOGLE-ANALYTICS.COM/collect", false));
+        assertNull(blocker.reasonFor("image", "https://cdn.example.test/logo.png", false));
+        assertNull(blocker.reasonFor("script", "https://example.test/app.js", false));
+    }
+
+    @Test
+    void trackerMatchIsOnDomainBoundaries() {
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.STANDARD, List.of());
+
+        assertEquals("tracker", blocker.reasonFor("script", "https://static.hotjar.com/c/hotjar.js", false));
+        assertNull(blocker.reasonFor("script", "https://nothotjar.com/x.js", false));
+        assertNull(blocker.reasonFor("script", "https://example.test/?ref=hotjar.com", false));
+        assertNull(blocker.reasonFor("script", "not a url", false));
+    }
+
+    @Test
+    void documentsAreNeverBlocked() {
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.AGGRESSIVE, List.of("example.test"));
+
+        assertNull(blocker.reasonFor("document", "https://example.test/", false));
+        assertEquals("tracker", blocker.reasonFor("fetch", "https://api.example.test/track", false));
+    }
+
+    @Test
+    void aggressiveBlocksImagesOutsideScreenshotState() {
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.AGGRESSIVE, List.of());
+
+        assertEquals("image", blocker.reasonFor("image", "https://cdn.example.test/hero.jpg", false));
+        assertNull(blocker.reasonFor("image", "https://cdn.example.test/hero.jpg", true));
+        assertEquals("font", blocker.reasonFor("font", "https://cdn.example.test/a.woff2", true));
+    }
+
+    @Test
+    void extraDomainsAreAddedToTheTrackerList() {
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.STANDARD, List.of("metrics.example.test"));
+
+        assertEquals("tracker", blocker.reasonFor("xhr", "https://metrics.example.test/v1", false));
+        assertNull(blocker.reasonFor("xhr", "https://example.test/v1", false));
+    }
+
+    @Test
+    void offProfileIsDisabledAndStatsStartAtZero() {
+        assertFalse(new ResourceBlocker(ResourceBlockingProfile.OFF, List.of()).enabled());
+        ResourceBlocker blocker = new ResourceBlocker(ResourceBlockingProfile.STANDARD, List.of());
+        assertTrue(blocker.enabled());
+
+        Map<String, Object> stats = blocker.stats();
+        assertEquals("STANDARD", stats.get("profile"));
+        assertEquals(0L, stats.get("total"));
+        assertEquals(List.of("profile", "media", "font", "image", "tracker", "total"), List.copyOf(stats.keySet()));
+    }
+
+    @Test
+    void profileParsingFallsBackToStandard() {
+        assertEquals(ResourceBlockingProfile.AGGRESSIVE, ResourceBlockingProfile.fromNullable(" aggressive "));
+        assertEquals(ResourceBlockingProfile.OFF, ResourceBlockingProfile.fromNullable("off"));
+        assertEquals(ResourceBlockingProfile.STANDARD, ResourceBlockingProfile.fromNullable(null));
+        assertEquals(ResourceBlockingProfile.STANDARD, ResourceBlockingProfile.fromNullable("everything"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dubbi.statetrail.graph.service.CoverageEngine.Plan;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CoverageEngineTest {
+
+    @Test
+    void eulerianCycleIsOneWalkOverEveryEdge() {
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 0}, new int[] {0, 3}, new int[] {3, 0});
+        Plan plan = new CoverageEngine(graph).plan(0, 4);
+
+        assertValid(graph, 0, plan, "cycle");
+        assertTrue(plan.exact());
+        assertEquals(1, plan.walks().size());
+        assertEquals(5, plan.totalSteps());
+        assertEquals(100.0, plan.coveragePercent(), 1e-9);
+    }
+
+    @Test
+    void deadEndsEachEndAWalkAndSharedPrefixIsRetraversed() {
+        // 0 → 1 → 2 → 3 → 0 순환 + 막다른 노드 4(0에서), 5(1에서)
+        RunGraph graph = TestGraphs.of(6, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3}, new int[] {3, 0},
+                new int[] {0, 4}, new int[] {1, 5});
+        Plan plan = new CoverageEngine(graph).plan(0, 4);
+
+        assertValid(graph, 0, plan, "dead ends");
+        assertEquals(2, plan.walks().size());
+        // 0 → 1을 두 번 지나야 함
+        assertEquals(7, plan.totalSteps());
+    }
+
+    @Test
+    void unreachableEdgesAreLeftOut() {
+        // 3 → 0 엣지는 0에서 3으로 갈 수 없으므로 커버할 수 없음
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 1}, new int[] {1, 2}, new int[] {3, 0});
+        Plan plan = new CoverageEngine(graph).plan(0, 4);
+
+        assertValid(graph, 0, plan, "unreachable");
+        assertEquals(2, plan.coveredEdges());
+        assertEquals(3, plan.totalEdges());
+        assertEquals(200.0 / 3, plan.coveragePercent(), 1e-9);
+
+        Plan empty = new CoverageEngine(graph).plan(2, 4);
+        assertTrue(empty.walks().isEmpty());
+        assertEquals(0, empty.coveredEdges());
+    }
+
+    @Test
+    void exactPlanNeverCostsMoreThanGreedy() {
+        Random random = new Random(11);
+        for (int round = 0; round < 300; round++) {
+            int n = 2 + random.nextInt(10);
+            RunGraph graph = TestGraphs.random(random, n, random.nextInt(4 * n));
+            int start = random.nextInt(n);
+            int resetCost = 1 + random.nextInt(8);
+            CoverageEngine engine = new CoverageEngine(graph);
+
+            Plan exact = engine.plan(start, resetCost);
+            Plan greedy = engine.plan(start, resetCost, 0);
+            String label = "round=" + round;
+            assertTrue(exact.exact(), label);
+            assertValid(graph, start, exact, label + " exact");
+            assertValid(graph, start, greedy, label + " greedy");
+            assertTrue(cost(exact, resetCost) <= cost(greedy, resetCost),
+                    label + " exact " + cost(exact, resetCost) + " > greedy " + cost(greedy, resetCost));
+        }
+    }
+
+    @Test
+    void higherResetCostNeverAddsWalks() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(10);
+            RunGraph graph = TestGraphs.random(random, n, random.nextInt(4 * n));
+            int start = random.nextInt(n);
+            CoverageEngine engine = new CoverageEngine(graph);
+
+            Plan cheap = engine.plan(start, 1);
+            Plan costly = engine.plan(start, 20);
+            String label = "round=" + round;
+            assertTrue(costly.walks().size() <= cheap.walks().size(), label);
+            assertTrue(costly.totalSteps() >= cheap.totalSteps(), label);
+        }
+    }
+
+    @Test
+    void greedyFallbackAboveTheWorkLimit() {
+        RunGraph graph = TestGraphs.of(6, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3}, new int[] {3, 0},
+                new int[] {0, 4}, new int[] {1, 5});
+        Plan plan = new CoverageEngine(graph).plan(0, 4, 0);
+
+        assertFalse(plan.exact());
+        assertValid(graph, 0, plan, "greedy");
+    }
+
+    private static long cost(Plan plan, int resetCost) {
+        return plan.totalSteps() + (long) resetCost * plan.walks().size();
+    }
+
+    /**
+     * 모든 walk가 start에서 시작해 엣지를 이어 가고, start에서 도달 가능한 엣지를 모두 지나는지
+     */
+    private static void assertValid(RunGraph graph, int start, Plan plan, String label) {
+        boolean[] reachable = new boolean[graph.nodeCount()];
+        PathEngine.ShortestPaths paths = new PathEngine(graph).fromSources(start);
+        for (int v = 0; v < reachable.length; v++) reachable[v] = paths.reachable(v);
+        boolean[] covered = new boolean[graph.edgeCount()];
+        long steps = 0;
+        for (int[] walk : plan.walks()) {
+            assertTrue(walk.length > 0, label + " empty walk");
+            int at = start;
+            for (int e : walk) {
+                assertEquals(at, graph.source(e), label + " broken walk " + Arrays.toString(walk));
+                covered[e] = true;
+                at = graph.target(e);
+            }
+            steps += walk.length;
+        }
+        int reachableEdges = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            boolean shouldCover = reachable[graph.source(e)];
+            if (shouldCover) reachableEdges++;
+            assertEquals(shouldCover, covered[e], label + " edge " + e);
+        }
+        assertEquals(reachableEdges, plan.coveredEdges(), label);
+        assertEquals(graph.edgeCount(), plan.totalEdges(), label);
+        assertEquals(steps, plan.totalSteps(), label);
+    }
+}
@@ -0,0 +1,154 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GraphCentralityTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void cycleHasUniformPageRankAndBetweenness() {
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3}, new int[] {3, 0});
+        GraphCentrality.Scores scores = GraphCentrality.compute(graph, pool, 0);
+
+        for (int v = 0; v < 4; v++) {
+            assertEquals(0.25, scores.pageRank()[v], 1e-9);
+            // 각 노드는 6개 (s, t) 쌍 중 3개의 최단경로 위에 있음: 3 / ((n-1)(n-2))
+            assertEquals(0.5, scores.betweenness()[v], 1e-9);
+        }
+        assertArrayEquals(new int[] {1, 1, 1, 1}, scores.inDegree());
+    }
+
+    @Test
+    void pathGraphBetweenness() {
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3});
+        double[] betweenness = GraphCentrality.betweenness(graph, pool, 0);
+
+        assertArrayEquals(new double[] {0, 2.0 / 6, 2.0 / 6, 0}, betweenness, 1e-12);
+    }
+
+    @Test
+    void pageRankMatchesDenseReference() {
+        Random random = new Random(5);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(30);
+            RunGraph graph = TestGraphs.random(random, Math.max(2, n), random.nextInt(4 * n));
+            double[] rank = GraphCentrality.pageRank(graph, pool);
+
+            assertArrayEquals(referencePageRank(graph), rank, 1e-7);
+            assertEquals(1.0, Arrays.stream(rank).sum(), 1e-9);
+        }
+    }
+
+    @Test
+    void betweennessMatchesBruteForce() {
+        Random random = new Random(9);
+        for (int round = 0; round < 100; round++) {
+            int n = 2 + random.nextInt(9);
+            RunGraph graph = TestGraphs.random(random, n, random.nextInt(3 * n));
+
+            assertArrayEquals(referenceBetweenness(graph), GraphCentrality.betweenness(graph, pool, 0), 1e-9);
+            // source 수 이상으로 샘플링하면 정확한 값과 같음
+            assertArrayEquals(referenceBetweenness(graph), GraphCentrality.betweenness(graph, pool, n), 1e-9);
+        }
+    }
+
+    @Test
+    void parallelismDoesNotChangeScores() {
+        // NODE_CHUNK(4096)보다 커서 PageRank 구간이 나뉘는 크기
+        RunGraph graph = TestGraphs.random(new Random(1), 10_000, 40_000);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            assertArrayEquals(GraphCentrality.pageRank(graph, single), GraphCentrality.pageRank(graph, pool), 1e-15);
+            assertArrayEquals(GraphCentrality.betweenness(graph, single, 200), GraphCentrality.betweenness(graph, pool, 200), 1e-12);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void importanceRanksTheHubFirst() {
+        // 1, 2, 3이 모두 0을 가리키고 0만 4로 이어짐
+        RunGraph graph = TestGraphs.of(5, new int[] {1, 0}, new int[] {2, 0}, new int[] {3, 0}, new int[] {0, 4});
+        double[] importance = GraphCentrality.compute(graph, pool, 0).importance();
+
+        for (int v = 1; v < 5; v++) {
+            assertTrue(importance[0] > importance[v], "node " + v);
+        }
+    }
+
+    /**
+     * 인접 행렬 power iteration (dangling rank는 모든 노드에 균등 분배)
+     */
+    private static double[] referencePageRank(RunGraph graph) {
+        int n = graph.nodeCount();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < 1_000; iteration++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int v = 0; v < n; v++) {
+                if (graph.outDegree(v) == 0) dangling += rank[v];
+            }
+            for (int v = 0; v < n; v++) next[v] = 0.15 / n + 0.85 * dangling / n;
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                int u = graph.source(e);
+                next[graph.target(e)] += 0.85 * rank[u] / graph.outDegree(u);
+            }
+            rank = next;
+        }
+        return rank;
+    }
+
+    /**
+     * 모든 (s, t) 쌍의 최단경로 수를 세어 v를 지나는 비율을 더함 (경로 수는 엣지 단위)
+     */
+    private static double[] referenceBetweenness(RunGraph graph) {
+        int n = graph.nodeCount();
+        int[][] distance = new int[n][];
+        double[][] paths = new double[n][];
+        for (int s = 0; s < n; s++) {
+            distance[s] = new int[n];
+            paths[s] = new double[n];
+            Arrays.fill(distance[s], -1);
+            distance[s][s] = 0;
+            paths[s][s] = 1;
+            for (int d = 0; d < n; d++) {
+                for (int e = 0; e < graph.edgeCount(); e++) {
+                    int u = graph.source(e);
+                    int w = graph.target(e);
+                    if (distance[s][u] != d) continue;
+                    if (distance[s][w] < 0) distance[s][w] = d + 1;
+                    if (distance[s][w] == d + 1) paths[s][w] += paths[s][u];
+                }
+            }
+        }
+        double[] score = new double[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                if (s == t || distance[s][t] < 0) continue;
+                for (int v = 0; v < n; v++) {
+                    if (v == s || v == t || distance[s][v] < 0 || distance[v][t] < 0) continue;
+                    if (distance[s][v] + distance[v][t] == distance[s][t]) {
+                        score[v] += paths[s][v] * paths[v][t] / paths[s][t];
+                    }
+                }
+            }
+        }
+        double norm = n > 2 ? (double) (n - 1) * (n - 2) : 1;
+        for (int v = 0; v < n; v++) score[v] /= norm;
+        return score;
+    }
+}
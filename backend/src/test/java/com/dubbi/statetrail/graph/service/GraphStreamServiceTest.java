@@ -0,0 +1,143 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dubbi.statetrail.graph.service.GraphStreamService.Cursor;
+import com.dubbi.statetrail.graph.service.GraphStreamService.Page;
+import com.dubbi.statetrail.graph.service.GraphStreamService.Phase;
+import com.dubbi.statetrail.graph.service.GraphStreamService.Scope;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class GraphStreamServiceTest {
+
+    @Test
+    void cursorRoundTrip() {
+        Cursor cursor = new Cursor('n', Instant.parse("2025-01-02T03:04:05.123456Z"), UUID.randomUUID());
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void startCursorRoundTrip() {
+        Cursor decoded = Cursor.decode(Cursor.startOf('e').encode());
+        assertEquals('e', decoded.kind());
+        assertTrue(decoded.isStart());
+    }
+
+    @Test
+    void blankCursorMeansFromTheBeginning() {
+        assertNull(Cursor.decode(null));
+        assertNull(Cursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String raw : List.of("x|2025-01-01T00:00:00Z|" + UUID.randomUUID(), "n|not-a-time|" + UUID.randomUUID(),
+                "n|2025-01-01T00:00:00Z", "n||", "ne")) {
+            String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThrows(IllegalArgumentException.class, () -> Cursor.decode(encoded), raw);
+            assertFalse(GraphStreamService.isValidCursor(encoded));
+        }
+        assertFalse(GraphStreamService.isValidCursor("%%%"));
+    }
+
+    @Test
+    void pagingVisitsEveryRowOnceForAnyLimit() {
+        for (int nodes = 0; nodes <= 6; nodes++) {
+            for (int edges = 0; edges <= 6; edges++) {
+                for (int limit = 1; limit <= 8; limit++) {
+                    FakeTable nodeTable = new FakeTable('n', nodes);
+                    FakeTable edgeTable = new FakeTable('e', edges);
+                    Cursor cursor = null;
+                    int requests = 0;
+                    do {
+                        // 각 요청은 이전 응답의 cursor를 문자열로 주고받음
+                        Cursor start = cursor == null ? null : Cursor.decode(cursor.encode());
+                        cursor = GraphStreamService.streamPhases(Scope.ALL, start, limit, nodeTable, edgeTable);
+                        assertTrue(++requests <= nodes + edges + 2, "paging does not terminate");
+                    } while (cursor != null);
+
+                    String label = "nodes=" + nodes + " edges=" + edges + " limit=" + limit;
+                    assertEquals(nodeTable.expected(), nodeTable.seen, label);
+                    assertEquals(edgeTable.expected(), edgeTable.seen, label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nodesExactlyFillingTheLimitLeaveAnEdgeCursor() {
+        FakeTable nodeTable = new FakeTable('n', 3);
+        FakeTable edgeTable = new FakeTable('e', 2);
+
+        Cursor next = GraphStreamService.streamPhases(Scope.ALL, null, 3, nodeTable, edgeTable);
+
+        assertEquals('e', next.kind());
+        assertTrue(next.isStart());
+        assertEquals(0, edgeTable.calls);
+    }
+
+    @Test
+    void scopeLimitsThePhases() {
+        FakeTable nodeTable = new FakeTable('n', 2);
+        FakeTable edgeTable = new FakeTable('e', 2);
+        assertNull(GraphStreamService.streamPhases(Scope.NODES, null, 0, nodeTable, edgeTable));
+        assertEquals(0, edgeTable.calls);
+
+        nodeTable = new FakeTable('n', 2);
+        edgeTable = new FakeTable('e', 2);
+        assertNull(GraphStreamService.streamPhases(Scope.EDGES, null, 0, nodeTable, edgeTable));
+        assertEquals(0, nodeTable.calls);
+        assertEquals(edgeTable.expected(), edgeTable.seen);
+    }
+
+    /**
+     * (시각, id) 순으로 정렬된 테이블을 흉내 내는 단계 (GraphStreamService.stream과 같은 반환 규칙)
+     */
+    private static final class FakeTable implements Phase {
+        private final char kind;
+        private final List<Cursor> rows = new ArrayList<>();
+        final List<UUID> seen = new ArrayList<>();
+        int calls;
+
+        FakeTable(char kind, int size) {
+            this.kind = kind;
+            for (int i = 0; i < size; i++) {
+                rows.add(new Cursor(kind, Instant.ofEpochSecond(1_700_000_000L + i), new UUID(kind, i)));
+            }
+        }
+
+        List<UUID> expected() {
+            return rows.stream().map(Cursor::id).toList();
+        }
+
+        @Override
+        public Page stream(Cursor after, int limit) {
+            calls++;
+            assertTrue(after == null || (after.kind() == kind && !after.isStart()));
+            int from = 0;
+            if (after != null) {
+                while (from < rows.size() && !rows.get(from).equals(after)) from++;
+                from++;
+            }
+            int written = 0;
+            Cursor last = null;
+            for (int i = from; i < rows.size(); i++) {
+                if (written >= limit) return new Page(written, last);
+                seen.add(rows.get(i).id());
+                last = rows.get(i);
+                written++;
+            }
+            return new Page(written, null);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dubbi.statetrail.graph.service.PathEngine.ShortestPaths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PathEngineTest {
+
+    @Test
+    void shortestPathTakesFewestEdges() {
+        // 0 → 1 → 2 → 3 와 지름길 0 → 4 → 3
+        RunGraph graph = TestGraphs.of(5, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3}, new int[] {0, 4}, new int[] {4, 3});
+        PathEngine engine = new PathEngine(graph);
+
+        assertArrayEquals(new int[] {3, 4}, engine.shortestPath(0, 3));
+        assertArrayEquals(new int[] {}, engine.shortestPath(2, 2));
+        assertNull(engine.shortestPath(3, 0));
+    }
+
+    @Test
+    void kShortestPathsListsAlternativesInLengthOrder() {
+        RunGraph graph = TestGraphs.of(5, new int[] {0, 1}, new int[] {1, 2}, new int[] {2, 3}, new int[] {0, 4}, new int[] {4, 3},
+                new int[] {1, 4});
+        List<int[]> paths = new PathEngine(graph).kShortestPaths(0, 3, 10);
+
+        assertEquals(3, paths.size());
+        assertArrayEquals(new int[] {3, 4}, paths.get(0));
+        assertEquals(3, paths.get(1).length);
+        assertEquals(3, paths.get(2).length);
+        assertEquals(Set.of(List.of(0, 1, 2), List.of(0, 5, 4)), Set.of(boxed(paths.get(1)), boxed(paths.get(2))));
+    }
+
+    @Test
+    void kShortestPathsMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            int n = 3 + random.nextInt(6);
+            RunGraph graph = TestGraphs.random(random, n, random.nextInt(3 * n));
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            if (source == target) continue;
+            int k = 1 + random.nextInt(8);
+
+            List<int[]> paths = new PathEngine(graph).kShortestPaths(source, target, k);
+            List<Integer> expectedLengths = new ArrayList<>();
+            for (int[] path : allSimplePaths(graph, source, target)) expectedLengths.add(path.length);
+            expectedLengths.sort(null);
+
+            String label = "round=" + round;
+            assertEquals(expectedLengths.subList(0, Math.min(k, expectedLengths.size())),
+                    paths.stream().map(p -> p.length).toList(), label);
+            Set<List<Integer>> distinct = new HashSet<>();
+            for (int[] path : paths) {
+                assertSimplePath(graph, source, target, path, label);
+                assertTrue(distinct.add(boxed(path)), label + " duplicate path");
+            }
+        }
+    }
+
+    @Test
+    void multiSourceBfsUsesTheNearestSource() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(12);
+            RunGraph graph = TestGraphs.random(random, n, random.nextInt(3 * n));
+            int[] sources = random.ints(1 + random.nextInt(3), 0, n).toArray();
+            PathEngine engine = new PathEngine(graph);
+            ShortestPaths paths = engine.fromSources(sources);
+
+            for (int v = 0; v < n; v++) {
+                // 가장 가까운 source, 거리가 같으면 먼저 준 source
+                int best = -1;
+                int bestRoot = -1;
+                for (int s : sources) {
+                    int[] path = engine.shortestPath(s, v);
+                    if (path != null && (best < 0 || path.length < best)) {
+                        best = path.length;
+                        bestRoot = s;
+                    }
+                }
+                String label = "round=" + round + " v=" + v;
+                assertEquals(best, paths.distance(v), label);
+                assertEquals(best >= 0, paths.reachable(v), label);
+                assertEquals(bestRoot, paths.root(v), label);
+                if (best < 0) {
+                    assertNull(paths.pathTo(v), label);
+                } else {
+                    int[] path = paths.pathTo(v);
+                    assertEquals(best, path.length, label);
+                    assertWalk(graph, bestRoot, v, path, label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void repeatedQueriesDoNotLeakBans() {
+        // Yen이 남긴 금지 표시가 다음 조회에 영향을 주지 않아야 함
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 1}, new int[] {1, 3}, new int[] {0, 2}, new int[] {2, 3});
+        PathEngine engine = new PathEngine(graph);
+        assertEquals(2, engine.kShortestPaths(0, 3, 5).size());
+        assertArrayEquals(new int[] {0, 1}, engine.shortestPath(0, 3));
+        assertArrayEquals(new int[] {1}, engine.shortestPath(1, 3));
+        assertFalse(engine.kShortestPaths(0, 3, 0).iterator().hasNext());
+    }
+
+    private static List<int[]> allSimplePaths(RunGraph graph, int source, int target) {
+        List<int[]> out = new ArrayList<>();
+        collect(graph, source, target, new boolean[graph.nodeCount()], new ArrayList<>(), out);
+        return out;
+    }
+
+    private static void collect(RunGraph graph, int at, int target, boolean[] onPath, List<Integer> edges, List<int[]> out) {
+        if (at == target) {
+            out.add(edges.stream().mapToInt(Integer::intValue).toArray());
+            return;
+        }
+        onPath[at] = true;
+        for (int i = graph.outStart(at); i < graph.outEnd(at); i++) {
+            int e = graph.outEdge(i);
+            int next = graph.target(e);
+            if (onPath[next]) continue;
+            edges.add(e);
+            collect(graph, next, target, onPath, edges, out);
+            edges.remove(edges.size() - 1);
+        }
+        onPath[at] = false;
+    }
+
+    private static void assertSimplePath(RunGraph graph, int source, int target, int[] path, String label) {
+        assertWalk(graph, source, target, path, label);
+        Set<Integer> visited = new HashSet<>();
+        visited.add(source);
+        for (int e : path) assertTrue(visited.add(graph.target(e)), label + " revisits a node: " + Arrays.toString(path));
+    }
+
+    private static void assertWalk(RunGraph graph, int source, int target, int[] path, String label) {
+        int at = source;
+        for (int e : path) {
+            assertEquals(at, graph.source(e), label + " broken path " + Arrays.toString(path));
+            at = graph.target(e);
+        }
+        assertEquals(target, at, label);
+    }
+
+    private static List<Integer> boxed(int[] path) {
+        return Arrays.stream(path).boxed().toList();
+    }
+}
@@ -0,0 +1,182 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import com.dubbi.statetrail.crawl.domain.CrawlLinkRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlPageRepository;
+import com.dubbi.statetrail.crawl.domain.CrawlRunEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class RunGraphCacheTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // run id → 노드 수 (엣지는 0 → 1 하나)
+    private final Map<UUID, Integer> sizes = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile CountDownLatch loadGate;
+    private volatile RuntimeException loadFailure;
+
+    @Test
+    void succeededRunIsLoadedOnceThenServedFromTheCache() {
+        RunGraphCache cache = cache(4, 1_000);
+        CrawlRunEntity run = succeededRun(3);
+
+        RunGraph first = cache.get(run);
+        assertSame(first, cache.get(run));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("graph.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.get("graph.cache").tag("result", "hit").counter().count());
+        assertEquals(4.0, registry.get("graph.cache.elements").gauge().value());
+    }
+
+    @Test
+    void unfinishedRunIsLoadedEveryTime() {
+        RunGraphCache cache = cache(4, 1_000);
+        CrawlRunEntity run = run(3);
+
+        assertNotSame(cache.get(run), cache.get(run));
+        assertEquals(2, loads.get());
+        assertEquals(0.0, registry.get("graph.cache.elements").gauge().value());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedRunBeyondMaxRuns() {
+        RunGraphCache cache = cache(2, 1_000);
+        CrawlRunEntity a = succeededRun(2);
+        CrawlRunEntity b = succeededRun(2);
+        CrawlRunEntity c = succeededRun(2);
+
+        RunGraph graphA = cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+        assertEquals(3, loads.get());
+
+        assertSame(graphA, cache.get(a));
+        cache.get(b);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictsByElementBudgetAndSkipsGraphsLargerThanTheBudget() {
+        RunGraphCache cache = cache(10, 10);
+        CrawlRunEntity small = succeededRun(3);
+        CrawlRunEntity medium = succeededRun(5);
+        CrawlRunEntity huge = succeededRun(20);
+
+        cache.get(small);
+        cache.get(medium);
+        // 노드 + 엣지: small 4, medium 6
+        assertEquals(10.0, registry.get("graph.cache.elements").gauge().value());
+
+        cache.get(huge);
+        cache.get(huge);
+        assertEquals(4, loads.get());
+        assertEquals(10.0, registry.get("graph.cache.elements").gauge().value());
+
+        cache.evict(small.getId());
+        assertEquals(6.0, registry.get("graph.cache.elements").gauge().value());
+        cache.clear();
+        assertEquals(0.0, registry.get("graph.cache.elements").gauge().value());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        RunGraphCache cache = cache(4, 1_000);
+        CrawlRunEntity run = succeededRun(3);
+        loadGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RunGraph>> results = List.of(
+                    pool.submit(() -> cache.get(run)), pool.submit(() -> cache.get(run)),
+                    pool.submit(() -> cache.get(run)), pool.submit(() -> cache.get(run)));
+            // 첫 로딩이 시작된 뒤 나머지가 기다리도록 잠시 둠
+            Thread.sleep(200);
+            loadGate.countDown();
+            RunGraph graph = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RunGraph> result : results) assertSame(graph, result.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        RunGraphCache cache = cache(4, 1_000);
+        CrawlRunEntity run = succeededRun(3);
+        loadFailure = new IllegalStateException("db down");
+
+        assertThrows(IllegalStateException.class, () -> cache.get(run));
+        loadFailure = null;
+        cache.get(run);
+        assertEquals(2, loads.get());
+    }
+
+    private RunGraphCache cache(int maxRuns, long maxElements) {
+        return new RunGraphCache(pageRepository(), linkRepository(), maxRuns, maxElements, registry);
+    }
+
+    private CrawlRunEntity run(int nodes) {
+        CrawlRunEntity run = new CrawlRunEntity(UUID.randomUUID(), null, null, "https://example.test/", Map.of());
+        sizes.put(run.getId(), nodes);
+        return run;
+    }
+
+    private CrawlRunEntity succeededRun(int nodes) {
+        CrawlRunEntity run = run(nodes);
+        run.markRunning();
+        run.markSucceeded(Map.of());
+        return run;
+    }
+
+    private CrawlPageRepository pageRepository() {
+        return repository(CrawlPageRepository.class, "findNodeViewsByRunId", runId -> {
+            loads.incrementAndGet();
+            CountDownLatch gate = loadGate;
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (loadFailure != null) throw loadFailure;
+            return TestGraphs.pages(sizes.get(runId));
+        });
+    }
+
+    private CrawlLinkRepository linkRepository() {
+        return repository(CrawlLinkRepository.class, "findEdgeViewsByRunId", runId -> {
+            List<PageNodeView> pages = TestGraphs.pages(sizes.get(runId));
+            return TestGraphs.links(pages, new int[] {0, 1});
+        });
+    }
+
+    /**
+     * 그래프 조회 메서드 하나만 구현한 repository (나머지는 호출되면 실패)
+     */
+    private static <T> T repository(Class<T> type, String method, Function<UUID, List<?>> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) return answer.apply((UUID) args[0]);
+            if (m.getName().equals("toString")) return type.getSimpleName();
+            throw new UnsupportedOperationException(m.getName());
+        }));
+    }
+}
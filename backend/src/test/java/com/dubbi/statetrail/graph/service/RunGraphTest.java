@@ -0,0 +1,85 @@
+package com.dubbi.statetrail.graph.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.LinkEdgeView;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import com.dubbi.statetrail.crawl.web.ActionType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class RunGraphTest {
+
+    @Test
+    void adjacencyKeepsEdgeOrderPerNode() {
+        RunGraph graph = TestGraphs.of(4, new int[] {0, 2}, new int[] {1, 2}, new int[] {0, 1}, new int[] {0, 2}, new int[] {3, 0});
+
+        assertEquals(List.of(0, 2, 3), outEdges(graph, 0));
+        assertEquals(List.of(0, 1, 3), inEdges(graph, 2));
+        assertEquals(3, graph.outDegree(0));
+        assertEquals(0, graph.outDegree(2));
+        assertEquals(1, graph.inDegree(0));
+        assertEquals(9, graph.weight());
+    }
+
+    @Test
+    void linksToUnknownPagesAreDropped() {
+        List<PageNodeView> pages = TestGraphs.pages(2);
+        List<LinkEdgeView> links = new ArrayList<>(TestGraphs.links(pages, new int[] {0, 1}));
+        links.add(new LinkEdgeView(UUID.randomUUID(), pages.get(0).id(), UUID.randomUUID(), ActionType.CLICK, null, null, Map.of()));
+        links.addAll(TestGraphs.links(pages, new int[] {1, 0}));
+        RunGraph graph = RunGraph.build(pages, links);
+
+        assertEquals(2, graph.edgeCount());
+        assertEquals(1, graph.source(1));
+        assertEquals(0, graph.target(1));
+    }
+
+    @Test
+    void looksUpNodesByIdAndUrl() {
+        RunGraph graph = TestGraphs.of(3);
+
+        assertEquals(2, graph.ordinalOf(new UUID(0, 2)));
+        assertEquals(-1, graph.ordinalOf(UUID.randomUUID()));
+        assertEquals(1, graph.findByUrl("https://example.test/p1"));
+        assertEquals(-1, graph.findByUrl("https://example.test/none"));
+        assertEquals(-1, graph.findByUrl(null));
+    }
+
+    @Test
+    void outAndInAdjacencyDescribeTheSameEdges() {
+        RunGraph graph = TestGraphs.random(new Random(13), 50, 400);
+        int[] outSeen = new int[graph.edgeCount()];
+        int[] inSeen = new int[graph.edgeCount()];
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int e : outEdges(graph, v)) {
+                assertEquals(v, graph.source(e));
+                outSeen[e]++;
+            }
+            for (int e : inEdges(graph, v)) {
+                assertEquals(v, graph.target(e));
+                inSeen[e]++;
+            }
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            assertEquals(1, outSeen[e]);
+            assertEquals(1, inSeen[e]);
+        }
+    }
+
+    private static List<Integer> outEdges(RunGraph graph, int v) {
+        List<Integer> edges = new ArrayList<>();
+        for (int i = graph.outStart(v); i < graph.outEnd(v); i++) edges.add(graph.outEdge(i));
+        return edges;
+    }
+
+    private static List<Integer> inEdges(RunGraph graph, int v) {
+        List<Integer> edges = new ArrayList<>();
+        for (int i = graph.inStart(v); i < graph.inEnd(v); i++) edges.add(graph.inEdge(i));
+        return edges;
+    }
+}
@@ -0,0 +1,57 @@
+package com.dubbi.statetrail.graph.service;
+
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.LinkEdgeView;
+import com.dubbi.statetrail.crawl.domain.CrawlGraphViews.PageNodeView;
+import com.dubbi.statetrail.crawl.web.ActionType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 그래프 알고리즘 테스트용 RunGraph 생성 (노드 ordinal = 목록 순서, 엣지 ordinal = edges 순서)
+ */
+final class TestGraphs {
+    private TestGraphs() {}
+
+    /**
+     * @param edges {from, to} 쌍
+     */
+    static RunGraph of(int nodes, int[]... edges) {
+        List<PageNodeView> pages = pages(nodes);
+        return RunGraph.build(pages, links(pages, edges));
+    }
+
+    static List<PageNodeView> pages(int nodes) {
+        List<PageNodeView> pages = new ArrayList<>(nodes);
+        for (int v = 0; v < nodes; v++) {
+            pages.add(new PageNodeView(new UUID(0, v), "k" + v, "https://example.test/p" + v, "/p" + v, "p" + v,
+                    200, "text/html", 0, null, null, Map.of(), Map.of(), null, null, null));
+        }
+        return pages;
+    }
+
+    static List<LinkEdgeView> links(List<PageNodeView> pages, int[]... edges) {
+        List<LinkEdgeView> links = new ArrayList<>(edges.length);
+        for (int e = 0; e < edges.length; e++) {
+            links.add(new LinkEdgeView(new UUID(1, e), pages.get(edges[e][0]).id(), pages.get(edges[e][1]).id(),
+                    ActionType.CLICK, null, null, Map.of()));
+        }
+        return links;
+    }
+
+    /**
+     * 무작위 방향 그래프 (self-loop 없음, 평행 엣지 허용)
+     */
+    static RunGraph random(Random random, int nodes, int edges) {
+        int[][] pairs = new int[edges][];
+        for (int e = 0; e < edges; e++) {
+            int from = random.nextInt(nodes);
+            int to = random.nextInt(nodes - 1);
+            if (to >= from) to++;
+            pairs[e] = new int[] {from, to};
+        }
+        return of(nodes, pairs);
+    }
+}
@@ -5,10 +5,37 @@ import { useQuery, useQueryClient } from "@tanstack/react-query";
 import Link from "next/link";
 import { useState, useEffect, useRef } from "react";
 import { api } from "@/lib/api";
-import type { GraphDTO } from "@/lib/contracts";
+import type { GraphDTO, GraphEdgeDTO, GraphNodeDTO } from "@/lib/contracts";
 import { GraphCanvas } from "@/components/graph/GraphCanvas";
 import { InspectorPanel } from "@/components/graph/InspectorPanel";
 
+type NodeCreatedEvent = { id: string; url: string; urlPattern?: string; depth: number; nodeKey?: string };
+type EdgeCreatedEvent = { id: string; from: string; to: string; actionType: string };
+
+function toNode(event: NodeCreatedEvent): GraphNodeDTO {
+  return {
+    id: event.id,
+    nodeKey: event.nodeKey,
+    url: event.url,
+    urlPattern: event.urlPattern ?? event.url,
+    depth: event.depth
+  };
+}
+
+function toEdge(event: EdgeCreatedEvent): GraphEdgeDTO {
+  return { id: event.id, from: event.from, to: event.to, actionType: event.actionType };
+}
+
+// 재접속 후 재전송된 이벤트와 겹칠 수 있으므로 이미 있는 id는 건너뜀
+function applyDeltas(graph: GraphDTO, nodes: GraphNodeDTO[], edges: GraphEdgeDTO[]): GraphDTO {
+  const nodeIds = new Set(graph.nodes.map((n) => n.id));
+  const edgeIds = new Set(graph.edges.map((e) => e.id));
+  const newNodes = nodes.filter((n) => !nodeIds.has(n.id) && nodeIds.add(n.id));
+  const newEdges = edges.filter((e) => !edgeIds.has(e.id) && edgeIds.add(e.id));
+  if (newNodes.length === 0 && newEdges.length === 0) return graph;
+  return { nodes: [...graph.nodes, ...newNodes], edges: [...graph.edges, ...newEdges] };
+}
+
 export default function RunGraphPage() {
   const params = useParams<{ runId: string }>();
   const runId = params.runId;
@@ -24,21 +51,46 @@ export default function RunGraphPage() {
   });
 
   // SSE 이벤트 구독
+  // 노드/엣지 생성 이벤트는 캐시된 그래프에 바로 덧붙이고 (한 번에 온 이벤트는 모아서 한 번만 갱신),
+  // 이벤트가 유실된 RESYNC와 크롤 종료 시에만 전체 그래프를 다시 조회한다.
   useEffect(() => {
+    let pendingNodes: GraphNodeDTO[] = [];
+    let pendingEdges: GraphEdgeDTO[] = [];
+    let flushTimer: ReturnType<typeof setTimeout> | null = null;
+
+    const flush = () => {
+      flushTimer = null;
+      const nodes = pendingNodes;
+      const edges = pendingEdges;
+      pendingNodes = [];
+      pendingEdges = [];
+      queryClient.setQueryData<GraphDTO>(["graph", runId], (graph) => (graph ? applyDeltas(graph, nodes, edges) : graph));
+    };
+    const scheduleFlush = () => {
+      if (flushTimer === null) flushTimer = setTimeout(flush, 0);
+    };
+
     const cleanup = api.graph.subscribeEvents(runId, (event) => {
-      if (event.type === "NODE_CREATED" || event.type === "EDGE_CREATED") {
-        // 그래프 데이터 무효화하여 재조회
+      if (event.type === "NODE_CREATED") {
+        pendingNodes.push(toNode(event.data as NodeCreatedEvent));
+        scheduleFlush();
+      } else if (event.type === "EDGE_CREATED") {
+        pendingEdges.push(toEdge(event.data as EdgeCreatedEvent));
+        scheduleFlush();
+      } else if (event.type === "RESYNC") {
+        // 놓친 이벤트가 있으므로 전체 재조회
         queryClient.invalidateQueries({ queryKey: ["graph", runId] });
       } else if (event.type === "STATUS") {
         const status = (event.data as { status?: string })?.status;
         if (status === "SUCCEEDED" || status === "FAILED") {
-          // 크롤 완료 시 최종 그래프 데이터 재조회
+          // 크롤 완료 시 최종 그래프 데이터 재조회 (제목, 스크린샷 등 이벤트에 없는 필드 포함)
           queryClient.invalidateQueries({ queryKey: ["graph", runId] });
         }
       }
     });
     eventSourceCleanupRef.current = cleanup;
     return () => {
+      if (flushTimer !== null) clearTimeout(flushTimer);
       if (eventSourceCleanupRef.current) {
         eventSourceCleanupRef.current();
       }
@@ -1,5 +1,6 @@
 "use client";
 
+import { useEffect, useState } from "react";
 import { useQuery } from "@tanstack/react-query";
 import { api } from "@/lib/api";
 
@@ -20,6 +21,15 @@ export function InspectorPanel({
     enabled: !!selectedNodeId
   });
 
+  // 전체 HTML은 요청할 때만 조회
+  const [showFullHtml, setShowFullHtml] = useState(false);
+  useEffect(() => setShowFullHtml(false), [selectedNodeId]);
+  const htmlQuery = useQuery({
+    queryKey: ["graph-node-html", runId, selectedNodeId],
+    queryFn: () => api.graph.getNodeHtml(runId, selectedNodeId!),
+    enabled: !!selectedNodeId && showFullHtml
+  });
+
   const edgeQuery = useQuery({
     queryKey: ["graph-edge", runId, selectedEdgeId],
     queryFn: () => api.graph.getEdge(runId, selectedEdgeId!),
@@ -120,12 +130,24 @@ export function InspectorPanel({
 
               <div className="rounded-lg border border-slate-200 p-3">
                 <div className="flex items-center justify-between">
-                  <div className="text-xs font-medium text-slate-700">HTML Snapshot (snippet)</div>
-                  <div className="text-xs text-slate-500">{nodeQuery.data.htmlSize ?? 0} chars</div>
+                  <div className="text-xs font-medium text-slate-700">
+                    HTML Snapshot ({showFullHtml ? "full" : "snippet"})
+                  </div>
+                  <div className="flex items-center gap-2 text-xs text-slate-500">
+                    <span>{nodeQuery.data.htmlSize ?? 0} chars</span>
+                    {!showFullHtml && (nodeQuery.data.htmlSize ?? 0) > (nodeQuery.data.htmlSnippet?.length ?? 0) && (
+                      <button
+                        className="rounded-md border border-slate-200 px-2 py-0.5 hover:bg-slate-50"
+                        onClick={() => setShowFullHtml(true)}
+                      >
+                        전체 보기
+                      </button>
+                    )}
+                  </div>
                 </div>
                 {nodeQuery.data.htmlSnippet ? (
                   <pre className="mt-2 max-h-[40vh] overflow-auto rounded bg-slate-950 p-2 text-[10px] text-slate-100">
-                    {nodeQuery.data.htmlSnippet}
+                    {showFullHtml && htmlQuery.data ? htmlQuery.data : nodeQuery.data.htmlSnippet}
                   </pre>
                 ) : (
                   <div className="mt-2 text-xs text-slate-600">HTML 스냅샷이 없습니다(비-HTML 응답일 수 있음).</div>
@@ -84,6 +84,12 @@ export const api = {
     get: (runId: string) => http<GraphDTO>(`/api/crawl-runs/${runId}/graph`),
     getNode: (runId: string, nodeId: string) => http<GraphNodeDetailDTO>(`/api/crawl-runs/${runId}/nodes/${nodeId}`),
     getEdge: (runId: string, edgeId: string) => http<GraphEdgeDetailDTO>(`/api/crawl-runs/${runId}/edges/${edgeId}`),
+    getNodeHtml: async (runId: string, nodeId: string) => {
+      const res = await fetch(`${API_BASE}/api/crawl-runs/${runId}/nodes/${nodeId}/html`, { cache: "no-store" });
+      if (res.status === 204) return null;
+      if (!res.ok) throw new Error(`HTTP ${res.status} ${res.statusText}`);
+      return await res.text();
+    },
     subscribeEvents: (runId: string, onEvent: (event: { type: string; data: unknown }) => void) => {
       const API_BASE = process.env.NEXT_PUBLIC_API_BASE ?? "http://localhost:8080";
       const eventSource = new EventSource(`${API_BASE}/api/crawl-runs/${runId}/events`);
@@ -127,12 +133,48 @@ export const api = {
           console.error("Failed to parse STATS event:", err);
         }
       });
+      // 서버가 묶어 보낸 노드/엣지 이벤트를 개별 이벤트로 풀어서 전달
+      eventSource.addEventListener("BATCH", (e) => {
+        try {
+          const batch = JSON.parse((e as MessageEvent).data) as {
+            events: { type: string; data: unknown }[];
+            dropped?: number;
+          };
+          batch.events.forEach((event) => onEvent(event));
+          if (batch.dropped) {
+            onEvent({ type: "RESYNC", data: { dropped: batch.dropped } });
+          }
+        } catch (err) {
+          console.error("Failed to parse BATCH event:", err);
+        }
+      });
+      eventSource.addEventListener("RESYNC", (e) => {
+        try {
+          const data = JSON.parse((e as MessageEvent).data);
+          onEvent({ type: "RESYNC", data });
+        } catch (err) {
+          console.error("Failed to parse RESYNC event:", err);
+        }
+      });
       return () => eventSource.close();
     }
   },
   flows: {
     listByRun: (runId: string) => http<ListResponse<FlowDTO>>(`/api/crawl-runs/${runId}/flows`),
-    generateAutoSmoke: (runId: string) => http<{ ok: true }>(`/api/crawl-runs/${runId}/flows/auto-smoke`, { method: "POST" }),
+    generateAutoSmoke: (runId: string, opts?: { mode?: "shortest" | "multi-source" | "k-shortest"; k?: number }) => {
+      const params = new URLSearchParams();
+      if (opts?.mode) params.set("mode", opts.mode);
+      if (opts?.k) params.set("k", String(opts.k));
+      const qs = params.toString();
+      return http<{ ok: true }>(`/api/crawl-runs/${runId}/flows/auto-smoke${qs ? `?${qs}` : ""}`, { method: "POST" });
+    },
+    generateAutoCoverage: (runId: string, opts?: { resetCost?: number }) => {
+      const qs = opts?.resetCost ? `?resetCost=${opts.resetCost}` : "";
+      return http<{ ok: true; count: number; coveredEdges: number; totalEdges: number; coverage: number; totalSteps: number; exact: boolean }>(
+        `/api/crawl-runs/${runId}/flows/auto-coverage${qs}`,
+        { method: "POST" }
+      );
+    },
     generateTest: (flowId: string) => http<{ code: string }>(`/api/flows/${flowId}/generate-test`, { method: "POST" })
   }
 };
@@ -5,6 +5,7 @@ export type ProjectDTO = {
   name: string;
   baseUrl: string;
   allowlistRules: Record<string, unknown>;
+  crawlSettings?: Record<string, unknown> | null;
 };
 
 export type AuthProfileType = "STORAGE_STATE" | "SCRIPT_LOGIN";